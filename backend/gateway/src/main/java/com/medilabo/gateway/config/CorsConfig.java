@@ -28,6 +28,7 @@ public class CorsConfig {
      * Allowed origin: http://localhost:3000
      * Allowed methods: GET, POST, PUT, DELETE, OPTIONS
      * Allowed headers: all headers
+     * Exposed headers: X-Next-Cursor, the cursor of the next page of notes
      * Credentials: allowed
      *
      * @return a CorsConfigurationSource object with the defined CORS rules
@@ -40,6 +41,7 @@ public class CorsConfig {
         config.setAllowedOrigins(List.of("http://localhost:3000"));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("*"));
+        config.setExposedHeaders(List.of("X-Next-Cursor"));
         config.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,33 @@
+package com.medilabo.gateway.config;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Configuration of the JWT parser used by {@link com.medilabo.gateway.security.CustomFilter}.
+ * <p>
+ * The gateway verifies the token of every proxied request, so the key and
+ * the parser are built once at startup and injected in the filter.
+ */
+@Configuration
+public class JwtConfig {
+
+    /**
+     * Provides the parser verifying token signatures with the shared secret key.
+     *
+     * @param secretKey the key the tokens are signed with
+     * @return an immutable, thread-safe {@link JwtParser}
+     */
+    @Bean
+    public JwtParser jwtParser(@Value("${app.secret-key}") String secretKey) {
+        return Jwts.parser()
+                   .verifyWith(Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8)))
+                   .build();
+    }
+}
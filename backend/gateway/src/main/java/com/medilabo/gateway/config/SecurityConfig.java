@@ -43,10 +43,12 @@ public class SecurityConfig {
                         .pathMatchers("/frontend/**").permitAll()
                         .pathMatchers("/.well-known/appspecific/com.chrome.devtools.json").permitAll()
                         .pathMatchers("/api/users/auth/login").permitAll()
+                        .pathMatchers("/api/*/internal/**").denyAll()
                         .pathMatchers("/api/users/**").hasAnyRole(USER, ADMIN)
                         .pathMatchers("/api/users/admin/**").hasRole(ADMIN)
                         .pathMatchers("/api/notes/**").hasRole(USER)
                         .pathMatchers("/api/evaluation/**").hasRole(USER)
+                        .pathMatchers("/actuator/**").hasRole(ADMIN)
                         .anyExchange().authenticated()
                 )
                 .exceptionHandling(ex -> ex
@@ -1,9 +1,8 @@
 package com.medilabo.gateway.security;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
+import io.jsonwebtoken.JwtParser;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
@@ -18,7 +17,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -27,14 +26,17 @@ import java.util.List;
  * Responsibilities:
  * - Intercepts API requests.
  * - Skips authentication for public routes (/frontend, devtools, login).
- * - Validates JWT and sets a reactive SecurityContext.
+ * - Validates JWT, once per token thanks to {@link TokenCache}, and sets a reactive SecurityContext.
  * - Logs all key steps for debugging.
  */
 @Component
 public class CustomFilter implements WebFilter {
 
-    @Value("${app.secret-key}")
-    private String secretKey;
+    @Autowired
+    private JwtParser jwtParser;
+
+    @Autowired
+    private TokenCache tokenCache;
 
     private static final Logger logger = LogManager.getLogger(CustomFilter.class);
 
@@ -71,15 +73,15 @@ public class CustomFilter implements WebFilter {
         String token = authHeader.substring(7);
         logger.info("JWT token received: {}", token);
 
-        Claims claims = extractClaims(token);
-        if (claims == null) {
+        VerifiedToken verifiedToken = tokenCache.get(token, this::verify);
+        if (verifiedToken == null) {
             logger.warn("Invalid JWT token for path: {}", path);
             return chain.filter(exchange);
         }
-        logger.info("JWT claims extracted: subject={}, role={}", claims.getSubject(), claims.get("role", String.class));
+        logger.info("JWT verified: subject={}, role={}", verifiedToken.subject(), verifiedToken.role());
 
-        SecurityContextImpl securityContext = authenticate(claims);
-        logger.info("SecurityContext set for user: {}", claims.getSubject());
+        SecurityContextImpl securityContext = authenticate(verifiedToken);
+        logger.info("SecurityContext set for user: {}", verifiedToken.subject());
 
         return chain.filter(exchange)
                     .contextWrite(ReactiveSecurityContextHolder.withSecurityContext(Mono.just(securityContext)));
@@ -93,11 +95,7 @@ public class CustomFilter implements WebFilter {
      */
     private Claims extractClaims(String token) {
         try {
-            return Jwts.parser()
-                       .verifyWith(Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8)))
-                       .build()
-                       .parseSignedClaims(token)
-                       .getPayload();
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (Exception e) {
             logger.error("Failed to parse JWT token", e);
             return null;
@@ -105,17 +103,34 @@ public class CustomFilter implements WebFilter {
     }
 
     /**
-     * Creates a SecurityContext from JWT claims.
+     * Verifies the JWT and keeps the claims needed to authenticate the user.
+     * Called by {@link TokenCache} when the token is not cached yet.
+     *
+     * @param token signed JWT token
+     * @return VerifiedToken or null if invalid
+     */
+    private VerifiedToken verify(String token) {
+        Claims claims = extractClaims(token);
+        if (claims == null) {
+            return null;
+        }
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(claims.getSubject(),
+                                 claims.get("role", String.class),
+                                 expiration == null ? null : expiration.toInstant());
+    }
+
+    /**
+     * Creates a SecurityContext from a verified JWT.
      *
-     * @param claims JWT claims
+     * @param verifiedToken verified JWT
      * @return SecurityContextImpl ready for Spring Security
      */
-    private SecurityContextImpl authenticate(Claims claims) {
-        String role = claims.get("role", String.class);
-        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    private SecurityContextImpl authenticate(VerifiedToken verifiedToken) {
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + verifiedToken.role()));
 
         UsernamePasswordAuthenticationToken authToken =
-                new UsernamePasswordAuthenticationToken(claims.getSubject(), null, authorities);
+                new UsernamePasswordAuthenticationToken(verifiedToken.subject(), null, authorities);
 
         return new SecurityContextImpl(authToken);
     }
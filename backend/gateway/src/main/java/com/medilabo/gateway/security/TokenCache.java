@@ -0,0 +1,88 @@
+package com.medilabo.gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.function.Function;
+
+/**
+ * Cache of verified JWTs, so that a token reused by a session is verified once.
+ * <p>
+ * Entries are keyed by the SHA-256 hash of the token, expire with the token
+ * itself (or after a maximum time to live) and are evicted by size.
+ * Invalid tokens are never cached. Hits and misses are published as the
+ * {@code cache.gets} metric, tagged {@code cache=gateway.tokens}.
+ */
+@Component
+public class TokenCache {
+
+    private static final Logger logger = LogManager.getLogger(TokenCache.class);
+
+    /** Name of the cache in the published metrics. */
+    public static final String CACHE_NAME = "gateway.tokens";
+
+    private final Cache<String, VerifiedToken> cache;
+
+    /**
+     * Creates the cache and registers its metrics.
+     *
+     * @param maxSize       maximum number of cached tokens
+     * @param maxTtl        maximum time a token stays cached, even if it expires later
+     * @param meterRegistry registry receiving the cache metrics
+     */
+    public TokenCache(@Value("${app.token-cache.max-size:10000}") long maxSize,
+                      @Value("${app.token-cache.max-ttl:PT1H}") Duration maxTtl,
+                      MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                             .maximumSize(maxSize)
+                             .expireAfter(Expiry.creating((String key, VerifiedToken token) -> timeToLive(token, maxTtl)))
+                             .recordStats()
+                             .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        logger.info("Token cache created: maxSize={}, maxTtl={}", maxSize, maxTtl);
+    }
+
+    /**
+     * Returns the verified token from the cache, verifying and caching it on a miss.
+     *
+     * @param token    signed JWT
+     * @param verifier verification of the token, returning null if it is invalid
+     * @return the verified token, or null if it is invalid
+     */
+    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        return cache.get(hash(token), key -> verifier.apply(token));
+    }
+
+    private static Duration timeToLive(VerifiedToken token, Duration maxTtl) {
+        if (token.expiresAt() == null) {
+            return maxTtl;
+        }
+        Duration remaining = Duration.between(Instant.now(), token.expiresAt());
+        if (remaining.isNegative()) {
+            return Duration.ZERO;
+        }
+        return remaining.compareTo(maxTtl) < 0 ? remaining : maxTtl;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.medilabo.gateway.security;
+
+import java.time.Instant;
+
+/**
+ * Result of the verification of a JWT: the authenticated user and its role.
+ *
+ * @param subject   identifier of the user
+ * @param role      role of the user
+ * @param expiresAt expiration of the token, or null if it never expires
+ */
+public record VerifiedToken(String subject, String role, Instant expiresAt) {
+}
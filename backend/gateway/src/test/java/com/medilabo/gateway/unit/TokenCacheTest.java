@@ -0,0 +1,75 @@
+package com.medilabo.gateway.unit;
+
+import com.medilabo.gateway.security.TokenCache;
+import com.medilabo.gateway.security.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenCache tokenCache;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenCache = new TokenCache(100, Duration.ofHours(1), meterRegistry);
+    }
+
+    @Test
+    void whenTokenReused_thenVerifiedOnce() {
+        AtomicInteger verifications = new AtomicInteger();
+        VerifiedToken verified = new VerifiedToken("123", "USER", Instant.now().plusSeconds(3600));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(verified, tokenCache.get("token", token -> {
+                verifications.incrementAndGet();
+                return verified;
+            }));
+        }
+
+        assertEquals(1, verifications.get());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void whenTokenInvalid_thenNotCached() {
+        AtomicInteger verifications = new AtomicInteger();
+
+        assertNull(tokenCache.get("invalid", token -> {
+            verifications.incrementAndGet();
+            return null;
+        }));
+        assertNull(tokenCache.get("invalid", token -> {
+            verifications.incrementAndGet();
+            return null;
+        }));
+
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void whenTokenExpired_thenVerifiedAgain() {
+        AtomicInteger verifications = new AtomicInteger();
+        VerifiedToken expired = new VerifiedToken("123", "USER", Instant.now().minusSeconds(1));
+
+        tokenCache.get("token", token -> {
+            verifications.incrementAndGet();
+            return expired;
+        });
+        tokenCache.get("token", token -> {
+            verifications.incrementAndGet();
+            return expired;
+        });
+
+        assertEquals(2, verifications.get());
+    }
+}
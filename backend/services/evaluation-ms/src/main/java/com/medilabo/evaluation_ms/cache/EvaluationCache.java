@@ -0,0 +1,150 @@
+package com.medilabo.evaluation_ms.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.medilabo.evaluation_ms.domain.dto.RiskEvaluation;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory cache of risk evaluations by patient ID.
+ * <p>
+ * Each evaluation is bound to the doctor whose request computed it, the
+ * Patient microservice having authorized that doctor to read the patient.
+ * It is only served to the same doctor: any other caller misses the cache
+ * and goes through the authorization of the Patient microservice again.
+ * An evaluation computed for a known ETag is also bound to that tag, and is
+ * not served for another one: its inputs changed since.
+ * <p>
+ * Entries are invalidated when note-ms or user-ms report a change for the
+ * patient, and expire after a configurable time in case a notification was
+ * lost. An evaluation computed while an invalidation was in progress is never
+ * kept: callers take a stamp before fetching the data and hand it back when
+ * storing the result.
+ * <p>
+ * Evaluations are also kept as last known evaluations for a longer time,
+ * to be served while a downstream microservice is unavailable. Invalidation
+ * removes them too: a change is never hidden behind an old evaluation.
+ */
+@Component
+public class EvaluationCache {
+    private static final Logger logger = LogManager.getLogger(EvaluationCache.class);
+    private static final int STRIPES = 256;
+
+    private final Cache<String, Entry> cache;
+    private final Cache<String, Entry> lastKnown;
+
+    /** Invalidation counters, one per stripe of patient IDs. */
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    /**
+     * Creates the cache.
+     *
+     * @param maxSize  maximum number of cached patients
+     * @param ttl      time after which an entry expires
+     * @param staleTtl time after which the last known evaluation of a patient expires
+     */
+    public EvaluationCache(@Value("${evaluation.cache.max-size:10000}") long maxSize,
+                           @Value("${evaluation.cache.ttl:PT10M}") Duration ttl,
+                           @Value("${evaluation.cache.stale-ttl:PT1H}") Duration staleTtl) {
+        this.cache = Caffeine.newBuilder()
+                             .maximumSize(maxSize)
+                             .expireAfterWrite(ttl)
+                             .build();
+        this.lastKnown = Caffeine.newBuilder()
+                                 .maximumSize(maxSize)
+                                 .expireAfterWrite(staleTtl)
+                                 .build();
+    }
+
+    /**
+     * Returns the cached evaluation of a patient, if it was computed for the
+     * same doctor and, when the ETag of the evaluation is known, for the
+     * same ETag.
+     *
+     * @param patientId the ID of the patient
+     * @param doctorId  the ID of the doctor requesting the evaluation
+     * @param etag      the current ETag of the evaluation, null if unknown
+     * @return the cached evaluation, or null if absent or computed for another doctor or ETag
+     */
+    public RiskEvaluation get(String patientId, String doctorId, String etag) {
+        return evaluationOf(cache.getIfPresent(patientId), doctorId, etag);
+    }
+
+    /**
+     * Returns the last known evaluation of a patient, which may have expired
+     * from the cache, to serve while it cannot be computed. Like a cached
+     * evaluation, it is only returned to the doctor it was computed for: the
+     * access of another doctor cannot be checked while it is served.
+     *
+     * @param patientId the ID of the patient
+     * @param doctorId  the ID of the doctor requesting the evaluation
+     * @param etag      the current ETag of the evaluation, null if unknown
+     * @return the last known evaluation, or null if absent, invalidated or
+     *         computed for another doctor or ETag
+     */
+    public RiskEvaluation getStale(String patientId, String doctorId, String etag) {
+        return evaluationOf(lastKnown.getIfPresent(patientId), doctorId, etag);
+    }
+
+    /**
+     * Returns the stamp to pass to {@link #put} for an evaluation about to be computed.
+     *
+     * @param patientId the ID of the patient
+     * @return the current invalidation stamp of the patient
+     */
+    public long stamp(String patientId) {
+        return generations.get(stripe(patientId));
+    }
+
+    /**
+     * Stores an evaluation, unless the patient was invalidated since the stamp was taken.
+     *
+     * @param patientId  the ID of the patient
+     * @param doctorId   the ID of the doctor the evaluated data was fetched for
+     * @param etag       the ETag read before fetching the evaluated data, null if unknown
+     * @param stamp      the stamp taken before fetching the evaluated data
+     * @param evaluation the evaluation to store
+     */
+    public void put(String patientId, String doctorId, String etag, long stamp, RiskEvaluation evaluation) {
+        Entry entry = new Entry(doctorId, etag, evaluation);
+        cache.put(patientId, entry);
+        lastKnown.put(patientId, entry);
+        if (generations.get(stripe(patientId)) != stamp) {
+            logger.debug("Evaluation of patientId={} invalidated while computing, not cached", patientId);
+            cache.invalidate(patientId);
+            lastKnown.invalidate(patientId);
+        }
+    }
+
+    /**
+     * Removes the cached evaluation of a patient.
+     *
+     * @param patientId the ID of the patient
+     */
+    public void invalidate(String patientId) {
+        generations.incrementAndGet(stripe(patientId));
+        cache.invalidate(patientId);
+        lastKnown.invalidate(patientId);
+        logger.info("Evaluation cache invalidated for patientId={}", patientId);
+    }
+
+    private static RiskEvaluation evaluationOf(Entry entry, String doctorId, String etag) {
+        return entry != null && Objects.equals(entry.doctorId(), doctorId)
+               && (etag == null || etag.equals(entry.etag())) ? entry.evaluation() : null;
+    }
+
+    private static int stripe(String patientId) {
+        return patientId.hashCode() & (STRIPES - 1);
+    }
+
+    /** An evaluation, the doctor it was computed for and its ETag if known. */
+    private record Entry(String doctorId, String etag, RiskEvaluation evaluation) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.medilabo.evaluation_ms.cache;
+
+import com.medilabo.evaluation_ms.domain.dto.RiskEvaluation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Evaluations in progress by doctor and patient ID, so that concurrent
+ * requests of a doctor for the same patient share one computation and one
+ * set of downstream calls.
+ * <p>
+ * Like the {@link EvaluationCache}, an evaluation is only shared with the
+ * doctor whose request started it: the Patient microservice authorized that
+ * doctor alone, so requests of another doctor start their own evaluation.
+ * <p>
+ * The first caller for a patient starts the evaluation; callers arriving
+ * before it completes receive the same result, or the same exception. An
+ * evaluation is forgotten as soon as it completes, the cache then serves the
+ * following requests, or when the patient is invalidated, so that requests
+ * arriving after a change never see an evaluation started before it.
+ * <p>
+ * Published metrics: {@code evaluation.requests.coalesced}, the requests
+ * that joined an evaluation in progress, and {@code evaluation.requests.in.flight},
+ * the patients being evaluated.
+ */
+@Component
+public class InFlightEvaluations {
+    private static final Logger logger = LogManager.getLogger(InFlightEvaluations.class);
+
+    private final ConcurrentMap<Key, CompletableFuture<RiskEvaluation>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    /**
+     * Creates the registry of evaluations in progress.
+     *
+     * @param meterRegistry registry the metrics are published to
+     */
+    public InFlightEvaluations(MeterRegistry meterRegistry) {
+        this.coalesced = Counter.builder("evaluation.requests.coalesced")
+                                .description("Evaluation requests served by an evaluation already in progress")
+                                .register(meterRegistry);
+        Gauge.builder("evaluation.requests.in.flight", inFlight, Map::size)
+             .description("Evaluations in progress, by doctor and patient")
+             .register(meterRegistry);
+    }
+
+    /**
+     * Returns the evaluation in progress for a patient on behalf of a doctor,
+     * starting it if there is none.
+     *
+     * @param doctorId   the ID of the doctor requesting the evaluation
+     * @param patientId  the ID of the patient
+     * @param evaluation starts the evaluation, called only if none is in progress
+     * @return the result of the evaluation
+     */
+    public CompletableFuture<RiskEvaluation> evaluate(String doctorId, String patientId,
+                                                      Supplier<CompletableFuture<RiskEvaluation>> evaluation) {
+        return evaluateAll(doctorId, List.of(patientId), patientIds -> Map.of(patientId, evaluation.get()))
+                .get(patientId);
+    }
+
+    /**
+     * Returns the evaluations in progress for several patients on behalf of a
+     * doctor, starting the missing ones together.
+     *
+     * @param doctorId    the ID of the doctor requesting the evaluations
+     * @param patientIds  the distinct IDs of the patients
+     * @param evaluations starts the evaluations of the patients passed, which
+     *                    have none in progress, and returns them by patient ID
+     * @return the result of each evaluation by patient ID, in request order
+     */
+    public Map<String, CompletableFuture<RiskEvaluation>> evaluateAll(
+            String doctorId, Collection<String> patientIds,
+            Function<List<String>, Map<String, CompletableFuture<RiskEvaluation>>> evaluations) {
+        Map<String, CompletableFuture<RiskEvaluation>> results = new LinkedHashMap<>();
+        Map<String, CompletableFuture<RiskEvaluation>> claimed = new LinkedHashMap<>();
+        for (String patientId : patientIds) {
+            CompletableFuture<RiskEvaluation> created = new CompletableFuture<>();
+            CompletableFuture<RiskEvaluation> existing = inFlight.putIfAbsent(new Key(doctorId, patientId), created);
+            if (existing != null) {
+                logger.debug("Joining the evaluation in progress for patientId={}", patientId);
+                coalesced.increment();
+                results.put(patientId, existing);
+            } else {
+                claimed.put(patientId, created);
+                results.put(patientId, created);
+            }
+        }
+        if (claimed.isEmpty()) {
+            return results;
+        }
+
+        Map<String, CompletableFuture<RiskEvaluation>> started;
+        try {
+            started = evaluations.apply(new ArrayList<>(claimed.keySet()));
+        } catch (RuntimeException e) {
+            claimed.forEach((patientId, result) -> complete(new Key(doctorId, patientId), result, null, e));
+            return results;
+        }
+        claimed.forEach((patientId, result) -> started.get(patientId)
+                .whenComplete((evaluation, error) -> complete(new Key(doctorId, patientId), result, evaluation, error)));
+        return results;
+    }
+
+    /**
+     * Forgets the evaluations in progress for a patient, whose data changed:
+     * the next request starts a new one.
+     *
+     * @param patientId the ID of the patient
+     */
+    public void invalidate(String patientId) {
+        inFlight.keySet().removeIf(key -> key.patientId().equals(patientId));
+    }
+
+    /**
+     * Hands the outcome of an evaluation to the callers waiting for it, once
+     * it no longer accepts new callers.
+     *
+     * @param key        the doctor and the patient of the evaluation
+     * @param result     the result shared with the callers
+     * @param evaluation the evaluation, null if it failed
+     * @param error      the failure, null if it succeeded
+     */
+    private void complete(Key key, CompletableFuture<RiskEvaluation> result,
+                          RiskEvaluation evaluation, Throwable error) {
+        inFlight.remove(key, result);
+        if (error == null) {
+            result.complete(evaluation);
+        } else {
+            result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                                         ? error.getCause() : error);
+        }
+    }
+
+    /** A doctor and one of the patients they requested the evaluation of. */
+    private record Key(String doctorId, String patientId) {
+    }
+}
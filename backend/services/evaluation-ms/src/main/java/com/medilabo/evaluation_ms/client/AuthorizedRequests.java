@@ -0,0 +1,36 @@
+package com.medilabo.evaluation_ms.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Builds the requests sent to the other microservices on behalf of the
+ * connected user.
+ * <p>
+ * The Authorization header is read by the controller on the request thread
+ * and passed explicitly to each call, so that a call running on the
+ * evaluation executor never depends on the state of the incoming request.
+ * <p>
+ * This class is final and cannot be instantiated.
+ */
+final class AuthorizedRequests {
+
+    private AuthorizedRequests() {
+    }
+
+    /**
+     * Creates a request carrying the Authorization header of the connected user.
+     *
+     * @param body          the body of the request, null if none
+     * @param authorization the Authorization header of the incoming request, null if none
+     * @param <T>           the body type
+     * @return the request entity
+     */
+    static <T> HttpEntity<T> entity(T body, String authorization) {
+        HttpHeaders headers = new HttpHeaders();
+        if (authorization != null) {
+            headers.set(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        return new HttpEntity<>(body, headers);
+    }
+}
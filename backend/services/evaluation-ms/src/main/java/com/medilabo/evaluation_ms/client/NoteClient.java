@@ -1,10 +1,17 @@
 package com.medilabo.evaluation_ms.client;
 
 import com.medilabo.evaluation_ms.domain.dto.NoteDTO;
+import com.medilabo.evaluation_ms.domain.dto.TriggerSummaryDTO;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
@@ -13,18 +20,28 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Client responsible for retrieving notes for a patient
  * from the Note microservice.
  * <p>
- * Uses {@link RestTemplate} to communicate with the external API.
+ * Uses {@link RestTemplate} to communicate with the external API, on behalf
+ * of the connected user whose Authorization header is passed to each method.
+ * Calls go
+ * through the {@link Downstream} of the Note microservice and fail fast with
+ * a 503 error while it is unavailable.
  */
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class NoteClient {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    @Qualifier("noteMsDownstream")
+    private Downstream downstream;
+
     @Value("${note.ms.url}")
     private String baseUrl;
 
@@ -33,18 +50,21 @@ public class NoteClient {
     /**
      * Fetches all notes associated with the given patient.
      *
-     * @param patientId the identifier of the patient
+     * @param patientId     the identifier of the patient
+     * @param authorization the Authorization header of the incoming request
      * @return a list of {@link NoteDTO} objects
      * @throws ResponseStatusException if an error occurs while calling the Note
-     *                                 service
+     *                                 service, with status 503 if it is unavailable
      */
-    public List<NoteDTO> getNotesByPatientId(String patientId) {
+    public List<NoteDTO> getNotesByPatientId(String patientId, String authorization) {
         try {
             logger.info("Requesting notes for patient {}", patientId);
 
-            NoteDTO[] notesArray = restTemplate.getForObject(
+            NoteDTO[] notesArray = downstream.call(() -> restTemplate.exchange(
                     baseUrl + "/" + patientId,
-                    NoteDTO[].class);
+                    HttpMethod.GET,
+                    AuthorizedRequests.entity(null, authorization),
+                    NoteDTO[].class).getBody());
 
             if (notesArray.length == 0) {
                 logger.warn("No notes found for patient {}", patientId);
@@ -59,6 +79,95 @@ public class NoteClient {
             throw new ResponseStatusException(
                     HttpStatus.INTERNAL_SERVER_ERROR,
                     "Impossible de récupérer les notes");
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            logger.warn("Note service unavailable, notes of patient {} not requested: {}", patientId, e.getMessage());
+            throw new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "Impossible de récupérer les notes");
+        }
+    }
+
+    /**
+     * Fetches the trigger summary of the given patient's notes.
+     *
+     * @param patientId     the identifier of the patient
+     * @param authorization the Authorization header of the incoming request
+     * @return the {@link TriggerSummaryDTO} of the patient
+     * @throws ResponseStatusException if an error occurs while calling the Note
+     *                                 service, with status 503 if it is unavailable
+     */
+    public TriggerSummaryDTO getTriggerSummary(String patientId, String authorization) {
+        try {
+            logger.info("Requesting trigger summary for patient {}", patientId);
+
+            TriggerSummaryDTO summary = downstream.call(() -> restTemplate.exchange(
+                    baseUrl + "/" + patientId + "/triggers",
+                    HttpMethod.GET,
+                    AuthorizedRequests.entity(null, authorization),
+                    TriggerSummaryDTO.class).getBody());
+
+            if (summary == null) {
+                logger.error("Received null trigger summary for patient {}", patientId);
+                throw new ResponseStatusException(
+                        HttpStatus.INTERNAL_SERVER_ERROR,
+                        "Impossible de récupérer les notes");
+            }
+
+            logger.info("Trigger summary retrieved for patient {}: {}", patientId, summary);
+            return summary;
+
+        } catch (RestClientException e) {
+            logger.error("Error while retrieving trigger summary for patient {}: {}", patientId, e.getMessage());
+            throw new ResponseStatusException(
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Impossible de récupérer les notes");
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            logger.warn("Note service unavailable, trigger summary of patient {} not requested: {}",
+                        patientId, e.getMessage());
+            throw new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "Impossible de récupérer les notes");
+        }
+    }
+
+    /**
+     * Fetches the trigger summaries of several patients in a single call.
+     *
+     * @param patientIds    the identifiers of the patients
+     * @param authorization the Authorization header of the incoming request
+     * @return the {@link TriggerSummaryDTO} by patient identifier
+     * @throws ResponseStatusException if an error occurs while calling the Note
+     *                                 service, with status 503 if it is unavailable
+     */
+    public Map<String, TriggerSummaryDTO> getTriggerSummaries(List<String> patientIds, String authorization) {
+        try {
+            logger.info("Requesting trigger summaries for {} patients", patientIds.size());
+
+            Map<String, TriggerSummaryDTO> summaries = downstream.call(() -> restTemplate.exchange(
+                    baseUrl + "/triggers/batch",
+                    HttpMethod.POST,
+                    AuthorizedRequests.entity(patientIds, authorization),
+                    new ParameterizedTypeReference<Map<String, TriggerSummaryDTO>>() {}).getBody());
+
+            if (summaries == null) {
+                logger.warn("No trigger summaries returned for {} patients", patientIds.size());
+                return Map.of();
+            }
+
+            logger.info("Trigger summaries retrieved for {} patients", summaries.size());
+            return summaries;
+
+        } catch (RestClientException e) {
+            logger.error("Error while retrieving trigger summaries for {} patients: {}", patientIds.size(), e.getMessage());
+            throw new ResponseStatusException(
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Impossible de récupérer les notes");
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            logger.warn("Note service unavailable, trigger summaries of {} patients not requested: {}",
+                        patientIds.size(), e.getMessage());
+            throw new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "Impossible de récupérer les notes");
         }
     }
 }
@@ -1,47 +1,76 @@
 package com.medilabo.evaluation_ms.client;
 
 import com.medilabo.evaluation_ms.domain.dto.PatientDTO;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Client responsible for retrieving patient information
  * from the Patient microservice.
  * <p>
- * Uses {@link RestTemplate} to communicate with the external API.
+ * Uses {@link RestTemplate} to communicate with the external API, on behalf
+ * of the connected user whose Authorization header is passed to each method.
+ * Calls go
+ * through the {@link Downstream} of the Patient microservice and fail fast
+ * with a 503 error while it is unavailable.
  */
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class PatientClient {
     @Autowired private RestTemplate restTemplate;
+    @Autowired @Qualifier("userMsDownstream") private Downstream downstream;
 
     @Value("${user.ms.url}")
     private String baseUrl;
 
     private static final Logger logger = LogManager.getLogger(PatientClient.class);
 
+    /** Largest number of patients the Patient microservice returns per request. */
+    private static final int MAX_BATCH_SIZE = 100;
+
 
     /**
      * Fetches a patient by its unique identifier.
+     * <p>
+     * Only the demographic facts used by the evaluation are requested, from
+     * the internal endpoint of the Patient microservice.
      *
-     * @param patientId the identifier of the patient
+     * @param patientId     the identifier of the patient
+     * @param authorization the Authorization header of the incoming request
      * @return the corresponding {@link PatientDTO}
-     * @throws ResponseStatusException if the patient cannot be retrieved
+     * @throws ResponseStatusException if the patient cannot be retrieved, with
+     *                                 status 403 or 404 if the Patient
+     *                                 microservice refused it, 503 if the
+     *                                 service is unavailable
      */
-    public PatientDTO getPatientById(String patientId) {
+    public PatientDTO getPatientById(String patientId, String authorization) {
         try {
             logger.info("Requesting patient with id {}", patientId);
 
-            PatientDTO patient = restTemplate.getForObject(
-                    baseUrl + "/patients/" + patientId,
+            PatientDTO patient = downstream.call(() -> restTemplate.exchange(
+                    baseUrl + "/internal/patients/" + patientId + "/demographics",
+                    HttpMethod.GET,
+                    AuthorizedRequests.entity(null, authorization),
                     PatientDTO.class
-            );
+            ).getBody());
 
             if (patient == null) {
                 logger.warn("No patient found with id {}", patientId);
@@ -54,12 +83,78 @@ public class PatientClient {
             logger.info("Patient retrieved: {}", patient);
             return patient;
 
+        } catch (HttpClientErrorException.Forbidden e) {
+            logger.warn("Access to patient {} denied", patientId);
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Accès au patient refusé");
+        } catch (HttpClientErrorException.NotFound e) {
+            logger.warn("No patient found with id {}", patientId);
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Le patient n'existe pas");
         } catch (RestClientException e) {
             logger.error("Error while retrieving patient {}: {}", patientId, e.getMessage());
             throw new ResponseStatusException(
                     HttpStatus.INTERNAL_SERVER_ERROR,
                     "Impossible de récupérer le patient"
             );
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            logger.warn("Patient service unavailable, patient {} not requested: {}", patientId, e.getMessage());
+            throw new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "Impossible de récupérer le patient"
+            );
+        }
+    }
+
+    /**
+     * Fetches several patients by their identifiers, in bulk requests of at
+     * most {@value #MAX_BATCH_SIZE} patients.
+     * <p>
+     * Patients that cannot be accessed are absent from the result.
+     *
+     * @param patientIds    the identifiers of the patients
+     * @param authorization the Authorization header of the incoming request
+     * @return the corresponding {@link PatientDTO}s by patient ID
+     * @throws ResponseStatusException if the patients cannot be retrieved, with
+     *                                 status 503 if the service is unavailable
+     */
+    public Map<String, PatientDTO> getPatientsByIds(List<String> patientIds, String authorization) {
+        Map<String, PatientDTO> patients = new HashMap<>();
+        for (int start = 0; start < patientIds.size(); start += MAX_BATCH_SIZE) {
+            List<String> batch = patientIds.subList(start, Math.min(start + MAX_BATCH_SIZE, patientIds.size()));
+            try {
+                logger.info("Requesting {} patients", batch.size());
+
+                PatientDTO[] found = downstream.call(() -> restTemplate.exchange(
+                        UriComponentsBuilder.fromUriString(baseUrl + "/internal/patients/demographics")
+                                            .queryParam("ids", batch.toArray())
+                                            .encode()
+                                            .toUriString(),
+                        HttpMethod.GET,
+                        AuthorizedRequests.entity(null, authorization),
+                        PatientDTO[].class
+                ).getBody());
+
+                if (found != null) {
+                    for (PatientDTO patient : found) {
+                        patients.put(patient.getId(), patient);
+                    }
+                }
+
+            } catch (RestClientException e) {
+                logger.error("Error while retrieving {} patients: {}", batch.size(), e.getMessage());
+                throw new ResponseStatusException(
+                        HttpStatus.INTERNAL_SERVER_ERROR,
+                        "Impossible de récupérer le patient"
+                );
+            } catch (CallNotPermittedException | BulkheadFullException e) {
+                logger.warn("Patient service unavailable, {} patients not requested: {}", batch.size(), e.getMessage());
+                throw new ResponseStatusException(
+                        HttpStatus.SERVICE_UNAVAILABLE,
+                        "Impossible de récupérer le patient"
+                );
+            }
         }
+
+        logger.info("{} of {} patients retrieved", patients.size(), patientIds.size());
+        return patients;
     }
 }
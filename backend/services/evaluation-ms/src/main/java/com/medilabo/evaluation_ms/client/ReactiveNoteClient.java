@@ -0,0 +1,143 @@
+package com.medilabo.evaluation_ms.client;
+
+import com.medilabo.evaluation_ms.domain.dto.NoteDTO;
+import com.medilabo.evaluation_ms.domain.dto.TriggerSummaryDTO;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking client retrieving the notes of patients from the Note
+ * microservice, the reactive counterpart of {@link NoteClient}.
+ * <p>
+ * Uses the {@link WebClient} of
+ * {@link com.medilabo.evaluation_ms.configuration.WebClientConfig}, which
+ * forwards the Authorization header of the incoming request. Calls go
+ * through the {@link Downstream} of the Note microservice and fail fast with
+ * a 503 error while it is unavailable.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveNoteClient {
+    @Autowired
+    private WebClient webClient;
+
+    @Autowired
+    @Qualifier("noteMsDownstream")
+    private Downstream downstream;
+
+    @Value("${note.ms.url}")
+    private String baseUrl;
+
+    private static final Logger logger = LogManager.getLogger(ReactiveNoteClient.class);
+
+    /**
+     * Fetches all notes associated with the given patient.
+     *
+     * @param patientId the identifier of the patient
+     * @return the {@link NoteDTO}s of the patient, as they are decoded, or a
+     *         500 error if the Note service cannot be called, 503 if it is
+     *         unavailable
+     */
+    public Flux<NoteDTO> getNotesByPatientId(String patientId) {
+        logger.info("Requesting notes for patient {}", patientId);
+
+        return downstream.call(webClient.get()
+                                        .uri(baseUrl + "/" + patientId)
+                                        .retrieve()
+                                        .bodyToFlux(NoteDTO.class))
+                         .onErrorMap(WebClientException.class, e -> {
+                             logger.error("Error while retrieving notes for patient {}: {}", patientId, e.getMessage());
+                             return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                                                                "Impossible de récupérer les notes");
+                         })
+                         .onErrorMap(Downstream::isRejected, e -> {
+                             logger.warn("Note service unavailable, notes of patient {} not requested: {}",
+                                         patientId, e.getMessage());
+                             return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                                                                "Impossible de récupérer les notes");
+                         });
+    }
+
+    /**
+     * Fetches the trigger summary of the given patient's notes.
+     *
+     * @param patientId the identifier of the patient
+     * @return the {@link TriggerSummaryDTO} of the patient, or a 500 error if
+     *         the Note service cannot be called, 503 if it is unavailable
+     */
+    public Mono<TriggerSummaryDTO> getTriggerSummary(String patientId) {
+        logger.info("Requesting trigger summary for patient {}", patientId);
+
+        return downstream.call(webClient.get()
+                                        .uri(baseUrl + "/" + patientId + "/triggers")
+                                        .retrieve()
+                                        .bodyToMono(TriggerSummaryDTO.class))
+                         .switchIfEmpty(Mono.error(() -> {
+                             logger.error("Received null trigger summary for patient {}", patientId);
+                             return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                                                                "Impossible de récupérer les notes");
+                         }))
+                         .onErrorMap(WebClientException.class, e -> {
+                             logger.error("Error while retrieving trigger summary for patient {}: {}", patientId, e.getMessage());
+                             return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                                                                "Impossible de récupérer les notes");
+                         })
+                         .onErrorMap(Downstream::isRejected, e -> {
+                             logger.warn("Note service unavailable, trigger summary of patient {} not requested: {}",
+                                         patientId, e.getMessage());
+                             return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                                                                "Impossible de récupérer les notes");
+                         })
+                         .doOnNext(summary -> logger.info("Trigger summary retrieved for patient {}: {}", patientId, summary));
+    }
+
+    /**
+     * Fetches the trigger summaries of several patients in a single call.
+     *
+     * @param patientIds the identifiers of the patients
+     * @return the {@link TriggerSummaryDTO} by patient identifier, or a 500
+     *         error if the Note service cannot be called, 503 if it is
+     *         unavailable
+     */
+    public Mono<Map<String, TriggerSummaryDTO>> getTriggerSummaries(List<String> patientIds) {
+        logger.info("Requesting trigger summaries for {} patients", patientIds.size());
+
+        return downstream.call(webClient.post()
+                                        .uri(baseUrl + "/triggers/batch")
+                                        .bodyValue(patientIds)
+                                        .retrieve()
+                                        .bodyToMono(new ParameterizedTypeReference<Map<String, TriggerSummaryDTO>>() {}))
+                         .switchIfEmpty(Mono.fromSupplier(() -> {
+                             logger.warn("No trigger summaries returned for {} patients", patientIds.size());
+                             return Map.of();
+                         }))
+                         .onErrorMap(WebClientException.class, e -> {
+                             logger.error("Error while retrieving trigger summaries for {} patients: {}",
+                                          patientIds.size(), e.getMessage());
+                             return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                                                                "Impossible de récupérer les notes");
+                         })
+                         .onErrorMap(Downstream::isRejected, e -> {
+                             logger.warn("Note service unavailable, trigger summaries of {} patients not requested: {}",
+                                         patientIds.size(), e.getMessage());
+                             return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                                                                "Impossible de récupérer les notes");
+                         })
+                         .doOnNext(summaries -> logger.info("Trigger summaries retrieved for {} patients", summaries.size()));
+    }
+}
@@ -0,0 +1,145 @@
+package com.medilabo.evaluation_ms.client;
+
+import com.medilabo.evaluation_ms.domain.dto.PatientDTO;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking client retrieving patient information from the Patient
+ * microservice, the reactive counterpart of {@link PatientClient}.
+ * <p>
+ * Uses the {@link WebClient} of
+ * {@link com.medilabo.evaluation_ms.configuration.WebClientConfig}, which
+ * forwards the Authorization header of the incoming request. Calls go
+ * through the {@link Downstream} of the Patient microservice and fail fast
+ * with a 503 error while it is unavailable.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePatientClient {
+    @Autowired
+    private WebClient webClient;
+
+    @Autowired
+    @Qualifier("userMsDownstream")
+    private Downstream downstream;
+
+    @Value("${user.ms.url}")
+    private String baseUrl;
+
+    private static final Logger logger = LogManager.getLogger(ReactivePatientClient.class);
+
+    /** Largest number of patients the Patient microservice returns per request. */
+    private static final int MAX_BATCH_SIZE = 100;
+
+    /**
+     * Fetches the demographics of a patient by its unique identifier.
+     *
+     * @param patientId the identifier of the patient
+     * @return the corresponding {@link PatientDTO}, or a 500 error if the
+     *         patient cannot be retrieved, 403 or 404 if the Patient
+     *         microservice refused it, 503 if the service is unavailable
+     */
+    public Mono<PatientDTO> getPatientById(String patientId) {
+        logger.info("Requesting patient with id {}", patientId);
+
+        return downstream.call(webClient.get()
+                                        .uri(baseUrl + "/internal/patients/" + patientId + "/demographics")
+                                        .retrieve()
+                                        .bodyToMono(PatientDTO.class))
+                         .switchIfEmpty(Mono.error(() -> {
+                             logger.warn("No patient found with id {}", patientId);
+                             return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                                                                "Impossible de récupérer le patient");
+                         }))
+                         .onErrorMap(WebClientResponseException.Forbidden.class, e -> {
+                             logger.warn("Access to patient {} denied", patientId);
+                             return new ResponseStatusException(HttpStatus.FORBIDDEN, "Accès au patient refusé");
+                         })
+                         .onErrorMap(WebClientResponseException.NotFound.class, e -> {
+                             logger.warn("No patient found with id {}", patientId);
+                             return new ResponseStatusException(HttpStatus.NOT_FOUND, "Le patient n'existe pas");
+                         })
+                         .onErrorMap(WebClientException.class, e -> {
+                             logger.error("Error while retrieving patient {}: {}", patientId, e.getMessage());
+                             return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                                                                "Impossible de récupérer le patient");
+                         })
+                         .onErrorMap(Downstream::isRejected, e -> {
+                             logger.warn("Patient service unavailable, patient {} not requested: {}",
+                                         patientId, e.getMessage());
+                             return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                                                                "Impossible de récupérer le patient");
+                         })
+                         .doOnNext(patient -> logger.info("Patient retrieved: {}", patient));
+    }
+
+    /**
+     * Fetches several patients by their identifiers, in concurrent bulk
+     * requests of at most {@value #MAX_BATCH_SIZE} patients.
+     * <p>
+     * Patients that cannot be accessed are absent from the result.
+     *
+     * @param patientIds the identifiers of the patients
+     * @return the corresponding {@link PatientDTO}s by patient ID, or a 500
+     *         error if the patients cannot be retrieved, 503 if the service is
+     *         unavailable
+     */
+    public Mono<Map<String, PatientDTO>> getPatientsByIds(List<String> patientIds) {
+        return Flux.range(0, (patientIds.size() + MAX_BATCH_SIZE - 1) / MAX_BATCH_SIZE)
+                   .map(batch -> patientIds.subList(batch * MAX_BATCH_SIZE,
+                                                    Math.min((batch + 1) * MAX_BATCH_SIZE, patientIds.size())))
+                   .flatMap(this::getPatientBatch)
+                   .collectMap(PatientDTO::getId)
+                   .doOnNext(patients -> logger.info("{} of {} patients retrieved", patients.size(), patientIds.size()));
+    }
+
+    /**
+     * Fetches a batch of at most {@value #MAX_BATCH_SIZE} patients.
+     *
+     * @param batch the identifiers of the patients
+     * @return the patients found
+     */
+    private Flux<PatientDTO> getPatientBatch(List<String> batch) {
+        logger.info("Requesting {} patients", batch.size());
+
+        URI uri = UriComponentsBuilder.fromUriString(baseUrl + "/internal/patients/demographics")
+                                      .queryParam("ids", batch.toArray())
+                                      .encode()
+                                      .build()
+                                      .toUri();
+
+        return downstream.call(webClient.get()
+                                        .uri(uri)
+                                        .retrieve()
+                                        .bodyToFlux(PatientDTO.class))
+                         .onErrorMap(WebClientException.class, e -> {
+                             logger.error("Error while retrieving {} patients: {}", batch.size(), e.getMessage());
+                             return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                                                                "Impossible de récupérer le patient");
+                         })
+                         .onErrorMap(Downstream::isRejected, e -> {
+                             logger.warn("Patient service unavailable, {} patients not requested: {}",
+                                         batch.size(), e.getMessage());
+                             return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                                                                "Impossible de récupérer le patient");
+                         });
+    }
+}
@@ -0,0 +1,65 @@
+package com.medilabo.evaluation_ms.configuration;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration of the executor used to run evaluations in parallel.
+ * <p>
+ * Tasks do not see the request that submitted them, which may be completed
+ * and recycled before they end: everything they need from it, such as the
+ * Authorization header, is read on the request thread and passed to them.
+ * <p>
+ * When virtual threads are enabled ({@code spring.threads.virtual.enabled},
+ * on Java 21 or later), each evaluation step runs on its own virtual thread
+ * instead of the bounded pool. Downstream calls are then only bounded by the
+ * HTTP connection pool of {@link HttpClientConfig}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ExecutorConfig {
+    private static final Logger logger = LogManager.getLogger(ExecutorConfig.class);
+
+    @Value("${evaluation.executor.pool-size:16}")
+    private int poolSize;
+
+    /**
+     * Provides the bounded thread pool running parallel evaluations.
+     *
+     * @return a configured {@link ThreadPoolTaskExecutor}
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor evaluationExecutor() {
+        logger.info("Creating evaluation executor with {} threads", poolSize);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("evaluation-");
+        return executor;
+    }
+
+    /**
+     * Provides the executor running parallel evaluations on virtual threads.
+     *
+     * @return a {@link SimpleAsyncTaskExecutor} starting a virtual thread per task
+     */
+    @Bean(name = "evaluationExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualEvaluationExecutor() {
+        logger.info("Creating evaluation executor on virtual threads");
+
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("evaluation-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
@@ -0,0 +1,63 @@
+package com.medilabo.evaluation_ms.configuration;
+
+import com.medilabo.evaluation_ms.security.ReactiveAccessDeniedHandler;
+import com.medilabo.evaluation_ms.security.ReactiveAuthEntryPoint;
+import com.medilabo.evaluation_ms.security.ReactiveCustomFilter;
+import io.jsonwebtoken.JwtParser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+/**
+ * Security configuration for the Evaluation microservice when it runs on WebFlux.
+ * Applies the same rules as {@link SecurityConfig}: JWT authentication,
+ * stateless sessions, and ROLE_USER on every endpoint.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    @Autowired private JwtParser jwtParser;
+    @Autowired private ReactiveAuthEntryPoint reactiveAuthEntryPoint;
+    @Autowired private ReactiveAccessDeniedHandler reactiveAccessDeniedHandler;
+
+    /**
+     * Configures the security filter chain.
+     * All endpoints require ROLE_USER and JWT authentication.
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+                // Disable CSRF and the login mechanisms since we're using stateless JWT authentication
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+
+                // Authorize requests
+                .authorizeExchange(auth -> auth
+                        .pathMatchers("/**").hasRole("USER")
+                        .anyExchange().authenticated()
+                )
+
+                // Configure exception handling for auth errors
+                .exceptionHandling(ex -> ex
+                        .authenticationEntryPoint(reactiveAuthEntryPoint)
+                        .accessDeniedHandler(reactiveAccessDeniedHandler)
+                )
+
+                // Add JWT filter at the authentication step
+                .addFilterAt(new ReactiveCustomFilter(jwtParser), SecurityWebFiltersOrder.AUTHENTICATION)
+
+                // Use stateless sessions
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .build();
+    }
+}
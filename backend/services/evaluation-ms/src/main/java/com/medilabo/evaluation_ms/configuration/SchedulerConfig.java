@@ -0,0 +1,39 @@
+package com.medilabo.evaluation_ms.configuration;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Configuration of the scheduler running the CPU-bound part of reactive
+ * evaluations, the reactive counterpart of {@link ExecutorConfig}.
+ * <p>
+ * Notes scanned for trigger terms are counted on this scheduler rather than
+ * on the Netty event loop, so that a patient with many notes does not delay
+ * the other requests. The scheduler is bounded to one thread per processor by
+ * default: the work is CPU-bound, and more threads would only add contention.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class SchedulerConfig {
+    private static final Logger logger = LogManager.getLogger(SchedulerConfig.class);
+
+    @Value("${evaluation.scheduler.pool-size:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int poolSize;
+
+    /**
+     * Provides the bounded scheduler counting trigger terms.
+     *
+     * @return a parallel {@link Scheduler} of {@code evaluation.scheduler.pool-size} threads
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler evaluationScheduler() {
+        logger.info("Creating evaluation scheduler with {} threads", poolSize);
+        return Schedulers.newParallel("evaluation", poolSize);
+    }
+}
@@ -0,0 +1,102 @@
+package com.medilabo.evaluation_ms.configuration;
+
+import com.medilabo.evaluation_ms.security.ReactiveCustomFilter;
+import io.netty.channel.ChannelOption;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the {@link WebClient} used by the reactive clients.
+ * Propagates the Authorization header of the incoming request, read from the
+ * Reactor context where {@link ReactiveCustomFilter} stored it, so that JWT
+ * authentication is forwarded between microservices as with the RestTemplate.
+ * <p>
+ * Calls share a Reactor Netty pool of kept-alive connections, one per remote
+ * host, bounded by the same {@code http-client.*} properties as the servlet
+ * client. Metrics: {@code reactor.netty.connection.provider.*}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class WebClientConfig {
+    private static final Logger logger = LogManager.getLogger(WebClientConfig.class);
+
+    /** Name of the pool in the published metrics. */
+    private static final String CLIENT_NAME = "evaluation-ms";
+
+    @Value("${http-client.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${http-client.connect-timeout:PT2S}")
+    private Duration connectTimeout;
+
+    @Value("${http-client.connection-request-timeout:PT2S}")
+    private Duration connectionRequestTimeout;
+
+    @Value("${http-client.read-timeout:PT5S}")
+    private Duration readTimeout;
+
+    @Value("${http-client.idle-timeout:PT30S}")
+    private Duration idleTimeout;
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    /**
+     * Provides the pool of connections to the other microservices. Requests
+     * waiting for a connection beyond the acquisition timeout fail.
+     *
+     * @return a configured {@link ConnectionProvider}
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider connectionProvider() {
+        logger.info("Creating reactive HTTP connection pool: {} connections per host", maxConnectionsPerRoute);
+        return ConnectionProvider.builder(CLIENT_NAME)
+                                 .maxConnections(maxConnectionsPerRoute)
+                                 .pendingAcquireTimeout(connectionRequestTimeout)
+                                 .maxIdleTime(idleTimeout)
+                                 .evictInBackground(idleTimeout)
+                                 .metrics(true)
+                                 .build();
+    }
+
+    /**
+     * Provides the {@link WebClient} calling the other microservices, with
+     * the connect and response timeouts of the servlet client.
+     *
+     * @param connectionProvider the connection pool
+     * @return a configured {@link WebClient}
+     */
+    @Bean
+    public WebClient webClient(ConnectionProvider connectionProvider) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                                          .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                                          .responseTimeout(readTimeout);
+
+        return webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter((request, next) -> Mono.deferContextual(context -> {
+                    String token = context.getOrDefault(ReactiveCustomFilter.AUTHORIZATION_CONTEXT_KEY, null);
+                    if (token == null) {
+                        return next.exchange(request);
+                    }
+                    return next.exchange(ClientRequest.from(request)
+                                                      .headers(headers -> headers.set(HttpHeaders.AUTHORIZATION, token))
+                                                      .build());
+                }))
+                .build();
+    }
+}
@@ -1,14 +1,26 @@
 package com.medilabo.evaluation_ms.controller;
 
+import com.medilabo.evaluation_ms.domain.dto.EvaluationInputs;
 import com.medilabo.evaluation_ms.domain.enums.RiskLevel;
 import com.medilabo.evaluation_ms.service.EvaluationService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * REST controller for evaluating patient diabetes risk level.
@@ -17,23 +29,87 @@ import org.springframework.web.bind.annotation.RestController;
  * based on their medical notes and personal information.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class EvaluationController {
     private static final Logger logger = LogManager.getLogger(EvaluationController.class);
     @Autowired private EvaluationService evaluationService;
 
+    /**
+     * Caching of a risk level: kept by the browser only, and revalidated with
+     * its ETag each time it is reused.
+     */
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     /**
      * Endpoint to evaluate the diabetes risk of a patient.
+     * <p>
+     * The response carries a strong ETag derived from the demographic facts
+     * of the patient and the version of its notes. It is checked against the
+     * {@code If-None-Match} header before evaluating, so an unchanged risk
+     * level is revalidated with an empty 304 response without computing it.
+     * The data fetched for the ETag is then reused by the evaluation. While
+     * the ETag cannot be computed, the risk level is returned without one.
      *
-     * @param patientId ID of the patient to evaluate
-     * @return {@link ResponseEntity} containing the risk level label
+     * @param patientId     ID of the patient to evaluate
+     * @param authorization Authorization header, forwarded to the other microservices
+     * @param request       current request, to check its If-None-Match header
+     * @return {@link ResponseEntity} containing the risk level label, or 304 if unchanged
      */
     @GetMapping("/{patientId}")
-    public ResponseEntity<RiskLevel> evaluatePatientRisk(@PathVariable String patientId) {
+    public ResponseEntity<RiskLevel> evaluatePatientRisk(@PathVariable String patientId,
+                                                         @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                                         WebRequest request) {
         logger.info("Received request to evaluate risk for patientId={}", patientId);
 
-        RiskLevel riskLevel = evaluationService.evaluateRisk(patientId);
+        EvaluationInputs inputs = evaluationService.getInputs(patientId, authorization);
+        String etag = inputs != null ? inputs.etag() : null;
+        if (etag != null && request.checkNotModified(etag)) {
+            logger.debug("Risk level of patientId={} not modified", patientId);
+            return null;
+        }
+
+        RiskLevel riskLevel = evaluationService.evaluateRisk(patientId, inputs, authorization);
 
         logger.info("Calculated risk level for patientId={} is {}", patientId, riskLevel);
-        return ResponseEntity.ok(riskLevel);
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(riskLevel);
+    }
+
+    /**
+     * Endpoint to evaluate the diabetes risk of several patients in one call.
+     * Patients that do not exist or that the connected doctor cannot access
+     * are absent from the response.
+     *
+     * @param patientIds    IDs of the patients to evaluate
+     * @param authorization Authorization header, forwarded to the other microservices
+     * @return {@link ResponseEntity} containing the risk level by patient ID
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, RiskLevel>> evaluatePatientsRisk(@RequestBody List<String> patientIds,
+                                                                       @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        logger.info("Received request to evaluate risk for {} patients", patientIds.size());
+
+        Map<String, RiskLevel> riskLevels = evaluationService.evaluateRisks(patientIds, authorization);
+
+        logger.info("Calculated risk levels for {} patients", riskLevels.size());
+        return ResponseEntity.ok(riskLevels);
+    }
+
+    /**
+     * Endpoint notified by note-ms and user-ms when data used to evaluate a
+     * patient changes, so that the cached evaluation is recomputed.
+     * <p>
+     * Served under {@code /internal/}, which the gateway refuses, so that only
+     * the other microservices can flush an evaluation.
+     *
+     * @param patientId ID of the patient whose data changed
+     * @return empty {@link ResponseEntity}
+     */
+    @DeleteMapping("/internal/cache/{patientId}")
+    public ResponseEntity<Void> invalidateEvaluation(@PathVariable String patientId) {
+        logger.info("Received request to invalidate evaluation of patientId={}", patientId);
+
+        evaluationService.invalidate(patientId);
+
+        return ResponseEntity.noContent().build();
     }
 }
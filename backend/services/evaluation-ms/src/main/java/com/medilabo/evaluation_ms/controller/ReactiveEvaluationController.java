@@ -0,0 +1,111 @@
+package com.medilabo.evaluation_ms.controller;
+
+import com.medilabo.evaluation_ms.domain.dto.EvaluationInputs;
+import com.medilabo.evaluation_ms.domain.enums.RiskLevel;
+import com.medilabo.evaluation_ms.service.ReactiveEvaluationService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * REST controller for evaluating patient diabetes risk level when the
+ * application runs on WebFlux. Serves the same endpoints as
+ * {@link EvaluationController} without holding a thread while the other
+ * microservices answer.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEvaluationController {
+    private static final Logger logger = LogManager.getLogger(ReactiveEvaluationController.class);
+    @Autowired private ReactiveEvaluationService evaluationService;
+
+    /**
+     * Endpoint to evaluate the diabetes risk of a patient.
+     * <p>
+     * Like {@link EvaluationController}, the response carries a strong ETag
+     * derived from the demographic facts of the patient and the version of
+     * its notes, checked against the {@code If-None-Match} header before
+     * evaluating, and the data fetched for the ETag is reused by the
+     * evaluation.
+     *
+     * @param patientId ID of the patient to evaluate
+     * @param exchange  current exchange, to check its If-None-Match header
+     * @return {@link ResponseEntity} containing the risk level label, or 304 if unchanged
+     */
+    @GetMapping("/{patientId}")
+    public Mono<ResponseEntity<RiskLevel>> evaluatePatientRisk(@PathVariable String patientId,
+                                                               ServerWebExchange exchange) {
+        logger.info("Received request to evaluate risk for patientId={}", patientId);
+
+        return evaluationService.getInputs(patientId)
+                                .map(Optional::of)
+                                .defaultIfEmpty(Optional.empty())
+                                .flatMap(inputs -> {
+                                    String etag = inputs.map(EvaluationInputs::etag).orElse(null);
+                                    if (etag != null && exchange.checkNotModified(etag)) {
+                                        logger.debug("Risk level of patientId={} not modified", patientId);
+                                        return Mono.empty();
+                                    }
+                                    return evaluationService.evaluateRisk(patientId, inputs.orElse(null))
+                                                            .map(riskLevel -> {
+                                        logger.info("Calculated risk level for patientId={} is {}", patientId, riskLevel);
+                                        return ResponseEntity.ok()
+                                                             .eTag(etag)
+                                                             .cacheControl(EvaluationController.REVALIDATE)
+                                                             .body(riskLevel);
+                                    });
+                                });
+    }
+
+    /**
+     * Endpoint to evaluate the diabetes risk of several patients in one call.
+     * Patients that do not exist or that the connected doctor cannot access
+     * are absent from the response.
+     *
+     * @param patientIds IDs of the patients to evaluate
+     * @return {@link ResponseEntity} containing the risk level by patient ID
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Map<String, RiskLevel>>> evaluatePatientsRisk(@RequestBody List<String> patientIds) {
+        logger.info("Received request to evaluate risk for {} patients", patientIds.size());
+
+        return evaluationService.evaluateRisks(patientIds)
+                                .map(riskLevels -> {
+                                    logger.info("Calculated risk levels for {} patients", riskLevels.size());
+                                    return ResponseEntity.ok(riskLevels);
+                                });
+    }
+
+    /**
+     * Endpoint notified by note-ms and user-ms when data used to evaluate a
+     * patient changes, so that the cached evaluation is recomputed.
+     * <p>
+     * Served under {@code /internal/}, which the gateway refuses, so that only
+     * the other microservices can flush an evaluation.
+     *
+     * @param patientId ID of the patient whose data changed
+     * @return empty {@link ResponseEntity}
+     */
+    @DeleteMapping("/internal/cache/{patientId}")
+    public ResponseEntity<Void> invalidateEvaluation(@PathVariable String patientId) {
+        logger.info("Received request to invalidate evaluation of patientId={}", patientId);
+
+        evaluationService.invalidate(patientId);
+
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,14 @@
+package com.medilabo.evaluation_ms.domain.dto;
+
+/**
+ * Data fetched to evaluate a patient, kept between the computation of the
+ * ETag of the evaluation and the evaluation itself so that both share the
+ * same downstream calls.
+ *
+ * @param patient the demographic facts of the patient
+ * @param summary the trigger summary of the patient's notes, carrying their version
+ * @param etag    the ETag of the evaluation, derived from both
+ * @param stamp   the stamp of the evaluation cache taken before fetching them
+ */
+public record EvaluationInputs(PatientDTO patient, TriggerSummaryDTO summary, String etag, long stamp) {
+}
@@ -0,0 +1,12 @@
+package com.medilabo.evaluation_ms.domain.dto;
+
+import com.medilabo.evaluation_ms.domain.enums.RiskLevel;
+
+/**
+ * Result of a patient risk evaluation.
+ *
+ * @param riskLevel    the calculated risk level
+ * @param triggerCount the number of trigger terms found in the patient's notes
+ */
+public record RiskEvaluation(RiskLevel riskLevel, int triggerCount) {
+}
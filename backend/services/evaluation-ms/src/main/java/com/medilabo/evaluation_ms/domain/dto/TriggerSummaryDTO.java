@@ -0,0 +1,29 @@
+package com.medilabo.evaluation_ms.domain.dto;
+
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) summarizing the trigger terms found in the
+ * notes of a patient.
+ * <p>
+ * Computed by the Note microservice from the trigger terms stored on each
+ * note, so that the note contents do not have to be transferred.
+ */
+@Data
+public class TriggerSummaryDTO {
+
+    /** Unique identifier of the patient */
+    private String patientId;
+
+    /** Number of notes of the patient */
+    private int noteCount;
+
+    /** Sum over the notes of the number of distinct trigger terms found in each */
+    private int triggerCount;
+
+    /** Version of the trigger term list used by the Note microservice */
+    private int version;
+
+    /** Version of the notes of the patient, read before they were summarized */
+    private long notesVersion;
+}
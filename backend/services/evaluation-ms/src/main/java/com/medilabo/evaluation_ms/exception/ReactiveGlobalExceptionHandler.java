@@ -0,0 +1,78 @@
+package com.medilabo.evaluation_ms.exception;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Global exception handler of the application when it runs on WebFlux.
+ * Catches the same exceptions as {@link GlobalExceptionHandler} and returns
+ * the same standardized JSON error responses.
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGlobalExceptionHandler {
+    private static final Logger logger = LogManager.getLogger(ReactiveGlobalExceptionHandler.class);
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * Handles exceptions of type ResponseStatusException. Requests to
+     * non-existent routes also end up here, as a 404 without reason.
+     *
+     * @param ex      the exception thrown
+     * @param request the HTTP request
+     * @return a ResponseEntity with the corresponding status and ApiError body
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ApiError> handleResponseStatusException(ResponseStatusException ex, ServerHttpRequest request) {
+        HttpStatus status = HttpStatus.resolve(ex.getStatusCode().value());
+        String message = ex.getReason();
+        if (message == null && status == HttpStatus.NOT_FOUND) {
+            logger.warn("No handler found for path '{}'", request.getPath().value());
+            message = "Route inexistante";
+        }
+
+        logger.warn("ResponseStatusException for path '{}': {} {}", request.getPath().value(), status.value(), message);
+
+        ApiError apiError = new ApiError(
+                status.value(),
+                status.name(),
+                message,
+                request.getPath().value(),
+                LocalDateTime.now().format(formatter)
+        );
+        return ResponseEntity.status(ex.getStatusCode())
+                             .body(apiError);
+    }
+
+    /**
+     * Handles all uncaught exceptions.
+     *
+     * @param ex      the exception thrown
+     * @param request the HTTP request
+     * @return a ResponseEntity with status 500 and ApiError body
+     */
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ApiError> handleAllUncaught(Exception ex, ServerHttpRequest request) {
+        logger.error("Unhandled exception for path '{}': {}", request.getPath().value(), ex.getMessage(), ex);
+
+        ApiError apiError = new ApiError(
+                HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                HttpStatus.INTERNAL_SERVER_ERROR.name(),
+                "Une erreur inattendue est survenue",
+                request.getPath().value(),
+                LocalDateTime.now().format(formatter)
+        );
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                             .body(apiError);
+    }
+}
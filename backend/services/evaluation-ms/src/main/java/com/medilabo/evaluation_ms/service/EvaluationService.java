@@ -1,130 +1,384 @@
 package com.medilabo.evaluation_ms.service;
 
+import com.medilabo.evaluation_ms.cache.EvaluationCache;
+import com.medilabo.evaluation_ms.cache.InFlightEvaluations;
 import com.medilabo.evaluation_ms.client.NoteClient;
 import com.medilabo.evaluation_ms.client.PatientClient;
+import com.medilabo.evaluation_ms.domain.dto.EvaluationInputs;
 import com.medilabo.evaluation_ms.domain.dto.NoteDTO;
 import com.medilabo.evaluation_ms.domain.dto.PatientDTO;
-import com.medilabo.evaluation_ms.domain.enums.Gender;
+import com.medilabo.evaluation_ms.domain.dto.RiskEvaluation;
+import com.medilabo.evaluation_ms.domain.dto.TriggerSummaryDTO;
 import com.medilabo.evaluation_ms.domain.enums.RiskLevel;
+import com.medilabo.evaluation_ms.utils.EvaluationEtags;
+import com.medilabo.evaluation_ms.utils.RiskCalculator;
 import com.medilabo.evaluation_ms.utils.TriggerTerms;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.text.Normalizer;
-import java.time.LocalDate;
-import java.time.Period;
+import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Service to evaluate the medical risk level of a patient based on notes and
  * patient data.
+ * <p>
+ * The downstream microservices are called on behalf of the connected user,
+ * with the Authorization header read by the controller on the request thread.
+ * It is passed explicitly to the calls running on the evaluation executor,
+ * which may outlive the request.
  */
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class EvaluationService {
     private static final Logger logger = LogManager.getLogger(EvaluationService.class);
     @Autowired
     private NoteClient noteClient;
     @Autowired
     private PatientClient patientClient;
+    @Autowired
+    @Qualifier("evaluationExecutor")
+    private Executor evaluationExecutor;
+    @Autowired
+    private EvaluationCache evaluationCache;
+    @Autowired
+    private InFlightEvaluations inFlightEvaluations;
+
+    /**
+     * Fetches the inputs of the evaluation of a patient and computes its ETag,
+     * without evaluating it. The inputs can then be passed to
+     * {@link #evaluateRisk(String, EvaluationInputs, String)}, so that an
+     * evaluation costs a single call to each downstream microservice.
+     * <p>
+     * Fetching the patient also checks that the connected doctor can access
+     * it. Other failures of a downstream call, such as an unavailable
+     * microservice or a timeout, only leave the ETag unknown.
+     *
+     * @param patientId     the ID of the patient
+     * @param authorization the Authorization header of the request
+     * @return the inputs and their ETag, or null if they could not be fetched
+     * @throws ResponseStatusException with status 403 or 404 if the patient
+     *                                 cannot be accessed
+     */
+    public EvaluationInputs getInputs(String patientId, String authorization) {
+        try {
+            return fetchInputs(patientId, authorization);
+        } catch (ResponseStatusException e) {
+            if (isInaccessible(e)) {
+                throw e;
+            }
+            logger.warn("ETag of patientId={} not computed: {}", patientId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Fetches the inputs of the evaluation of a patient. The patient is
+     * fetched on the evaluation executor while the trigger summary of its
+     * notes, which carries their version, is fetched on the calling thread.
+     *
+     * @param patientId     the ID of the patient
+     * @param authorization the Authorization header of the request
+     * @return the inputs and their ETag
+     * @throws ResponseStatusException if a downstream call fails
+     */
+    private EvaluationInputs fetchInputs(String patientId, String authorization) {
+        long stamp = evaluationCache.stamp(patientId);
+        CompletableFuture<PatientDTO> patient = CompletableFuture.supplyAsync(
+                () -> patientClient.getPatientById(patientId, authorization), evaluationExecutor);
+        TriggerSummaryDTO summary = noteClient.getTriggerSummary(patientId, authorization);
+
+        PatientDTO fetched = await(patient);
+        return new EvaluationInputs(fetched, summary, EvaluationEtags.etag(fetched, summary.getNotesVersion()), stamp);
+    }
 
     /**
      * Evaluates the risk level for a given patient.
+     * <p>
+     * A cached evaluation is returned when available to the connected doctor
+     * for the same ETag, and an evaluation of the same patient already in
+     * progress for that doctor is joined. Otherwise the risk is computed from
+     * the given inputs, or from inputs fetched again when they are unknown.
+     * While a downstream microservice is unavailable, the last known
+     * evaluation of the patient is returned if there is one for the same ETag.
      *
-     * @param patientId the ID of the patient
+     * @param patientId     the ID of the patient
+     * @param inputs        the inputs fetched by {@link #getInputs} before evaluating, null if unknown
+     * @param authorization the Authorization header of the request
      * @return calculated RiskLevel
      */
-    public RiskLevel evaluateRisk(String patientId) {
+    public RiskLevel evaluateRisk(String patientId, EvaluationInputs inputs, String authorization) {
         logger.info("Evaluating risk for patientId={}", patientId);
 
-        PatientDTO patient = patientClient.getPatientById(patientId);
-        List<NoteDTO> notes = noteClient.getNotesByPatientId(patientId);
-
-        if (notes.isEmpty()) {
-            logger.info("No notes found for patientId={}. Returning NONE", patientId);
-            return RiskLevel.NONE;
+        String etag = inputs != null ? inputs.etag() : null;
+        String doctorId = connectedUserId();
+        RiskEvaluation cached = evaluationCache.get(patientId, doctorId, etag);
+        if (cached != null) {
+            logger.info("PatientId={} | RiskLevel={} (cached)", patientId, cached.riskLevel());
+            return cached.riskLevel();
         }
 
-        int triggerCount = notes.stream()
-                .mapToInt(note -> countTriggerTerms(note.getNote()))
-                .sum();
+        try {
+            RiskEvaluation evaluation = await(inFlightEvaluations.evaluate(
+                    doctorId, patientId,
+                    () -> CompletableFuture.completedFuture(computeRisk(patientId, doctorId, inputs, authorization))));
+            return evaluation.riskLevel();
+        } catch (RuntimeException e) {
+            return lastKnownRisk(patientId, doctorId, etag, e);
+        }
+    }
 
-        int age = Period.between(patient.getDateOfBirth(), LocalDate.now()).getYears();
+    /**
+     * Returns the last known risk level of a patient whose evaluation failed
+     * because a downstream microservice is unavailable, if it was computed for
+     * the connected doctor. Other failures are rethrown: the evaluation may
+     * have been denied, or the patient removed.
+     *
+     * @param patientId the ID of the patient
+     * @param doctorId  the ID of the connected doctor
+     * @param etag      the current ETag of the evaluation, null if unknown
+     * @param failure   the failure of the evaluation
+     * @return the last known RiskLevel
+     * @throws RuntimeException the failure, if it cannot be recovered from
+     */
+    private RiskLevel lastKnownRisk(String patientId, String doctorId, String etag, Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                          ? failure.getCause() : failure;
+        RiskEvaluation lastKnown = cause instanceof ResponseStatusException e
+                                   && e.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE
+                                   ? evaluationCache.getStale(patientId, doctorId, etag) : null;
+        if (lastKnown == null) {
+            throw cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+        }
 
-        logger.info("PatientId={} | Age={} | TriggerCount={}", patientId, age, triggerCount);
+        logger.warn("PatientId={} | RiskLevel={} (last known, {})", patientId, lastKnown.riskLevel(), cause.getMessage());
+        return lastKnown.riskLevel();
+    }
 
-        RiskLevel risk = determineRisk(patient.getGender(), age, triggerCount);
+    /**
+     * Computes the risk level of a patient, then caches it under the ETag of
+     * its inputs.
+     *
+     * @param patientId     the ID of the patient
+     * @param doctorId      the ID of the connected doctor
+     * @param inputs        the inputs fetched before evaluating, null to fetch them
+     * @param authorization the Authorization header of the request
+     * @return calculated RiskLevel and trigger count
+     */
+    private RiskEvaluation computeRisk(String patientId, String doctorId, EvaluationInputs inputs,
+                                       String authorization) {
+        EvaluationInputs fetched = inputs != null ? inputs : fetchInputs(patientId, authorization);
 
-        logger.info("PatientId={} | RiskLevel={}", patientId, risk);
+        RiskEvaluation evaluation = evaluateRisk(patientId, fetched.patient(), fetched.summary(), authorization);
+        evaluationCache.put(patientId, doctorId, fetched.etag(), fetched.stamp(), evaluation);
+        return evaluation;
+    }
 
-        return risk;
+    /**
+     * Removes the cached evaluation of a patient, after one of its notes or
+     * its personal information changed.
+     *
+     * @param patientId the ID of the patient
+     */
+    public void invalidate(String patientId) {
+        evaluationCache.invalidate(patientId);
+        inFlightEvaluations.invalidate(patientId);
     }
 
     /**
-     * Counts trigger terms present in a note.
+     * Evaluates the risk level of several patients in parallel.
+     * <p>
+     * Evaluations cached for the connected doctor are reused, and evaluations
+     * already in progress for that doctor are joined. The trigger summaries and the patients of the remaining patients
+     * are fetched concurrently, each with a bulk call. Duplicate IDs are
+     * evaluated once. Like for a single patient, last known evaluations are
+     * returned while a downstream microservice is unavailable. Patients that
+     * do not exist or that the connected doctor cannot access are left out of
+     * the result. If any other evaluation fails, its exception is rethrown
+     * once every evaluation has completed.
      *
-     * @param note note text
-     * @return number of triggers found
+     * @param patientIds    the IDs of the patients
+     * @param authorization the Authorization header of the request
+     * @return calculated RiskLevel by patient ID, in request order
      */
-    private int countTriggerTerms(String note) {
-        if (note == null || note.isBlank()) return 0;
-        String normalizedNote = normalizeForMatching(note);
-        int count = 0;
-        for (String term : TriggerTerms.TERMS) {
-            String normalizedTerm = normalizeForMatching(term);
-            if (normalizedNote.contains(normalizedTerm)) {
-                count++;
+    public Map<String, RiskLevel> evaluateRisks(List<String> patientIds, String authorization) {
+        logger.info("Evaluating risk for {} patients", patientIds.size());
+
+        String doctorId = connectedUserId();
+        Map<String, CompletableFuture<RiskLevel>> evaluations = new LinkedHashMap<>();
+        List<String> missingIds = new ArrayList<>();
+        for (String patientId : new LinkedHashSet<>(patientIds)) {
+            RiskEvaluation cached = evaluationCache.get(patientId, doctorId, null);
+            if (cached != null) {
+                evaluations.put(patientId, CompletableFuture.completedFuture(cached.riskLevel()));
+            } else {
+                evaluations.put(patientId, null);
+                missingIds.add(patientId);
             }
         }
-        return count;
+        logger.info("{} of {} evaluations served from cache", evaluations.size() - missingIds.size(), evaluations.size());
+
+        if (!missingIds.isEmpty()) {
+            inFlightEvaluations.evaluateAll(doctorId, missingIds, ids -> computeRisks(ids, doctorId, authorization))
+                               .forEach((patientId, evaluation) -> evaluations.put(patientId, evaluation
+                                       .thenApply(RiskEvaluation::riskLevel)
+                                       .exceptionally(e -> isInaccessible(e) ? null : lastKnownRisk(patientId, doctorId, null, e))));
+        }
+
+        await(CompletableFuture.allOf(evaluations.values().toArray(CompletableFuture[]::new)));
+
+        Map<String, RiskLevel> risks = new LinkedHashMap<>();
+        evaluations.forEach((patientId, evaluation) -> {
+            RiskLevel risk = evaluation.join();
+            if (risk != null) {
+                risks.put(patientId, risk);
+            }
+        });
+        logger.info("{} of {} patients evaluated", risks.size(), evaluations.size());
+        return risks;
     }
 
     /**
-     * Normalizes text for trigger term matching.
+     * Fetches the data of several patients with bulk calls and computes their
+     * risk levels, caching each of them.
      *
-     * @param text input text
-     * @return normalized text
+     * @param patientIds    the IDs of the patients
+     * @param doctorId      the ID of the connected doctor
+     * @param authorization the Authorization header of the request
+     * @return the pending evaluations by patient ID
      */
-    private String normalizeForMatching(String text) {
-        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD);
-        normalized = normalized.replaceAll("\\p{M}", "");
-        normalized = normalized.replaceAll("[^a-zA-Z0-9]", "");
-        return normalized.toLowerCase();
+    private Map<String, CompletableFuture<RiskEvaluation>> computeRisks(List<String> patientIds, String doctorId,
+                                                                        String authorization) {
+        Map<String, Long> stamps = new LinkedHashMap<>();
+        patientIds.forEach(patientId -> stamps.put(patientId, evaluationCache.stamp(patientId)));
+
+        CompletableFuture<Map<String, TriggerSummaryDTO>> summaries = CompletableFuture.supplyAsync(
+                () -> noteClient.getTriggerSummaries(patientIds, authorization), evaluationExecutor);
+        CompletableFuture<Map<String, PatientDTO>> patients = CompletableFuture.supplyAsync(
+                () -> patientClient.getPatientsByIds(patientIds, authorization), evaluationExecutor);
+
+        Map<String, CompletableFuture<RiskEvaluation>> evaluations = new LinkedHashMap<>();
+        for (String patientId : patientIds) {
+            evaluations.put(patientId, patients.thenCombineAsync(summaries, (found, summary) -> {
+                RiskEvaluation evaluation = evaluateRisk(patientId, requirePatient(found, patientId),
+                                                         summary.get(patientId), authorization);
+                evaluationCache.put(patientId, doctorId, null, stamps.get(patientId), evaluation);
+                return evaluation;
+            }, evaluationExecutor));
+        }
+        return evaluations;
     }
 
     /**
-     * Determines risk level based on gender, age, and trigger count.
+     * Returns a patient fetched in bulk. The Patient microservice leaves out
+     * the patients that do not exist or that the connected doctor cannot
+     * access, which fail like a single fetch of a missing patient.
      *
-     * @param gender       patient gender
-     * @param age          patient age
-     * @param triggerCount number of triggers
-     * @return calculated RiskLevel
+     * @param patients  the patients fetched, by patient ID
+     * @param patientId the ID of the patient
+     * @return the patient
+     * @throws ResponseStatusException with status 404 if the patient was not returned
      */
-    private RiskLevel determineRisk(Gender gender, int age, int triggerCount) {
-        boolean isMale = gender.equals(Gender.M);
-
-        if (age < 30) {
-            if (isMale) {
-                if (triggerCount >= 3 && triggerCount < 5)
-                    return RiskLevel.IN_DANGER;
-                if (triggerCount >= 5)
-                    return RiskLevel.EARLY_ONSET;
-            } else {
-                if (triggerCount >= 4 && triggerCount < 7)
-                    return RiskLevel.IN_DANGER;
-                if (triggerCount >= 7)
-                    return RiskLevel.EARLY_ONSET;
+    private static PatientDTO requirePatient(Map<String, PatientDTO> patients, String patientId) {
+        PatientDTO patient = patients.get(patientId);
+        if (patient == null) {
+            logger.warn("No patient found with id {}", patientId);
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Le patient n'existe pas");
+        }
+        return patient;
+    }
+
+    /**
+     * Tells whether an evaluation failed because the patient does not exist
+     * or cannot be accessed by the connected doctor.
+     *
+     * @param failure the failure of the evaluation
+     * @return true if the Patient microservice refused the patient
+     */
+    private static boolean isInaccessible(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                          ? failure.getCause() : failure;
+        return cause instanceof ResponseStatusException e
+               && (e.getStatusCode() == HttpStatus.NOT_FOUND || e.getStatusCode() == HttpStatus.FORBIDDEN);
+    }
+
+    /**
+     * Returns the ID of the connected user, set by the
+     * {@link com.medilabo.evaluation_ms.security.CustomFilter} from the JWT.
+     * It is read on the request thread, before any work is handed to the
+     * evaluation executor.
+     *
+     * @return the ID of the connected user, or null if the request is not authenticated
+     */
+    private static String connectedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    /**
+     * Waits for an asynchronous result, rethrowing the original exception
+     * so that it is handled like a synchronous failure.
+     *
+     * @param future the asynchronous result
+     * @param <T>    the result type
+     * @return the result
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            logger.error("Asynchronous evaluation step failed: {}", e.getCause().getMessage());
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
+            throw e;
+        }
+    }
+
+    /**
+     * Computes the risk level of a patient from already fetched data.
+     * <p>
+     * The trigger count precomputed by the Note microservice is used when it
+     * was computed with the same term list. Otherwise, or when no summary was
+     * returned, the notes are fetched and scanned.
+     *
+     * @param patientId     the ID of the patient
+     * @param patient       the patient
+     * @param summary       the trigger summary of the patient's notes, may be null
+     * @param authorization the Authorization header of the request
+     * @return calculated RiskLevel and trigger count
+     */
+    private RiskEvaluation evaluateRisk(String patientId, PatientDTO patient, TriggerSummaryDTO summary,
+                                        String authorization) {
+        int noteCount;
+        int triggerCount;
+        if (summary != null && summary.getVersion() == TriggerTerms.VERSION) {
+            noteCount = summary.getNoteCount();
+            triggerCount = summary.getTriggerCount();
         } else {
-            if (triggerCount >= 2 && triggerCount <= 5)
-                return RiskLevel.BORDERLINE;
-            if (triggerCount >= 6 && triggerCount <= 7)
-                return RiskLevel.IN_DANGER;
-            if (triggerCount >= 8)
-                return RiskLevel.EARLY_ONSET;
+            logger.warn("No trigger summary matching term list version {} for patientId={}. Scanning notes",
+                        TriggerTerms.VERSION, patientId);
+            List<NoteDTO> notes = noteClient.getNotesByPatientId(patientId, authorization);
+            noteCount = notes.size();
+            triggerCount = notes.stream()
+                    .mapToInt(note -> RiskCalculator.countTriggerTerms(note.getNote()))
+                    .sum();
         }
 
-        return RiskLevel.NONE;
+        return RiskCalculator.evaluate(patientId, patient, noteCount, triggerCount);
     }
 }
@@ -0,0 +1,353 @@
+package com.medilabo.evaluation_ms.service;
+
+import com.medilabo.evaluation_ms.cache.EvaluationCache;
+import com.medilabo.evaluation_ms.cache.InFlightEvaluations;
+import com.medilabo.evaluation_ms.client.ReactiveNoteClient;
+import com.medilabo.evaluation_ms.client.ReactivePatientClient;
+import com.medilabo.evaluation_ms.domain.dto.EvaluationInputs;
+import com.medilabo.evaluation_ms.domain.dto.PatientDTO;
+import com.medilabo.evaluation_ms.domain.dto.RiskEvaluation;
+import com.medilabo.evaluation_ms.domain.dto.TriggerSummaryDTO;
+import com.medilabo.evaluation_ms.domain.enums.RiskLevel;
+import com.medilabo.evaluation_ms.utils.EvaluationEtags;
+import com.medilabo.evaluation_ms.utils.RiskCalculator;
+import com.medilabo.evaluation_ms.utils.TriggerTerms;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.context.ContextView;
+import reactor.util.function.Tuple2;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service to evaluate the medical risk level of patients when the
+ * application runs on WebFlux, the non-blocking counterpart of
+ * {@link EvaluationService}.
+ * <p>
+ * Downstream calls go through WebClient, so an evaluation waiting on the
+ * Patient or Note microservice holds no thread. When notes have to be
+ * scanned, trigger terms are counted on the bounded evaluation scheduler
+ * instead of the event loop. Evaluations are cached and shared between
+ * concurrent requests like in {@link EvaluationService}, and failures are
+ * signalled as errors of the returned publishers.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEvaluationService {
+    private static final Logger logger = LogManager.getLogger(ReactiveEvaluationService.class);
+    @Autowired
+    private ReactiveNoteClient noteClient;
+    @Autowired
+    private ReactivePatientClient patientClient;
+    @Autowired
+    @Qualifier("evaluationScheduler")
+    private Scheduler evaluationScheduler;
+    @Autowired
+    private EvaluationCache evaluationCache;
+    @Autowired
+    private InFlightEvaluations inFlightEvaluations;
+
+    /**
+     * Fetches the inputs of the evaluation of a patient and computes its ETag,
+     * without evaluating it. The inputs can then be passed to
+     * {@link #evaluateRisk(String, EvaluationInputs)}, so that an evaluation
+     * costs a single call to each downstream microservice.
+     * <p>
+     * Fetching the patient also checks that the connected doctor can access
+     * it. Other failures of a downstream call, such as an unavailable
+     * microservice or a timeout, only leave the ETag unknown.
+     *
+     * @param patientId the ID of the patient
+     * @return the inputs and their ETag, empty if they could not be fetched,
+     *         or an error if the patient cannot be accessed
+     */
+    public Mono<EvaluationInputs> getInputs(String patientId) {
+        return fetchInputs(patientId)
+                .onErrorResume(e -> !isInaccessible(e), e -> {
+                    logger.warn("ETag of patientId={} not computed: {}", patientId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Fetches the inputs of the evaluation of a patient. The patient and the
+     * trigger summary of its notes, which carries their version, are fetched
+     * concurrently.
+     *
+     * @param patientId the ID of the patient
+     * @return the inputs and their ETag, or an error if a downstream call fails
+     */
+    private Mono<EvaluationInputs> fetchInputs(String patientId) {
+        return Mono.defer(() -> {
+            long stamp = evaluationCache.stamp(patientId);
+            return Mono.zip(patientClient.getPatientById(patientId), noteClient.getTriggerSummary(patientId))
+                       .map(fetched -> new EvaluationInputs(fetched.getT1(), fetched.getT2(),
+                               EvaluationEtags.etag(fetched.getT1(), fetched.getT2().getNotesVersion()), stamp));
+        });
+    }
+
+    /**
+     * Evaluates the risk level for a given patient, whose inputs are unknown.
+     *
+     * @param patientId the ID of the patient
+     * @return calculated RiskLevel
+     * @see #evaluateRisk(String, EvaluationInputs)
+     */
+    public Mono<RiskLevel> evaluateRisk(String patientId) {
+        return evaluateRisk(patientId, null);
+    }
+
+    /**
+     * Evaluates the risk level for a given patient.
+     * <p>
+     * A cached evaluation is returned when available to the connected doctor
+     * for the same ETag, and an evaluation of the same patient already in
+     * progress for that doctor is joined. Otherwise the risk is computed from
+     * the given inputs, or from inputs fetched again when they are unknown.
+     * While a downstream microservice is unavailable, the last known
+     * evaluation of the patient is returned if there is one for the same ETag.
+     *
+     * @param patientId the ID of the patient
+     * @param inputs    the inputs fetched by {@link #getInputs} before evaluating, null if unknown
+     * @return calculated RiskLevel
+     */
+    public Mono<RiskLevel> evaluateRisk(String patientId, EvaluationInputs inputs) {
+        String etag = inputs != null ? inputs.etag() : null;
+        return connectedUserId().flatMap(doctorId -> Mono.deferContextual(context -> {
+            logger.info("Evaluating risk for patientId={}", patientId);
+
+            RiskEvaluation cached = evaluationCache.get(patientId, doctorId, etag);
+            if (cached != null) {
+                logger.info("PatientId={} | RiskLevel={} (cached)", patientId, cached.riskLevel());
+                return Mono.just(cached.riskLevel());
+            }
+
+            return Mono.fromFuture(inFlightEvaluations.evaluate(doctorId, patientId, () ->
+                               computeRisk(patientId, doctorId, inputs).contextWrite(context).toFuture()), true)
+                       .map(RiskEvaluation::riskLevel)
+                       .onErrorResume(e -> lastKnownRisk(patientId, doctorId, etag, e));
+        }));
+    }
+
+    /**
+     * Returns the last known risk level of a patient whose evaluation failed
+     * because a downstream microservice is unavailable, if it was computed for
+     * the connected doctor. Other failures are signalled again: the evaluation
+     * may have been denied, or the patient removed.
+     *
+     * @param patientId the ID of the patient
+     * @param doctorId  the ID of the connected doctor
+     * @param etag      the current ETag of the evaluation, null if unknown
+     * @param failure   the failure of the evaluation
+     * @return the last known RiskLevel, or the failure if it cannot be recovered from
+     */
+    private Mono<RiskLevel> lastKnownRisk(String patientId, String doctorId, String etag, Throwable failure) {
+        RiskEvaluation lastKnown = failure instanceof ResponseStatusException e
+                                   && e.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE
+                                   ? evaluationCache.getStale(patientId, doctorId, etag) : null;
+        if (lastKnown == null) {
+            return Mono.error(failure);
+        }
+
+        logger.warn("PatientId={} | RiskLevel={} (last known, {})", patientId, lastKnown.riskLevel(), failure.getMessage());
+        return Mono.just(lastKnown.riskLevel());
+    }
+
+    /**
+     * Computes the risk level of a patient, then caches it under the ETag of
+     * its inputs.
+     *
+     * @param patientId the ID of the patient
+     * @param doctorId  the ID of the connected doctor
+     * @param inputs    the inputs fetched before evaluating, null to fetch them
+     * @return calculated RiskLevel and trigger count
+     */
+    private Mono<RiskEvaluation> computeRisk(String patientId, String doctorId, EvaluationInputs inputs) {
+        return (inputs != null ? Mono.just(inputs) : fetchInputs(patientId))
+                .flatMap(fetched -> evaluateRisk(patientId, fetched.patient(), fetched.summary())
+                        .doOnNext(evaluation -> evaluationCache.put(patientId, doctorId, fetched.etag(),
+                                fetched.stamp(), evaluation)));
+    }
+
+    /**
+     * Removes the cached evaluation of a patient, after one of its notes or
+     * its personal information changed.
+     *
+     * @param patientId the ID of the patient
+     */
+    public void invalidate(String patientId) {
+        evaluationCache.invalidate(patientId);
+        inFlightEvaluations.invalidate(patientId);
+    }
+
+    /**
+     * Evaluates the risk level of several patients concurrently.
+     * <p>
+     * Evaluations cached for the connected doctor are reused, and evaluations
+     * already in progress for that doctor are joined. The trigger summaries and the patients of the remaining patients
+     * are fetched concurrently, each with a bulk call. Duplicate IDs are
+     * evaluated once. Like for a single patient, last known evaluations are
+     * returned while a downstream microservice is unavailable. Patients that
+     * do not exist or that the connected doctor cannot access are left out of
+     * the result. The first other failing evaluation fails the whole batch.
+     *
+     * @param patientIds the IDs of the patients
+     * @return calculated RiskLevel by patient ID, in request order
+     */
+    public Mono<Map<String, RiskLevel>> evaluateRisks(List<String> patientIds) {
+        return connectedUserId().flatMap(doctorId -> Mono.deferContextual(context -> {
+            logger.info("Evaluating risk for {} patients", patientIds.size());
+
+            Map<String, RiskLevel> risks = new LinkedHashMap<>();
+            List<String> missingIds = new ArrayList<>();
+            for (String patientId : new LinkedHashSet<>(patientIds)) {
+                RiskEvaluation cached = evaluationCache.get(patientId, doctorId, null);
+                risks.put(patientId, cached != null ? cached.riskLevel() : null);
+                if (cached == null) {
+                    missingIds.add(patientId);
+                }
+            }
+            logger.info("{} of {} evaluations served from cache", risks.size() - missingIds.size(), risks.size());
+
+            if (missingIds.isEmpty()) {
+                return Mono.just(risks);
+            }
+
+            return Flux.fromIterable(inFlightEvaluations.evaluateAll(
+                               doctorId, missingIds, ids -> computeRisks(ids, doctorId, context)).entrySet())
+                       .flatMap(evaluation -> Mono.fromFuture(evaluation.getValue(), true)
+                                                  .map(RiskEvaluation::riskLevel)
+                                                  .onErrorResume(ReactiveEvaluationService::isInaccessible,
+                                                                 e -> Mono.empty())
+                                                  .onErrorResume(e -> lastKnownRisk(evaluation.getKey(), doctorId, null, e))
+                                                  .doOnNext(risk -> risks.put(evaluation.getKey(), risk)))
+                       .then(Mono.fromSupplier(() -> {
+                           int requested = risks.size();
+                           risks.values().removeIf(Objects::isNull);
+                           logger.info("{} of {} patients evaluated", risks.size(), requested);
+                           return risks;
+                       }));
+        }));
+    }
+
+    /**
+     * Fetches the data of several patients with bulk calls and computes their
+     * risk levels, caching each of them.
+     *
+     * @param patientIds the IDs of the patients
+     * @param doctorId   the ID of the connected doctor
+     * @param context    the context of the request, forwarding its Authorization header
+     * @return the pending evaluations by patient ID
+     */
+    private Map<String, CompletableFuture<RiskEvaluation>> computeRisks(List<String> patientIds, String doctorId,
+                                                                        ContextView context) {
+        Map<String, Long> stamps = new LinkedHashMap<>();
+        patientIds.forEach(patientId -> stamps.put(patientId, evaluationCache.stamp(patientId)));
+
+        Mono<Tuple2<Map<String, PatientDTO>, Map<String, TriggerSummaryDTO>>> fetched =
+                Mono.zip(patientClient.getPatientsByIds(patientIds), noteClient.getTriggerSummaries(patientIds))
+                    .cache();
+
+        Map<String, CompletableFuture<RiskEvaluation>> evaluations = new LinkedHashMap<>();
+        for (String patientId : patientIds) {
+            evaluations.put(patientId, fetched
+                    .flatMap(data -> requirePatient(data.getT1(), patientId)
+                            .flatMap(patient -> evaluateRisk(patientId, patient, data.getT2().get(patientId))))
+                    .doOnNext(evaluation -> evaluationCache.put(patientId, doctorId, null, stamps.get(patientId),
+                                                                evaluation))
+                    .contextWrite(context)
+                    .toFuture());
+        }
+        return evaluations;
+    }
+
+    /**
+     * Returns the ID of the connected user, set in the subscriber context by
+     * the {@link com.medilabo.evaluation_ms.security.ReactiveCustomFilter}
+     * from the JWT.
+     *
+     * @return the ID of the connected user, or a 401 error if the request is not authenticated
+     */
+    private static Mono<String> connectedUserId() {
+        return ReactiveSecurityContextHolder.getContext()
+                                            .mapNotNull(SecurityContext::getAuthentication)
+                                            .map(Authentication::getName)
+                                            .switchIfEmpty(Mono.error(() -> new ResponseStatusException(
+                                                    HttpStatus.UNAUTHORIZED, "Vous n'êtes pas authentifié")));
+    }
+
+    /**
+     * Returns a patient fetched in bulk. The Patient microservice leaves out
+     * the patients that do not exist or that the connected doctor cannot
+     * access, which fail like a single fetch of a missing patient.
+     *
+     * @param patients  the patients fetched, by patient ID
+     * @param patientId the ID of the patient
+     * @return the patient, or a 404 error if the patient was not returned
+     */
+    private static Mono<PatientDTO> requirePatient(Map<String, PatientDTO> patients, String patientId) {
+        PatientDTO patient = patients.get(patientId);
+        if (patient == null) {
+            logger.warn("No patient found with id {}", patientId);
+            return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Le patient n'existe pas"));
+        }
+        return Mono.just(patient);
+    }
+
+    /**
+     * Tells whether an evaluation failed because the patient does not exist
+     * or cannot be accessed by the connected doctor.
+     *
+     * @param failure the failure of the evaluation
+     * @return true if the Patient microservice refused the patient
+     */
+    private static boolean isInaccessible(Throwable failure) {
+        return failure instanceof ResponseStatusException e
+               && (e.getStatusCode() == HttpStatus.NOT_FOUND || e.getStatusCode() == HttpStatus.FORBIDDEN);
+    }
+
+    /**
+     * Computes the risk level of a patient from already fetched data.
+     * <p>
+     * The trigger count precomputed by the Note microservice is used when it
+     * was computed with the same term list. Otherwise, or when no summary was
+     * returned, the notes are fetched and scanned on the evaluation scheduler.
+     *
+     * @param patientId the ID of the patient
+     * @param patient   the patient
+     * @param summary   the trigger summary of the patient's notes, may be null
+     * @return calculated RiskLevel and trigger count
+     */
+    private Mono<RiskEvaluation> evaluateRisk(String patientId, PatientDTO patient, TriggerSummaryDTO summary) {
+        if (summary != null && summary.getVersion() == TriggerTerms.VERSION) {
+            return Mono.just(RiskCalculator.evaluate(patientId, patient, summary.getNoteCount(), summary.getTriggerCount()));
+        }
+
+        logger.warn("No trigger summary matching term list version {} for patientId={}. Scanning notes",
+                    TriggerTerms.VERSION, patientId);
+        return noteClient.getNotesByPatientId(patientId)
+                         .collectList()
+                         .publishOn(evaluationScheduler)
+                         .map(notes -> RiskCalculator.evaluate(patientId, patient, notes.size(), notes.stream()
+                                 .mapToInt(note -> RiskCalculator.countTriggerTerms(note.getNote()))
+                                 .sum()));
+    }
+}
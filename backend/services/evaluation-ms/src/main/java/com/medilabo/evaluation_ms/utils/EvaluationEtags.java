@@ -0,0 +1,41 @@
+package com.medilabo.evaluation_ms.utils;
+
+import com.medilabo.evaluation_ms.domain.dto.PatientDTO;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.Period;
+
+/**
+ * Computes the ETag of the risk evaluation of a patient from the versions of
+ * the data it is computed from, shared by the blocking and the reactive
+ * evaluation controllers.
+ * <p>
+ * The tag changes whenever an input of {@link RiskCalculator} may change: the
+ * demographic facts returned by the Patient microservice, hashed like its own
+ * ETag, the age of the patient, the version of its notes in the Note
+ * microservice and the version of the trigger terms. It can therefore be
+ * compared to the If-None-Match header of a request before evaluating.
+ * <p>
+ * This class is final and cannot be instantiated.
+ */
+public final class EvaluationEtags {
+
+    private EvaluationEtags() {
+    }
+
+    /**
+     * Computes the strong ETag of the evaluation of a patient.
+     *
+     * @param patient      the demographic facts of the patient
+     * @param notesVersion the version of the notes of the patient
+     * @return the quoted ETag
+     */
+    public static String etag(PatientDTO patient, long notesVersion) {
+        int age = Period.between(patient.getDateOfBirth(), LocalDate.now()).getYears();
+        String inputs = patient.getId() + '|' + patient.getGender() + '|' + patient.getDateOfBirth() + '|' + age
+                        + '|' + notesVersion + '|' + TriggerTerms.VERSION;
+        return "\"" + DigestUtils.md5DigestAsHex(inputs.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,112 @@
+package com.medilabo.evaluation_ms.utils;
+
+import com.medilabo.evaluation_ms.domain.dto.PatientDTO;
+import com.medilabo.evaluation_ms.domain.dto.RiskEvaluation;
+import com.medilabo.evaluation_ms.domain.enums.Gender;
+import com.medilabo.evaluation_ms.domain.enums.RiskLevel;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+/**
+ * Computes the risk level of a patient from its demographics and the trigger
+ * terms of its notes, shared by the blocking and the reactive evaluation
+ * services.
+ * <p>
+ * This class is final and cannot be instantiated.
+ */
+public final class RiskCalculator {
+    private static final Logger logger = LogManager.getLogger(RiskCalculator.class);
+    private static final TriggerTermMatcher TRIGGER_TERM_MATCHER = new TriggerTermMatcher(
+            TriggerTerms.TERMS.stream()
+                    .map(TextNormalizer::normalize)
+                    .toList());
+    private static final ThreadLocal<char[]> NORMALIZATION_BUFFER = ThreadLocal.withInitial(() -> new char[1024]);
+
+    private RiskCalculator() {
+    }
+
+    /**
+     * Computes the risk level of a patient.
+     *
+     * @param patientId    the ID of the patient
+     * @param patient      the patient
+     * @param noteCount    number of notes of the patient
+     * @param triggerCount number of trigger terms in the notes
+     * @return calculated RiskLevel and trigger count
+     */
+    public static RiskEvaluation evaluate(String patientId, PatientDTO patient, int noteCount, int triggerCount) {
+        if (noteCount == 0) {
+            logger.info("No notes found for patientId={}. Returning NONE", patientId);
+            return new RiskEvaluation(RiskLevel.NONE, 0);
+        }
+
+        int age = Period.between(patient.getDateOfBirth(), LocalDate.now()).getYears();
+
+        logger.info("PatientId={} | Age={} | TriggerCount={}", patientId, age, triggerCount);
+
+        RiskLevel risk = determineRisk(patient.getGender(), age, triggerCount);
+
+        logger.info("PatientId={} | RiskLevel={}", patientId, risk);
+
+        return new RiskEvaluation(risk, triggerCount);
+    }
+
+    /**
+     * Counts trigger terms present in a note, in a single pass of the
+     * precompiled {@link TriggerTermMatcher}.
+     * <p>
+     * The note is normalized into a per-thread buffer, so no intermediate
+     * string is allocated.
+     *
+     * @param note note text
+     * @return number of triggers found
+     */
+    public static int countTriggerTerms(String note) {
+        if (note == null || note.isBlank()) return 0;
+        char[] buffer = NORMALIZATION_BUFFER.get();
+        if (buffer.length < note.length()) {
+            buffer = new char[note.length()];
+            NORMALIZATION_BUFFER.set(buffer);
+        }
+        int length = TextNormalizer.normalize(note, buffer);
+        return TRIGGER_TERM_MATCHER.countMatches(buffer, length);
+    }
+
+    /**
+     * Determines risk level based on gender, age, and trigger count.
+     *
+     * @param gender       patient gender
+     * @param age          patient age
+     * @param triggerCount number of triggers
+     * @return calculated RiskLevel
+     */
+    private static RiskLevel determineRisk(Gender gender, int age, int triggerCount) {
+        boolean isMale = gender.equals(Gender.M);
+
+        if (age < 30) {
+            if (isMale) {
+                if (triggerCount >= 3 && triggerCount < 5)
+                    return RiskLevel.IN_DANGER;
+                if (triggerCount >= 5)
+                    return RiskLevel.EARLY_ONSET;
+            } else {
+                if (triggerCount >= 4 && triggerCount < 7)
+                    return RiskLevel.IN_DANGER;
+                if (triggerCount >= 7)
+                    return RiskLevel.EARLY_ONSET;
+            }
+        } else {
+            if (triggerCount >= 2 && triggerCount <= 5)
+                return RiskLevel.BORDERLINE;
+            if (triggerCount >= 6 && triggerCount <= 7)
+                return RiskLevel.IN_DANGER;
+            if (triggerCount >= 8)
+                return RiskLevel.EARLY_ONSET;
+        }
+
+        return RiskLevel.NONE;
+    }
+}
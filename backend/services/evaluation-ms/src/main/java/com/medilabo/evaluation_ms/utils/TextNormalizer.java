@@ -0,0 +1,88 @@
+package com.medilabo.evaluation_ms.utils;
+
+import java.text.Normalizer;
+
+/**
+ * Normalizes text for trigger term matching: accents are folded, every
+ * character other than an ASCII letter or digit is removed and the result is
+ * lowercased.
+ * <p>
+ * The output is the same as {@code Normalizer.normalize(text, NFD)} followed by
+ * the removal of {@code \p{M}} and {@code [^a-zA-Z0-9]} and a lowercase, but it
+ * is produced in a single pass through a lookup table computed once per
+ * character of the Basic Multilingual Plane. Characters outside of it never
+ * decompose to ASCII and are dropped.
+ * <p>
+ * This class is final and cannot be instantiated.
+ */
+public final class TextNormalizer {
+
+    /** Folded character for each UTF-16 unit, {@code 0} when the unit is dropped. */
+    private static final char[] FOLDED = buildTable();
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Normalizes a text into the given buffer.
+     * <p>
+     * Every input character yields at most one output character, so a buffer
+     * at least as long as the text is always large enough.
+     *
+     * @param text   text to normalize
+     * @param buffer destination, at least {@code text.length()} long
+     * @return number of characters written to the buffer
+     */
+    public static int normalize(CharSequence text, char[] buffer) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char folded = FOLDED[text.charAt(i)];
+            if (folded != 0) {
+                buffer[length++] = folded;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Normalizes a text into a new string.
+     *
+     * @param text text to normalize
+     * @return normalized text
+     */
+    public static String normalize(CharSequence text) {
+        char[] buffer = new char[text.length()];
+        return new String(buffer, 0, normalize(text, buffer));
+    }
+
+    private static char[] buildTable() {
+        char[] table = new char[Character.MAX_VALUE + 1];
+        for (char c = '0'; c <= '9'; c++) {
+            table[c] = c;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            table[c] = c;
+            table[Character.toUpperCase(c)] = c;
+        }
+
+        // Only characters with a canonical decomposition can fold to ASCII
+        for (int c = 0x80; c <= Character.MAX_VALUE; c++) {
+            if (Character.isSurrogate((char) c)) {
+                continue;
+            }
+            String character = String.valueOf((char) c);
+            if (Normalizer.isNormalized(character, Normalizer.Form.NFD)) {
+                continue;
+            }
+            String decomposed = Normalizer.normalize(character, Normalizer.Form.NFD);
+            for (int i = 0; i < decomposed.length(); i++) {
+                char base = decomposed.charAt(i);
+                if (base < 0x80 && table[base] != 0) {
+                    table[c] = table[base];
+                    break;
+                }
+            }
+        }
+        return table;
+    }
+}
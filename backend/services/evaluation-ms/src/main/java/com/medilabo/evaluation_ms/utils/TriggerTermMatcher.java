@@ -0,0 +1,177 @@
+package com.medilabo.evaluation_ms.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton that finds which trigger terms occur in a text.
+ * <p>
+ * The automaton is compiled once from already normalized terms into a dense
+ * transition table, so a text is scanned in a single pass whatever the number
+ * of terms. Each term is identified by its position in the source list: two
+ * entries with the same value are counted twice, as a per-term
+ * {@link String#contains(CharSequence)} loop would.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ */
+public final class TriggerTermMatcher {
+
+    /** Maximum number of terms, one bit of the match mask per term. */
+    private static final int MAX_TERMS = Long.SIZE;
+
+    /** Symbol index of each character, -1 when the character appears in no term. */
+    private final int[] symbols;
+
+    /** Transition table: {@code transitions[state * alphabetSize + symbol]}. */
+    private final int[] transitions;
+
+    /** Terms recognized in each state, including those inherited through failure links. */
+    private final long[] outputs;
+
+    private final int alphabetSize;
+    private final long allTerms;
+
+    /**
+     * Compiles an automaton recognizing the given terms.
+     *
+     * @param normalizedTerms terms already normalized the same way as the scanned texts
+     * @throws IllegalArgumentException if more than 64 terms are given
+     */
+    public TriggerTermMatcher(List<String> normalizedTerms) {
+        if (normalizedTerms.size() > MAX_TERMS) {
+            throw new IllegalArgumentException("At most " + MAX_TERMS + " trigger terms are supported");
+        }
+
+        int maxChar = -1;
+        for (String term : normalizedTerms) {
+            for (int i = 0; i < term.length(); i++) {
+                maxChar = Math.max(maxChar, term.charAt(i));
+            }
+        }
+        this.symbols = new int[maxChar + 1];
+        Arrays.fill(symbols, -1);
+        int size = 0;
+        for (String term : normalizedTerms) {
+            for (int i = 0; i < term.length(); i++) {
+                char c = term.charAt(i);
+                if (symbols[c] < 0) {
+                    symbols[c] = size++;
+                }
+            }
+        }
+        this.alphabetSize = Math.max(size, 1);
+
+        // Build the trie; -1 marks a missing edge until failure links are resolved
+        List<int[]> trie = new ArrayList<>();
+        List<Long> termMasks = new ArrayList<>();
+        trie.add(newRow());
+        termMasks.add(0L);
+        for (int index = 0; index < normalizedTerms.size(); index++) {
+            String term = normalizedTerms.get(index);
+            int state = 0;
+            for (int i = 0; i < term.length(); i++) {
+                int symbol = symbols[term.charAt(i)];
+                if (trie.get(state)[symbol] < 0) {
+                    trie.get(state)[symbol] = trie.size();
+                    trie.add(newRow());
+                    termMasks.add(0L);
+                }
+                state = trie.get(state)[symbol];
+            }
+            termMasks.set(state, termMasks.get(state) | (1L << index));
+        }
+
+        int stateCount = trie.size();
+        this.transitions = new int[stateCount * alphabetSize];
+        this.outputs = new long[stateCount];
+        int[] failure = new int[stateCount];
+
+        // Breadth-first traversal turns the trie into a complete transition table
+        Queue<Integer> queue = new ArrayDeque<>();
+        outputs[0] = termMasks.get(0);
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            int next = trie.get(0)[symbol];
+            if (next < 0) {
+                transitions[symbol] = 0;
+            } else {
+                transitions[symbol] = next;
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] = termMasks.get(state) | outputs[failure[state]];
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                int next = trie.get(state)[symbol];
+                int fallback = transitions[failure[state] * alphabetSize + symbol];
+                if (next < 0) {
+                    transitions[state * alphabetSize + symbol] = fallback;
+                } else {
+                    transitions[state * alphabetSize + symbol] = next;
+                    failure[next] = fallback;
+                    queue.add(next);
+                }
+            }
+        }
+
+        this.allTerms = normalizedTerms.isEmpty() ? 0L : -1L >>> (MAX_TERMS - normalizedTerms.size());
+    }
+
+    /**
+     * Finds which terms occur at least once in the text.
+     *
+     * @param normalizedText text normalized the same way as the terms
+     * @return mask of the terms found, bit {@code i} standing for the term at index {@code i}
+     */
+    public long findMatches(CharSequence normalizedText) {
+        long found = outputs[0];
+        int state = 0;
+        for (int i = 0; i < normalizedText.length() && found != allTerms; i++) {
+            char c = normalizedText.charAt(i);
+            int symbol = c < symbols.length ? symbols[c] : -1;
+            state = symbol < 0 ? 0 : transitions[state * alphabetSize + symbol];
+            found |= outputs[state];
+        }
+        return found;
+    }
+
+    /**
+     * Counts how many distinct terms occur at least once in the text.
+     *
+     * @param normalizedText text normalized the same way as the terms
+     * @return number of terms found
+     */
+    public int countMatches(CharSequence normalizedText) {
+        return Long.bitCount(findMatches(normalizedText));
+    }
+
+    /**
+     * Counts how many distinct terms occur at least once in the first
+     * {@code length} characters of a buffer.
+     *
+     * @param normalizedText buffer holding text normalized the same way as the terms
+     * @param length         number of characters to scan
+     * @return number of terms found
+     */
+    public int countMatches(char[] normalizedText, int length) {
+        long found = outputs[0];
+        int state = 0;
+        for (int i = 0; i < length && found != allTerms; i++) {
+            char c = normalizedText[i];
+            int symbol = c < symbols.length ? symbols[c] : -1;
+            state = symbol < 0 ? 0 : transitions[state * alphabetSize + symbol];
+            found |= outputs[state];
+        }
+        return Long.bitCount(found);
+    }
+
+    private int[] newRow() {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
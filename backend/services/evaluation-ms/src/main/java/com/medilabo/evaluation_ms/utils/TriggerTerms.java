@@ -6,6 +6,10 @@ import java.util.List;
 /**
  * Utility class containing trigger terms used to evaluate patient risk.
  * <p>
+ * This class, {@link TriggerTermMatcher} and {@link TextNormalizer} are
+ * identical in note-ms and evaluation-ms, apart from their package; a test
+ * of evaluation-ms fails when the copies diverge.
+ * <p>
  * This class is final and cannot be instantiated.
  */
 public final class TriggerTerms {
@@ -27,4 +31,16 @@ public final class TriggerTerms {
             "Réaction",
             "Anticorps"
     );
+
+    /**
+     * Version of the term list and of the {@link TextNormalizer} applied to
+     * the terms and to the notes. It must be incremented whenever either of
+     * them changes, with the same value in note-ms and evaluation-ms.
+     * <p>
+     * note-ms stores it next to the trigger terms found in each note and
+     * recomputes the notes stamped with another version; evaluation-ms
+     * ignores a summary computed with another version and scans the notes
+     * instead.
+     */
+    public static final int VERSION = 1;
 }
@@ -0,0 +1,70 @@
+package com.medilabo.evaluation_ms.benchmark;
+
+import com.medilabo.evaluation_ms.utils.TextNormalizer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.text.Normalizer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the regex based normalization formerly used by EvaluationService
+ * with {@link TextNormalizer}.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.medilabo.evaluation_ms.benchmark.TextNormalizerBenchmark};
+ * the GC profiler reports the allocation rate ({@code gc.alloc.rate.norm}) of
+ * each variant next to its throughput.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TextNormalizerBenchmark {
+
+    @Param({
+            "Taille, Poids, Cholestérol, Vertige et Réaction",
+            "Le patient déclare qu'il est fumeur et qu'il a cessé de fumer l'année dernière Il se plaint également "
+                    + "de crises d’apnée respiratoire anormales Tests de laboratoire indiquant un taux de cholestérol LDL élevé"
+    })
+    private String note;
+
+    private char[] buffer;
+
+    @Setup
+    public void setup() {
+        buffer = new char[note.length()];
+    }
+
+    @Benchmark
+    public String regexNormalization() {
+        String normalized = Normalizer.normalize(note, Normalizer.Form.NFD);
+        normalized = normalized.replaceAll("\\p{M}", "");
+        normalized = normalized.replaceAll("[^a-zA-Z0-9]", "");
+        return normalized.toLowerCase();
+    }
+
+    @Benchmark
+    public String singlePassToString() {
+        return TextNormalizer.normalize(note);
+    }
+
+    @Benchmark
+    public int singlePassIntoBuffer() {
+        return TextNormalizer.normalize(note, buffer);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TextNormalizerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
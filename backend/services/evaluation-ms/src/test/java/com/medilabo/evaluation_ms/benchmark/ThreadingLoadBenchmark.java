@@ -0,0 +1,173 @@
+package com.medilabo.evaluation_ms.benchmark;
+
+import com.medilabo.evaluation_ms.EvaluationServiceApplication;
+import com.medilabo.evaluation_ms.utils.TriggerTerms;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of the evaluation endpoint on each web stack: Spring MVC on
+ * platform threads, Spring MVC on virtual threads, and WebFlux with the
+ * WebClient pipeline.
+ * <p>
+ * The Patient and Note microservices are replaced by a stub answering after
+ * {@value #DOWNSTREAM_LATENCY_MS} ms, so that requests spend their time
+ * waiting on downstream calls as in production. Each invocation sends
+ * {@value #CONCURRENCY} concurrent evaluations of distinct patients, so none
+ * is served from the cache, and the score is the number of evaluations
+ * completed per second.
+ * <p>
+ * The stacks differ in what bounds concurrent evaluations: the Tomcat
+ * request threads and the evaluation executor on platform threads, only the
+ * HTTP connection pool on virtual threads and on WebFlux. The pool is sized
+ * so that it never is the limit here.
+ * <p>
+ * Requires Java 21 for the virtual thread run. Run with {@code mvn
+ * test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.medilabo.evaluation_ms.benchmark.ThreadingLoadBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadingLoadBenchmark {
+
+    private static final String SECRET_KEY = "thisisakeythathasexactly32char!!";
+    private static final int CONCURRENCY = 1000;
+    private static final long DOWNSTREAM_LATENCY_MS = 200;
+
+    @Param({"platform", "virtual", "reactive"})
+    private String stack;
+
+    private HttpServer downstream;
+    private ExecutorService downstreamExecutor;
+    private ConfigurableApplicationContext application;
+    private HttpClient client;
+    private String baseUrl;
+    private String authorization;
+    private final AtomicLong patientIds = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        // The stub keeps only 200 idle connections by default and silently closes the others
+        System.setProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(4 * CONCURRENCY));
+        downstreamExecutor = Executors.newCachedThreadPool();
+        downstream = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        downstream.createContext("/internal/patients/", exchange ->
+                respond(exchange, "{\"gender\":\"M\",\"dateOfBirth\":\"1980-01-01\"}"));
+        downstream.createContext("/", exchange -> respond(exchange,
+                "{\"noteCount\":2,\"triggerCount\":3,\"version\":" + TriggerTerms.VERSION + ",\"notesVersion\":1}"));
+        downstream.setExecutor(downstreamExecutor);
+        downstream.start();
+        String downstreamUrl = "http://localhost:" + downstream.getAddress().getPort();
+
+        application = new SpringApplicationBuilder(EvaluationServiceApplication.class)
+                .run("--server.port=0",
+                     "--app.secret-key=" + SECRET_KEY,
+                     "--user.ms.url=" + downstreamUrl,
+                     "--note.ms.url=" + downstreamUrl,
+                     "--spring.threads.virtual.enabled=" + stack.equals("virtual"),
+                     "--spring.main.web-application-type=" + (stack.equals("reactive") ? "reactive" : "servlet"),
+                     "--server.tomcat.accept-count=" + CONCURRENCY,
+                     "--http-client.max-connections=" + 2 * CONCURRENCY,
+                     "--http-client.max-connections-per-route=" + 2 * CONCURRENCY,
+                     "--http-client.connection-request-timeout=PT30S",
+                     "--logging.level.root=warn");
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) application).getWebServer().getPort();
+
+        client = HttpClient.newHttpClient();
+        authorization = "Bearer " + Jwts.builder()
+                                        .subject("benchmark")
+                                        .claim("role", "USER")
+                                        .issuedAt(new Date())
+                                        .expiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                                        .signWith(Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8)))
+                                        .compact();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+        downstream.stop(0);
+        downstreamExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENCY)
+    public int evaluateConcurrently() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + patientIds.incrementAndGet()))
+                                             .header("Authorization", authorization)
+                                             .build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+
+        int succeeded = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() == 200) {
+                succeeded++;
+            }
+        }
+        if (succeeded < CONCURRENCY) {
+            throw new IllegalStateException((CONCURRENCY - succeeded) + " evaluations failed");
+        }
+        return succeeded;
+    }
+
+    /**
+     * Answers a stubbed downstream call after the simulated latency.
+     *
+     * @param exchange the downstream call
+     * @param body     the JSON body to answer with
+     */
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        try {
+            Thread.sleep(DOWNSTREAM_LATENCY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ThreadingLoadBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -1,13 +1,16 @@
 package com.medilabo.evaluation_ms.integration;
 
+import com.medilabo.evaluation_ms.cache.EvaluationCache;
 import com.medilabo.evaluation_ms.client.NoteClient;
 import com.medilabo.evaluation_ms.client.PatientClient;
-import com.medilabo.evaluation_ms.domain.dto.NoteDTO;
 import com.medilabo.evaluation_ms.domain.dto.PatientDTO;
+import com.medilabo.evaluation_ms.domain.dto.TriggerSummaryDTO;
 import com.medilabo.evaluation_ms.domain.enums.Gender;
 import com.medilabo.evaluation_ms.domain.enums.RiskLevel;
 import com.medilabo.evaluation_ms.utils.JwtUtils;
+import com.medilabo.evaluation_ms.utils.TriggerTerms;
 import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,9 +26,14 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -38,6 +46,7 @@ class EvaluationIntegrationTest {
     @Autowired private MockMvc mockMvc;
     @Autowired private PatientClient patientClient;
     @Autowired private NoteClient noteClient;
+    @Autowired private EvaluationCache evaluationCache;
 
     @TestConfiguration
     static class TestConfig {
@@ -52,6 +61,11 @@ class EvaluationIntegrationTest {
         }
     }
 
+    @BeforeEach
+    void setup() {
+        List.of("123", "456", "789", "999").forEach(evaluationCache::invalidate);
+    }
+
     @Test
     void testEvaluationEndpoint_returnsRisk() throws Exception {
         String token = jwtUtils.generateToken("USER", 36000L);
@@ -61,11 +75,8 @@ class EvaluationIntegrationTest {
         patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
         patient.setGender(Gender.M);
 
-        NoteDTO note1 = new NoteDTO(); note1.setNote("Hémoglobine A1C anormale");
-        NoteDTO note2 = new NoteDTO(); note2.setNote("Poids élevé");
-
-        when(patientClient.getPatientById("123")).thenReturn(patient);
-        when(noteClient.getNotesByPatientId("123")).thenReturn(List.of(note1, note2));
+        when(patientClient.getPatientById("123", "Bearer " + token)).thenReturn(patient);
+        when(noteClient.getTriggerSummary("123", "Bearer " + token)).thenReturn(summary(2, 3));
 
         mockMvc.perform(get("/123")
                                 .header("Authorization", "Bearer " + token)
@@ -80,7 +91,7 @@ class EvaluationIntegrationTest {
     void testEvaluationEndpoint_patientNotFound_returns500() throws Exception {
         String token = jwtUtils.generateToken("USER", 36000L);
 
-        when(patientClient.getPatientById("999"))
+        when(patientClient.getPatientById(eq("999"), any()))
                 .thenThrow(new ResponseStatusException(
                         HttpStatus.INTERNAL_SERVER_ERROR, "Impossible de récupérer le patient"));
 
@@ -95,4 +106,123 @@ class EvaluationIntegrationTest {
                        jsonPath("$.path").value("/999")
                );
     }
-}
\ No newline at end of file
+
+    @Test
+    void testBatchEvaluationEndpoint_returnsRiskByPatient() throws Exception {
+        String token = jwtUtils.generateToken("USER", 36000L);
+
+        PatientDTO patient = new PatientDTO();
+        patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        patient.setGender(Gender.M);
+
+        when(patientClient.getPatientsByIds(eq(List.of("123", "456")), any()))
+                .thenReturn(Map.of("123", patient, "456", patient));
+        when(noteClient.getTriggerSummaries(eq(List.of("123", "456")), any()))
+                .thenReturn(Map.of("123", summary(2, 3), "456", summary(0, 0)));
+
+        mockMvc.perform(post("/batch")
+                                .header("Authorization", "Bearer " + token)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[\"123\", \"456\"]"))
+               .andExpectAll(
+                       status().isOk(),
+                       jsonPath("$.123").value(RiskLevel.BORDERLINE.name()),
+                       jsonPath("$.456").value(RiskLevel.NONE.name())
+               );
+    }
+
+    @Test
+    void testEvaluationEndpoint_cachedForAnotherDoctor_returns403() throws Exception {
+        PatientDTO patient = new PatientDTO();
+        patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        patient.setGender(Gender.M);
+
+        when(patientClient.getPatientById(eq("789"), any())).thenReturn(patient);
+        when(noteClient.getTriggerSummary(eq("789"), any())).thenReturn(summary(2, 3));
+
+        mockMvc.perform(get("/789").header("Authorization", "Bearer " + jwtUtils.generateToken("USER", 36000L)))
+               .andExpect(status().isOk());
+
+        when(patientClient.getPatientById(eq("789"), any()))
+                .thenThrow(new ResponseStatusException(HttpStatus.FORBIDDEN, "Accès au patient refusé"));
+
+        mockMvc.perform(get("/789")
+                                .header("Authorization", "Bearer " + jwtUtils.generateToken("USER", "456", 36000L)))
+               .andExpectAll(
+                       status().isForbidden(),
+                       jsonPath("$.message").value("Accès au patient refusé")
+               );
+    }
+
+    @Test
+    void testInvalidateEndpoint_recomputesRisk() throws Exception {
+        String token = jwtUtils.generateToken("USER", 36000L);
+
+        PatientDTO patient = new PatientDTO();
+        patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        patient.setGender(Gender.M);
+
+        when(patientClient.getPatientById(eq("456"), any())).thenReturn(patient);
+        when(noteClient.getTriggerSummary(eq("456"), any())).thenReturn(summary(0, 0), summary(1, 2));
+
+        mockMvc.perform(get("/456").header("Authorization", "Bearer " + token))
+               .andExpect(content().string(Matchers.containsString(RiskLevel.NONE.name())));
+
+        mockMvc.perform(delete("/internal/cache/456").header("Authorization", "Bearer " + token))
+               .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/456").header("Authorization", "Bearer " + token))
+               .andExpect(content().string(Matchers.containsString(RiskLevel.BORDERLINE.name())));
+    }
+
+    @Test
+    void testEvaluationEndpoint_notModifiedUntilInvalidated() throws Exception {
+        String token = jwtUtils.generateToken("USER", 36000L);
+
+        PatientDTO patient = new PatientDTO();
+        patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        patient.setGender(Gender.M);
+
+        Mockito.clearInvocations(patientClient, noteClient);
+        when(patientClient.getPatientById(eq("456"), any())).thenReturn(patient);
+        when(noteClient.getTriggerSummary(eq("456"), any())).thenReturn(summary(0, 0, 1), summary(0, 0, 1),
+                                                                      summary(1, 2, 2));
+
+        String etag = mockMvc.perform(get("/456").header("Authorization", "Bearer " + token))
+                             .andExpect(status().isOk())
+                             .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                             .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/456")
+                                .header("Authorization", "Bearer " + token)
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+               .andExpect(status().isNotModified())
+               .andExpect(content().string(""));
+        Mockito.verify(patientClient, Mockito.times(2)).getPatientById(eq("456"), any());
+        Mockito.verify(noteClient, Mockito.times(2)).getTriggerSummary(eq("456"), any());
+
+        mockMvc.perform(delete("/internal/cache/456").header("Authorization", "Bearer " + token))
+               .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/456")
+                                .header("Authorization", "Bearer " + token)
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+               .andExpect(status().isOk())
+               .andExpect(header().string(HttpHeaders.ETAG, Matchers.not(etag)))
+               .andExpect(content().string(Matchers.containsString(RiskLevel.BORDERLINE.name())));
+    }
+
+    private static TriggerSummaryDTO summary(int noteCount, int triggerCount) {
+        TriggerSummaryDTO summary = new TriggerSummaryDTO();
+        summary.setNoteCount(noteCount);
+        summary.setTriggerCount(triggerCount);
+        summary.setVersion(TriggerTerms.VERSION);
+        return summary;
+    }
+
+    private static TriggerSummaryDTO summary(int noteCount, int triggerCount, long notesVersion) {
+        TriggerSummaryDTO summary = summary(noteCount, triggerCount);
+        summary.setNotesVersion(notesVersion);
+        return summary;
+    }
+}
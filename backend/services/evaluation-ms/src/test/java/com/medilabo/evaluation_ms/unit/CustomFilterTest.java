@@ -1,5 +1,6 @@
 package com.medilabo.evaluation_ms.unit;
 
+import com.medilabo.evaluation_ms.configuration.JwtConfig;
 import com.medilabo.evaluation_ms.security.CustomFilter;
 import com.medilabo.evaluation_ms.utils.JwtUtils;
 import jakarta.servlet.FilterChain;
@@ -132,7 +133,7 @@ class CustomFilterTest {
 
     static class TestableCustomFilter extends CustomFilter {
         public TestableCustomFilter() {
-            super.secretKey = SECRET_KEY;
+            super.jwtParser = new JwtConfig().jwtParser(SECRET_KEY);
         }
 
         public void doFilterInternalPublic(jakarta.servlet.http.HttpServletRequest request,
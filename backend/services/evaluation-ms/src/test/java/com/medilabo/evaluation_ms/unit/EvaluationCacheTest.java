@@ -0,0 +1,81 @@
+package com.medilabo.evaluation_ms.unit;
+
+import com.medilabo.evaluation_ms.cache.EvaluationCache;
+import com.medilabo.evaluation_ms.domain.dto.RiskEvaluation;
+import com.medilabo.evaluation_ms.domain.enums.RiskLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvaluationCacheTest {
+    private EvaluationCache evaluationCache;
+
+    @BeforeEach
+    void setup() {
+        evaluationCache = new EvaluationCache(100, Duration.ofMinutes(1), Duration.ofHours(1));
+    }
+
+    @Test
+    void whenPut_thenEvaluationIsReturned() {
+        RiskEvaluation evaluation = new RiskEvaluation(RiskLevel.BORDERLINE, 3);
+
+        evaluationCache.put("1", "doctor", null, evaluationCache.stamp("1"), evaluation);
+
+        assertEquals(evaluation, evaluationCache.get("1", "doctor", null));
+    }
+
+    @Test
+    void whenRequestedByAnotherDoctor_thenEvaluationIsNotReturned() {
+        evaluationCache.put("1", "doctor", null, evaluationCache.stamp("1"), new RiskEvaluation(RiskLevel.BORDERLINE, 3));
+
+        assertNull(evaluationCache.get("1", "other-doctor", null));
+        assertNull(evaluationCache.getStale("1", "other-doctor", null));
+    }
+
+    @Test
+    void whenRequestedForAnotherEtag_thenEvaluationIsNotReturned() {
+        RiskEvaluation evaluation = new RiskEvaluation(RiskLevel.BORDERLINE, 3);
+
+        evaluationCache.put("1", "doctor", "\"v1\"", evaluationCache.stamp("1"), evaluation);
+
+        assertEquals(evaluation, evaluationCache.get("1", "doctor", "\"v1\""));
+        assertEquals(evaluation, evaluationCache.get("1", "doctor", null));
+        assertNull(evaluationCache.get("1", "doctor", "\"v2\""));
+        assertNull(evaluationCache.getStale("1", "doctor", "\"v2\""));
+    }
+
+    @Test
+    void whenInvalidated_thenEvaluationIsRemoved() {
+        evaluationCache.put("1", "doctor", null, evaluationCache.stamp("1"), new RiskEvaluation(RiskLevel.NONE, 0));
+
+        evaluationCache.invalidate("1");
+
+        assertNull(evaluationCache.get("1", "doctor", null));
+        assertNull(evaluationCache.getStale("1", "doctor", null));
+    }
+
+    @Test
+    void whenExpired_thenLastKnownEvaluationIsKept() {
+        EvaluationCache expiringCache = new EvaluationCache(100, Duration.ZERO, Duration.ofHours(1));
+        RiskEvaluation evaluation = new RiskEvaluation(RiskLevel.IN_DANGER, 6);
+
+        expiringCache.put("1", "doctor", null, expiringCache.stamp("1"), evaluation);
+
+        assertNull(expiringCache.get("1", "doctor", null));
+        assertEquals(evaluation, expiringCache.getStale("1", "doctor", null));
+    }
+
+    @Test
+    void whenInvalidatedDuringComputation_thenEvaluationIsNotCached() {
+        long stamp = evaluationCache.stamp("1");
+        evaluationCache.invalidate("1");
+
+        evaluationCache.put("1", "doctor", null, stamp, new RiskEvaluation(RiskLevel.NONE, 0));
+
+        assertNull(evaluationCache.get("1", "doctor", null));
+        assertNull(evaluationCache.getStale("1", "doctor", null));
+    }
+}
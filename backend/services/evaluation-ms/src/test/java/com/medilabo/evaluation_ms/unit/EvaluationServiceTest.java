@@ -1,25 +1,49 @@
 package com.medilabo.evaluation_ms.unit;
 
+import com.medilabo.evaluation_ms.cache.EvaluationCache;
+import com.medilabo.evaluation_ms.cache.InFlightEvaluations;
 import com.medilabo.evaluation_ms.client.NoteClient;
 import com.medilabo.evaluation_ms.client.PatientClient;
+import com.medilabo.evaluation_ms.domain.dto.EvaluationInputs;
 import com.medilabo.evaluation_ms.domain.dto.NoteDTO;
 import com.medilabo.evaluation_ms.domain.dto.PatientDTO;
+import com.medilabo.evaluation_ms.domain.dto.TriggerSummaryDTO;
 import com.medilabo.evaluation_ms.domain.enums.Gender;
 import com.medilabo.evaluation_ms.domain.enums.RiskLevel;
 import com.medilabo.evaluation_ms.service.EvaluationService;
+import com.medilabo.evaluation_ms.utils.TriggerTerms;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -27,13 +51,27 @@ import static org.mockito.Mockito.*;
 @TestPropertySource(locations = "classpath:application-test.yml")
 class EvaluationServiceTest {
 
+    private static final String DOCTOR = "doctor-1";
+    private static final String AUTHORIZATION = "Bearer token";
+
     @Mock private NoteClient noteClient;
     @Mock private PatientClient patientClient;
     @InjectMocks private EvaluationService evaluationService;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(evaluationService, "evaluationExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(evaluationService, "evaluationCache", new EvaluationCache(100, Duration.ofMinutes(1), Duration.ofHours(1)));
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(evaluationService, "inFlightEvaluations", new InFlightEvaluations(meterRegistry));
+        authenticate(DOCTOR);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
     }
 
     @Test
@@ -43,10 +81,10 @@ class EvaluationServiceTest {
         patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
         patient.setGender(Gender.M);
 
-        when(patientClient.getPatientById(patientId)).thenReturn(patient);
-        when(noteClient.getNotesByPatientId(patientId)).thenReturn(List.of());
+        when(patientClient.getPatientById(patientId, AUTHORIZATION)).thenReturn(patient);
+        when(noteClient.getTriggerSummary(patientId, AUTHORIZATION)).thenReturn(summary(0, 0));
 
-        RiskLevel risk = evaluationService.evaluateRisk(patientId);
+        RiskLevel risk = evaluationService.evaluateRisk(patientId, null, AUTHORIZATION);
         assertEquals(RiskLevel.NONE, risk);
     }
 
@@ -57,13 +95,10 @@ class EvaluationServiceTest {
         patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
         patient.setGender(Gender.M);
 
-        NoteDTO note1 = new NoteDTO(); note1.setNote("Hémoglobine A1C normale");
-        NoteDTO note2 = new NoteDTO(); note2.setNote("Poids anormal");
-
-        when(patientClient.getPatientById(patientId)).thenReturn(patient);
-        when(noteClient.getNotesByPatientId(patientId)).thenReturn(List.of(note1, note2));
+        when(patientClient.getPatientById(patientId, AUTHORIZATION)).thenReturn(patient);
+        when(noteClient.getTriggerSummary(patientId, AUTHORIZATION)).thenReturn(summary(2, 3));
 
-        RiskLevel risk = evaluationService.evaluateRisk(patientId);
+        RiskLevel risk = evaluationService.evaluateRisk(patientId, null, AUTHORIZATION);
         assertEquals(RiskLevel.BORDERLINE, risk);
     }
 
@@ -74,17 +109,10 @@ class EvaluationServiceTest {
         patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
         patient.setGender(Gender.M);
 
-        NoteDTO note1 = new NoteDTO(); note1.setNote("Hémoglobine A1C normale");
-        NoteDTO note2 = new NoteDTO(); note2.setNote("Poids anormal");
-        NoteDTO note3 = new NoteDTO(); note3.setNote("Cholestérol");
-        NoteDTO note4 = new NoteDTO(); note4.setNote("Vertiges");
-        NoteDTO note5 = new NoteDTO(); note5.setNote("Anormal");
-        NoteDTO note6 = new NoteDTO(); note6.setNote("Microalbumine");
-
-        when(patientClient.getPatientById(patientId)).thenReturn(patient);
-        when(noteClient.getNotesByPatientId(patientId)).thenReturn(List.of(note1, note2, note3, note4, note5, note6));
+        when(patientClient.getPatientById(patientId, AUTHORIZATION)).thenReturn(patient);
+        when(noteClient.getTriggerSummary(patientId, AUTHORIZATION)).thenReturn(summary(6, 7));
 
-        RiskLevel risk = evaluationService.evaluateRisk(patientId);
+        RiskLevel risk = evaluationService.evaluateRisk(patientId, null, AUTHORIZATION);
         assertEquals(RiskLevel.IN_DANGER, risk);
     }
 
@@ -95,19 +123,10 @@ class EvaluationServiceTest {
         patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
         patient.setGender(Gender.M);
 
-        NoteDTO note1 = new NoteDTO(); note1.setNote("Hémoglobine A1C normale");
-        NoteDTO note2 = new NoteDTO(); note2.setNote("Poids anormal");
-        NoteDTO note3 = new NoteDTO(); note3.setNote("Cholestérol");
-        NoteDTO note4 = new NoteDTO(); note4.setNote("Vertiges");
-        NoteDTO note5 = new NoteDTO(); note5.setNote("Anormal");
-        NoteDTO note6 = new NoteDTO(); note6.setNote("Microalbumine");
-        NoteDTO note7 = new NoteDTO(); note7.setNote("Réaction");
-        NoteDTO note8 = new NoteDTO(); note8.setNote("Taille");
+        when(patientClient.getPatientById(patientId, AUTHORIZATION)).thenReturn(patient);
+        when(noteClient.getTriggerSummary(patientId, AUTHORIZATION)).thenReturn(summary(8, 9));
 
-        when(patientClient.getPatientById(patientId)).thenReturn(patient);
-        when(noteClient.getNotesByPatientId(patientId)).thenReturn(List.of(note1, note2, note3, note4, note5, note6, note7, note8));
-
-        RiskLevel risk = evaluationService.evaluateRisk(patientId);
+        RiskLevel risk = evaluationService.evaluateRisk(patientId, null, AUTHORIZATION);
         assertEquals(RiskLevel.EARLY_ONSET, risk);
     }
 
@@ -118,17 +137,11 @@ class EvaluationServiceTest {
         patient.setDateOfBirth(LocalDate.now().minusYears(25));
         patient.setGender(Gender.M);
 
-        NoteDTO note1 = new NoteDTO(); note1.setNote("Hémoglobine A1C");
-        NoteDTO note2 = new NoteDTO(); note2.setNote("Poids");
-        NoteDTO note3 = new NoteDTO(); note3.setNote("Cholestérol");
-        NoteDTO note4 = new NoteDTO(); note4.setNote("Vertiges");
-
 
-        when(patientClient.getPatientById(patientId)).thenReturn(patient);
-        when(noteClient.getNotesByPatientId(patientId))
-                .thenReturn(List.of(note1, note2, note3, note4));
+        when(patientClient.getPatientById(patientId, AUTHORIZATION)).thenReturn(patient);
+        when(noteClient.getTriggerSummary(patientId, AUTHORIZATION)).thenReturn(summary(4, 4));
 
-        RiskLevel risk = evaluationService.evaluateRisk(patientId);
+        RiskLevel risk = evaluationService.evaluateRisk(patientId, null, AUTHORIZATION);
         assertEquals(RiskLevel.IN_DANGER, risk);
     }
 
@@ -139,18 +152,11 @@ class EvaluationServiceTest {
         patient.setDateOfBirth(LocalDate.now().minusYears(25));
         patient.setGender(Gender.M);
 
-        NoteDTO note1 = new NoteDTO(); note1.setNote("Hémoglobine A1C");
-        NoteDTO note2 = new NoteDTO(); note2.setNote("Poids");
-        NoteDTO note3 = new NoteDTO(); note3.setNote("Cholestérol");
-        NoteDTO note4 = new NoteDTO(); note4.setNote("Vertiges");
-        NoteDTO note5 = new NoteDTO(); note5.setNote("Anormal");
-
 
-        when(patientClient.getPatientById(patientId)).thenReturn(patient);
-        when(noteClient.getNotesByPatientId(patientId))
-                .thenReturn(List.of(note1, note2, note3, note4, note5));
+        when(patientClient.getPatientById(patientId, AUTHORIZATION)).thenReturn(patient);
+        when(noteClient.getTriggerSummary(patientId, AUTHORIZATION)).thenReturn(summary(5, 5));
 
-        RiskLevel risk = evaluationService.evaluateRisk(patientId);
+        RiskLevel risk = evaluationService.evaluateRisk(patientId, null, AUTHORIZATION);
         assertEquals(RiskLevel.EARLY_ONSET, risk);
     }
 
@@ -161,17 +167,11 @@ class EvaluationServiceTest {
         patient.setDateOfBirth(LocalDate.now().minusYears(25));
         patient.setGender(Gender.F);
 
-        NoteDTO note1 = new NoteDTO(); note1.setNote("Hémoglobine A1C");
-        NoteDTO note2 = new NoteDTO(); note2.setNote("Poids");
-        NoteDTO note3 = new NoteDTO(); note3.setNote("Cholestérol");
-        NoteDTO note4 = new NoteDTO(); note4.setNote("Vertiges");
 
+        when(patientClient.getPatientById(patientId, AUTHORIZATION)).thenReturn(patient);
+        when(noteClient.getTriggerSummary(patientId, AUTHORIZATION)).thenReturn(summary(4, 4));
 
-        when(patientClient.getPatientById(patientId)).thenReturn(patient);
-        when(noteClient.getNotesByPatientId(patientId))
-                .thenReturn(List.of(note1, note2, note3, note4));
-
-        RiskLevel risk = evaluationService.evaluateRisk(patientId);
+        RiskLevel risk = evaluationService.evaluateRisk(patientId, null, AUTHORIZATION);
         assertEquals(RiskLevel.IN_DANGER, risk);
     }
 
@@ -182,20 +182,344 @@ class EvaluationServiceTest {
         patient.setDateOfBirth(LocalDate.now().minusYears(25));
         patient.setGender(Gender.M);
 
-        NoteDTO note1 = new NoteDTO(); note1.setNote("Hémoglobine A1C");
-        NoteDTO note2 = new NoteDTO(); note2.setNote("Poids");
-        NoteDTO note3 = new NoteDTO(); note3.setNote("Cholestérol");
-        NoteDTO note4 = new NoteDTO(); note4.setNote("Vertiges");
-        NoteDTO note5 = new NoteDTO(); note5.setNote("Anormal");
-        NoteDTO note6 = new NoteDTO(); note6.setNote("Microalbumine");
-        NoteDTO note7 = new NoteDTO(); note7.setNote("Réaction");
-
 
-        when(patientClient.getPatientById(patientId)).thenReturn(patient);
-        when(noteClient.getNotesByPatientId(patientId))
-                .thenReturn(List.of(note1, note2, note3, note4, note5, note6, note7));
+        when(patientClient.getPatientById(patientId, AUTHORIZATION)).thenReturn(patient);
+        when(noteClient.getTriggerSummary(patientId, AUTHORIZATION)).thenReturn(summary(7, 7));
 
-        RiskLevel risk = evaluationService.evaluateRisk(patientId);
+        RiskLevel risk = evaluationService.evaluateRisk(patientId, null, AUTHORIZATION);
         assertEquals(RiskLevel.EARLY_ONSET, risk);
     }
+
+    @Test
+    void whenBatch_thenEachDistinctPatientIsEvaluated() {
+        PatientDTO patient = new PatientDTO();
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender(Gender.M);
+
+        when(patientClient.getPatientsByIds(List.of("1", "2"), AUTHORIZATION)).thenReturn(Map.of("1", patient, "2", patient));
+        when(noteClient.getTriggerSummaries(List.of("1", "2"), AUTHORIZATION))
+                .thenReturn(Map.of("1", summary(0, 0), "2", summary(2, 3)));
+
+        Map<String, RiskLevel> risks = evaluationService.evaluateRisks(List.of("1", "2", "1"), AUTHORIZATION);
+
+        assertEquals(Map.of("1", RiskLevel.NONE, "2", RiskLevel.BORDERLINE), risks);
+        verify(patientClient, times(1)).getPatientsByIds(anyList(), any());
+        verify(patientClient, never()).getPatientById(anyString(), any());
+        verify(noteClient, never()).getNotesByPatientId(anyString(), any());
+    }
+
+    @Test
+    void whenBatchEvaluationFails_thenExceptionIsRethrown() {
+        when(patientClient.getPatientsByIds(List.of("1"), AUTHORIZATION))
+                .thenThrow(new ResponseStatusException(
+                        HttpStatus.INTERNAL_SERVER_ERROR, "Impossible de récupérer le patient"));
+
+        assertThrows(ResponseStatusException.class, () -> evaluationService.evaluateRisks(List.of("1"), AUTHORIZATION));
+    }
+
+    @Test
+    void whenBatchPatientIsMissing_thenItIsLeftOutOfTheResult() {
+        PatientDTO patient = new PatientDTO();
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender(Gender.M);
+
+        when(patientClient.getPatientsByIds(List.of("1", "8"), AUTHORIZATION)).thenReturn(Map.of("1", patient));
+        when(noteClient.getTriggerSummaries(List.of("1", "8"), AUTHORIZATION))
+                .thenReturn(Map.of("1", summary(0, 0), "8", summary(1, 1)));
+
+        assertEquals(Map.of("1", RiskLevel.NONE), evaluationService.evaluateRisks(List.of("1", "8"), AUTHORIZATION));
+    }
+
+    @Test
+    void whenEvaluatedTwice_thenSecondEvaluationIsCached() {
+        String patientId = "4";
+        PatientDTO patient = new PatientDTO();
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender(Gender.M);
+
+        when(patientClient.getPatientById(patientId, AUTHORIZATION)).thenReturn(patient);
+        when(noteClient.getTriggerSummary(patientId, AUTHORIZATION)).thenReturn(summary(0, 0));
+
+        assertEquals(RiskLevel.NONE, evaluationService.evaluateRisk(patientId, null, AUTHORIZATION));
+        assertEquals(RiskLevel.NONE, evaluationService.evaluateRisk(patientId, null, AUTHORIZATION));
+        assertEquals(Map.of(patientId, RiskLevel.NONE), evaluationService.evaluateRisks(List.of(patientId), AUTHORIZATION));
+
+        verify(patientClient, times(1)).getPatientById(patientId, AUTHORIZATION);
+        verify(noteClient, times(1)).getTriggerSummary(patientId, AUTHORIZATION);
+        verify(noteClient, never()).getTriggerSummaries(anyList(), any());
+    }
+
+    @Test
+    void whenCachedForAnotherDoctor_thenPatientAccessIsCheckedAgain() {
+        String patientId = "12";
+        PatientDTO patient = new PatientDTO();
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender(Gender.M);
+
+        when(patientClient.getPatientById(patientId, AUTHORIZATION)).thenReturn(patient);
+        when(noteClient.getTriggerSummary(patientId, AUTHORIZATION)).thenReturn(summary(2, 3));
+        assertEquals(RiskLevel.BORDERLINE, evaluationService.evaluateRisk(patientId, null, AUTHORIZATION));
+
+        authenticate("doctor-2");
+        when(patientClient.getPatientById(patientId, AUTHORIZATION)).thenThrow(new ResponseStatusException(
+                HttpStatus.FORBIDDEN, "Accès au patient refusé"));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                                                  () -> evaluationService.evaluateRisk(patientId, null, AUTHORIZATION));
+        assertEquals(HttpStatus.FORBIDDEN, ex.getStatusCode());
+        verify(patientClient, times(2)).getPatientById(patientId, AUTHORIZATION);
+    }
+
+    @Test
+    void whenInvalidated_thenRiskIsRecomputed() {
+        String patientId = "5";
+        PatientDTO patient = new PatientDTO();
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender(Gender.M);
+
+        when(patientClient.getPatientById(patientId, AUTHORIZATION)).thenReturn(patient);
+        when(noteClient.getTriggerSummary(patientId, AUTHORIZATION)).thenReturn(summary(0, 0), summary(2, 3));
+
+        assertEquals(RiskLevel.NONE, evaluationService.evaluateRisk(patientId, null, AUTHORIZATION));
+        evaluationService.invalidate(patientId);
+        assertEquals(RiskLevel.BORDERLINE, evaluationService.evaluateRisk(patientId, null, AUTHORIZATION));
+    }
+
+    @Test
+    void whenNotesVersionChanges_thenEtagChangesAndRiskIsRecomputed() {
+        String patientId = "14";
+        PatientDTO patient = new PatientDTO();
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender(Gender.M);
+
+        when(patientClient.getPatientById(patientId, AUTHORIZATION)).thenReturn(patient);
+        when(noteClient.getTriggerSummary(patientId, AUTHORIZATION))
+                .thenReturn(summary(0, 0, 1), summary(0, 0, 1), summary(2, 3, 2));
+
+        EvaluationInputs inputs = evaluationService.getInputs(patientId, AUTHORIZATION);
+        assertEquals(RiskLevel.NONE, evaluationService.evaluateRisk(patientId, inputs, AUTHORIZATION));
+        EvaluationInputs unchanged = evaluationService.getInputs(patientId, AUTHORIZATION);
+        assertEquals(inputs.etag(), unchanged.etag());
+        assertEquals(RiskLevel.NONE, evaluationService.evaluateRisk(patientId, unchanged, AUTHORIZATION));
+
+        EvaluationInputs changed = evaluationService.getInputs(patientId, AUTHORIZATION);
+        assertNotEquals(inputs.etag(), changed.etag());
+        assertEquals(RiskLevel.BORDERLINE, evaluationService.evaluateRisk(patientId, changed, AUTHORIZATION));
+        verify(noteClient, times(3)).getTriggerSummary(patientId, AUTHORIZATION);
+    }
+
+    @Test
+    void whenEvaluatedFromInputs_thenEachServiceIsCalledOnce() {
+        String patientId = "17";
+        PatientDTO patient = new PatientDTO();
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender(Gender.M);
+
+        when(patientClient.getPatientById(patientId, AUTHORIZATION)).thenReturn(patient);
+        when(noteClient.getTriggerSummary(patientId, AUTHORIZATION)).thenReturn(summary(2, 3, 1));
+
+        EvaluationInputs inputs = evaluationService.getInputs(patientId, AUTHORIZATION);
+        assertEquals(RiskLevel.BORDERLINE, evaluationService.evaluateRisk(patientId, inputs, AUTHORIZATION));
+
+        verify(patientClient, times(1)).getPatientById(patientId, AUTHORIZATION);
+        verify(noteClient, times(1)).getTriggerSummary(patientId, AUTHORIZATION);
+    }
+
+    @Test
+    void whenNoteServiceUnavailable_thenEtagIsUnknown() {
+        PatientDTO patient = new PatientDTO();
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender(Gender.M);
+
+        when(patientClient.getPatientById("15", AUTHORIZATION)).thenReturn(patient);
+        when(noteClient.getTriggerSummary("15", AUTHORIZATION)).thenThrow(new ResponseStatusException(
+                HttpStatus.SERVICE_UNAVAILABLE, "Impossible de récupérer les notes"));
+
+        assertNull(evaluationService.getInputs("15", AUTHORIZATION));
+    }
+
+    @Test
+    void whenNoteServiceFails_thenEtagIsUnknown() {
+        PatientDTO patient = new PatientDTO();
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender(Gender.M);
+
+        when(patientClient.getPatientById("18", AUTHORIZATION)).thenReturn(patient);
+        when(noteClient.getTriggerSummary("18", AUTHORIZATION)).thenThrow(new ResponseStatusException(
+                HttpStatus.INTERNAL_SERVER_ERROR, "Impossible de récupérer les notes"));
+
+        assertNull(evaluationService.getInputs("18", AUTHORIZATION));
+    }
+
+    @Test
+    void whenPatientInaccessible_thenEtagIsRefused() {
+        when(patientClient.getPatientById("16", AUTHORIZATION)).thenThrow(new ResponseStatusException(
+                HttpStatus.FORBIDDEN, "Accès au patient refusé"));
+        when(noteClient.getTriggerSummary("16", AUTHORIZATION)).thenReturn(summary(1, 1, 1));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                                                  () -> evaluationService.getInputs("16", AUTHORIZATION));
+        assertEquals(HttpStatus.FORBIDDEN, ex.getStatusCode());
+    }
+
+    @Test
+    void whenSummaryVersionDiffers_thenNotesAreScanned() {
+        String patientId = "6";
+        PatientDTO patient = new PatientDTO();
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender(Gender.M);
+
+        TriggerSummaryDTO outdated = summary(2, 0);
+        outdated.setVersion(TriggerTerms.VERSION + 1);
+
+        NoteDTO note1 = new NoteDTO(); note1.setNote("Hémoglobine A1C normale");
+        NoteDTO note2 = new NoteDTO(); note2.setNote("Poids anormal");
+
+        when(patientClient.getPatientById(patientId, AUTHORIZATION)).thenReturn(patient);
+        when(noteClient.getTriggerSummary(patientId, AUTHORIZATION)).thenReturn(outdated);
+        when(noteClient.getNotesByPatientId(patientId, AUTHORIZATION)).thenReturn(List.of(note1, note2));
+
+        assertEquals(RiskLevel.BORDERLINE, evaluationService.evaluateRisk(patientId, null, AUTHORIZATION));
+    }
+
+    @Test
+    void whenBatchSummaryIsMissing_thenNotesAreScanned() {
+        PatientDTO patient = new PatientDTO();
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender(Gender.M);
+
+        NoteDTO note1 = new NoteDTO(); note1.setNote("Hémoglobine A1C normale");
+        NoteDTO note2 = new NoteDTO(); note2.setNote("Poids anormal");
+
+        when(patientClient.getPatientsByIds(List.of("7"), AUTHORIZATION)).thenReturn(Map.of("7", patient));
+        when(noteClient.getTriggerSummaries(List.of("7"), AUTHORIZATION)).thenReturn(Map.of());
+        when(noteClient.getNotesByPatientId("7", AUTHORIZATION)).thenReturn(List.of(note1, note2));
+
+        assertEquals(Map.of("7", RiskLevel.BORDERLINE), evaluationService.evaluateRisks(List.of("7"), AUTHORIZATION));
+    }
+
+    @Test
+    void whenEvaluatedConcurrently_thenDownstreamIsCalledOnce() throws Exception {
+        PatientDTO patient = new PatientDTO();
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender(Gender.M);
+
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(patientClient.getPatientById("9", AUTHORIZATION)).thenAnswer(invocation -> {
+            leaderStarted.countDown();
+            release.await();
+            return patient;
+        });
+        when(noteClient.getTriggerSummary("9", AUTHORIZATION)).thenReturn(summary(2, 3));
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<RiskLevel> first = callers.submit(() -> {
+                authenticate(DOCTOR);
+                return evaluationService.evaluateRisk("9", null, AUTHORIZATION);
+            });
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+            Future<RiskLevel> second = callers.submit(() -> {
+                authenticate(DOCTOR);
+                return evaluationService.evaluateRisk("9", null, AUTHORIZATION);
+            });
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (meterRegistry.get("evaluation.requests.coalesced").counter().count() < 1
+                   && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            assertEquals(RiskLevel.BORDERLINE, first.get(5, TimeUnit.SECONDS));
+            assertEquals(RiskLevel.BORDERLINE, second.get(5, TimeUnit.SECONDS));
+        } finally {
+            callers.shutdownNow();
+        }
+
+        verify(patientClient, times(1)).getPatientById("9", AUTHORIZATION);
+        verify(noteClient, times(1)).getTriggerSummary("9", AUTHORIZATION);
+        assertEquals(1.0, meterRegistry.get("evaluation.requests.coalesced").counter().count());
+    }
+
+    @Test
+    void whenDownstreamUnavailable_thenLastKnownRiskIsReturned() {
+        ReflectionTestUtils.setField(evaluationService, "evaluationCache",
+                                     new EvaluationCache(100, Duration.ZERO, Duration.ofHours(1)));
+        PatientDTO patient = new PatientDTO();
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender(Gender.M);
+
+        when(patientClient.getPatientById("10", AUTHORIZATION)).thenReturn(patient);
+        when(noteClient.getTriggerSummary("10", AUTHORIZATION)).thenReturn(summary(2, 3));
+        assertEquals(RiskLevel.BORDERLINE, evaluationService.evaluateRisk("10", null, AUTHORIZATION));
+
+        when(noteClient.getTriggerSummary("10", AUTHORIZATION)).thenThrow(new ResponseStatusException(
+                HttpStatus.SERVICE_UNAVAILABLE, "Impossible de récupérer les notes"));
+        when(noteClient.getTriggerSummaries(List.of("10"), AUTHORIZATION)).thenThrow(new ResponseStatusException(
+                HttpStatus.SERVICE_UNAVAILABLE, "Impossible de récupérer les notes"));
+
+        assertEquals(RiskLevel.BORDERLINE, evaluationService.evaluateRisk("10", null, AUTHORIZATION));
+        assertEquals(Map.of("10", RiskLevel.BORDERLINE), evaluationService.evaluateRisks(List.of("10"), AUTHORIZATION));
+    }
+
+    @Test
+    void whenDownstreamUnavailable_thenLastKnownRiskIsNotServedToAnotherDoctor() {
+        ReflectionTestUtils.setField(evaluationService, "evaluationCache",
+                                     new EvaluationCache(100, Duration.ZERO, Duration.ofHours(1)));
+        PatientDTO patient = new PatientDTO();
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender(Gender.M);
+
+        when(patientClient.getPatientById("13", AUTHORIZATION)).thenReturn(patient);
+        when(noteClient.getTriggerSummary("13", AUTHORIZATION)).thenReturn(summary(2, 3));
+        assertEquals(RiskLevel.BORDERLINE, evaluationService.evaluateRisk("13", null, AUTHORIZATION));
+
+        when(patientClient.getPatientById("13", AUTHORIZATION)).thenThrow(new ResponseStatusException(
+                HttpStatus.SERVICE_UNAVAILABLE, "Impossible de récupérer le patient"));
+        authenticate("doctor-2");
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                                                  () -> evaluationService.evaluateRisk("13", null, AUTHORIZATION));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+    }
+
+    @Test
+    void whenDownstreamFails_thenLastKnownRiskIsNotReturned() {
+        ReflectionTestUtils.setField(evaluationService, "evaluationCache",
+                                     new EvaluationCache(100, Duration.ZERO, Duration.ofHours(1)));
+        PatientDTO patient = new PatientDTO();
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender(Gender.M);
+
+        when(patientClient.getPatientById("11", AUTHORIZATION)).thenReturn(patient);
+        when(noteClient.getTriggerSummary("11", AUTHORIZATION)).thenReturn(summary(2, 3));
+        assertEquals(RiskLevel.BORDERLINE, evaluationService.evaluateRisk("11", null, AUTHORIZATION));
+
+        when(patientClient.getPatientById("11", AUTHORIZATION)).thenThrow(new ResponseStatusException(
+                HttpStatus.INTERNAL_SERVER_ERROR, "Impossible de récupérer le patient"));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                                                  () -> evaluationService.evaluateRisk("11", null, AUTHORIZATION));
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, ex.getStatusCode());
+    }
+
+    private static void authenticate(String userId) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userId, null, List.of()));
+    }
+
+    private static TriggerSummaryDTO summary(int noteCount, int triggerCount) {
+        TriggerSummaryDTO summary = new TriggerSummaryDTO();
+        summary.setNoteCount(noteCount);
+        summary.setTriggerCount(triggerCount);
+        summary.setVersion(TriggerTerms.VERSION);
+        return summary;
+    }
+
+    private static TriggerSummaryDTO summary(int noteCount, int triggerCount, long notesVersion) {
+        TriggerSummaryDTO summary = summary(noteCount, triggerCount);
+        summary.setNotesVersion(notesVersion);
+        return summary;
+    }
 }
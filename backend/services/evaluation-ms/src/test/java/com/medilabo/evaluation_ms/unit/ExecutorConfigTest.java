@@ -0,0 +1,62 @@
+package com.medilabo.evaluation_ms.unit;
+
+import com.medilabo.evaluation_ms.configuration.ExecutorConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutorConfigTest {
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setup() {
+        ExecutorConfig config = new ExecutorConfig();
+        ReflectionTestUtils.setField(config, "poolSize", 2);
+        executor = config.evaluationExecutor();
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void whenTaskSubmittedDuringRequest_thenWorkerDoesNotSeeRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer token");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        boolean hasContext = CompletableFuture.supplyAsync(
+                () -> RequestContextHolder.getRequestAttributes() != null, executor).join();
+
+        assertFalse(hasContext);
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void whenVirtualThreads_thenWorkerDoesNotSeeRequest() {
+        SimpleAsyncTaskExecutor virtualExecutor = new ExecutorConfig().virtualEvaluationExecutor();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        String worker = CompletableFuture.supplyAsync(
+                () -> RequestContextHolder.getRequestAttributes() == null ? Thread.currentThread().getName() : null,
+                virtualExecutor).join();
+
+        assertNotNull(worker);
+        assertTrue(worker.startsWith("evaluation-"));
+    }
+}
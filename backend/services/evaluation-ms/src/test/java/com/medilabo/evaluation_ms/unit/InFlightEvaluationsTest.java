@@ -0,0 +1,141 @@
+package com.medilabo.evaluation_ms.unit;
+
+import com.medilabo.evaluation_ms.cache.InFlightEvaluations;
+import com.medilabo.evaluation_ms.domain.dto.RiskEvaluation;
+import com.medilabo.evaluation_ms.domain.enums.RiskLevel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InFlightEvaluationsTest {
+    private static final String DOCTOR = "doctor-1";
+
+    private SimpleMeterRegistry meterRegistry;
+    private InFlightEvaluations inFlightEvaluations;
+    private final AtomicInteger started = new AtomicInteger();
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        inFlightEvaluations = new InFlightEvaluations(meterRegistry);
+    }
+
+    @Test
+    void whenEvaluationInProgress_thenCallersShareIt() {
+        CompletableFuture<RiskEvaluation> pending = new CompletableFuture<>();
+
+        CompletableFuture<RiskEvaluation> first = inFlightEvaluations.evaluate(DOCTOR, "1", () -> start(pending));
+        CompletableFuture<RiskEvaluation> second = inFlightEvaluations.evaluate(DOCTOR, "1", () -> start(pending));
+        assertEquals(1.0, meterRegistry.get("evaluation.requests.in.flight").gauge().value());
+
+        RiskEvaluation evaluation = new RiskEvaluation(RiskLevel.BORDERLINE, 3);
+        pending.complete(evaluation);
+
+        assertEquals(evaluation, first.join());
+        assertEquals(evaluation, second.join());
+        assertEquals(1, started.get());
+        assertEquals(1.0, meterRegistry.get("evaluation.requests.coalesced").counter().count());
+        assertEquals(0.0, meterRegistry.get("evaluation.requests.in.flight").gauge().value());
+    }
+
+    @Test
+    void whenAnotherDoctorEvaluatesTheSamePatient_thenEvaluationIsNotShared() {
+        CompletableFuture<RiskEvaluation> pending = new CompletableFuture<>();
+        CompletableFuture<RiskEvaluation> denied = CompletableFuture.failedFuture(
+                new ResponseStatusException(HttpStatus.FORBIDDEN, "Accès au patient refusé"));
+
+        CompletableFuture<RiskEvaluation> first = inFlightEvaluations.evaluate(DOCTOR, "1", () -> start(pending));
+        CompletableFuture<RiskEvaluation> second = inFlightEvaluations.evaluate("doctor-2", "1", () -> start(denied));
+        pending.complete(new RiskEvaluation(RiskLevel.BORDERLINE, 3));
+
+        assertEquals(RiskLevel.BORDERLINE, first.join().riskLevel());
+        CompletionException ex = assertThrows(CompletionException.class, second::join);
+        assertEquals(HttpStatus.FORBIDDEN, ((ResponseStatusException) ex.getCause()).getStatusCode());
+        assertEquals(2, started.get());
+        assertEquals(0.0, meterRegistry.get("evaluation.requests.coalesced").counter().count());
+    }
+
+    @Test
+    void whenEvaluationCompleted_thenNextCallerStartsANewOne() {
+        inFlightEvaluations.evaluate(DOCTOR, "1", () -> start(CompletableFuture.completedFuture(
+                new RiskEvaluation(RiskLevel.NONE, 0)))).join();
+        inFlightEvaluations.evaluate(DOCTOR, "1", () -> start(CompletableFuture.completedFuture(
+                new RiskEvaluation(RiskLevel.NONE, 0)))).join();
+
+        assertEquals(2, started.get());
+        assertEquals(0.0, meterRegistry.get("evaluation.requests.coalesced").counter().count());
+    }
+
+    @Test
+    void whenEvaluationFails_thenCallersShareTheFailure() {
+        CompletableFuture<RiskEvaluation> pending = new CompletableFuture<>();
+        CompletableFuture<RiskEvaluation> first = inFlightEvaluations.evaluate(DOCTOR, "1", () -> start(pending));
+        CompletableFuture<RiskEvaluation> second = inFlightEvaluations.evaluate(DOCTOR, "1", () -> start(pending));
+
+        pending.completeExceptionally(new ResponseStatusException(
+                HttpStatus.INTERNAL_SERVER_ERROR, "Impossible de récupérer le patient"));
+
+        for (CompletableFuture<RiskEvaluation> result : List.of(first, second)) {
+            CompletionException ex = assertThrows(CompletionException.class, result::join);
+            assertInstanceOf(ResponseStatusException.class, ex.getCause());
+        }
+    }
+
+    @Test
+    void whenStartingEvaluationThrows_thenFailureIsReturned() {
+        CompletableFuture<RiskEvaluation> result = inFlightEvaluations.evaluate(DOCTOR, "1", () -> {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Impossible de récupérer les notes");
+        });
+
+        CompletionException ex = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(ResponseStatusException.class, ex.getCause());
+        assertEquals(0.0, meterRegistry.get("evaluation.requests.in.flight").gauge().value());
+    }
+
+    @Test
+    void whenInvalidated_thenNextCallerStartsANewEvaluation() {
+        CompletableFuture<RiskEvaluation> stale = new CompletableFuture<>();
+        inFlightEvaluations.evaluate(DOCTOR, "1", () -> start(stale));
+
+        inFlightEvaluations.invalidate("1");
+        CompletableFuture<RiskEvaluation> fresh = new CompletableFuture<>();
+        CompletableFuture<RiskEvaluation> result = inFlightEvaluations.evaluate(DOCTOR, "1", () -> start(fresh));
+        stale.complete(new RiskEvaluation(RiskLevel.NONE, 0));
+        fresh.complete(new RiskEvaluation(RiskLevel.IN_DANGER, 6));
+
+        assertEquals(RiskLevel.IN_DANGER, result.join().riskLevel());
+        assertEquals(2, started.get());
+    }
+
+    @Test
+    void whenBatchOverlapsEvaluationInProgress_thenOnlyMissingPatientsAreStarted() {
+        CompletableFuture<RiskEvaluation> pending = new CompletableFuture<>();
+        CompletableFuture<RiskEvaluation> single = inFlightEvaluations.evaluate(DOCTOR, "1", () -> start(pending));
+
+        Map<String, CompletableFuture<RiskEvaluation>> batch = inFlightEvaluations.evaluateAll(DOCTOR, List.of("1", "2"), ids -> {
+            assertEquals(List.of("2"), ids);
+            return Map.of("2", CompletableFuture.completedFuture(new RiskEvaluation(RiskLevel.NONE, 0)));
+        });
+        pending.complete(new RiskEvaluation(RiskLevel.BORDERLINE, 2));
+
+        assertSame(single, batch.get("1"));
+        assertEquals(RiskLevel.BORDERLINE, batch.get("1").join().riskLevel());
+        assertEquals(RiskLevel.NONE, batch.get("2").join().riskLevel());
+        assertEquals(1.0, meterRegistry.get("evaluation.requests.coalesced").counter().count());
+    }
+
+    private CompletableFuture<RiskEvaluation> start(CompletableFuture<RiskEvaluation> evaluation) {
+        started.incrementAndGet();
+        return evaluation;
+    }
+}
@@ -1,28 +1,14 @@
 package com.medilabo.evaluation_ms.unit;
 
-import com.medilabo.evaluation_ms.service.EvaluationService;
-import org.junit.jupiter.api.BeforeEach;
+import com.medilabo.evaluation_ms.utils.RiskCalculator;
 import org.junit.jupiter.api.Test;
 
-import java.lang.reflect.Method;
-
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class NormalizationTest {
 
-    private EvaluationService evaluationService;
-    private Method countTriggerTermsMethod;
-
-    @BeforeEach
-    void setup() throws NoSuchMethodException {
-        evaluationService = new EvaluationService();
-        countTriggerTermsMethod = EvaluationService.class
-                .getDeclaredMethod("countTriggerTerms", String.class);
-        countTriggerTermsMethod.setAccessible(true);
-    }
-
-    private int countTriggers(String note) throws Exception {
-        return (int) countTriggerTermsMethod.invoke(evaluationService, note);
+    private int countTriggers(String note) {
+        return RiskCalculator.countTriggerTerms(note);
     }
 
     @Test
@@ -0,0 +1,321 @@
+package com.medilabo.evaluation_ms.unit;
+
+import com.medilabo.evaluation_ms.cache.EvaluationCache;
+import com.medilabo.evaluation_ms.cache.InFlightEvaluations;
+import com.medilabo.evaluation_ms.client.ReactiveNoteClient;
+import com.medilabo.evaluation_ms.client.ReactivePatientClient;
+import com.medilabo.evaluation_ms.domain.dto.EvaluationInputs;
+import com.medilabo.evaluation_ms.domain.dto.NoteDTO;
+import com.medilabo.evaluation_ms.domain.dto.PatientDTO;
+import com.medilabo.evaluation_ms.domain.dto.TriggerSummaryDTO;
+import com.medilabo.evaluation_ms.domain.enums.Gender;
+import com.medilabo.evaluation_ms.domain.enums.RiskLevel;
+import com.medilabo.evaluation_ms.service.ReactiveEvaluationService;
+import com.medilabo.evaluation_ms.utils.TriggerTerms;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.*;
+
+class ReactiveEvaluationServiceTest {
+
+    private static final String DOCTOR = "doctor-1";
+
+    @Mock private ReactiveNoteClient noteClient;
+    @Mock private ReactivePatientClient patientClient;
+    @InjectMocks private ReactiveEvaluationService evaluationService;
+
+    private final AtomicInteger scheduledTasks = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private PatientDTO patient;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(evaluationService, "evaluationScheduler", Schedulers.fromExecutor(task -> {
+            scheduledTasks.incrementAndGet();
+            task.run();
+        }));
+        ReflectionTestUtils.setField(evaluationService, "evaluationCache", new EvaluationCache(100, Duration.ofMinutes(1), Duration.ofHours(1)));
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(evaluationService, "inFlightEvaluations", new InFlightEvaluations(meterRegistry));
+
+        patient = new PatientDTO();
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender(Gender.M);
+    }
+
+    @Test
+    void whenSummaryIsCurrent_thenRiskIsComputedWithoutScanningNotes() {
+        when(patientClient.getPatientById("1")).thenReturn(Mono.just(patient));
+        when(noteClient.getTriggerSummary("1")).thenReturn(Mono.just(summary(2, 3)));
+
+        StepVerifier.create(evaluateRisk("1"))
+                    .expectNext(RiskLevel.BORDERLINE)
+                    .verifyComplete();
+        verify(noteClient, never()).getNotesByPatientId(anyString());
+        assertEquals(0, scheduledTasks.get());
+    }
+
+    @Test
+    void whenSummaryVersionDiffers_thenNotesAreScannedOnEvaluationScheduler() {
+        TriggerSummaryDTO outdated = summary(2, 0);
+        outdated.setVersion(TriggerTerms.VERSION + 1);
+
+        NoteDTO note1 = new NoteDTO(); note1.setNote("Hémoglobine A1C normale");
+        NoteDTO note2 = new NoteDTO(); note2.setNote("Poids anormal");
+
+        when(patientClient.getPatientById("2")).thenReturn(Mono.just(patient));
+        when(noteClient.getTriggerSummary("2")).thenReturn(Mono.just(outdated));
+        when(noteClient.getNotesByPatientId("2")).thenReturn(Flux.just(note1, note2));
+
+        StepVerifier.create(evaluateRisk("2"))
+                    .expectNext(RiskLevel.BORDERLINE)
+                    .verifyComplete();
+        assertEquals(1, scheduledTasks.get());
+    }
+
+    @Test
+    void whenEvaluatedTwice_thenSecondEvaluationIsCached() {
+        when(patientClient.getPatientById("3")).thenReturn(Mono.just(patient));
+        when(noteClient.getTriggerSummary("3")).thenReturn(Mono.just(summary(0, 0)));
+
+        StepVerifier.create(evaluateRisk("3")).expectNext(RiskLevel.NONE).verifyComplete();
+        StepVerifier.create(evaluateRisk("3")).expectNext(RiskLevel.NONE).verifyComplete();
+        StepVerifier.create(evaluateRisks(List.of("3")))
+                    .expectNext(Map.of("3", RiskLevel.NONE))
+                    .verifyComplete();
+
+        verify(patientClient, times(1)).getPatientById("3");
+        verify(noteClient, never()).getTriggerSummaries(anyList());
+
+        evaluationService.invalidate("3");
+        StepVerifier.create(evaluateRisk("3")).expectNext(RiskLevel.NONE).verifyComplete();
+        verify(patientClient, times(2)).getPatientById("3");
+    }
+
+    @Test
+    void whenCachedForAnotherDoctor_thenPatientAccessIsCheckedAgain() {
+        when(patientClient.getPatientById("12")).thenReturn(Mono.just(patient));
+        when(noteClient.getTriggerSummary("12")).thenReturn(Mono.just(summary(2, 3)));
+        StepVerifier.create(evaluateRisk("12")).expectNext(RiskLevel.BORDERLINE).verifyComplete();
+
+        when(patientClient.getPatientById("12")).thenReturn(Mono.error(new ResponseStatusException(
+                HttpStatus.FORBIDDEN, "Accès au patient refusé")));
+
+        StepVerifier.create(asDoctor("doctor-2", evaluationService.evaluateRisk("12")))
+                    .expectErrorSatisfies(e -> assertEquals(HttpStatus.FORBIDDEN,
+                                                            ((ResponseStatusException) e).getStatusCode()))
+                    .verify();
+        verify(patientClient, times(2)).getPatientById("12");
+    }
+
+    @Test
+    void whenNotesVersionChanges_thenEtagChangesAndRiskIsRecomputed() {
+        when(patientClient.getPatientById("14")).thenReturn(Mono.just(patient));
+        when(noteClient.getTriggerSummary("14")).thenReturn(Mono.just(summary(0, 0, 1)), Mono.just(summary(0, 0, 1)),
+                                                            Mono.just(summary(2, 3, 2)));
+
+        EvaluationInputs inputs = evaluationService.getInputs("14").block();
+        StepVerifier.create(asDoctor(DOCTOR, evaluationService.evaluateRisk("14", inputs)))
+                    .expectNext(RiskLevel.NONE)
+                    .verifyComplete();
+        EvaluationInputs unchanged = evaluationService.getInputs("14").block();
+        assertEquals(inputs.etag(), unchanged.etag());
+        StepVerifier.create(asDoctor(DOCTOR, evaluationService.evaluateRisk("14", unchanged)))
+                    .expectNext(RiskLevel.NONE)
+                    .verifyComplete();
+
+        EvaluationInputs changed = evaluationService.getInputs("14").block();
+        assertNotEquals(inputs.etag(), changed.etag());
+        StepVerifier.create(asDoctor(DOCTOR, evaluationService.evaluateRisk("14", changed)))
+                    .expectNext(RiskLevel.BORDERLINE)
+                    .verifyComplete();
+        verify(patientClient, times(3)).getPatientById("14");
+        verify(noteClient, times(3)).getTriggerSummary("14");
+    }
+
+    @Test
+    void whenNoteServiceUnavailable_thenEtagIsUnknown() {
+        when(patientClient.getPatientById("15")).thenReturn(Mono.just(patient));
+        when(noteClient.getTriggerSummary("15")).thenReturn(Mono.error(new ResponseStatusException(
+                HttpStatus.SERVICE_UNAVAILABLE, "Impossible de récupérer les notes")));
+
+        StepVerifier.create(evaluationService.getInputs("15")).verifyComplete();
+    }
+
+    @Test
+    void whenNoteServiceFails_thenEtagIsUnknown() {
+        when(patientClient.getPatientById("18")).thenReturn(Mono.just(patient));
+        when(noteClient.getTriggerSummary("18")).thenReturn(Mono.error(new ResponseStatusException(
+                HttpStatus.INTERNAL_SERVER_ERROR, "Impossible de récupérer les notes")));
+
+        StepVerifier.create(evaluationService.getInputs("18")).verifyComplete();
+    }
+
+    @Test
+    void whenPatientInaccessible_thenEtagIsRefused() {
+        when(patientClient.getPatientById("16")).thenReturn(Mono.error(new ResponseStatusException(
+                HttpStatus.FORBIDDEN, "Accès au patient refusé")));
+        when(noteClient.getTriggerSummary("16")).thenReturn(Mono.just(summary(1, 1, 1)));
+
+        StepVerifier.create(evaluationService.getInputs("16"))
+                    .expectErrorSatisfies(e -> assertEquals(HttpStatus.FORBIDDEN,
+                                                            ((ResponseStatusException) e).getStatusCode()))
+                    .verify();
+    }
+
+    @Test
+    void whenPatientCannotBeRetrieved_thenErrorIsSignalled() {
+        when(patientClient.getPatientById("4")).thenReturn(Mono.error(new ResponseStatusException(
+                HttpStatus.INTERNAL_SERVER_ERROR, "Impossible de récupérer le patient")));
+        when(noteClient.getTriggerSummary("4")).thenReturn(Mono.just(summary(1, 1)));
+
+        StepVerifier.create(evaluateRisk("4"))
+                    .expectErrorSatisfies(e -> assertEquals("Impossible de récupérer le patient",
+                                                            ((ResponseStatusException) e).getReason()))
+                    .verify();
+    }
+
+    @Test
+    void whenBatch_thenEachDistinctPatientIsEvaluatedInRequestOrder() {
+        NoteDTO note = new NoteDTO(); note.setNote("Fumeur, cholestérol");
+
+        when(patientClient.getPatientsByIds(List.of("5", "6", "7")))
+                .thenReturn(Mono.just(Map.of("5", patient, "6", patient, "7", patient)));
+        when(noteClient.getTriggerSummaries(List.of("5", "6", "7")))
+                .thenReturn(Mono.just(Map.of("5", summary(0, 0), "6", summary(2, 3))));
+        when(noteClient.getNotesByPatientId("7")).thenReturn(Flux.just(note));
+
+        StepVerifier.create(evaluateRisks(List.of("5", "6", "5", "7")))
+                    .assertNext(risks -> {
+                        assertEquals(List.of("5", "6", "7"), List.copyOf(risks.keySet()));
+                        assertEquals(RiskLevel.NONE, risks.get("5"));
+                        assertEquals(RiskLevel.BORDERLINE, risks.get("6"));
+                        assertEquals(RiskLevel.BORDERLINE, risks.get("7"));
+                    })
+                    .verifyComplete();
+        verify(patientClient, never()).getPatientById(anyString());
+    }
+
+    @Test
+    void whenBatchPatientIsMissing_thenItIsLeftOutOfTheResult() {
+        when(patientClient.getPatientsByIds(List.of("1", "8"))).thenReturn(Mono.just(Map.of("1", patient)));
+        when(noteClient.getTriggerSummaries(List.of("1", "8")))
+                .thenReturn(Mono.just(Map.of("1", summary(0, 0), "8", summary(1, 1))));
+
+        StepVerifier.create(evaluateRisks(List.of("1", "8")))
+                    .expectNext(Map.of("1", RiskLevel.NONE))
+                    .verifyComplete();
+    }
+
+    @Test
+    void whenEvaluatedConcurrently_thenDownstreamIsCalledOnce() {
+        Sinks.One<PatientDTO> patientResponse = Sinks.one();
+        when(patientClient.getPatientById("9")).thenReturn(patientResponse.asMono());
+        when(noteClient.getTriggerSummary("9")).thenReturn(Mono.just(summary(2, 3)));
+
+        CompletableFuture<RiskLevel> first = evaluateRisk("9").toFuture();
+        CompletableFuture<Map<String, RiskLevel>> second = evaluateRisks(List.of("9")).toFuture();
+        patientResponse.tryEmitValue(patient);
+
+        assertEquals(RiskLevel.BORDERLINE, first.join());
+        assertEquals(Map.of("9", RiskLevel.BORDERLINE), second.join());
+        verify(patientClient, times(1)).getPatientById("9");
+        verify(patientClient, never()).getPatientsByIds(anyList());
+        assertEquals(1.0, meterRegistry.get("evaluation.requests.coalesced").counter().count());
+    }
+
+    @Test
+    void whenDownstreamUnavailable_thenLastKnownRiskIsReturned() {
+        ReflectionTestUtils.setField(evaluationService, "evaluationCache",
+                                     new EvaluationCache(100, Duration.ZERO, Duration.ofHours(1)));
+        when(patientClient.getPatientById("10")).thenReturn(Mono.just(patient));
+        when(noteClient.getTriggerSummary("10")).thenReturn(Mono.just(summary(2, 3)));
+        StepVerifier.create(evaluateRisk("10")).expectNext(RiskLevel.BORDERLINE).verifyComplete();
+
+        ResponseStatusException unavailable = new ResponseStatusException(
+                HttpStatus.SERVICE_UNAVAILABLE, "Impossible de récupérer les notes");
+        when(noteClient.getTriggerSummary("10")).thenReturn(Mono.error(unavailable));
+        when(patientClient.getPatientsByIds(List.of("10"))).thenReturn(Mono.just(Map.of("10", patient)));
+        when(noteClient.getTriggerSummaries(List.of("10"))).thenReturn(Mono.error(unavailable));
+
+        StepVerifier.create(evaluateRisk("10")).expectNext(RiskLevel.BORDERLINE).verifyComplete();
+        StepVerifier.create(evaluateRisks(List.of("10")))
+                    .expectNext(Map.of("10", RiskLevel.BORDERLINE))
+                    .verifyComplete();
+
+        evaluationService.invalidate("10");
+        StepVerifier.create(evaluateRisk("10"))
+                    .expectErrorSatisfies(e -> assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                                                            ((ResponseStatusException) e).getStatusCode()))
+                    .verify();
+    }
+
+    @Test
+    void whenDownstreamUnavailable_thenLastKnownRiskIsNotServedToAnotherDoctor() {
+        ReflectionTestUtils.setField(evaluationService, "evaluationCache",
+                                     new EvaluationCache(100, Duration.ZERO, Duration.ofHours(1)));
+        when(patientClient.getPatientById("13")).thenReturn(Mono.just(patient));
+        when(noteClient.getTriggerSummary("13")).thenReturn(Mono.just(summary(2, 3)));
+        StepVerifier.create(evaluateRisk("13")).expectNext(RiskLevel.BORDERLINE).verifyComplete();
+
+        when(patientClient.getPatientById("13")).thenReturn(Mono.error(new ResponseStatusException(
+                HttpStatus.SERVICE_UNAVAILABLE, "Impossible de récupérer le patient")));
+
+        StepVerifier.create(asDoctor("doctor-2", evaluationService.evaluateRisk("13")))
+                    .expectErrorSatisfies(e -> assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                                                            ((ResponseStatusException) e).getStatusCode()))
+                    .verify();
+    }
+
+    private static TriggerSummaryDTO summary(int noteCount, int triggerCount) {
+        TriggerSummaryDTO summary = new TriggerSummaryDTO();
+        summary.setNoteCount(noteCount);
+        summary.setTriggerCount(triggerCount);
+        summary.setVersion(TriggerTerms.VERSION);
+        return summary;
+    }
+
+    private static TriggerSummaryDTO summary(int noteCount, int triggerCount, long notesVersion) {
+        TriggerSummaryDTO summary = summary(noteCount, triggerCount);
+        summary.setNotesVersion(notesVersion);
+        return summary;
+    }
+
+    private Mono<RiskLevel> evaluateRisk(String patientId) {
+        return asDoctor(DOCTOR, evaluationService.evaluateRisk(patientId));
+    }
+
+    private Mono<Map<String, RiskLevel>> evaluateRisks(List<String> patientIds) {
+        return asDoctor(DOCTOR, evaluationService.evaluateRisks(patientIds));
+    }
+
+    private static <T> Mono<T> asDoctor(String doctorId, Mono<T> evaluation) {
+        return evaluation.contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                new UsernamePasswordAuthenticationToken(doctorId, null, List.of())));
+    }
+}
@@ -0,0 +1,201 @@
+package com.medilabo.evaluation_ms.unit;
+
+import com.medilabo.evaluation_ms.client.Downstream;
+import com.medilabo.evaluation_ms.client.PatientClient;
+import com.medilabo.evaluation_ms.configuration.ResilienceConfig;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilienceConfigTest {
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private MeterRegistry meterRegistry;
+    private Downstream downstream;
+    private PatientClient patientClient;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inProgress = new AtomicInteger();
+    private final AtomicInteger maxInProgress = new AtomicInteger();
+    private final AtomicReference<String> authorization = new AtomicReference<>();
+    private final CountDownLatch slowRequestReceived = new CountDownLatch(1);
+    private final CountDownLatch releaseSlowRequest = new CountDownLatch(1);
+
+    @BeforeEach
+    void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/internal/patients/failing/demographics", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.createContext("/internal/patients/missing/demographics", exchange -> {
+            requests.incrementAndGet();
+            authorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.createContext("/internal/patients/slow/demographics", exchange -> {
+            requests.incrementAndGet();
+            slowRequestReceived.countDown();
+            try {
+                releaseSlowRequest.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.createContext("/internal/patients/healthy/demographics", exchange -> {
+            requests.incrementAndGet();
+            maxInProgress.accumulateAndGet(inProgress.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inProgress.decrementAndGet();
+            byte[] body = "{\"id\":\"healthy\",\"gender\":\"M\",\"dateOfBirth\":\"1980-01-01\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        patientClient = patientClient(1, Duration.ofMillis(100));
+    }
+
+    private PatientClient patientClient(int maxConcurrentCalls, Duration maxWaitDuration) {
+        ResilienceConfig config = new ResilienceConfig();
+        ReflectionTestUtils.setField(config, "failureRateThreshold", 50f);
+        ReflectionTestUtils.setField(config, "slowCallDurationThreshold", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(config, "slowCallRateThreshold", 50f);
+        ReflectionTestUtils.setField(config, "slidingWindowSize", 4);
+        ReflectionTestUtils.setField(config, "minimumNumberOfCalls", 4);
+        ReflectionTestUtils.setField(config, "waitDurationInOpenState", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(config, "permittedCallsInHalfOpenState", 1);
+        ReflectionTestUtils.setField(config, "maxConcurrentCalls", maxConcurrentCalls);
+        ReflectionTestUtils.setField(config, "maxWaitDuration", maxWaitDuration);
+        ReflectionTestUtils.setField(config, "meterRegistry", meterRegistry);
+        downstream = config.userMsDownstream(config.circuitBreakerRegistry(), config.bulkheadRegistry());
+
+        PatientClient client = new PatientClient();
+        ReflectionTestUtils.setField(client, "restTemplate", new RestTemplate());
+        ReflectionTestUtils.setField(client, "downstream", downstream);
+        ReflectionTestUtils.setField(client, "baseUrl", "http://localhost:" + server.getAddress().getPort());
+        return client;
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseSlowRequest.countDown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void whenPatientServiceKeepsFailing_thenCallsFailFast() {
+        for (int i = 0; i < 4; i++) {
+            assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, status(() -> patientClient.getPatientById("failing", "Bearer token")));
+        }
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, status(() -> patientClient.getPatientById("failing", "Bearer token")));
+        assertEquals(4, requests.get());
+        assertEquals(CircuitBreaker.State.OPEN, downstream.getCircuitBreaker().getState());
+        assertEquals(1.0, meterRegistry.get("resilience4j.circuitbreaker.state.transitions")
+                                       .tag("name", "user-ms").tag("from", "closed").tag("to", "open")
+                                       .counter().count());
+        assertEquals(1.0, meterRegistry.get("resilience4j.circuitbreaker.state")
+                                       .tag("name", "user-ms").tag("state", "open")
+                                       .gauge().value());
+    }
+
+    @Test
+    void whenPatientIsMissing_thenCircuitStaysClosed() {
+        for (int i = 0; i < 6; i++) {
+            assertEquals(HttpStatus.NOT_FOUND, status(() -> patientClient.getPatientById("missing", "Bearer token")));
+        }
+
+        assertEquals(6, requests.get());
+        assertEquals("Bearer token", authorization.get());
+        assertEquals(CircuitBreaker.State.CLOSED, downstream.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void whenPatientServiceIsSlow_thenConcurrentCallsAreRejected() throws Exception {
+        CompletableFuture<HttpStatus> slowCall = CompletableFuture.supplyAsync(
+                () -> status(() -> patientClient.getPatientById("slow", "Bearer token")));
+        assertTrue(slowRequestReceived.await(5, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, status(() -> patientClient.getPatientById("slow", "Bearer token")));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 500);
+
+        releaseSlowRequest.countDown();
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, slowCall.get(5, TimeUnit.SECONDS));
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void whenMoreHealthyCallsThanBulkhead_thenCallsWaitForASlot() throws Exception {
+        PatientClient client = patientClient(25, Duration.ofSeconds(5));
+        ExecutorService callers = Executors.newFixedThreadPool(40);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<CompletableFuture<String>> calls = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                calls.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return client.getPatientById("healthy", "Bearer token").getId();
+                }, callers));
+            }
+            start.countDown();
+
+            for (CompletableFuture<String> call : calls) {
+                assertEquals("healthy", call.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(40, requests.get());
+        assertTrue(maxInProgress.get() <= 25);
+        assertEquals(CircuitBreaker.State.CLOSED, downstream.getCircuitBreaker().getState());
+    }
+
+    private static HttpStatus status(Runnable call) {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, call::run);
+        return HttpStatus.valueOf(ex.getStatusCode().value());
+    }
+}
@@ -0,0 +1,60 @@
+package com.medilabo.evaluation_ms.unit;
+
+import com.medilabo.evaluation_ms.utils.TextNormalizer;
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TextNormalizerTest {
+
+    /** Notes exercised by NormalizationTest. */
+    private static final List<String> CORPUS = List.of(
+            "Hémoglobine a1c",
+            "PoIds",
+            "...Cholesterol!!!",
+            "",
+            "Microalbuminer",
+            "Taille, Poids, Cholestérol, Vertige et Réaction",
+            "crises d’apnée respiratoire anormales"
+    );
+
+    private static String regexNormalize(String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD);
+        normalized = normalized.replaceAll("\\p{M}", "");
+        normalized = normalized.replaceAll("[^a-zA-Z0-9]", "");
+        return normalized.toLowerCase();
+    }
+
+    @Test
+    void corpusMatchesRegexNormalization() {
+        for (String note : CORPUS) {
+            assertEquals(regexNormalize(note), TextNormalizer.normalize(note), note);
+        }
+    }
+
+    @Test
+    void everyCharacterMatchesRegexNormalization() {
+        StringBuilder all = new StringBuilder();
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            if (!Character.isSurrogate((char) c)) {
+                all.append((char) c);
+            }
+        }
+        all.append("𝐀 😀");
+
+        assertEquals(regexNormalize(all.toString()), TextNormalizer.normalize(all));
+    }
+
+    @Test
+    void normalizeIntoBufferReturnsWrittenLength() {
+        String note = "Hémoglobine A1C !";
+        char[] buffer = new char[note.length()];
+
+        int length = TextNormalizer.normalize(note, buffer);
+
+        assertEquals("hemoglobinea1c", new String(buffer, 0, length));
+    }
+}
@@ -0,0 +1,33 @@
+package com.medilabo.evaluation_ms.unit;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks that the trigger term classes copied in note-ms did not diverge
+ * from those of this service. Skipped when note-ms is not checked out next
+ * to it, as in the Docker build of a single service.
+ */
+class TriggerTermCopiesTest {
+
+    private static final Path SOURCES = Path.of("src/main/java/com/medilabo/evaluation_ms/utils");
+    private static final Path NOTE_MS_SOURCES = Path.of("../note-ms/src/main/java/com/medilabo/note_ms/utils");
+
+    @ParameterizedTest
+    @ValueSource(strings = {"TriggerTerms.java", "TriggerTermMatcher.java", "TextNormalizer.java"})
+    void noteMsCopyIsIdentical(String fileName) throws IOException {
+        Path copy = NOTE_MS_SOURCES.resolve(fileName);
+        assumeTrue(Files.exists(copy), "note-ms sources not available");
+
+        String source = Files.readString(SOURCES.resolve(fileName));
+        String copied = Files.readString(copy).replace("com.medilabo.note_ms.", "com.medilabo.evaluation_ms.");
+        assertEquals(source, copied, fileName + " differs between note-ms and evaluation-ms");
+    }
+}
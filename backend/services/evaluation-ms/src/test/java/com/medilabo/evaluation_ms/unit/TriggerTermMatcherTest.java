@@ -0,0 +1,129 @@
+package com.medilabo.evaluation_ms.unit;
+
+import com.medilabo.evaluation_ms.utils.RiskCalculator;
+import com.medilabo.evaluation_ms.utils.TriggerTermMatcher;
+import com.medilabo.evaluation_ms.utils.TriggerTerms;
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TriggerTermMatcherTest {
+
+    private static final List<String> CORPUS = List.of(
+            "Le patient déclare qu'il 'se sent très bien' Poids égal ou inférieur au poids recommandé",
+            "Le patient déclare qu'il ressent beaucoup de stress au travail Il se plaint également que son audition est anormale dernièrement",
+            "Le patient déclare avoir fait une réaction aux médicaments au cours des 3 derniers mois Il remarque également que son audition continue d'être anormale",
+            "Le patient déclare qu'il fume depuis peu",
+            "Le patient déclare qu'il est fumeur et qu'il a cessé de fumer l'année dernière Il se plaint également de crises d’apnée respiratoire anormales Tests de laboratoire indiquant un taux de cholestérol LDL élevé",
+            "Le patient déclare qu'il lui est devenu difficile de monter les escaliers Il se plaint également d’être essoufflé Tests de laboratoire indiquant que les anticorps sont élevés Réaction aux médicaments",
+            "Le patient déclare qu'il a mal au dos lorsqu'il reste assis pendant longtemps",
+            "Le patient déclare avoir commencé à fumer depuis peu Hémoglobine A1C supérieure au niveau recommandé",
+            "Taille, Poids, Cholestérol, Vertige et Réaction",
+            "Fumeuse et fumeur, RECHUTE; vertiges!!! Microalbuminer",
+            "HémoglobineA1C hémoglobine a1 c",
+            "!!!",
+            "ÅNORMAL anormal anormal"
+    );
+
+    private int countTriggers(String note) {
+        return RiskCalculator.countTriggerTerms(note);
+    }
+
+    /** Reference implementation: one normalization and one contains() per term. */
+    private static int naiveCount(String note, List<String> terms) {
+        if (note == null || note.isBlank()) return 0;
+        String normalizedNote = normalize(note);
+        int count = 0;
+        for (String term : terms) {
+            if (normalizedNote.contains(normalize(term))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String normalize(String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD);
+        normalized = normalized.replaceAll("\\p{M}", "");
+        normalized = normalized.replaceAll("[^a-zA-Z0-9]", "");
+        return normalized.toLowerCase();
+    }
+
+    private static List<String> normalizeAll(List<String> terms) {
+        return terms.stream().map(TriggerTermMatcherTest::normalize).toList();
+    }
+
+    @Test
+    void corpusCountsMatchNaiveImplementation() throws Exception {
+        for (String note : CORPUS) {
+            assertEquals(naiveCount(note, TriggerTerms.TERMS), countTriggers(note), note);
+        }
+    }
+
+    @Test
+    void randomNotesCountsMatchNaiveImplementation() throws Exception {
+        Random random = new Random(42);
+        List<String> fragments = new ArrayList<>(TriggerTerms.TERMS);
+        fragments.addAll(List.of("a", "e", "é", " ", ",", "fume", "hemo", "1", "c", "anti", "poid", "rech"));
+
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder note = new StringBuilder();
+            int length = random.nextInt(20);
+            for (int j = 0; j < length; j++) {
+                String fragment = fragments.get(random.nextInt(fragments.size()));
+                note.append(random.nextBoolean() ? fragment.toUpperCase() : fragment);
+            }
+            String text = note.toString();
+            assertEquals(naiveCount(text, TriggerTerms.TERMS), countTriggers(text), text);
+        }
+    }
+
+    @Test
+    void overlappingAndNestedTermsAreAllFound() {
+        List<String> terms = List.of("he", "she", "his", "hers", "e");
+        TriggerTermMatcher matcher = new TriggerTermMatcher(terms);
+
+        assertEquals(4, matcher.countMatches("ushers"));
+        assertEquals(naiveCount("ushers", terms), matcher.countMatches("ushers"));
+        assertEquals(0, matcher.countMatches("xyz"));
+    }
+
+    @Test
+    void duplicateTermsAreCountedOncePerEntry() {
+        List<String> terms = List.of("Poids", "poids", "Taille");
+        TriggerTermMatcher matcher = new TriggerTermMatcher(normalizeAll(terms));
+
+        assertEquals(naiveCount("un poids", terms), matcher.countMatches(normalize("un poids")));
+        assertEquals(2, matcher.countMatches("poids"));
+    }
+
+    @Test
+    void emptyTermMatchesAnyText() {
+        List<String> terms = List.of("", "taille");
+        TriggerTermMatcher matcher = new TriggerTermMatcher(terms);
+
+        assertEquals(naiveCount("!!!", terms), matcher.countMatches(normalize("!!!")));
+        assertEquals(2, matcher.countMatches("taille"));
+    }
+
+    @Test
+    void noTermsNeverMatch() {
+        TriggerTermMatcher matcher = new TriggerTermMatcher(List.of());
+
+        assertEquals(0, matcher.countMatches("poids"));
+    }
+
+    @Test
+    void tooManyTermsAreRejected() {
+        List<String> terms = new ArrayList<>(Collections.nCopies(65, "poids"));
+
+        assertThrows(IllegalArgumentException.class, () -> new TriggerTermMatcher(terms));
+    }
+}
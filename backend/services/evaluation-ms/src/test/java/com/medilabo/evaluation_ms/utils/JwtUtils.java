@@ -12,12 +12,16 @@ import java.util.Map;
 public class JwtUtils {
     private static final String SECRET_KEY = "thisisakeythathasexactly32char!!";
     public String generateToken(String role, long expirationTime) {
+        return generateToken(role, "123", expirationTime);
+    }
+
+    public String generateToken(String role, String userId, long expirationTime) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", role);
 
         return Jwts.builder()
                    .claims(claims)
-                   .subject("123")
+                   .subject(userId)
                    .issuedAt(new Date())
                    .expiration(new Date(System.currentTimeMillis() + expirationTime))
                    .signWith(Keys.hmacShaKeyFor(SECRET_KEY.getBytes()))
@@ -0,0 +1,105 @@
+package com.medilabo.note_ms.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker and bulkhead of one downstream microservice, created by
+ * {@link com.medilabo.note_ms.configuration.ResilienceConfig}.
+ * Calls are rejected immediately, see {@link #isRejected(Throwable)}, while
+ * the microservice keeps failing or answering slowly, or when too many
+ * requests already wait on it.
+ */
+public class Downstream {
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    /**
+     * Creates the guard of a downstream microservice.
+     *
+     * @param circuitBreaker the circuit breaker of the microservice
+     * @param bulkhead       the bulkhead of the microservice
+     */
+    public Downstream(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    /**
+     * Returns the circuit breaker of the microservice.
+     *
+     * @return the circuit breaker
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Performs a blocking call to the microservice.
+     *
+     * @param call the call
+     * @param <T>  the result type
+     * @return the result of the call
+     * @throws CallNotPermittedException if the circuit breaker is open
+     * @throws BulkheadFullException     if too many calls are in progress
+     */
+    public <T> T call(Supplier<T> call) {
+        return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, call)).get();
+    }
+
+    /**
+     * Performs a blocking call to the microservice that returns nothing.
+     *
+     * @param call the call
+     * @throws CallNotPermittedException if the circuit breaker is open
+     * @throws BulkheadFullException     if too many calls are in progress
+     */
+    public void run(Runnable call) {
+        Bulkhead.decorateRunnable(bulkhead, CircuitBreaker.decorateRunnable(circuitBreaker, call)).run();
+    }
+
+    /**
+     * Guards a non-blocking call to the microservice. The call is rejected
+     * with an error signal on subscription.
+     *
+     * @param call the call
+     * @param <T>  the result type
+     * @return the guarded call
+     */
+    public <T> Mono<T> call(Mono<T> call) {
+        return call.transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                   .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    /**
+     * Guards a non-blocking call to the microservice. The call is rejected
+     * with an error signal on subscription.
+     *
+     * @param call the call
+     * @param <T>  the element type
+     * @return the guarded call
+     */
+    public <T> Flux<T> call(Flux<T> call) {
+        return call.transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                   .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    /**
+     * Tells whether a call failed because it was rejected without reaching
+     * the microservice.
+     *
+     * @param e the failure of the call
+     * @return true if the circuit breaker was open or the bulkhead full
+     */
+    public static boolean isRejected(Throwable e) {
+        return e instanceof CallNotPermittedException || e instanceof BulkheadFullException;
+    }
+}
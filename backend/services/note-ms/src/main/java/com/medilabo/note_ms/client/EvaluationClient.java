@@ -0,0 +1,59 @@
+package com.medilabo.note_ms.client;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Client to communicate with the Evaluation Microservice.
+ * Propagates the Authorization header automatically via RestTemplate interceptor.
+ * Calls go through the {@link Downstream} of the Evaluation microservice.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class EvaluationClient {
+
+    private static final Logger logger = LogManager.getLogger(EvaluationClient.class);
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    @Qualifier("evaluationMsDownstream")
+    private Downstream downstream;
+
+    @Value("${evaluation.ms.url}")
+    private String baseUrl;
+
+    /**
+     * Asks the Evaluation Microservice to drop the cached risk of a patient
+     * whose notes changed.
+     * <p>
+     * A failure is only logged: the note change has already been saved and
+     * the cached evaluation expires on its own. While the Evaluation
+     * microservice is unavailable, the call is not even attempted.
+     *
+     * @param patientId The ID of the patient whose notes changed.
+     */
+    public void invalidateEvaluation(String patientId) {
+        String url = baseUrl + "/internal/cache/" + patientId;
+        logger.info("Invalidating cached evaluation in Evaluation MS: {}", url);
+
+        try {
+            downstream.run(() -> restTemplate.delete(url));
+        } catch (RestClientException e) {
+            logger.warn("Error while invalidating evaluation of patient with ID {}: {}", patientId, e.getMessage());
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            logger.warn("Evaluation MS unavailable, evaluation of patient with ID {} not invalidated: {}",
+                        patientId, e.getMessage());
+        }
+    }
+}
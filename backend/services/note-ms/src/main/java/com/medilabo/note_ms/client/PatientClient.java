@@ -1,21 +1,34 @@
 package com.medilabo.note_ms.client;
 
 import com.medilabo.note_ms.domain.dto.PatientDTO;
+import com.medilabo.note_ms.domain.dto.PatientPageDTO;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Client to communicate with the User Microservice to retrieve patient data.
  * Propagates the Authorization header automatically via RestTemplate interceptor.
+ * Calls go through the {@link Downstream} of the User microservice and fail
+ * fast with a 503 error while it is unavailable.
  */
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class PatientClient {
 
     private static final Logger logger = LogManager.getLogger(PatientClient.class);
@@ -23,9 +36,16 @@ public class PatientClient {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    @Qualifier("userMsDownstream")
+    private Downstream downstream;
+
     @Value("${user.ms.url}")
     private String baseUrl;
 
+    /** Number of patients requested per page when listing the connected doctor's patients. */
+    private static final int PAGE_SIZE = 100;
+
     /**
      * Retrieve a patient by ID from the User Microservice.
      *
@@ -37,7 +57,7 @@ public class PatientClient {
         logger.info("Fetching patient from User MS: {}", url);
 
         try {
-            PatientDTO patient = restTemplate.getForObject(url, PatientDTO.class);
+            PatientDTO patient = downstream.call(() -> restTemplate.getForObject(url, PatientDTO.class));
 
             if (patient == null) {
                 logger.error("Received null patient from User MS for ID: {}", patientId);
@@ -56,6 +76,59 @@ public class PatientClient {
                     HttpStatus.INTERNAL_SERVER_ERROR,
                     "Impossible de récupérer le patient"
             );
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            logger.warn("User MS unavailable, patient with ID {} not fetched: {}", patientId, e.getMessage());
+            throw new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "Impossible de récupérer le patient"
+            );
         }
     }
+
+    /**
+     * Retrieve the IDs of every patient of the connected doctor from the User
+     * Microservice, following its pages.
+     *
+     * @return the IDs of the patients the caller may access
+     */
+    public Set<String> getPatientIds() {
+        logger.info("Fetching patient IDs of the connected doctor from User MS");
+        Set<String> patientIds = new LinkedHashSet<>();
+        String cursor = null;
+
+        try {
+            do {
+                String url = UriComponentsBuilder.fromUriString(baseUrl + "/patients")
+                                                 .queryParam("limit", PAGE_SIZE)
+                                                 .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                                                 .toUriString();
+                PatientPageDTO page = downstream.call(() -> restTemplate.getForObject(url, PatientPageDTO.class));
+                if (page == null || page.getItems() == null) {
+                    logger.error("Received null patient page from User MS");
+                    throw new ResponseStatusException(
+                            HttpStatus.INTERNAL_SERVER_ERROR,
+                            "Impossible de récupérer les patients"
+                    );
+                }
+                page.getItems().forEach(patient -> patientIds.add(patient.getId()));
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+        } catch (RestClientException e) {
+            logger.error("Error while fetching patient IDs: {}", e.getMessage());
+            throw new ResponseStatusException(
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Impossible de récupérer les patients"
+            );
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            logger.warn("User MS unavailable, patient IDs not fetched: {}", e.getMessage());
+            throw new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "Impossible de récupérer les patients"
+            );
+        }
+
+        logger.info("Successfully retrieved {} patient IDs", patientIds.size());
+        return patientIds;
+    }
 }
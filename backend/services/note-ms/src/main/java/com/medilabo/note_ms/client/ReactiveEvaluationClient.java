@@ -0,0 +1,67 @@
+package com.medilabo.note_ms.client;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking client to communicate with the Evaluation Microservice.
+ * Propagates the Authorization header automatically via the WebClient filter
+ * of {@link com.medilabo.note_ms.configuration.WebClientConfig}. Calls go
+ * through the {@link Downstream} of the Evaluation microservice.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEvaluationClient {
+
+    private static final Logger logger = LogManager.getLogger(ReactiveEvaluationClient.class);
+
+    @Autowired
+    private WebClient webClient;
+
+    @Autowired
+    @Qualifier("evaluationMsDownstream")
+    private Downstream downstream;
+
+    @Value("${evaluation.ms.url}")
+    private String baseUrl;
+
+    /**
+     * Asks the Evaluation Microservice to drop the cached risk of a patient
+     * whose notes changed.
+     * <p>
+     * A failure is only logged: the note change has already been saved and
+     * the cached evaluation expires on its own. While the Evaluation
+     * microservice is unavailable, the call is not even attempted.
+     *
+     * @param patientId The ID of the patient whose notes changed.
+     * @return completes once the evaluation is invalidated or the failure logged
+     */
+    public Mono<Void> invalidateEvaluation(String patientId) {
+        String url = baseUrl + "/internal/cache/" + patientId;
+        logger.info("Invalidating cached evaluation in Evaluation MS: {}", url);
+
+        return downstream.call(webClient.delete()
+                                        .uri(url)
+                                        .retrieve()
+                                        .toBodilessEntity())
+                         .then()
+                         .onErrorResume(WebClientException.class, e -> {
+                             logger.warn("Error while invalidating evaluation of patient with ID {}: {}",
+                                         patientId, e.getMessage());
+                             return Mono.empty();
+                         })
+                         .onErrorResume(Downstream::isRejected, e -> {
+                             logger.warn("Evaluation MS unavailable, evaluation of patient with ID {} not invalidated: {}",
+                                         patientId, e.getMessage());
+                             return Mono.empty();
+                         });
+    }
+}
@@ -0,0 +1,132 @@
+package com.medilabo.note_ms.client;
+
+import com.medilabo.note_ms.domain.dto.PatientDTO;
+import com.medilabo.note_ms.domain.dto.PatientPageDTO;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Non-blocking client to communicate with the User Microservice to retrieve
+ * patient data. Propagates the Authorization header automatically via the
+ * WebClient filter of {@link com.medilabo.note_ms.configuration.WebClientConfig}.
+ * Calls go through the {@link Downstream} of the User microservice and fail
+ * fast with a 503 error while it is unavailable.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePatientClient {
+
+    private static final Logger logger = LogManager.getLogger(ReactivePatientClient.class);
+
+    @Autowired
+    private WebClient webClient;
+
+    @Autowired
+    @Qualifier("userMsDownstream")
+    private Downstream downstream;
+
+    @Value("${user.ms.url}")
+    private String baseUrl;
+
+    /** Number of patients requested per page when listing the connected doctor's patients. */
+    private static final int PAGE_SIZE = 100;
+
+    /**
+     * Retrieve a patient by ID from the User Microservice.
+     *
+     * @param patientId The ID of the patient to fetch.
+     * @return PatientDTO object containing patient information.
+     */
+    public Mono<PatientDTO> getPatientById(String patientId) {
+        String url = baseUrl + "/patients/" + patientId;
+        logger.info("Fetching patient from User MS: {}", url);
+
+        return downstream.call(webClient.get()
+                                        .uri(url)
+                                        .retrieve()
+                                        .bodyToMono(PatientDTO.class))
+                         .switchIfEmpty(Mono.error(() -> {
+                             logger.error("Received null patient from User MS for ID: {}", patientId);
+                             return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                                                                "Impossible de récupérer le patient");
+                         }))
+                         .onErrorMap(WebClientException.class, e -> {
+                             logger.error("Error while fetching patient with ID {}: {}", patientId, e.getMessage());
+                             return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                                                                "Impossible de récupérer le patient");
+                         })
+                         .onErrorMap(Downstream::isRejected, e -> {
+                             logger.warn("User MS unavailable, patient with ID {} not fetched: {}",
+                                         patientId, e.getMessage());
+                             return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                                                                "Impossible de récupérer le patient");
+                         })
+                         .doOnNext(patient -> logger.info("Successfully retrieved patient with ID: {}", patientId));
+    }
+
+    /**
+     * Retrieve the IDs of every patient of the connected doctor from the User
+     * Microservice, following its pages.
+     *
+     * @return the IDs of the patients the caller may access
+     */
+    public Mono<Set<String>> getPatientIds() {
+        logger.info("Fetching patient IDs of the connected doctor from User MS");
+
+        return getPatientPage(null)
+                .expand(page -> page.getNextCursor() == null ? Mono.empty() : getPatientPage(page.getNextCursor()))
+                .flatMapIterable(PatientPageDTO::getItems)
+                .map(PatientDTO::getId)
+                .<Set<String>>collect(LinkedHashSet::new, Set::add)
+                .onErrorMap(WebClientException.class, e -> {
+                    logger.error("Error while fetching patient IDs: {}", e.getMessage());
+                    return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                                                       "Impossible de récupérer les patients");
+                })
+                .onErrorMap(Downstream::isRejected, e -> {
+                    logger.warn("User MS unavailable, patient IDs not fetched: {}", e.getMessage());
+                    return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                                                       "Impossible de récupérer les patients");
+                })
+                .doOnNext(patientIds -> logger.info("Successfully retrieved {} patient IDs", patientIds.size()));
+    }
+
+    /**
+     * Retrieve a page of the connected doctor's patients.
+     *
+     * @param cursor cursor of the page, null for the first page
+     * @return the page of patients
+     */
+    private Mono<PatientPageDTO> getPatientPage(String cursor) {
+        String url = UriComponentsBuilder.fromUriString(baseUrl + "/patients")
+                                         .queryParam("limit", PAGE_SIZE)
+                                         .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                                         .toUriString();
+
+        return downstream.call(webClient.get()
+                                        .uri(url)
+                                        .retrieve()
+                                        .bodyToMono(PatientPageDTO.class))
+                         .filter(page -> page.getItems() != null)
+                         .switchIfEmpty(Mono.error(() -> {
+                             logger.error("Received null patient page from User MS");
+                             return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                                                                "Impossible de récupérer les patients");
+                         }));
+    }
+}
@@ -0,0 +1,152 @@
+package com.medilabo.note_ms.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.ManagedHttpClientConnectionFactory;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.io.ManagedHttpClientConnection;
+import org.apache.hc.core5.http.io.HttpConnectionFactory;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import javax.net.ssl.SSLSocket;
+import java.io.IOException;
+import java.net.Socket;
+import java.time.Duration;
+
+/**
+ * Configuration of the pooled HTTP client behind {@link RestTemplateConfig}.
+ * Calls to the Patient and Evaluation microservices reuse kept-alive
+ * connections and are bounded by connect, pool acquisition and read timeouts.
+ * <p>
+ * Metrics: {@code httpcomponents.httpclient.pool.*} for the pool state and
+ * {@code httpcomponents.httpclient.connections.created} for the connections
+ * opened, to compare with {@code http.client.requests}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class HttpClientConfig {
+    private static final Logger logger = LogManager.getLogger(HttpClientConfig.class);
+
+    /** Name of the client in the published metrics. */
+    private static final String CLIENT_NAME = "note-ms";
+
+    @Value("${http-client.max-connections:40}")
+    private int maxConnections;
+
+    @Value("${http-client.max-connections-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${http-client.connect-timeout:PT2S}")
+    private Duration connectTimeout;
+
+    @Value("${http-client.connection-request-timeout:PT2S}")
+    private Duration connectionRequestTimeout;
+
+    @Value("${http-client.read-timeout:PT5S}")
+    private Duration readTimeout;
+
+    @Value("${http-client.idle-timeout:PT30S}")
+    private Duration idleTimeout;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Provides the pool of connections to the other microservices.
+     * Idle connections are checked before being reused, as the server may
+     * have closed them.
+     *
+     * @return a configured {@link PoolingHttpClientConnectionManager}
+     */
+    @Bean
+    public PoolingHttpClientConnectionManager connectionManager() {
+        logger.info("Creating HTTP connection pool: {} connections, {} per route", maxConnections, maxConnectionsPerRoute);
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                                    .setConnectTimeout(Timeout.of(connectTimeout))
+                                                    .setSocketTimeout(Timeout.of(readTimeout))
+                                                    .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                                                    .build())
+                .setConnectionFactory(countingConnectionFactory(Counter
+                        .builder("httpcomponents.httpclient.connections.created")
+                        .description("Connections opened by the HTTP client")
+                        .tag("httpclient", CLIENT_NAME)
+                        .register(meterRegistry)))
+                .build();
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, CLIENT_NAME).bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    /**
+     * Provides the pooled HTTP client. Connections idle for longer than the
+     * idle timeout are closed in the background.
+     *
+     * @param connectionManager the connection pool
+     * @return a configured {@link CloseableHttpClient}
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                                                 .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                                                 .setResponseTimeout(Timeout.of(readTimeout))
+                                                 .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .build();
+    }
+
+    /**
+     * Provides the request factory used by the {@code RestTemplate}.
+     *
+     * @param httpClient the pooled HTTP client
+     * @return a {@link ClientHttpRequestFactory} backed by the pooled client
+     */
+    @Bean
+    public ClientHttpRequestFactory clientHttpRequestFactory(CloseableHttpClient httpClient) {
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    /**
+     * Wraps the default connection factory to count the connections opened.
+     *
+     * @param created counter incremented on each connection opened
+     * @return the counting connection factory
+     */
+    private static HttpConnectionFactory<ManagedHttpClientConnection> countingConnectionFactory(Counter created) {
+        return new HttpConnectionFactory<>() {
+            @Override
+            public ManagedHttpClientConnection createConnection(Socket socket) throws IOException {
+                created.increment();
+                return ManagedHttpClientConnectionFactory.INSTANCE.createConnection(socket);
+            }
+
+            @Override
+            public ManagedHttpClientConnection createConnection(SSLSocket sslSocket, Socket socket) throws IOException {
+                created.increment();
+                return ManagedHttpClientConnectionFactory.INSTANCE.createConnection(sslSocket, socket);
+            }
+        };
+    }
+}
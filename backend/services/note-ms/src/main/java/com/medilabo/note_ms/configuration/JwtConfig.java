@@ -0,0 +1,35 @@
+package com.medilabo.note_ms.configuration;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Configuration of the JWT parser verifying the tokens forwarded by the gateway.
+ * <p>
+ * Built once at startup, it is injected in the servlet
+ * {@link com.medilabo.note_ms.security.CustomFilter} or passed to the reactive
+ * {@link com.medilabo.note_ms.security.ReactiveCustomFilter}, depending on the
+ * web application type.
+ */
+@Configuration
+public class JwtConfig {
+
+    /**
+     * Provides the parser verifying token signatures with the shared secret key.
+     *
+     * @param secretKey the key the tokens are signed with
+     * @return an immutable, thread-safe {@link JwtParser}
+     */
+    @Bean
+    public JwtParser jwtParser(@Value("${app.secret-key}") String secretKey) {
+        return Jwts.parser()
+                   .verifyWith(Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8)))
+                   .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.medilabo.note_ms.configuration;
+
+import com.medilabo.note_ms.domain.entity.Note;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+/**
+ * Creates the indexes declared on MongoDB documents at startup.
+ * <p>
+ * Index creation is idempotent: missing indexes are built on the existing
+ * collection, indexes already present are left untouched. Indexes replaced
+ * by a declared one are dropped once their replacement exists.
+ */
+@Configuration
+public class MongoIndexConfig {
+
+    private static final Logger logger = LogManager.getLogger(MongoIndexConfig.class);
+
+    /** Former index on patientId and dateTime, replaced by {@link Note#PATIENT_DATE_INDEX}. */
+    private static final String LEGACY_PATIENT_DATE_INDEX = "patientId_dateTime";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mongoMappingContext;
+
+    /**
+     * Creates the indexes declared on {@link Note} once the context is ready,
+     * then drops the index they replace.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void createIndexes() {
+        IndexOperations indexOperations = mongoTemplate.indexOps(Note.class);
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoMappingContext);
+
+        resolver.resolveIndexFor(Note.class).forEach(index -> {
+            String name = indexOperations.createIndex(index);
+            logger.info("Index {} created or already present on collection notes", name);
+        });
+
+        boolean legacyIndexPresent = indexOperations.getIndexInfo().stream()
+                                                    .anyMatch(info -> LEGACY_PATIENT_DATE_INDEX.equals(info.getName()));
+        if (legacyIndexPresent) {
+            indexOperations.dropIndex(LEGACY_PATIENT_DATE_INDEX);
+            logger.info("Legacy index {} dropped from collection notes", LEGACY_PATIENT_DATE_INDEX);
+        }
+    }
+}
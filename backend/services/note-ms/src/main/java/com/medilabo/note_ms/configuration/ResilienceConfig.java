@@ -0,0 +1,182 @@
+package com.medilabo.note_ms.configuration;
+
+import com.medilabo.note_ms.client.Downstream;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the circuit breakers and bulkheads guarding the calls to
+ * the Patient and Evaluation microservices, one {@link Downstream} each.
+ * A circuit breaker opens on too many failed or slow calls among the latest
+ * ones, client errors (4xx) excepted, and a bulkhead bounds the calls in
+ * progress to the connections the HTTP client keeps per microservice. Calls
+ * beyond it wait for a free slot as long as they would wait for a connection,
+ * then are rejected; reactive calls never wait, so that no event loop thread
+ * is blocked.
+ * <p>
+ * Metrics: {@code resilience4j.circuitbreaker.*} and {@code resilience4j.bulkhead.*}
+ * by downstream name, and {@code resilience4j.circuitbreaker.state.transitions}
+ * for the state changes of the circuit breakers.
+ */
+@Configuration
+public class ResilienceConfig {
+    private static final Logger logger = LogManager.getLogger(ResilienceConfig.class);
+
+    @Value("${resilience.circuit-breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${resilience.circuit-breaker.slow-call-duration-threshold:PT2S}")
+    private Duration slowCallDurationThreshold;
+
+    @Value("${resilience.circuit-breaker.slow-call-rate-threshold:50}")
+    private float slowCallRateThreshold;
+
+    @Value("${resilience.circuit-breaker.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${resilience.circuit-breaker.minimum-number-of-calls:10}")
+    private int minimumNumberOfCalls;
+
+    @Value("${resilience.circuit-breaker.wait-duration-in-open-state:PT10S}")
+    private Duration waitDurationInOpenState;
+
+    @Value("${resilience.circuit-breaker.permitted-calls-in-half-open-state:3}")
+    private int permittedCallsInHalfOpenState;
+
+    @Value("${resilience.bulkhead.max-concurrent-calls:${http-client.max-connections-per-route:20}}")
+    private int maxConcurrentCalls;
+
+    @Value("${resilience.bulkhead.max-wait-duration:${http-client.connection-request-timeout:PT2S}}")
+    private Duration maxWaitDuration;
+
+    @Value("${spring.main.web-application-type:servlet}")
+    private String webApplicationType;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Provides the registry of the circuit breakers, sharing one configuration.
+     *
+     * @return a configured {@link CircuitBreakerRegistry}
+     */
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry() {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallDurationThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(waitDurationInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+                .recordException(ResilienceConfig::isFailure)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    /**
+     * Provides the registry of the bulkheads, sharing one configuration.
+     *
+     * @return a configured {@link BulkheadRegistry}
+     */
+    @Bean
+    public BulkheadRegistry bulkheadRegistry() {
+        BulkheadRegistry registry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(bulkheadWaitDuration())
+                .build());
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    /**
+     * Provides the guard of the calls to the Patient microservice.
+     *
+     * @param circuitBreakers the registry of the circuit breakers
+     * @param bulkheads       the registry of the bulkheads
+     * @return the {@link Downstream} named {@code user-ms}
+     */
+    @Bean
+    public Downstream userMsDownstream(CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads) {
+        return downstream("user-ms", circuitBreakers, bulkheads);
+    }
+
+    /**
+     * Provides the guard of the calls to the Evaluation microservice.
+     *
+     * @param circuitBreakers the registry of the circuit breakers
+     * @param bulkheads       the registry of the bulkheads
+     * @return the {@link Downstream} named {@code evaluation-ms}
+     */
+    @Bean
+    public Downstream evaluationMsDownstream(CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads) {
+        return downstream("evaluation-ms", circuitBreakers, bulkheads);
+    }
+
+    /**
+     * Creates the guard of a downstream microservice, logging and counting
+     * the state changes of its circuit breaker.
+     *
+     * @param name            the name of the microservice
+     * @param circuitBreakers the registry of the circuit breakers
+     * @param bulkheads       the registry of the bulkheads
+     * @return the {@link Downstream} of the microservice
+     */
+    private Downstream downstream(String name, CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads) {
+        logger.info("Guarding calls to {}: {} concurrent calls, waiting up to {}", name, maxConcurrentCalls, bulkheadWaitDuration());
+
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(name);
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            logger.warn("Circuit breaker of {}: {}", name, event.getStateTransition());
+            Counter.builder("resilience4j.circuitbreaker.state.transitions")
+                   .description("State changes of the circuit breaker")
+                   .tag("name", name)
+                   .tag("from", event.getStateTransition().getFromState().name().toLowerCase())
+                   .tag("to", event.getStateTransition().getToState().name().toLowerCase())
+                   .register(meterRegistry)
+                   .increment();
+        });
+        return new Downstream(circuitBreaker, bulkheads.bulkhead(name));
+    }
+
+    /**
+     * Returns how long a call waits for a free slot of a bulkhead. A reactive
+     * application does not wait: the reactive operator would block the event
+     * loop while waiting.
+     *
+     * @return the maximum wait, zero in a reactive application
+     */
+    private Duration bulkheadWaitDuration() {
+        return "reactive".equalsIgnoreCase(webApplicationType) ? Duration.ZERO : maxWaitDuration;
+    }
+
+    /**
+     * Tells whether a failed call counts against the health of the microservice.
+     *
+     * @param e the failure of the call
+     * @return false for client errors (4xx), true otherwise
+     */
+    private static boolean isFailure(Throwable e) {
+        return !(e instanceof HttpClientErrorException
+                 || e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError());
+    }
+}
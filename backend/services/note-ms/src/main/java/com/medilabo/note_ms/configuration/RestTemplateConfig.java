@@ -1,9 +1,12 @@
 package com.medilabo.note_ms.configuration;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
@@ -12,13 +15,22 @@ import org.springframework.web.context.request.ServletRequestAttributes;
  * Configuration for RestTemplate.
  * Adds an interceptor to propagate the Authorization header from the incoming HTTP request
  * to outgoing REST calls, allowing JWT authentication to be forwarded between microservices.
+ * Requests are sent through the pooled client of {@link HttpClientConfig}.
  */
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class RestTemplateConfig {
 
+    @Autowired
+    private RestTemplateBuilder restTemplateBuilder;
+
+    @Autowired
+    private ClientHttpRequestFactory clientHttpRequestFactory;
+
     @Bean
     public RestTemplate restTemplate() {
-        return new RestTemplateBuilder()
+        return restTemplateBuilder
+                .requestFactory(() -> clientHttpRequestFactory)
                 .additionalInterceptors((request, body, execution) -> {
                     ServletRequestAttributes attr = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
                     if (attr != null) {
@@ -4,6 +4,7 @@ import com.medilabo.note_ms.security.CustomAccessDeniedHandler;
 import com.medilabo.note_ms.security.CustomAuthEntryPoint;
 import com.medilabo.note_ms.security.CustomFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -18,6 +19,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  * Sets up JWT authentication, stateless sessions, and role-based access.
  */
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SecurityConfig {
 
     @Autowired private CustomFilter customFilter;
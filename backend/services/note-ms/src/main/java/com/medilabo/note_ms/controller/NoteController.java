@@ -1,24 +1,36 @@
 package com.medilabo.note_ms.controller;
 
 import com.medilabo.note_ms.domain.dto.NoteDTO;
+import com.medilabo.note_ms.domain.dto.NotePageDTO;
+import com.medilabo.note_ms.domain.dto.TriggerSummaryDTO;
 import com.medilabo.note_ms.domain.entity.Note;
 import com.medilabo.note_ms.repository.NoteRepository;
 import com.medilabo.note_ms.service.NoteService;
+import com.medilabo.note_ms.service.TriggerTermService;
+import com.medilabo.note_ms.utils.NoteQueries;
+import com.medilabo.note_ms.utils.NoteVersions;
 import jakarta.validation.Valid;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * REST controller for managing medical notes.
  * Provides endpoints for CRUD operations on notes.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class NoteController {
 
     private static final Logger logger = LogManager.getLogger(NoteController.class);
@@ -26,21 +38,159 @@ public class NoteController {
     @Autowired
     private NoteService noteService;
 
+    @Autowired
+    private TriggerTermService triggerTermService;
+
     @Autowired
     private NoteRepository noteRepository;
 
+    /** Response header holding the cursor of the next page of notes. */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Caching of the notes of a patient: kept by the browser only, and
+     * revalidated with their ETag each time they are reused.
+     */
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     /**
-     * Retrieves all notes for a given patient.
+     * Retrieves the notes of a given patient, most recent first.
+     * <p>
+     * Without a limit, every note is returned. With a limit, a single page is
+     * returned and the cursor of the next one, if any, is sent in the
+     * {@value #NEXT_CURSOR_HEADER} header, to be passed back as {@code after}.
+     * <p>
+     * Responses carry a strong ETag derived from the version of the patient's
+     * notes, and must be revalidated before being reused: while the notes are
+     * unchanged, a request sending the ETag back in {@code If-None-Match} gets
+     * an empty 304 response without any note being read.
      *
      * @param patientId the id of the patient
-     * @return a list of notes
+     * @param after     the cursor of the page to retrieve
+     * @param limit     the maximum number of notes to retrieve
+     * @param request   current request, to check its If-None-Match header
+     * @return a list of notes, or 304 if unchanged
      */
     @GetMapping("/{patientId}")
-    public ResponseEntity<List<Note>> getNotesByPatientId(@PathVariable String patientId) {
+    public ResponseEntity<List<Note>> getNotesByPatientId(@PathVariable String patientId,
+                                                          @RequestParam(required = false) String after,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          WebRequest request) {
         logger.info("GET /notes/{} - Retrieving notes for patient", patientId);
-        List<Note> notes = noteService.getNotesByPatientId(patientId);
-        logger.info("GET /notes/{} - Retrieved {} notes", patientId, notes.size());
-        return ResponseEntity.ok(notes);
+        String etag = NoteVersions.etag(noteService.getNotesVersion(patientId));
+        if (request.checkNotModified(etag)) {
+            logger.info("GET /notes/{} - Notes not modified", patientId);
+            return null;
+        }
+
+        if (limit == null && after == null) {
+            List<Note> notes = noteService.getNotesByPatientId(patientId);
+            logger.info("GET /notes/{} - Retrieved {} notes", patientId, notes.size());
+            return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(notes);
+        }
+
+        NotePageDTO page = noteService.getNotesByPatientId(patientId, after, limit == null ? NoteService.MAX_PAGE_SIZE : limit);
+        logger.info("GET /notes/{} - Retrieved a page of {} notes", patientId, page.getItems().size());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE);
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    /**
+     * Streams every note of a given patient, most recent first, as
+     * newline-delimited JSON written as the notes are read.
+     *
+     * @param patientId the id of the patient
+     * @return the notes, one JSON document per line
+     */
+    @GetMapping(value = "/{patientId}/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamNotesByPatientId(@PathVariable String patientId) {
+        logger.info("GET /notes/{}/stream - Streaming notes for patient", patientId);
+        StreamingResponseBody body = output -> noteService.streamNotesByPatientId(patientId, output);
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Streams the notes of several patients as newline-delimited JSON,
+     * grouped by patient and most recent first within a patient, read with a
+     * single query.
+     *
+     * @param patientIds the ids of the patients, at most {@value NoteQueries#MAX_BATCH_PATIENTS}
+     * @return the notes, one JSON document per line
+     */
+    @PostMapping(value = "/batch", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamNotesByPatientIds(@RequestBody List<String> patientIds) {
+        Set<String> ids = NoteQueries.checkPatientIds(patientIds);
+        logger.info("POST /notes/batch - Streaming notes for {} patients", ids.size());
+        StreamingResponseBody body = output -> noteService.streamNotesByPatientIds(ids, output);
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Searches the notes of the connected doctor's patients by keywords,
+     * most relevant first.
+     *
+     * @param q          the keywords
+     * @param patientIds the ids of the patients to search, all accessible patients if absent
+     * @param after      the cursor of the page to retrieve
+     * @param limit      the maximum number of notes to retrieve
+     * @return the page of matching notes
+     */
+    @GetMapping("/search")
+    public ResponseEntity<NotePageDTO> searchNotes(@RequestParam String q,
+                                                   @RequestParam(name = "patientId", required = false) List<String> patientIds,
+                                                   @RequestParam(required = false) String after,
+                                                   @RequestParam(defaultValue = "20") int limit) {
+        logger.info("GET /notes/search - Searching notes for \"{}\"", q);
+        NotePageDTO page = noteService.searchNotes(q, patientIds, after, limit);
+        logger.info("GET /notes/search - Found {} notes", page.getItems().size());
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Retrieves the number of notes and trigger terms of a patient,
+     * without the note contents.
+     *
+     * @param patientId the id of the patient
+     * @return the trigger summary of the patient
+     */
+    @GetMapping("/{patientId}/triggers")
+    public ResponseEntity<TriggerSummaryDTO> getTriggerSummary(@PathVariable String patientId) {
+        logger.info("GET /notes/{}/triggers - Summarizing trigger terms for patient", patientId);
+        TriggerSummaryDTO summary = triggerTermService.getTriggerSummary(patientId);
+        logger.info("GET /notes/{}/triggers - {} trigger terms in {} notes",
+                    patientId, summary.getTriggerCount(), summary.getNoteCount());
+        return ResponseEntity.ok(summary);
+    }
+
+    /**
+     * Retrieves the version of the notes of a patient, incremented by every
+     * change to them, without reading any note. The Evaluation microservice
+     * derives the ETag of a risk level from it.
+     *
+     * @param patientId the id of the patient
+     * @return the version of the patient's notes
+     */
+    @GetMapping("/{patientId}/version")
+    public ResponseEntity<Long> getNotesVersion(@PathVariable String patientId) {
+        logger.info("GET /notes/{}/version - Retrieving version of notes for patient", patientId);
+        return ResponseEntity.ok(noteService.getNotesVersion(patientId));
+    }
+
+    /**
+     * Retrieves the number of notes and trigger terms of several patients in one call.
+     *
+     * @param patientIds the ids of the patients
+     * @return the trigger summaries by patient id
+     */
+    @PostMapping("/triggers/batch")
+    public ResponseEntity<Map<String, TriggerSummaryDTO>> getTriggerSummaries(@RequestBody List<String> patientIds) {
+        logger.info("POST /notes/triggers/batch - Summarizing trigger terms for {} patients", patientIds.size());
+        Map<String, TriggerSummaryDTO> summaries = triggerTermService.getTriggerSummaries(patientIds);
+        logger.info("POST /notes/triggers/batch - Summarized trigger terms for {} patients", summaries.size());
+        return ResponseEntity.ok(summaries);
     }
 
     /**
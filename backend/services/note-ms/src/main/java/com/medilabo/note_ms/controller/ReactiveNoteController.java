@@ -0,0 +1,259 @@
+package com.medilabo.note_ms.controller;
+
+import com.medilabo.note_ms.domain.dto.NoteDTO;
+import com.medilabo.note_ms.domain.dto.NotePageDTO;
+import com.medilabo.note_ms.domain.dto.TriggerSummaryDTO;
+import com.medilabo.note_ms.domain.entity.Note;
+import com.medilabo.note_ms.service.ReactiveNoteService;
+import com.medilabo.note_ms.service.TriggerTermService;
+import com.medilabo.note_ms.utils.NoteQueries;
+import com.medilabo.note_ms.utils.NoteVersions;
+import jakarta.validation.Valid;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for managing medical notes when the application runs on
+ * WebFlux. Serves the same endpoints as {@link NoteController} without
+ * holding a thread while notes are read from MongoDB.
+ * <p>
+ * Trigger summaries still go through the blocking {@link TriggerTermService},
+ * on the bounded elastic scheduler so that the event loop is never blocked.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveNoteController {
+
+    private static final Logger logger = LogManager.getLogger(ReactiveNoteController.class);
+
+    @Autowired
+    private ReactiveNoteService noteService;
+
+    @Autowired
+    private TriggerTermService triggerTermService;
+
+    /**
+     * Retrieves the notes of a given patient, most recent first.
+     * <p>
+     * Without a limit, every note is written as it is read. With a limit, a
+     * single page is returned and the cursor of the next one, if any, is sent
+     * in the {@value NoteController#NEXT_CURSOR_HEADER} header, to be passed
+     * back as {@code after}.
+     * <p>
+     * Like {@link NoteController}, responses carry a strong ETag derived from
+     * the version of the patient's notes, and a request sending it back in
+     * {@code If-None-Match} gets an empty 304 response while they are unchanged.
+     *
+     * @param patientId the id of the patient
+     * @param after     the cursor of the page to retrieve
+     * @param limit     the maximum number of notes to retrieve
+     * @param exchange  current exchange, to check its If-None-Match header
+     * @return a list of notes, or 304 if unchanged
+     */
+    @GetMapping("/{patientId}")
+    public Mono<ResponseEntity<Flux<Note>>> getNotesByPatientId(@PathVariable String patientId,
+                                                                @RequestParam(required = false) String after,
+                                                                @RequestParam(required = false) Integer limit,
+                                                                ServerWebExchange exchange) {
+        logger.info("GET /notes/{} - Retrieving notes for patient", patientId);
+        return noteService.getNotesVersion(patientId)
+                          .map(NoteVersions::etag)
+                          .flatMap(etag -> {
+                              if (exchange.checkNotModified(etag)) {
+                                  logger.info("GET /notes/{} - Notes not modified", patientId);
+                                  return Mono.empty();
+                              }
+                              return getNotes(patientId, after, limit, etag);
+                          });
+    }
+
+    /**
+     * Retrieves the notes of a given patient whose version changed since the
+     * client last read them.
+     *
+     * @param patientId the id of the patient
+     * @param after     the cursor of the page to retrieve
+     * @param limit     the maximum number of notes to retrieve
+     * @param etag      the ETag of the current version of the notes
+     * @return a list of notes
+     */
+    private Mono<ResponseEntity<Flux<Note>>> getNotes(String patientId, String after, Integer limit, String etag) {
+        if (limit == null && after == null) {
+            Flux<Note> notes = noteService.getNotesByPatientId(patientId)
+                                          .doOnComplete(() -> logger.info("GET /notes/{} - Retrieved notes", patientId));
+            return Mono.just(ResponseEntity.ok().eTag(etag).cacheControl(NoteController.REVALIDATE).body(notes));
+        }
+
+        return noteService.getNotesByPatientId(patientId, after, limit == null ? NoteQueries.MAX_PAGE_SIZE : limit)
+                          .map(page -> {
+                              logger.info("GET /notes/{} - Retrieved a page of {} notes", patientId, page.getItems().size());
+                              ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                                                                                  .eTag(etag)
+                                                                                  .cacheControl(NoteController.REVALIDATE);
+                              if (page.getNextCursor() != null) {
+                                  response.header(NoteController.NEXT_CURSOR_HEADER, page.getNextCursor());
+                              }
+                              return response.body(Flux.fromIterable(page.getItems()));
+                          });
+    }
+
+    /**
+     * Streams every note of a given patient, most recent first, as
+     * newline-delimited JSON written as the notes are read.
+     *
+     * @param patientId the id of the patient
+     * @return the notes, one JSON document per line
+     */
+    @GetMapping(value = "/{patientId}/stream", produces = "application/x-ndjson")
+    public Flux<Note> streamNotesByPatientId(@PathVariable String patientId) {
+        logger.info("GET /notes/{}/stream - Streaming notes for patient", patientId);
+        return noteService.streamNotesByPatientId(patientId);
+    }
+
+    /**
+     * Streams the notes of several patients as newline-delimited JSON,
+     * grouped by patient and most recent first within a patient, read with a
+     * single query.
+     *
+     * @param patientIds the ids of the patients, at most {@value NoteQueries#MAX_BATCH_PATIENTS}
+     * @return the notes, one JSON document per line
+     */
+    @PostMapping(value = "/batch", produces = "application/x-ndjson")
+    public Flux<Note> streamNotesByPatientIds(@RequestBody List<String> patientIds) {
+        logger.info("POST /notes/batch - Streaming notes for {} patients", patientIds.size());
+        return noteService.streamNotesByPatientIds(patientIds);
+    }
+
+    /**
+     * Searches the notes of the connected doctor's patients by keywords,
+     * most relevant first.
+     *
+     * @param q          the keywords
+     * @param patientIds the ids of the patients to search, all accessible patients if absent
+     * @param after      the cursor of the page to retrieve
+     * @param limit      the maximum number of notes to retrieve
+     * @return the page of matching notes
+     */
+    @GetMapping("/search")
+    public Mono<ResponseEntity<NotePageDTO>> searchNotes(@RequestParam String q,
+                                                         @RequestParam(name = "patientId", required = false) List<String> patientIds,
+                                                         @RequestParam(required = false) String after,
+                                                         @RequestParam(defaultValue = "20") int limit) {
+        logger.info("GET /notes/search - Searching notes for \"{}\"", q);
+        return noteService.searchNotes(q, patientIds, after, limit)
+                          .map(page -> {
+                              logger.info("GET /notes/search - Found {} notes", page.getItems().size());
+                              return ResponseEntity.ok(page);
+                          });
+    }
+
+    /**
+     * Retrieves the number of notes and trigger terms of a patient,
+     * without the note contents.
+     *
+     * @param patientId the id of the patient
+     * @return the trigger summary of the patient
+     */
+    @GetMapping("/{patientId}/triggers")
+    public Mono<ResponseEntity<TriggerSummaryDTO>> getTriggerSummary(@PathVariable String patientId) {
+        logger.info("GET /notes/{}/triggers - Summarizing trigger terms for patient", patientId);
+        return Mono.fromCallable(() -> triggerTermService.getTriggerSummary(patientId))
+                   .subscribeOn(Schedulers.boundedElastic())
+                   .map(summary -> {
+                       logger.info("GET /notes/{}/triggers - {} trigger terms in {} notes",
+                                   patientId, summary.getTriggerCount(), summary.getNoteCount());
+                       return ResponseEntity.ok(summary);
+                   });
+    }
+
+    /**
+     * Retrieves the version of the notes of a patient, incremented by every
+     * change to them, without reading any note. The Evaluation microservice
+     * derives the ETag of a risk level from it.
+     *
+     * @param patientId the id of the patient
+     * @return the version of the patient's notes
+     */
+    @GetMapping("/{patientId}/version")
+    public Mono<ResponseEntity<Long>> getNotesVersion(@PathVariable String patientId) {
+        logger.info("GET /notes/{}/version - Retrieving version of notes for patient", patientId);
+        return noteService.getNotesVersion(patientId).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Retrieves the number of notes and trigger terms of several patients in one call.
+     *
+     * @param patientIds the ids of the patients
+     * @return the trigger summaries by patient id
+     */
+    @PostMapping("/triggers/batch")
+    public Mono<ResponseEntity<Map<String, TriggerSummaryDTO>>> getTriggerSummaries(@RequestBody List<String> patientIds) {
+        logger.info("POST /notes/triggers/batch - Summarizing trigger terms for {} patients", patientIds.size());
+        return Mono.fromCallable(() -> triggerTermService.getTriggerSummaries(patientIds))
+                   .subscribeOn(Schedulers.boundedElastic())
+                   .map(summaries -> {
+                       logger.info("POST /notes/triggers/batch - Summarized trigger terms for {} patients", summaries.size());
+                       return ResponseEntity.ok(summaries);
+                   });
+    }
+
+    /**
+     * Creates a new note for a patient.
+     *
+     * @param noteDTO the note data, validated before the call
+     * @return the created note
+     */
+    @PostMapping
+    public Mono<ResponseEntity<Note>> create(@Valid @RequestBody NoteDTO noteDTO) {
+        logger.info("POST /notes - Creating note for patient {}", noteDTO.getPatientId());
+        return noteService.create(noteDTO)
+                          .map(note -> {
+                              logger.info("POST /notes - Note created with id {}", note.getId());
+                              return ResponseEntity.ok(note);
+                          });
+    }
+
+    /**
+     * Updates an existing note.
+     *
+     * @param id      the id of the note to update
+     * @param noteDTO the updated note data, validated before the call
+     * @return the updated note
+     */
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Note>> update(@PathVariable String id, @Valid @RequestBody NoteDTO noteDTO) {
+        logger.info("PUT /notes/{} - Updating note", id);
+        return noteService.update(noteDTO, id)
+                          .map(note -> {
+                              logger.info("PUT /notes/{} - Note updated successfully", id);
+                              return ResponseEntity.ok(note);
+                          });
+    }
+
+    /**
+     * Deletes a note by its id.
+     *
+     * @param id the id of the note to delete
+     * @return success message in French
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<String>> delete(@PathVariable String id) {
+        logger.info("DELETE /notes/{} - Deleting note", id);
+        return noteService.delete(id)
+                          .map(deleteMessage -> {
+                              logger.info("DELETE /notes/{} - {}", id, deleteMessage);
+                              return ResponseEntity.ok(deleteMessage);
+                          });
+    }
+}
@@ -0,0 +1,25 @@
+package com.medilabo.note_ms.domain.dto;
+
+import com.medilabo.note_ms.domain.entity.Note;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a page of a patient's notes, most recent first.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotePageDTO {
+
+    /** Notes of the page. */
+    private List<Note> items;
+
+    /** Opaque cursor to request the next page with, null on the last page. */
+    private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.medilabo.note_ms.domain.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a page of the connected doctor's patients,
+ * as returned by the User Microservice.
+ */
+@Getter
+@Setter
+public class PatientPageDTO {
+
+    /** Patients of the page. */
+    private List<PatientDTO> items;
+
+    /** Cursor of the next page, null on the last page. */
+    private String nextCursor;
+}
@@ -0,0 +1,32 @@
+package com.medilabo.note_ms.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object summarizing the trigger terms found in the notes of a patient.
+ * Lets the evaluation service assess a patient without fetching the note contents.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TriggerSummaryDTO {
+
+    /** Identifier of the patient. */
+    private String patientId;
+
+    /** Number of notes of the patient. */
+    private int noteCount;
+
+    /** Sum over the notes of the number of distinct trigger terms found in each. */
+    private int triggerCount;
+
+    /** Version of the term list the trigger terms were computed with. */
+    private int version;
+
+    /** Version of the notes of the patient, read before they were summarized. */
+    private long notesVersion;
+}
@@ -1,22 +1,37 @@
 package com.medilabo.note_ms.domain.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Represents a medical note associated with a patient.
- * Stored in the "notes" MongoDB collection.
+ * Stored in the "notes" MongoDB collection, indexed by patient and most recent date,
+ * and by content for full-text search with French stemming.
  */
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Document(collection = "notes")
+@Document(collection = "notes", language = "french")
+@CompoundIndex(name = Note.PATIENT_DATE_INDEX, def = "{'patientId': 1, 'dateTime': -1, '_id': -1}")
 public class Note {
 
+    /**
+     * Name of the index serving queries by patient, sorted by descending date.
+     * The ID breaks ties between notes of the same date, so that pages of notes
+     * can resume after a (date, ID) pair.
+     */
+    public static final String PATIENT_DATE_INDEX = "patientId_dateTime_id";
+
     /** Unique identifier of the note. */
     @Id
     private String id;
@@ -28,5 +43,19 @@ public class Note {
     private LocalDateTime dateTime;
 
     /** Content of the note. */
+    @TextIndexed
     private String note;
+
+    /** Trigger terms found in the content, computed when the note is saved. Never serialized. */
+    @JsonIgnore
+    private List<String> triggerTerms;
+
+    /** Version of the term list {@link #triggerTerms} was computed with. Never serialized. */
+    @JsonIgnore
+    private Integer triggerTermsVersion;
+
+    /** Relevance of the note to a full-text search, only set on search results. */
+    @TextScore
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Float score;
 }
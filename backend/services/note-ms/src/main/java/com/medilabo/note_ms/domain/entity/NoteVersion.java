@@ -0,0 +1,25 @@
+package com.medilabo.note_ms.domain.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Represents the version of the notes of a patient.
+ * Stored in the "note_versions" MongoDB collection, keyed by patient ID, and
+ * incremented each time one of the patient's notes is created, updated or
+ * deleted. A patient without a document has version 0.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "note_versions")
+public class NoteVersion {
+
+    /** Identifier of the patient, the key of the document. */
+    @Id
+    private String patientId;
+
+    /** Number of changes made to the notes of the patient. */
+    private long version;
+}
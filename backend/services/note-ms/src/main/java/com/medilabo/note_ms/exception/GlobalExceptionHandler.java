@@ -1,6 +1,7 @@
 package com.medilabo.note_ms.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.apache.logging.log4j.LogManager;
@@ -18,6 +19,7 @@ import java.time.format.DateTimeFormatter;
  * Catches various exceptions and returns structured JSON responses.
  */
 @RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GlobalExceptionHandler {
 
     private static final Logger logger = LogManager.getLogger(GlobalExceptionHandler.class);
@@ -0,0 +1,67 @@
+package com.medilabo.note_ms.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Utility class to write structured API error responses on WebFlux, the
+ * reactive counterpart of {@link ErrorResponseWriter}.
+ * Logs the error details before sending them to the client.
+ * <p>
+ * This class is final and cannot be instantiated.
+ */
+public final class ReactiveErrorResponseWriter {
+
+    private static final Logger logger = LogManager.getLogger(ReactiveErrorResponseWriter.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ReactiveErrorResponseWriter() {
+    }
+
+    /**
+     * Writes an error response in JSON format to the exchange response.
+     * Logs the status, path, and message.
+     *
+     * @param exchange the current request and response
+     * @param status   the HTTP status to return
+     * @param message  the error message to include (if null, uses default status reason)
+     * @return completes once the response is written
+     */
+    public static Mono<Void> write(ServerWebExchange exchange, HttpStatus status, String message) {
+        String path = exchange.getRequest().getPath().value();
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        String errorMessage = message != null ? message : status.getReasonPhrase();
+
+        ApiError apiError = new ApiError(
+                status.value(),
+                status.name(),
+                errorMessage,
+                null,
+                path,
+                timestamp
+        );
+
+        logger.warn("Error response [{} {}] for path {}: {}", status.value(), status.name(), path, errorMessage);
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        try {
+            DataBuffer body = response.bufferFactory().wrap(objectMapper.writeValueAsBytes(apiError));
+            return response.writeWith(Mono.just(body));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.medilabo.note_ms.exception;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Global exception handler of the application when it runs on WebFlux.
+ * Catches the same exceptions as {@link GlobalExceptionHandler} and returns
+ * the same structured JSON responses.
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGlobalExceptionHandler {
+
+    private static final Logger logger = LogManager.getLogger(ReactiveGlobalExceptionHandler.class);
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * Handles validation exceptions thrown when DTO validation fails.
+     *
+     * @param ex      the validation exception
+     * @param request the HTTP request
+     * @return ResponseEntity with ApiError and HTTP 400
+     */
+    @ExceptionHandler(ValidationException.class)
+    public ResponseEntity<ApiError> handleValidationException(ValidationException ex, ServerHttpRequest request) {
+        logger.warn("Validation error on {}: {}", request.getPath().value(), ex.getErrors());
+
+        ApiError apiError = new ApiError(
+                HttpStatus.BAD_REQUEST.value(),
+                HttpStatus.BAD_REQUEST.name(),
+                "Veuillez vérifier les données saisies",
+                ex.getErrors(),
+                request.getPath().value(),
+                LocalDateTime.now().format(formatter)
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiError);
+    }
+
+    /**
+     * Handles the validation errors of a {@code @Valid} request body, which
+     * WebFlux raises before the controller is called.
+     *
+     * @param ex      the binding exception
+     * @param request the HTTP request
+     * @return ResponseEntity with ApiError and HTTP 400
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ApiError> handleBindException(WebExchangeBindException ex, ServerHttpRequest request) {
+        return handleValidationException(new ValidationException(ex), request);
+    }
+
+    /**
+     * Handles ResponseStatusException, typically thrown by services with specific HTTP codes.
+     * Requests to non-existent routes also end up here, as a 404 without reason.
+     *
+     * @param ex      the exception
+     * @param request the HTTP request
+     * @return ResponseEntity with ApiError and the corresponding HTTP status
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ApiError> handleResponseStatusException(ResponseStatusException ex, ServerHttpRequest request) {
+        HttpStatus status = HttpStatus.resolve(ex.getStatusCode().value());
+        String message = ex.getReason();
+        if (message == null && status == HttpStatus.NOT_FOUND) {
+            logger.warn("No handler found for request {}", request.getPath().value());
+            message = "Route inexistante";
+        }
+        logger.warn("ResponseStatusException on {}: {} - {}", request.getPath().value(), status, message);
+
+        ApiError apiError = new ApiError(
+                status.value(),
+                status.name(),
+                message,
+                null,
+                request.getPath().value(),
+                LocalDateTime.now().format(formatter)
+        );
+        return ResponseEntity.status(ex.getStatusCode()).body(apiError);
+    }
+
+    /**
+     * Handles any uncaught exceptions to prevent exposing internal errors.
+     *
+     * @param ex      the exception
+     * @param request the HTTP request
+     * @return ResponseEntity with ApiError and HTTP 500
+     */
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ApiError> handleAllUncaught(Exception ex, ServerHttpRequest request) {
+        logger.error("Unexpected error on {}: {}", request.getPath().value(), ex.getMessage(), ex);
+
+        ApiError apiError = new ApiError(
+                HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                HttpStatus.INTERNAL_SERVER_ERROR.name(),
+                "Une erreur inattendue est survenue",
+                null,
+                request.getPath().value(),
+                LocalDateTime.now().format(formatter)
+        );
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR.value()).body(apiError);
+    }
+}
@@ -1,9 +1,13 @@
 package com.medilabo.note_ms.repository;
 
+import com.medilabo.note_ms.domain.dto.TriggerSummaryDTO;
 import com.medilabo.note_ms.domain.entity.Note;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -14,10 +18,40 @@ import java.util.List;
 public interface NoteRepository extends MongoRepository<Note, String> {
 
     /**
-     * Retrieves all notes associated with a specific patient ID.
+     * Retrieves all notes associated with a specific patient ID, most recent first.
+     * Served by the {@link Note#PATIENT_DATE_INDEX} index without an in-memory sort.
      *
      * @param patientId ID of the patient
      * @return list of notes for the given patient
      */
+    @Query(value = "{ 'patientId': ?0 }", sort = "{ 'dateTime': -1, '_id': -1 }")
     List<Note> findByPatientId(String patientId);
+
+    /**
+     * Retrieves the notes of the given patients whose trigger terms were not
+     * computed with the given term list version, including notes without any.
+     *
+     * @param patientIds IDs of the patients
+     * @param version    current version of the term list
+     * @return list of notes to recompute
+     */
+    List<Note> findByPatientIdInAndTriggerTermsVersionNot(Collection<String> patientIds, Integer version);
+
+    /**
+     * Counts, for each of the given patients having notes, its notes and the
+     * trigger terms stored on those computed with the given term list
+     * version. Only the stored terms are read, not the note contents.
+     *
+     * @param patientIds IDs of the patients
+     * @param version    current version of the term list
+     * @return one summary per patient having at least one note, without version
+     */
+    @Aggregation(pipeline = {
+            "{ '$match': { 'patientId': { '$in': ?0 } } }",
+            "{ '$group': { '_id': '$patientId', 'noteCount': { '$sum': 1 }, "
+                    + "'triggerCount': { '$sum': { '$cond': [ { '$eq': ['$triggerTermsVersion', ?1] }, "
+                    + "{ '$size': { '$ifNull': ['$triggerTerms', []] } }, 0 ] } } } }",
+            "{ '$project': { '_id': 0, 'patientId': '$_id', 'noteCount': 1, 'triggerCount': 1 } }"
+    })
+    List<TriggerSummaryDTO> summarizeTriggerTerms(Collection<String> patientIds, Integer version);
 }
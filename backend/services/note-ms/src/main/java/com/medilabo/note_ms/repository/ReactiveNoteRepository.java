@@ -0,0 +1,26 @@
+package com.medilabo.note_ms.repository;
+
+import com.medilabo.note_ms.domain.entity.Note;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive repository interface for managing Note entities in MongoDB.
+ * Mirrors {@link NoteRepository} with non-blocking reads and writes, used
+ * when the service runs on WebFlux.
+ */
+@Repository
+public interface ReactiveNoteRepository extends ReactiveMongoRepository<Note, String> {
+
+    /**
+     * Retrieves all notes associated with a specific patient ID, most recent first.
+     * Served by the {@link Note#PATIENT_DATE_INDEX} index without an in-memory sort.
+     *
+     * @param patientId ID of the patient
+     * @return notes for the given patient, as they are read
+     */
+    @Query(value = "{ 'patientId': ?0 }", sort = "{ 'dateTime': -1, '_id': -1 }")
+    Flux<Note> findByPatientId(String patientId);
+}
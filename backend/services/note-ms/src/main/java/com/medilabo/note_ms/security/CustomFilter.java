@@ -1,13 +1,13 @@
 package com.medilabo.note_ms.security;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.JwtParser;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,7 +17,6 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -25,10 +24,11 @@ import java.util.List;
  * and sets it in the Spring Security context.
  */
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class CustomFilter extends OncePerRequestFilter {
 
-    @Value("${app.secret-key}")
-    protected String secretKey;
+    @Autowired
+    protected JwtParser jwtParser;
 
     private static final Logger logger = LogManager.getLogger(CustomFilter.class);
 
@@ -79,11 +79,7 @@ public class CustomFilter extends OncePerRequestFilter {
      */
     private Claims extractClaims(String token) {
         try {
-            return Jwts.parser()
-                       .verifyWith(Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8)))
-                       .build()
-                       .parseSignedClaims(token)
-                       .getPayload();
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (Exception e) {
             logger.error("Failed to parse JWT token: {}", e.getMessage());
             return null;
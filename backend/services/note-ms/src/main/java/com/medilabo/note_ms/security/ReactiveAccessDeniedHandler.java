@@ -0,0 +1,40 @@
+package com.medilabo.note_ms.security;
+
+import com.medilabo.note_ms.exception.ReactiveErrorResponseWriter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.web.server.authorization.ServerAccessDeniedHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Handles access denied situations on WebFlux by returning a 403 response.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAccessDeniedHandler implements ServerAccessDeniedHandler {
+
+    private static final Logger logger = LogManager.getLogger(ReactiveAccessDeniedHandler.class);
+
+    /**
+     * Handles a forbidden access attempt.
+     *
+     * @param exchange              the current request and response
+     * @param accessDeniedException exception that caused the access denial
+     * @return completes once the response is written
+     */
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, AccessDeniedException accessDeniedException) {
+
+        String errorMessage = "Vous n'êtes pas autorisés à consulter cette ressource";
+
+        logger.warn("Access denied to {}: {}",
+                    exchange.getRequest().getPath().value(), accessDeniedException.getMessage());
+
+        return ReactiveErrorResponseWriter.write(exchange, HttpStatus.FORBIDDEN, errorMessage);
+    }
+}
@@ -0,0 +1,40 @@
+package com.medilabo.note_ms.security;
+
+import com.medilabo.note_ms.exception.ReactiveErrorResponseWriter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Handles unauthorized access attempts on WebFlux by returning a 401 response.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthEntryPoint implements ServerAuthenticationEntryPoint {
+
+    private static final Logger logger = LogManager.getLogger(ReactiveAuthEntryPoint.class);
+
+    /**
+     * Commences an authentication scheme.
+     *
+     * @param exchange      the current request and response
+     * @param authException authentication exception that caused this entry point to be triggered
+     * @return completes once the response is written
+     */
+    @Override
+    public Mono<Void> commence(ServerWebExchange exchange, AuthenticationException authException) {
+
+        String errorMessage = "Vous n'êtes pas authentifiés";
+
+        logger.warn("Unauthorized access attempt to {}: {}",
+                    exchange.getRequest().getPath().value(), authException.getMessage());
+
+        return ReactiveErrorResponseWriter.write(exchange, HttpStatus.UNAUTHORIZED, errorMessage);
+    }
+}
@@ -0,0 +1,113 @@
+package com.medilabo.note_ms.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.List;
+
+/**
+ * Reactive JWT authentication filter that extracts user information from the
+ * token and sets it in the Reactor context of the request, with the same
+ * semantics as {@link CustomFilter}: a missing or invalid token leaves the
+ * request unauthenticated for the authorization rules to reject.
+ * <p>
+ * The Authorization header of an authenticated request is also stored in the
+ * Reactor context under {@link #AUTHORIZATION_CONTEXT_KEY}, to be forwarded
+ * on calls to the other microservices.
+ * <p>
+ * Not declared as a component, so that WebFlux does not register it outside
+ * of the security filter chain.
+ */
+public class ReactiveCustomFilter implements WebFilter {
+
+    /** Reactor context key of the Authorization header to forward. */
+    public static final String AUTHORIZATION_CONTEXT_KEY = ReactiveCustomFilter.class.getName() + ".AUTHORIZATION";
+
+    protected final JwtParser jwtParser;
+
+    private static final Logger logger = LogManager.getLogger(ReactiveCustomFilter.class);
+
+    /**
+     * @param jwtParser parser the JWT signatures are verified with
+     */
+    public ReactiveCustomFilter(JwtParser jwtParser) {
+        this.jwtParser = jwtParser;
+    }
+
+    /**
+     * Intercepts requests to extract and validate JWT, then sets the user authentication.
+     *
+     * @param exchange the current request and response
+     * @param chain    filter chain
+     * @return completes when the rest of the chain completes
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String requestPath = exchange.getRequest().getPath().value();
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            logger.debug("No JWT token found in request for path {}", requestPath);
+            return chain.filter(exchange);
+        }
+
+        String token = authHeader.substring(7);
+        Claims claims = extractClaims(token);
+
+        if (claims == null) {
+            logger.warn("Invalid JWT token for path {}", requestPath);
+            return chain.filter(exchange);
+        }
+
+        String userId = claims.getSubject();
+        String role = claims.get("role", String.class);
+
+        Authentication authentication = authenticate(userId, role);
+        return chain.filter(exchange)
+                    .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication))
+                    .contextWrite(Context.of(AUTHORIZATION_CONTEXT_KEY, authHeader));
+    }
+
+    /**
+     * Extracts claims from a JWT token.
+     *
+     * @param token JWT token
+     * @return Claims object or null if invalid
+     */
+    private Claims extractClaims(String token) {
+        try {
+            return jwtParser.parseSignedClaims(token).getPayload();
+        } catch (Exception e) {
+            logger.error("Failed to parse JWT token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Builds the authentication of the user.
+     *
+     * @param userId user identifier
+     * @param role   user role
+     * @return the authentication to set in the security context
+     */
+    private Authentication authenticate(String userId, String role) {
+        List<SimpleGrantedAuthority> authorities = List.of(
+                new SimpleGrantedAuthority("ROLE_" + role)
+        );
+
+        logger.info("SecurityContext updated for user {} with role {}", userId, role);
+        return new UsernamePasswordAuthenticationToken(userId, null, authorities);
+    }
+}
@@ -1,26 +1,42 @@
 package com.medilabo.note_ms.service;
 
+import com.medilabo.note_ms.client.EvaluationClient;
 import com.medilabo.note_ms.client.PatientClient;
 import com.medilabo.note_ms.domain.dto.NoteDTO;
+import com.medilabo.note_ms.domain.dto.NotePageDTO;
 import com.medilabo.note_ms.domain.dto.PatientDTO;
 import com.medilabo.note_ms.domain.entity.Note;
+import com.medilabo.note_ms.domain.entity.NoteVersion;
 import com.medilabo.note_ms.exception.ValidationException;
 import com.medilabo.note_ms.repository.NoteRepository;
+import com.medilabo.note_ms.utils.NoteQueries;
+import com.medilabo.note_ms.utils.NoteVersions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Service responsible for managing notes.
  */
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class NoteService {
 
     @Autowired
@@ -29,8 +45,23 @@ public class NoteService {
     @Autowired
     private PatientClient patientClient;
 
+    @Autowired
+    private EvaluationClient evaluationClient;
+
+    @Autowired
+    private TriggerTermService triggerTermService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private static final Logger logger = LogManager.getLogger(NoteService.class);
 
+    /** Largest number of notes returned in a single page. */
+    public static final int MAX_PAGE_SIZE = NoteQueries.MAX_PAGE_SIZE;
+
     /**
      * Retrieves a note by its ID.
      *
@@ -60,6 +91,164 @@ public class NoteService {
         return notes;
     }
 
+    /**
+     * Retrieves the version of the notes of a patient, with a single lookup
+     * by ID, to tell whether the notes changed without reading them.
+     *
+     * @param patientId patient ID
+     * @return the version, 0 if the notes of the patient never changed
+     */
+    public long getNotesVersion(String patientId) {
+        long version = NoteVersions.valueOf(mongoTemplate.findById(patientId, NoteVersion.class));
+        logger.debug("Notes of patient ID {} at version {}", patientId, version);
+        return version;
+    }
+
+    /**
+     * Increments the version of the notes of a patient, once a change to
+     * them is written.
+     *
+     * @param patientId patient ID
+     */
+    private void incrementNotesVersion(String patientId) {
+        mongoTemplate.upsert(NoteVersions.patient(patientId), NoteVersions.increment(), NoteVersion.class);
+    }
+
+    /**
+     * Retrieves a page of the notes of a patient, most recent first.
+     * <p>
+     * The cursor holds the date and ID of the last note of the previous page:
+     * the page starts right after them in the patient and date index, so its
+     * cost does not depend on how many notes were already read.
+     *
+     * @param patientId patient ID
+     * @param after     cursor returned with the previous page, null for the first page
+     * @param limit     maximum number of notes in the page
+     * @return the page of Note entities
+     * @throws ResponseStatusException if the limit or the cursor is invalid
+     */
+    public NotePageDTO getNotesByPatientId(String patientId, String after, int limit) {
+        logger.info("Fetching a page of notes for patient ID: {} (after={}, limit={})", patientId, after, limit);
+        NoteQueries.checkLimit(limit);
+        Query query = NoteQueries.patientPage(patientId, after, limit);
+
+        List<Note> notes = mongoTemplate.find(query, Note.class);
+        boolean hasNext = notes.size() > limit;
+        if (hasNext) {
+            notes = notes.subList(0, limit);
+        }
+        logger.debug("Number of notes found: {}", notes.size());
+        return new NotePageDTO(notes, hasNext ? NoteQueries.encodeCursor(notes.get(limit - 1)) : null);
+    }
+
+    /**
+     * Writes every note of a patient, most recent first, as newline-delimited
+     * JSON.
+     * <p>
+     * Notes are written as the MongoDB cursor returns them instead of being
+     * collected first, so memory does not grow with the patient's history. The
+     * output is flushed after the first note so that it reaches the client
+     * without waiting for the response buffer to fill.
+     *
+     * @param patientId patient ID
+     * @param output    stream the notes are written to
+     * @throws IOException if writing to the stream fails
+     */
+    public void streamNotesByPatientId(String patientId, OutputStream output) throws IOException {
+        logger.info("Streaming notes for patient ID: {}", patientId);
+        Query query = NoteQueries.patientNotes(patientId);
+        ObjectWriter writer = objectMapper.writerFor(Note.class);
+
+        int count = 0;
+        try (Stream<Note> notes = mongoTemplate.stream(query, Note.class)) {
+            for (Note note : (Iterable<Note>) notes::iterator) {
+                output.write(writer.writeValueAsBytes(note));
+                output.write('\n');
+                if (++count == 1) {
+                    output.flush();
+                }
+            }
+        }
+        output.flush();
+        logger.debug("Number of notes streamed: {}", count);
+    }
+
+    /**
+     * Writes every note of several patients as newline-delimited JSON,
+     * grouped by patient and most recent first within a patient.
+     * <p>
+     * The notes are read with a single {@code $in} query and written as the
+     * MongoDB cursor returns them, like {@link #streamNotesByPatientId}, so
+     * memory does not grow with the number of notes.
+     *
+     * @param patientIds distinct patient IDs, checked with {@link NoteQueries#checkPatientIds}
+     * @param output     stream the notes are written to
+     * @throws IOException if writing to the stream fails
+     */
+    public void streamNotesByPatientIds(Collection<String> patientIds, OutputStream output) throws IOException {
+        logger.info("Streaming notes for {} patients", patientIds.size());
+        Query query = NoteQueries.patientsNotes(patientIds);
+        ObjectWriter writer = objectMapper.writerFor(Note.class);
+
+        int count = 0;
+        try (Stream<Note> notes = mongoTemplate.stream(query, Note.class)) {
+            for (Note note : (Iterable<Note>) notes::iterator) {
+                output.write(writer.writeValueAsBytes(note));
+                output.write('\n');
+                if (++count == 1) {
+                    output.flush();
+                }
+            }
+        }
+        output.flush();
+        logger.debug("Number of notes streamed: {}", count);
+    }
+
+    /**
+     * Searches the notes of the connected doctor's patients by keywords.
+     * <p>
+     * The search uses the text index on the note content, with French
+     * stemming, and returns the most relevant notes first. It is restricted to
+     * the patients the caller may access, as listed by the User Microservice,
+     * optionally narrowed down to the requested patients.
+     *
+     * @param text       keywords, phrases between double quotes, or terms to exclude prefixed by a minus sign
+     * @param patientIds IDs of the patients to search, null or empty to search every accessible patient
+     * @param after      cursor returned with the previous page, null for the first page
+     * @param limit      maximum number of notes in the page
+     * @return the page of matching Note entities with their score
+     * @throws ResponseStatusException if the search is empty, the limit or the cursor is invalid
+     */
+    public NotePageDTO searchNotes(String text, List<String> patientIds, String after, int limit) {
+        logger.info("Searching notes for \"{}\" (after={}, limit={})", text, after, limit);
+        if (text == null || text.isBlank()) {
+            String errorMessage = "La recherche ne peut pas être vide";
+            logger.error(errorMessage);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, errorMessage);
+        }
+        NoteQueries.checkLimit(limit);
+        int offset = NoteQueries.decodeOffset(after);
+
+        Set<String> scope = patientClient.getPatientIds();
+        if (patientIds != null && !patientIds.isEmpty()) {
+            scope.retainAll(patientIds);
+        }
+        if (scope.isEmpty()) {
+            logger.debug("No accessible patient to search");
+            return new NotePageDTO(List.of(), null);
+        }
+
+        Query query = NoteQueries.search(text, scope, offset, limit);
+
+        List<Note> notes = mongoTemplate.find(query, Note.class);
+        boolean hasNext = notes.size() > limit;
+        if (hasNext) {
+            notes = notes.subList(0, limit);
+        }
+        logger.debug("Number of notes found: {}", notes.size());
+        return new NotePageDTO(notes, hasNext ? NoteQueries.encodeOffset(offset + limit) : null);
+    }
+
     /**
      * Creates a new note for a patient.
      *
@@ -80,9 +269,12 @@ public class NoteService {
         note.setPatientId(patient.getId());
         note.setNote(noteDTO.getNote());
         note.setDateTime(LocalDateTime.now());
+        triggerTermService.computeTriggerTerms(note);
 
         Note savedNote = noteRepository.save(note);
         logger.debug("Note created with ID: {}", savedNote.getId());
+        incrementNotesVersion(savedNote.getPatientId());
+        evaluationClient.invalidateEvaluation(savedNote.getPatientId());
         return savedNote;
     }
 
@@ -103,9 +295,12 @@ public class NoteService {
         logger.info("Updating note ID: {}", id);
         Note note = getNote(id);
         note.setNote(noteDTO.getNote());
+        triggerTermService.computeTriggerTerms(note);
 
         Note updatedNote = noteRepository.save(note);
         logger.debug("Note updated with ID: {}", updatedNote.getId());
+        incrementNotesVersion(note.getPatientId());
+        evaluationClient.invalidateEvaluation(note.getPatientId());
         return updatedNote;
     }
 
@@ -120,6 +315,8 @@ public class NoteService {
         Note note = getNote(id);
         noteRepository.delete(note);
         logger.debug("Note deleted successfully: ID {}", id);
+        incrementNotesVersion(note.getPatientId());
+        evaluationClient.invalidateEvaluation(note.getPatientId());
 
         return "Note supprimée avec succès";
     }
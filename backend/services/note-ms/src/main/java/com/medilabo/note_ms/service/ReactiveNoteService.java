@@ -0,0 +1,272 @@
+package com.medilabo.note_ms.service;
+
+import com.medilabo.note_ms.client.ReactiveEvaluationClient;
+import com.medilabo.note_ms.client.ReactivePatientClient;
+import com.medilabo.note_ms.domain.dto.NoteDTO;
+import com.medilabo.note_ms.domain.dto.NotePageDTO;
+import com.medilabo.note_ms.domain.entity.Note;
+import com.medilabo.note_ms.domain.entity.NoteVersion;
+import com.medilabo.note_ms.repository.ReactiveNoteRepository;
+import com.medilabo.note_ms.utils.NoteQueries;
+import com.medilabo.note_ms.utils.NoteVersions;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Service responsible for managing notes when the application runs on
+ * WebFlux, the non-blocking counterpart of {@link NoteService}.
+ * <p>
+ * Notes are read and written through the reactive MongoDB driver and the
+ * other microservices are called through WebClient, so a request waiting on
+ * either holds no thread. Invalid arguments are signalled as errors of the
+ * returned publishers, with the same messages as {@link NoteService}.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveNoteService {
+
+    @Autowired
+    private ReactiveNoteRepository reactiveNoteRepository;
+
+    @Autowired
+    private ReactivePatientClient patientClient;
+
+    @Autowired
+    private ReactiveEvaluationClient evaluationClient;
+
+    @Autowired
+    private TriggerTermService triggerTermService;
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    private static final Logger logger = LogManager.getLogger(ReactiveNoteService.class);
+
+    /**
+     * Retrieves a note by its ID.
+     *
+     * @param id note ID
+     * @return Note entity, or a 404 error if the note does not exist
+     */
+    private Mono<Note> getNote(String id) {
+        logger.info("Fetching note by ID: {}", id);
+        return reactiveNoteRepository.findById(id)
+                                     .switchIfEmpty(Mono.error(() -> {
+                                         String errorMessage = "La note n'existe pas";
+                                         logger.error(errorMessage);
+                                         return new ResponseStatusException(HttpStatus.NOT_FOUND, errorMessage);
+                                     }));
+    }
+
+    /**
+     * Retrieves all notes for a given patient, most recent first.
+     *
+     * @param patientId patient ID
+     * @return Note entities, as they are read
+     */
+    public Flux<Note> getNotesByPatientId(String patientId) {
+        logger.info("Fetching notes for patient ID: {}", patientId);
+        return reactiveNoteRepository.findByPatientId(patientId);
+    }
+
+    /**
+     * Retrieves the version of the notes of a patient, with a single lookup
+     * by ID, to tell whether the notes changed without reading them.
+     *
+     * @param patientId patient ID
+     * @return the version, 0 if the notes of the patient never changed
+     */
+    public Mono<Long> getNotesVersion(String patientId) {
+        return reactiveMongoTemplate.findById(patientId, NoteVersion.class)
+                                    .map(NoteVersions::valueOf)
+                                    .defaultIfEmpty(0L)
+                                    .doOnNext(version -> logger.debug("Notes of patient ID {} at version {}", patientId, version));
+    }
+
+    /**
+     * Increments the version of the notes of a patient, once a change to
+     * them is written.
+     *
+     * @param patientId patient ID
+     * @return completion of the increment
+     */
+    private Mono<Void> incrementNotesVersion(String patientId) {
+        return reactiveMongoTemplate.upsert(NoteVersions.patient(patientId), NoteVersions.increment(), NoteVersion.class)
+                                    .then();
+    }
+
+    /**
+     * Retrieves a page of the notes of a patient, most recent first.
+     *
+     * @param patientId patient ID
+     * @param after     cursor returned with the previous page, null for the first page
+     * @param limit     maximum number of notes in the page
+     * @return the page of Note entities, or a 400 error if the limit or the cursor is invalid
+     */
+    public Mono<NotePageDTO> getNotesByPatientId(String patientId, String after, int limit) {
+        return Mono.defer(() -> {
+            logger.info("Fetching a page of notes for patient ID: {} (after={}, limit={})", patientId, after, limit);
+            NoteQueries.checkLimit(limit);
+            return reactiveMongoTemplate.find(NoteQueries.patientPage(patientId, after, limit), Note.class)
+                                        .collectList()
+                                        .map(notes -> {
+                                            boolean hasNext = notes.size() > limit;
+                                            List<Note> items = hasNext ? notes.subList(0, limit) : notes;
+                                            logger.debug("Number of notes found: {}", items.size());
+                                            return new NotePageDTO(items, hasNext ? NoteQueries.encodeCursor(items.get(limit - 1)) : null);
+                                        });
+        });
+    }
+
+    /**
+     * Streams every note of a patient, most recent first, as the MongoDB
+     * cursor returns them.
+     *
+     * @param patientId patient ID
+     * @return Note entities, as they are read
+     */
+    public Flux<Note> streamNotesByPatientId(String patientId) {
+        logger.info("Streaming notes for patient ID: {}", patientId);
+        return reactiveMongoTemplate.find(NoteQueries.patientNotes(patientId), Note.class);
+    }
+
+    /**
+     * Streams every note of several patients, grouped by patient and most
+     * recent first within a patient, as the single {@code $in} query returns
+     * them.
+     *
+     * @param patientIds patient IDs, possibly with duplicates
+     * @return Note entities, as they are read, or a 400 error if there is no
+     *         patient ID or more than {@value NoteQueries#MAX_BATCH_PATIENTS}
+     */
+    public Flux<Note> streamNotesByPatientIds(List<String> patientIds) {
+        return Flux.defer(() -> {
+            Set<String> ids = NoteQueries.checkPatientIds(patientIds);
+            logger.info("Streaming notes for {} patients", ids.size());
+            return reactiveMongoTemplate.find(NoteQueries.patientsNotes(ids), Note.class);
+        });
+    }
+
+    /**
+     * Searches the notes of the connected doctor's patients by keywords,
+     * most relevant first, restricted like {@link NoteService#searchNotes}.
+     *
+     * @param text       keywords, phrases between double quotes, or terms to exclude prefixed by a minus sign
+     * @param patientIds IDs of the patients to search, null or empty to search every accessible patient
+     * @param after      cursor returned with the previous page, null for the first page
+     * @param limit      maximum number of notes in the page
+     * @return the page of matching Note entities with their score, or a 400 error if
+     *         the search is empty, the limit or the cursor is invalid
+     */
+    public Mono<NotePageDTO> searchNotes(String text, List<String> patientIds, String after, int limit) {
+        return Mono.defer(() -> {
+            logger.info("Searching notes for \"{}\" (after={}, limit={})", text, after, limit);
+            if (text == null || text.isBlank()) {
+                String errorMessage = "La recherche ne peut pas être vide";
+                logger.error(errorMessage);
+                return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, errorMessage));
+            }
+            NoteQueries.checkLimit(limit);
+            int offset = NoteQueries.decodeOffset(after);
+
+            return patientClient.getPatientIds().flatMap(scope -> {
+                if (patientIds != null && !patientIds.isEmpty()) {
+                    scope.retainAll(patientIds);
+                }
+                if (scope.isEmpty()) {
+                    logger.debug("No accessible patient to search");
+                    return Mono.just(new NotePageDTO(List.of(), null));
+                }
+
+                return reactiveMongoTemplate.find(NoteQueries.search(text, scope, offset, limit), Note.class)
+                                            .collectList()
+                                            .map(notes -> {
+                                                boolean hasNext = notes.size() > limit;
+                                                List<Note> items = hasNext ? notes.subList(0, limit) : notes;
+                                                logger.debug("Number of notes found: {}", items.size());
+                                                return new NotePageDTO(items, hasNext ? NoteQueries.encodeOffset(offset + limit) : null);
+                                            });
+            });
+        });
+    }
+
+    /**
+     * Creates a new note for a patient, once the User Microservice confirmed
+     * the patient exists and is accessible.
+     *
+     * @param noteDTO validated note data
+     * @return created Note entity
+     */
+    public Mono<Note> create(NoteDTO noteDTO) {
+        logger.info("Creating note for patient ID: {}", noteDTO.getPatientId());
+        return patientClient.getPatientById(noteDTO.getPatientId())
+                            .map(patient -> {
+                                Note note = new Note();
+                                note.setPatientId(patient.getId());
+                                note.setNote(noteDTO.getNote());
+                                note.setDateTime(LocalDateTime.now());
+                                triggerTermService.computeTriggerTerms(note);
+                                return note;
+                            })
+                            .flatMap(reactiveNoteRepository::save)
+                            .flatMap(savedNote -> {
+                                logger.debug("Note created with ID: {}", savedNote.getId());
+                                return incrementNotesVersion(savedNote.getPatientId())
+                                        .then(Mono.defer(() -> evaluationClient.invalidateEvaluation(savedNote.getPatientId())))
+                                        .thenReturn(savedNote);
+                            });
+    }
+
+    /**
+     * Updates an existing note.
+     *
+     * @param noteDTO validated note data
+     * @param id      note ID
+     * @return updated Note entity, or a 404 error if the note does not exist
+     */
+    public Mono<Note> update(NoteDTO noteDTO, String id) {
+        logger.info("Updating note ID: {}", id);
+        return getNote(id)
+                .flatMap(note -> {
+                    note.setNote(noteDTO.getNote());
+                    triggerTermService.computeTriggerTerms(note);
+                    return reactiveNoteRepository.save(note);
+                })
+                .flatMap(updatedNote -> {
+                    logger.debug("Note updated with ID: {}", updatedNote.getId());
+                    return incrementNotesVersion(updatedNote.getPatientId())
+                            .then(Mono.defer(() -> evaluationClient.invalidateEvaluation(updatedNote.getPatientId())))
+                            .thenReturn(updatedNote);
+                });
+    }
+
+    /**
+     * Deletes a note by ID.
+     *
+     * @param id note ID
+     * @return success message, or a 404 error if the note does not exist
+     */
+    public Mono<String> delete(String id) {
+        logger.info("Deleting note ID: {}", id);
+        return getNote(id)
+                .flatMap(note -> reactiveNoteRepository.delete(note)
+                                                       .then(Mono.defer(() -> {
+                                                           logger.debug("Note deleted successfully: ID {}", id);
+                                                           return incrementNotesVersion(note.getPatientId())
+                                                                   .then(evaluationClient.invalidateEvaluation(note.getPatientId()));
+                                                       }))
+                                                       .thenReturn("Note supprimée avec succès"));
+    }
+}
@@ -0,0 +1,228 @@
+package com.medilabo.note_ms.service;
+
+import com.medilabo.note_ms.domain.dto.TriggerSummaryDTO;
+import com.medilabo.note_ms.domain.entity.Note;
+import com.medilabo.note_ms.domain.entity.NoteVersion;
+import com.medilabo.note_ms.repository.NoteRepository;
+import com.medilabo.note_ms.utils.NoteVersions;
+import com.medilabo.note_ms.utils.TextNormalizer;
+import com.medilabo.note_ms.utils.TriggerTermMatcher;
+import com.medilabo.note_ms.utils.TriggerTerms;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Service responsible for the trigger terms stored on notes.
+ * <p>
+ * The terms found in a note are computed when the note is saved, so that a
+ * patient's risk can be evaluated from per-patient counts instead of the
+ * note contents. Notes computed with another version of the term list are
+ * recomputed in the background at startup; until then, their terms are
+ * found in memory when they are summarized, without being written.
+ */
+@Service
+public class TriggerTermService {
+
+    private static final Logger logger = LogManager.getLogger(TriggerTermService.class);
+
+    private static final TriggerTermMatcher TRIGGER_TERM_MATCHER = new TriggerTermMatcher(
+            TriggerTerms.TERMS.stream()
+                    .map(TextNormalizer::normalize)
+                    .toList());
+
+    /** Number of notes recomputed per bulk write. */
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
+    /**
+     * Finds the trigger terms present in a text.
+     *
+     * @param text note content
+     * @return trigger terms found, in term list order
+     */
+    public List<String> findTriggerTerms(String text) {
+        if (text == null || text.isBlank()) return List.of();
+
+        long found = TRIGGER_TERM_MATCHER.findMatches(TextNormalizer.normalize(text));
+        List<String> terms = new ArrayList<>(Long.bitCount(found));
+        for (int index = 0; index < TriggerTerms.TERMS.size(); index++) {
+            if ((found & (1L << index)) != 0) {
+                terms.add(TriggerTerms.TERMS.get(index));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Computes and sets the trigger terms of a note about to be saved.
+     *
+     * @param note Note entity
+     */
+    public void computeTriggerTerms(Note note) {
+        note.setTriggerTerms(findTriggerTerms(note.getNote()));
+        note.setTriggerTermsVersion(TriggerTerms.VERSION);
+    }
+
+    /**
+     * Summarizes the trigger terms of several patients' notes.
+     * <p>
+     * Notes and the trigger terms stored on up-to-date notes are counted by
+     * an aggregation that does not read the note contents. The terms of
+     * outdated notes, not yet recomputed by the {@link #backfill()}, are
+     * found in memory and nothing is written. Every requested patient ID is
+     * present in the result. Each summary carries the version of the notes of
+     * its patient, read before counting, so that it never announces counts
+     * that were not read.
+     *
+     * @param patientIds patient IDs
+     * @return trigger summaries by patient ID, in request order
+     */
+    public Map<String, TriggerSummaryDTO> getTriggerSummaries(List<String> patientIds) {
+        logger.info("Summarizing trigger terms for {} patients", patientIds.size());
+        Set<String> ids = new LinkedHashSet<>(patientIds);
+
+        Map<String, Long> notesVersions = new HashMap<>();
+        mongoTemplate.find(NoteVersions.patients(ids), NoteVersion.class)
+                     .forEach(version -> notesVersions.put(version.getPatientId(), NoteVersions.valueOf(version)));
+
+        Map<String, TriggerSummaryDTO> summaries = new LinkedHashMap<>();
+        for (String patientId : ids) {
+            summaries.put(patientId, new TriggerSummaryDTO(patientId, 0, 0, TriggerTerms.VERSION, 0));
+        }
+        for (TriggerSummaryDTO summary : noteRepository.summarizeTriggerTerms(ids, TriggerTerms.VERSION)) {
+            summary.setVersion(TriggerTerms.VERSION);
+            summaries.put(summary.getPatientId(), summary);
+        }
+        for (Note note : noteRepository.findByPatientIdInAndTriggerTermsVersionNot(ids, TriggerTerms.VERSION)) {
+            TriggerSummaryDTO summary = summaries.get(note.getPatientId());
+            summary.setTriggerCount(summary.getTriggerCount() + findTriggerTerms(note.getNote()).size());
+        }
+        summaries.forEach((patientId, summary) -> summary.setNotesVersion(notesVersions.getOrDefault(patientId, 0L)));
+        return summaries;
+    }
+
+    /**
+     * Summarizes the trigger terms of a patient's notes.
+     *
+     * @param patientId patient ID
+     * @return trigger summary of the patient
+     */
+    public TriggerSummaryDTO getTriggerSummary(String patientId) {
+        return getTriggerSummaries(List.of(patientId)).get(patientId);
+    }
+
+    /**
+     * Recomputes, once the application is started, the trigger terms of every
+     * note saved before they existed or with another version of the term list.
+     * The notes are recomputed on the application task executor, so that the
+     * startup does not wait for them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        CompletableFuture.runAsync(this::recomputeOutdated, taskExecutor)
+                         .exceptionally(e -> {
+                             logger.error("Trigger terms backfill failed: {}", e.getMessage());
+                             return null;
+                         });
+    }
+
+    /**
+     * Recomputes the outdated notes in batches of {@link #BATCH_SIZE}, read in
+     * ID order so that each batch starts after the previous one, whether its
+     * notes were updated or not.
+     */
+    private void recomputeOutdated() {
+        int count = 0;
+        String lastId = null;
+        while (true) {
+            Criteria criteria = Criteria.where("triggerTermsVersion").ne(TriggerTerms.VERSION);
+            if (lastId != null) {
+                criteria = criteria.and("_id").gt(lastId);
+            }
+            Query query = new Query(criteria).with(Sort.by("_id")).limit(BATCH_SIZE);
+            query.fields().include("patientId", "note");
+
+            List<Note> batch = mongoTemplate.find(query, Note.class);
+            if (batch.isEmpty()) {
+                break;
+            }
+            count += recompute(batch);
+            lastId = batch.get(batch.size() - 1).getId();
+            if (batch.size() < BATCH_SIZE) {
+                break;
+            }
+        }
+        logger.info("Trigger terms backfilled on {} notes (version {})", count, TriggerTerms.VERSION);
+    }
+
+    /**
+     * Stores the trigger terms of notes in a single bulk write. Only the
+     * trigger fields are written, and only if the content did not change in
+     * the meantime: a concurrent update computes them itself. The trigger
+     * terms being part of the notes returned, the version of the notes of
+     * each patient of the batch is then incremented.
+     *
+     * @param notes notes to recompute
+     * @return number of notes updated
+     */
+    private int recompute(List<Note> notes) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class);
+        for (Note note : notes) {
+            operations.updateOne(
+                    new Query(Criteria.where("_id").is(note.getId()).and("note").is(note.getNote())),
+                    new Update().set("triggerTerms", findTriggerTerms(note.getNote()))
+                                .set("triggerTermsVersion", TriggerTerms.VERSION));
+        }
+        int modified = operations.execute().getModifiedCount();
+        logger.debug("Trigger terms recomputed on {} of {} notes", modified, notes.size());
+        if (modified > 0) {
+            incrementNotesVersions(notes);
+        }
+        return modified;
+    }
+
+    /**
+     * Increments, in a single bulk write, the version of the notes of every
+     * patient owning one of the given notes.
+     *
+     * @param notes notes that may have changed
+     */
+    private void incrementNotesVersions(List<Note> notes) {
+        Set<String> patientIds = new LinkedHashSet<>();
+        notes.forEach(note -> patientIds.add(note.getPatientId()));
+
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NoteVersion.class);
+        patientIds.forEach(patientId -> operations.upsert(NoteVersions.patient(patientId), NoteVersions.increment()));
+        operations.execute();
+    }
+}
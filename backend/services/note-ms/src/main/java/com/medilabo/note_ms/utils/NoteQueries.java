@@ -0,0 +1,218 @@
+package com.medilabo.note_ms.utils;
+
+import com.medilabo.note_ms.domain.entity.Note;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds the MongoDB queries reading notes and the opaque cursors of their
+ * pages, shared by the servlet and the reactive note services so that both
+ * return the same pages for the same requests.
+ * <p>
+ * This class is final and cannot be instantiated.
+ */
+public final class NoteQueries {
+
+    private static final Logger logger = LogManager.getLogger(NoteQueries.class);
+
+    /** Largest number of notes returned in a single page. */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /** Largest number of patients whose notes are read in a single call. */
+    public static final int MAX_BATCH_PATIENTS = 100;
+
+    /** Order of a patient's notes: most recent first, ties broken by ID. */
+    private static final Sort NOTE_ORDER = Sort.by(Sort.Direction.DESC, "dateTime", "_id");
+
+    private NoteQueries() {
+    }
+
+    /**
+     * Checks that a page size is between 1 and {@link #MAX_PAGE_SIZE}.
+     *
+     * @param limit requested page size
+     * @throws ResponseStatusException if the limit is out of range
+     */
+    public static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            logger.error("Invalid page size: {}", limit);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                              "La taille de page doit être comprise entre 1 et " + MAX_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Checks that a batch of patient IDs holds between 1 and
+     * {@link #MAX_BATCH_PATIENTS} distinct IDs.
+     *
+     * @param patientIds requested patient IDs, possibly with duplicates
+     * @return the distinct patient IDs, in request order
+     * @throws ResponseStatusException if there is no ID or too many of them
+     */
+    public static Set<String> checkPatientIds(List<String> patientIds) {
+        Set<String> ids = patientIds == null ? Set.of() : new LinkedHashSet<>(patientIds);
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_PATIENTS) {
+            logger.error("Invalid number of patients: {}", ids.size());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                              "Le nombre de patients doit être compris entre 1 et " + MAX_BATCH_PATIENTS);
+        }
+        return ids;
+    }
+
+    /**
+     * Builds the query reading every note of a patient, most recent first.
+     *
+     * @param patientId patient ID
+     * @return the query
+     */
+    public static Query patientNotes(String patientId) {
+        return new Query(Criteria.where("patientId").is(patientId)).with(NOTE_ORDER);
+    }
+
+    /**
+     * Builds the single {@code $in} query reading every note of several
+     * patients, grouped by patient and most recent first within a patient.
+     * The patient and date index returns them in this order, without an
+     * in-memory sort.
+     *
+     * @param patientIds patient IDs
+     * @return the query
+     */
+    public static Query patientsNotes(Collection<String> patientIds) {
+        return new Query(Criteria.where("patientId").in(patientIds))
+                .with(Sort.by(Sort.Direction.ASC, "patientId").and(NOTE_ORDER));
+    }
+
+    /**
+     * Builds the query reading a page of the notes of a patient, most recent
+     * first, with one extra note telling whether another page follows.
+     * <p>
+     * The cursor holds the date and ID of the last note of the previous page:
+     * the page starts right after them in the patient and date index, so its
+     * cost does not depend on how many notes were already read.
+     *
+     * @param patientId patient ID
+     * @param after     cursor returned with the previous page, null for the first page
+     * @param limit     maximum number of notes in the page
+     * @return the query
+     * @throws ResponseStatusException if the cursor is malformed
+     */
+    public static Query patientPage(String patientId, String after, int limit) {
+        Criteria criteria = Criteria.where("patientId").is(patientId);
+        if (after != null && !after.isEmpty()) {
+            Note last = decodeCursor(after);
+            criteria.orOperator(Criteria.where("dateTime").lt(last.getDateTime()),
+                                Criteria.where("dateTime").is(last.getDateTime()).and("_id").lt(last.getId()));
+        }
+        return new Query(criteria).with(NOTE_ORDER).limit(limit + 1);
+    }
+
+    /**
+     * Builds the full-text query searching the notes of the given patients,
+     * most relevant first, with one extra note telling whether another page
+     * follows. Trigger terms are left out of the results.
+     *
+     * @param text       keywords, phrases between double quotes, or terms to exclude prefixed by a minus sign
+     * @param patientIds IDs of the patients to search
+     * @param offset     number of results already returned
+     * @param limit      maximum number of notes in the page
+     * @return the query
+     */
+    public static Query search(String text, Collection<String> patientIds, int offset, int limit) {
+        Query query = TextQuery.queryText(TextCriteria.forLanguage("french").matching(text))
+                               .sortByScore()
+                               .addCriteria(Criteria.where("patientId").in(patientIds))
+                               .skip(offset)
+                               .limit(limit + 1);
+        query.fields().exclude("triggerTerms", "triggerTermsVersion");
+        return query;
+    }
+
+    /**
+     * Encodes the position of a search result page into an opaque cursor.
+     *
+     * @param offset number of results already returned
+     * @return the URL-safe cursor
+     */
+    public static String encodeOffset(int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+                     .encodeToString(Integer.toString(offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a search result cursor.
+     *
+     * @param cursor cursor returned with the previous page, null or empty for the first page
+     * @return number of results already returned
+     * @throws ResponseStatusException if the cursor is malformed
+     */
+    public static int decodeOffset(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        try {
+            int offset = Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (offset < 0) {
+                throw new IllegalArgumentException("Negative offset");
+            }
+            return offset;
+        } catch (RuntimeException e) {
+            throw invalidCursor(cursor);
+        }
+    }
+
+    /**
+     * Encodes the position of a note into an opaque cursor.
+     *
+     * @param note last note of a page
+     * @return the URL-safe cursor
+     */
+    public static String encodeCursor(Note note) {
+        String value = note.getDateTime() + "\n" + note.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor into the date and ID of the note it was created from.
+     *
+     * @param cursor cursor returned with the previous page
+     * @return a Note holding only the date and ID
+     * @throws ResponseStatusException if the cursor is malformed
+     */
+    private static Note decodeCursor(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf('\n');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Missing separator");
+            }
+            return Note.builder()
+                       .dateTime(LocalDateTime.parse(value.substring(0, separator)))
+                       .id(value.substring(separator + 1))
+                       .build();
+        } catch (RuntimeException e) {
+            throw invalidCursor(cursor);
+        }
+    }
+
+    private static ResponseStatusException invalidCursor(String cursor) {
+        String errorMessage = "Curseur de pagination invalide";
+        logger.error("{}: {}", errorMessage, cursor);
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, errorMessage);
+    }
+}
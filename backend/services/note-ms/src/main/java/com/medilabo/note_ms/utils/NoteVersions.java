@@ -0,0 +1,76 @@
+package com.medilabo.note_ms.utils;
+
+import com.medilabo.note_ms.domain.entity.NoteVersion;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+
+/**
+ * Builds the MongoDB operations on the {@link NoteVersion} of a patient and
+ * the ETags derived from it, shared by the servlet and the reactive note
+ * services.
+ * <p>
+ * The version is incremented after each write to the notes of a patient, so
+ * a version read before the notes never announces content that was not
+ * written yet. Reading it is a lookup by {@code _id}, which lets an unchanged
+ * note list be revalidated without reading any note.
+ * <p>
+ * This class is final and cannot be instantiated.
+ */
+public final class NoteVersions {
+
+    private NoteVersions() {
+    }
+
+    /**
+     * Builds the query selecting the version of a patient.
+     *
+     * @param patientId patient ID
+     * @return the query
+     */
+    public static Query patient(String patientId) {
+        return new Query(Criteria.where("_id").is(patientId));
+    }
+
+    /**
+     * Builds the query selecting the versions of several patients.
+     *
+     * @param patientIds patient IDs
+     * @return the query
+     */
+    public static Query patients(Collection<String> patientIds) {
+        return new Query(Criteria.where("_id").in(patientIds));
+    }
+
+    /**
+     * Builds the update incrementing a version, to be run as an upsert so
+     * that the first change of a patient creates its version.
+     *
+     * @return the update
+     */
+    public static Update increment() {
+        return new Update().inc("version", 1);
+    }
+
+    /**
+     * Returns the version of a patient read from MongoDB.
+     *
+     * @param version the version document, null if the notes never changed
+     * @return the version number
+     */
+    public static long valueOf(NoteVersion version) {
+        return version == null ? 0 : version.getVersion();
+    }
+
+    /**
+     * Computes the strong ETag of the notes of a patient.
+     *
+     * @param version version of the notes
+     * @return the quoted ETag
+     */
+    public static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+}
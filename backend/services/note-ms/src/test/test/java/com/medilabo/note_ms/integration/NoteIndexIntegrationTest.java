@@ -0,0 +1,72 @@
+package com.medilabo.note_ms.integration;
+
+import com.medilabo.note_ms.domain.entity.Note;
+import com.medilabo.note_ms.repository.NoteRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.yml")
+class NoteIndexIntegrationTest {
+    @Autowired private MongoTemplate mongoTemplate;
+    @Autowired private NoteRepository noteRepository;
+
+    @BeforeEach
+    void setUp() {
+        noteRepository.deleteAll();
+        for (int i = 0; i < 20; i++) {
+            noteRepository.save(Note.builder()
+                                    .patientId("patient-" + (i % 4))
+                                    .note("Note " + i)
+                                    .dateTime(LocalDateTime.now().minusDays(i))
+                                    .build());
+        }
+    }
+
+    @Test
+    void testPatientDateIndexIsCreatedAtStartup() {
+        List<IndexInfo> indexes = mongoTemplate.indexOps(Note.class).getIndexInfo();
+
+        assertTrue(indexes.stream().anyMatch(index -> index.getName().equals(Note.PATIENT_DATE_INDEX)));
+    }
+
+    @Test
+    void testFindByPatientIdUsesPatientDateIndex() {
+        Document explain = mongoTemplate.getCollection("notes")
+                                        .find(new Document("patientId", "patient-1"))
+                                        .sort(new Document("dateTime", -1))
+                                        .explain();
+
+        String winningPlan = explain.get("queryPlanner", Document.class)
+                                    .get("winningPlan", Document.class)
+                                    .toJson();
+
+        assertTrue(winningPlan.contains("IXSCAN"), winningPlan);
+        assertTrue(winningPlan.contains(Note.PATIENT_DATE_INDEX), winningPlan);
+        assertFalse(winningPlan.contains("\"SORT\""), winningPlan);
+        assertFalse(winningPlan.contains("COLLSCAN"), winningPlan);
+    }
+
+    @Test
+    void testFindByPatientIdReturnsMostRecentFirst() {
+        List<Note> notes = noteRepository.findByPatientId("patient-1");
+
+        assertEquals(5, notes.size());
+        for (int i = 1; i < notes.size(); i++) {
+            assertTrue(notes.get(i - 1).getDateTime().isAfter(notes.get(i).getDateTime()));
+        }
+    }
+}
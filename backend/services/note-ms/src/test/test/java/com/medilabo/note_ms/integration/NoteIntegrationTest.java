@@ -15,12 +15,14 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 
+import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -108,6 +110,36 @@ class NoteIntegrationTest {
                .andExpect(jsonPath("$[0].note").value(note.getNote()));
     }
 
+    @Test
+    void testGetNotesByPatientId_notModifiedUntilNotesChange() throws Exception {
+        String token = jwtUtils.generateToken("USER", 36000L);
+
+        String etag = mockMvc.perform(get("/patient-123")
+                                              .header("Authorization", "Bearer " + token))
+                             .andExpect(status().isOk())
+                             .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                             .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/patient-123")
+                                .header("Authorization", "Bearer " + token)
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+               .andExpect(status().isNotModified())
+               .andExpect(content().string(""));
+
+        mockMvc.perform(put("/note-1")
+                                .header("Authorization", "Bearer " + token)
+                                .contentType("application/json")
+                                .content(objectMapper.writeValueAsString(noteDTO)))
+               .andExpect(status().isOk());
+
+        mockMvc.perform(get("/patient-123")
+                                .header("Authorization", "Bearer " + token)
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+               .andExpect(status().isOk())
+               .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+               .andExpect(jsonPath("$[0].note").value(note.getNote()));
+    }
+
     @Test
     void testDeleteNote() throws Exception {
         String token = jwtUtils.generateToken("USER", 36000L);
@@ -1,21 +1,34 @@
 package com.medilabo.note_ms.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medilabo.note_ms.client.EvaluationClient;
 import com.medilabo.note_ms.client.PatientClient;
 import com.medilabo.note_ms.domain.dto.NoteDTO;
+import com.medilabo.note_ms.domain.dto.NotePageDTO;
 import com.medilabo.note_ms.domain.dto.PatientDTO;
 import com.medilabo.note_ms.domain.entity.Note;
+import com.medilabo.note_ms.domain.entity.NoteVersion;
 import com.medilabo.note_ms.exception.ValidationException;
 import com.medilabo.note_ms.repository.NoteRepository;
+import com.medilabo.note_ms.utils.NoteQueries;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.ObjectError;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.BDDMockito.*;
@@ -32,6 +45,18 @@ class NoteServiceTest {
     @Mock
     private PatientClient patientClient;
 
+    @Mock
+    private EvaluationClient evaluationClient;
+
+    @Mock
+    private TriggerTermService triggerTermService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @Mock
     private BindingResult bindingResult;
 
@@ -68,6 +93,141 @@ class NoteServiceTest {
         assertEquals("note-1", notes.get(0).getId());
     }
 
+    @Test
+    void testGetNotesVersion() {
+        given(mongoTemplate.findById("patient-123", NoteVersion.class)).willReturn(new NoteVersion("patient-123", 4));
+
+        assertEquals(4, noteService.getNotesVersion("patient-123"));
+        assertEquals(0, noteService.getNotesVersion("patient-456"));
+        then(noteRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void testGetNotesPage_returnsCursorOfLastNote() {
+        Note olderNote = Note.builder().id("note-2").patientId("patient-123")
+                             .dateTime(note.getDateTime().minusDays(1)).build();
+        Note oldestNote = Note.builder().id("note-3").patientId("patient-123")
+                              .dateTime(note.getDateTime().minusDays(2)).build();
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        given(mongoTemplate.find(query.capture(), eq(Note.class)))
+                .willReturn(List.of(note, olderNote, oldestNote), List.of(oldestNote));
+
+        NotePageDTO page = noteService.getNotesByPatientId("patient-123", null, 2);
+
+        assertEquals(List.of(note, olderNote), page.getItems());
+        assertNotNull(page.getNextCursor());
+        assertEquals(3, query.getValue().getLimit());
+        assertEquals("{\"dateTime\": -1, \"_id\": -1}", query.getValue().getSortObject().toJson());
+
+        NotePageDTO nextPage = noteService.getNotesByPatientId("patient-123", page.getNextCursor(), 2);
+
+        assertEquals(List.of(oldestNote), nextPage.getItems());
+        assertNull(nextPage.getNextCursor());
+        String criteria = query.getValue().getQueryObject().toString();
+        assertTrue(criteria.contains("note-2"), criteria);
+        assertTrue(criteria.contains("$or"), criteria);
+    }
+
+    @Test
+    void testGetNotesPage_invalidCursorOrLimit() {
+        ResponseStatusException invalidCursor = assertThrows(ResponseStatusException.class,
+                () -> noteService.getNotesByPatientId("patient-123", "not-a-cursor", 10));
+        ResponseStatusException invalidLimit = assertThrows(ResponseStatusException.class,
+                () -> noteService.getNotesByPatientId("patient-123", null, 0));
+
+        assertEquals("Curseur de pagination invalide", invalidCursor.getReason());
+        assertEquals(400, invalidLimit.getStatusCode().value());
+        then(mongoTemplate).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void testSearchNotes_scopedToAccessiblePatients() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        given(patientClient.getPatientIds()).willReturn(new LinkedHashSet<>(List.of("patient-123", "patient-456")));
+        given(mongoTemplate.find(query.capture(), eq(Note.class))).willReturn(List.of(note, note));
+
+        NotePageDTO page = noteService.searchNotes("médicale", List.of("patient-123", "patient-999"), null, 1);
+
+        assertEquals(List.of(note), page.getItems());
+        assertNotNull(page.getNextCursor());
+        String criteria = query.getValue().getQueryObject().toString();
+        assertTrue(criteria.contains("$text"), criteria);
+        assertTrue(criteria.contains("french"), criteria);
+        assertTrue(criteria.contains("patient-123"), criteria);
+        assertFalse(criteria.contains("patient-456"), criteria);
+        assertFalse(criteria.contains("patient-999"), criteria);
+        assertEquals(2, query.getValue().getLimit());
+
+        noteService.searchNotes("médicale", null, page.getNextCursor(), 1);
+        assertEquals(1, query.getValue().getSkip());
+    }
+
+    @Test
+    void testSearchNotes_noAccessiblePatient_returnsEmptyPage() {
+        given(patientClient.getPatientIds()).willReturn(new LinkedHashSet<>(List.of("patient-456")));
+
+        NotePageDTO page = noteService.searchNotes("médicale", List.of("patient-999"), null, 10);
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+        then(mongoTemplate).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void testSearchNotes_blankText_throwsBadRequest() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> noteService.searchNotes("  ", null, null, 10));
+
+        assertEquals("La recherche ne peut pas être vide", ex.getReason());
+        then(patientClient).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void testStreamNotes_writesOneJsonDocumentPerLine() throws Exception {
+        Note otherNote = Note.builder().id("note-2").patientId("patient-123").note("Autre note").build();
+        given(mongoTemplate.stream(any(Query.class), eq(Note.class))).willReturn(Stream.of(note, otherNote));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        noteService.streamNotesByPatientId("patient-123", output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("note-1", objectMapper.readValue(lines[0], Note.class).getId());
+        assertEquals("Autre note", objectMapper.readValue(lines[1], Note.class).getNote());
+    }
+
+    @Test
+    void testStreamNotesByPatientIds_readsEveryPatientInOneQuery() throws Exception {
+        Note otherNote = Note.builder().id("note-2").patientId("patient-456").note("Autre note").build();
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        given(mongoTemplate.stream(query.capture(), eq(Note.class))).willReturn(Stream.of(note, otherNote));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        noteService.streamNotesByPatientIds(
+                NoteQueries.checkPatientIds(List.of("patient-123", "patient-456", "patient-123")), output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("patient-456", objectMapper.readValue(lines[1], Note.class).getPatientId());
+        String criteria = query.getValue().getQueryObject().toString();
+        assertTrue(criteria.contains("$in"), criteria);
+        assertEquals("patientId", query.getValue().getSortObject().keySet().iterator().next());
+        then(mongoTemplate).should(times(1)).stream(any(Query.class), eq(Note.class));
+    }
+
+    @Test
+    void testCheckPatientIds_tooManyPatients_throwsBadRequest() {
+        List<String> patientIds = Stream.iterate(0, i -> i + 1)
+                                        .limit(NoteQueries.MAX_BATCH_PATIENTS + 1)
+                                        .map(i -> "patient-" + i)
+                                        .toList();
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                                                  () -> NoteQueries.checkPatientIds(patientIds));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        assertThrows(ResponseStatusException.class, () -> NoteQueries.checkPatientIds(List.of()));
+    }
+
     @Test
     void testCreateNote_Success() {
         given(bindingResult.hasErrors()).willReturn(false);
@@ -79,6 +239,9 @@ class NoteServiceTest {
         assertNotNull(created);
         assertEquals("patient-123", created.getPatientId());
         assertEquals("Ceci est une note médicale", created.getNote());
+        then(triggerTermService).should().computeTriggerTerms(any(Note.class));
+        then(evaluationClient).should().invalidateEvaluation("patient-123");
+        assertNotesVersionIncremented();
     }
 
     @Test
@@ -87,6 +250,8 @@ class NoteServiceTest {
         given(bindingResult.getAllErrors()).willReturn(List.of(new ObjectError("noteDTO", "error")));
 
         assertThrows(ValidationException.class, () -> noteService.create(noteDTO, bindingResult));
+        then(evaluationClient).shouldHaveNoInteractions();
+        then(mongoTemplate).shouldHaveNoInteractions();
     }
 
     @Test
@@ -98,6 +263,9 @@ class NoteServiceTest {
         Note updated = noteService.update(noteDTO, "note-1", bindingResult);
 
         assertEquals("Ceci est une note médicale", updated.getNote());
+        then(triggerTermService).should().computeTriggerTerms(note);
+        then(evaluationClient).should().invalidateEvaluation("patient-123");
+        assertNotesVersionIncremented();
     }
 
     @Test
@@ -127,6 +295,8 @@ class NoteServiceTest {
 
         assertEquals("Note supprimée avec succès", message);
         then(noteRepository).should().delete(note);
+        then(evaluationClient).should().invalidateEvaluation("patient-123");
+        assertNotesVersionIncremented();
     }
 
     @Test
@@ -138,4 +308,12 @@ class NoteServiceTest {
 
         assertEquals("La note n'existe pas", ex.getReason());
     }
+
+    private void assertNotesVersionIncremented() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        then(mongoTemplate).should().upsert(query.capture(), update.capture(), eq(NoteVersion.class));
+        assertEquals("patient-123", query.getValue().getQueryObject().get("_id"));
+        assertEquals("{\"$inc\": {\"version\": 1}}", update.getValue().getUpdateObject().toJson());
+    }
 }
@@ -0,0 +1,95 @@
+package com.medilabo.note_ms.unit;
+
+import com.medilabo.note_ms.configuration.JwtConfig;
+import com.medilabo.note_ms.security.ReactiveCustomFilter;
+import com.medilabo.note_ms.utils.JwtUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveCustomFilterTest {
+    private final JwtUtils jwtUtils = new JwtUtils();
+    private ReactiveCustomFilter filter;
+    private static final String SECRET_KEY = "thisisakeythathasexactly32char!!";
+    private static final long EXPIRATION_TIME = 3600000L;
+
+    private AtomicReference<Authentication> authentication;
+    private AtomicReference<String> forwardedToken;
+    private AtomicInteger calls;
+    private WebFilterChain chain;
+
+    @BeforeEach
+    void setup() {
+        filter = new ReactiveCustomFilter(new JwtConfig().jwtParser(SECRET_KEY));
+        authentication = new AtomicReference<>();
+        forwardedToken = new AtomicReference<>();
+        calls = new AtomicInteger();
+        chain = exchange -> Mono.deferContextual(context -> {
+            calls.incrementAndGet();
+            forwardedToken.set(context.getOrDefault(ReactiveCustomFilter.AUTHORIZATION_CONTEXT_KEY, null));
+            return ReactiveSecurityContextHolder.getContext()
+                                                .map(SecurityContext::getAuthentication)
+                                                .doOnNext(authentication::set)
+                                                .then();
+        });
+    }
+
+    private void filter(String authorization) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/patient-123");
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        filter.filter(MockServerWebExchange.from(request), chain).block();
+    }
+
+    @Test
+    void whenValidToken_thenSecurityContextUpdated() {
+        String token = jwtUtils.generateToken("USER", EXPIRATION_TIME);
+
+        filter("Bearer " + token);
+
+        assertNotNull(authentication.get(), "Authentication should not be null");
+        assertEquals("123", authentication.get().getPrincipal(), "Principal should match userId");
+        assertTrue(authentication.get().getAuthorities().stream()
+                                 .anyMatch(a -> a.getAuthority().equals("ROLE_USER")), "Authority ROLE_USER should be present");
+        assertEquals("Bearer " + token, forwardedToken.get(), "Authorization header should be forwarded");
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void whenNoToken_thenSecurityContextEmpty() {
+        filter(null);
+
+        assertNull(authentication.get(), "Authentication should be null when no token");
+        assertNull(forwardedToken.get());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void whenInvalidToken_thenSecurityContextEmpty() {
+        filter("Bearer invalid.token.here");
+
+        assertNull(authentication.get(), "Authentication should be null for invalid token");
+        assertNull(forwardedToken.get());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void whenTokenExpired_thenSecurityContextEmpty() {
+        filter("Bearer " + jwtUtils.generateToken("USER", -1000L));
+
+        assertNull(authentication.get(), "Authentication should be null for expired token");
+        assertEquals(1, calls.get());
+    }
+}
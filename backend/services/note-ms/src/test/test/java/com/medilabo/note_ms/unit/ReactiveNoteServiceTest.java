@@ -0,0 +1,269 @@
+package com.medilabo.note_ms.service;
+
+import com.medilabo.note_ms.client.ReactiveEvaluationClient;
+import com.medilabo.note_ms.client.ReactivePatientClient;
+import com.medilabo.note_ms.domain.dto.NoteDTO;
+import com.medilabo.note_ms.domain.dto.NotePageDTO;
+import com.medilabo.note_ms.domain.dto.PatientDTO;
+import com.medilabo.note_ms.domain.entity.Note;
+import com.medilabo.note_ms.domain.entity.NoteVersion;
+import com.medilabo.note_ms.repository.ReactiveNoteRepository;
+import com.mongodb.client.result.UpdateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+class ReactiveNoteServiceTest {
+
+    @InjectMocks
+    private ReactiveNoteService noteService;
+
+    @Mock
+    private ReactiveNoteRepository reactiveNoteRepository;
+
+    @Mock
+    private ReactivePatientClient patientClient;
+
+    @Mock
+    private ReactiveEvaluationClient evaluationClient;
+
+    @Mock
+    private TriggerTermService triggerTermService;
+
+    @Mock
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    private Note note;
+    private NoteDTO noteDTO;
+    private PatientDTO patientDTO;
+
+    @BeforeEach
+    void setUp() {
+        openMocks(this);
+
+        note = new Note();
+        note.setId("note-1");
+        note.setPatientId("patient-123");
+        note.setNote("Ceci est une note médicale");
+        note.setDateTime(LocalDateTime.now());
+
+        noteDTO = new NoteDTO();
+        noteDTO.setPatientId("patient-123");
+        noteDTO.setNote("Ceci est une note médicale");
+
+        patientDTO = new PatientDTO();
+        patientDTO.setId("patient-123");
+        patientDTO.setLastName("Doe");
+
+        given(evaluationClient.invalidateEvaluation(anyString())).willReturn(Mono.empty());
+        given(reactiveMongoTemplate.upsert(any(Query.class), any(Update.class), eq(NoteVersion.class)))
+                .willReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+    }
+
+    @Test
+    void testGetNotesVersion() {
+        given(reactiveMongoTemplate.findById("patient-123", NoteVersion.class))
+                .willReturn(Mono.just(new NoteVersion("patient-123", 4)));
+        given(reactiveMongoTemplate.findById("patient-456", NoteVersion.class)).willReturn(Mono.empty());
+
+        StepVerifier.create(noteService.getNotesVersion("patient-123")).expectNext(4L).verifyComplete();
+        StepVerifier.create(noteService.getNotesVersion("patient-456")).expectNext(0L).verifyComplete();
+        then(reactiveNoteRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void testGetNotesByPatientId() {
+        given(reactiveNoteRepository.findByPatientId("patient-123")).willReturn(Flux.just(note));
+
+        StepVerifier.create(noteService.getNotesByPatientId("patient-123"))
+                    .expectNext(note)
+                    .verifyComplete();
+    }
+
+    @Test
+    void testGetNotesPage_returnsCursorOfLastNote() {
+        Note olderNote = Note.builder().id("note-2").patientId("patient-123")
+                             .dateTime(note.getDateTime().minusDays(1)).build();
+        Note oldestNote = Note.builder().id("note-3").patientId("patient-123")
+                              .dateTime(note.getDateTime().minusDays(2)).build();
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        given(reactiveMongoTemplate.find(query.capture(), eq(Note.class)))
+                .willReturn(Flux.just(note, olderNote, oldestNote), Flux.just(oldestNote));
+
+        NotePageDTO page = noteService.getNotesByPatientId("patient-123", null, 2).block();
+
+        assertEquals(List.of(note, olderNote), page.getItems());
+        assertNotNull(page.getNextCursor());
+        assertEquals(3, query.getValue().getLimit());
+
+        NotePageDTO nextPage = noteService.getNotesByPatientId("patient-123", page.getNextCursor(), 2).block();
+
+        assertEquals(List.of(oldestNote), nextPage.getItems());
+        assertNull(nextPage.getNextCursor());
+        assertTrue(query.getValue().getQueryObject().toString().contains("note-2"));
+    }
+
+    @Test
+    void testGetNotesPage_invalidCursorOrLimit_signalsError() {
+        StepVerifier.create(noteService.getNotesByPatientId("patient-123", "not-a-cursor", 10))
+                    .expectErrorSatisfies(e -> assertEquals("Curseur de pagination invalide",
+                                                            ((ResponseStatusException) e).getReason()))
+                    .verify();
+        StepVerifier.create(noteService.getNotesByPatientId("patient-123", null, 0))
+                    .expectErrorSatisfies(e -> assertEquals(HttpStatus.BAD_REQUEST,
+                                                            ((ResponseStatusException) e).getStatusCode()))
+                    .verify();
+        then(reactiveMongoTemplate).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void testStreamNotesByPatientIds_readsEveryPatientInOneQuery() {
+        Note otherNote = Note.builder().id("note-2").patientId("patient-456").build();
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        given(reactiveMongoTemplate.find(query.capture(), eq(Note.class))).willReturn(Flux.just(note, otherNote));
+
+        StepVerifier.create(noteService.streamNotesByPatientIds(List.of("patient-123", "patient-456", "patient-123")))
+                    .expectNext(note, otherNote)
+                    .verifyComplete();
+        String criteria = query.getValue().getQueryObject().toString();
+        assertTrue(criteria.contains("$in"), criteria);
+    }
+
+    @Test
+    void testStreamNotesByPatientIds_noPatient_signalsBadRequest() {
+        StepVerifier.create(noteService.streamNotesByPatientIds(List.of()))
+                    .expectErrorSatisfies(e -> assertEquals(HttpStatus.BAD_REQUEST,
+                                                            ((ResponseStatusException) e).getStatusCode()))
+                    .verify();
+        then(reactiveMongoTemplate).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void testSearchNotes_scopedToAccessiblePatients() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        given(patientClient.getPatientIds())
+                .willReturn(Mono.just(new LinkedHashSet<>(List.of("patient-123", "patient-456"))));
+        given(reactiveMongoTemplate.find(query.capture(), eq(Note.class))).willReturn(Flux.just(note, note));
+
+        NotePageDTO page = noteService.searchNotes("médicale", List.of("patient-123", "patient-999"), null, 1).block();
+
+        assertEquals(List.of(note), page.getItems());
+        assertNotNull(page.getNextCursor());
+        String criteria = query.getValue().getQueryObject().toString();
+        assertTrue(criteria.contains("$text"), criteria);
+        assertTrue(criteria.contains("patient-123"), criteria);
+        assertFalse(criteria.contains("patient-456"), criteria);
+        assertFalse(criteria.contains("patient-999"), criteria);
+    }
+
+    @Test
+    void testSearchNotes_blankText_signalsBadRequest() {
+        StepVerifier.create(noteService.searchNotes("  ", null, null, 10))
+                    .expectErrorSatisfies(e -> assertEquals("La recherche ne peut pas être vide",
+                                                            ((ResponseStatusException) e).getReason()))
+                    .verify();
+        then(patientClient).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void testCreateNote_Success() {
+        given(patientClient.getPatientById("patient-123")).willReturn(Mono.just(patientDTO));
+        given(reactiveNoteRepository.save(any(Note.class))).willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(noteService.create(noteDTO))
+                    .assertNext(created -> {
+                        assertEquals("patient-123", created.getPatientId());
+                        assertEquals("Ceci est une note médicale", created.getNote());
+                        assertNotNull(created.getDateTime());
+                    })
+                    .verifyComplete();
+        then(triggerTermService).should().computeTriggerTerms(any(Note.class));
+        then(evaluationClient).should().invalidateEvaluation("patient-123");
+        assertNotesVersionIncremented();
+    }
+
+    @Test
+    void testCreateNote_PatientNotFound_NothingSaved() {
+        given(patientClient.getPatientById("patient-123")).willReturn(Mono.error(
+                new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Impossible de récupérer le patient")));
+
+        StepVerifier.create(noteService.create(noteDTO))
+                    .expectError(ResponseStatusException.class)
+                    .verify();
+        then(reactiveNoteRepository).shouldHaveNoInteractions();
+        then(evaluationClient).should(never()).invalidateEvaluation(anyString());
+        then(reactiveMongoTemplate).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void testUpdateNote_Success() {
+        given(reactiveNoteRepository.findById("note-1")).willReturn(Mono.just(note));
+        given(reactiveNoteRepository.save(note)).willReturn(Mono.just(note));
+        noteDTO.setNote("Note modifiée");
+
+        StepVerifier.create(noteService.update(noteDTO, "note-1"))
+                    .assertNext(updated -> assertEquals("Note modifiée", updated.getNote()))
+                    .verifyComplete();
+        then(triggerTermService).should().computeTriggerTerms(note);
+        then(evaluationClient).should().invalidateEvaluation("patient-123");
+        assertNotesVersionIncremented();
+    }
+
+    @Test
+    void testUpdateNote_NotFound() {
+        given(reactiveNoteRepository.findById("note-1")).willReturn(Mono.empty());
+
+        StepVerifier.create(noteService.update(noteDTO, "note-1"))
+                    .expectErrorSatisfies(e -> assertEquals("La note n'existe pas",
+                                                            ((ResponseStatusException) e).getReason()))
+                    .verify();
+    }
+
+    @Test
+    void testDeleteNote_Success() {
+        given(reactiveNoteRepository.findById("note-1")).willReturn(Mono.just(note));
+        given(reactiveNoteRepository.delete(note)).willReturn(Mono.empty());
+
+        StepVerifier.create(noteService.delete("note-1"))
+                    .expectNext("Note supprimée avec succès")
+                    .verifyComplete();
+        then(reactiveNoteRepository).should().delete(note);
+        then(evaluationClient).should().invalidateEvaluation("patient-123");
+        assertNotesVersionIncremented();
+    }
+
+    @Test
+    void testDeleteNote_NotFound() {
+        given(reactiveNoteRepository.findById("note-1")).willReturn(Mono.empty());
+
+        StepVerifier.create(noteService.delete("note-1"))
+                    .expectErrorSatisfies(e -> assertEquals("La note n'existe pas",
+                                                            ((ResponseStatusException) e).getReason()))
+                    .verify();
+        then(evaluationClient).should(never()).invalidateEvaluation(anyString());
+    }
+
+    private void assertNotesVersionIncremented() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        then(reactiveMongoTemplate).should().upsert(query.capture(), update.capture(), eq(NoteVersion.class));
+        assertEquals("patient-123", query.getValue().getQueryObject().get("_id"));
+        assertEquals("{\"$inc\": {\"version\": 1}}", update.getValue().getUpdateObject().toJson());
+    }
+}
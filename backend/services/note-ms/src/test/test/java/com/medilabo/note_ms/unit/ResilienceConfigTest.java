@@ -0,0 +1,100 @@
+package com.medilabo.note_ms.unit;
+
+import com.medilabo.note_ms.client.Downstream;
+import com.medilabo.note_ms.client.EvaluationClient;
+import com.medilabo.note_ms.client.PatientClient;
+import com.medilabo.note_ms.configuration.ResilienceConfig;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilienceConfigTest {
+    private HttpServer server;
+    private MeterRegistry meterRegistry;
+    private ResilienceConfig config;
+    private String baseUrl;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().set("Connection", "close");
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+
+        meterRegistry = new SimpleMeterRegistry();
+        config = new ResilienceConfig();
+        ReflectionTestUtils.setField(config, "failureRateThreshold", 50f);
+        ReflectionTestUtils.setField(config, "slowCallDurationThreshold", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(config, "slowCallRateThreshold", 50f);
+        ReflectionTestUtils.setField(config, "slidingWindowSize", 2);
+        ReflectionTestUtils.setField(config, "minimumNumberOfCalls", 2);
+        ReflectionTestUtils.setField(config, "waitDurationInOpenState", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(config, "permittedCallsInHalfOpenState", 1);
+        ReflectionTestUtils.setField(config, "maxConcurrentCalls", 5);
+        ReflectionTestUtils.setField(config, "maxWaitDuration", Duration.ofMillis(100));
+        ReflectionTestUtils.setField(config, "meterRegistry", meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void whenUserMsKeepsFailing_thenPatientCallsFailFast() {
+        Downstream downstream = config.userMsDownstream(config.circuitBreakerRegistry(), config.bulkheadRegistry());
+        PatientClient patientClient = new PatientClient();
+        ReflectionTestUtils.setField(patientClient, "restTemplate", new RestTemplate());
+        ReflectionTestUtils.setField(patientClient, "downstream", downstream);
+        ReflectionTestUtils.setField(patientClient, "baseUrl", baseUrl);
+
+        for (int i = 0; i < 2; i++) {
+            ResponseStatusException ex = assertThrows(ResponseStatusException.class, patientClient::getPatientIds);
+            assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, ex.getStatusCode());
+        }
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> patientClient.getPatientById("1"));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+        assertEquals(2, requests.get());
+        assertEquals(CircuitBreaker.State.OPEN, downstream.getCircuitBreaker().getState());
+        assertEquals(1.0, meterRegistry.get("resilience4j.circuitbreaker.state.transitions")
+                                       .tag("name", "user-ms").tag("to", "open")
+                                       .counter().count());
+    }
+
+    @Test
+    void whenEvaluationMsKeepsFailing_thenInvalidationIsSkipped() {
+        Downstream downstream = config.evaluationMsDownstream(config.circuitBreakerRegistry(), config.bulkheadRegistry());
+        EvaluationClient evaluationClient = new EvaluationClient();
+        ReflectionTestUtils.setField(evaluationClient, "restTemplate", new RestTemplate());
+        ReflectionTestUtils.setField(evaluationClient, "downstream", downstream);
+        ReflectionTestUtils.setField(evaluationClient, "baseUrl", baseUrl);
+
+        for (int i = 0; i < 5; i++) {
+            assertDoesNotThrow(() -> evaluationClient.invalidateEvaluation("1"));
+        }
+
+        assertEquals(2, requests.get());
+        assertEquals(CircuitBreaker.State.OPEN, downstream.getCircuitBreaker().getState());
+    }
+}
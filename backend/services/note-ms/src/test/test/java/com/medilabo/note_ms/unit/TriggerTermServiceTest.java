@@ -0,0 +1,160 @@
+package com.medilabo.note_ms.service;
+
+import com.medilabo.note_ms.domain.dto.TriggerSummaryDTO;
+import com.medilabo.note_ms.domain.entity.Note;
+import com.medilabo.note_ms.domain.entity.NoteVersion;
+import com.medilabo.note_ms.repository.NoteRepository;
+import com.medilabo.note_ms.utils.NoteVersions;
+import com.medilabo.note_ms.utils.TriggerTerms;
+import com.mongodb.bulk.BulkWriteResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+class TriggerTermServiceTest {
+
+    @InjectMocks
+    private TriggerTermService triggerTermService;
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private BulkOperations versionOperations;
+
+    @BeforeEach
+    void setUp() {
+        openMocks(this);
+    }
+
+    @Test
+    void testFindTriggerTerms_returnsDistinctTermsInListOrder() {
+        List<String> terms = triggerTermService.findTriggerTerms("Poids anormal, POIDS en hausse, hemoglobine a1c élevée");
+
+        assertEquals(List.of("Hémoglobine A1C", "Poids", "Anormal"), terms);
+    }
+
+    @Test
+    void testFindTriggerTerms_blankNote() {
+        assertEquals(List.of(), triggerTermService.findTriggerTerms(" "));
+        assertEquals(List.of(), triggerTermService.findTriggerTerms(null));
+    }
+
+    @Test
+    void testComputeTriggerTerms_stampsVersion() {
+        Note note = new Note();
+        note.setNote("Le patient est fumeur");
+
+        triggerTermService.computeTriggerTerms(note);
+
+        assertEquals(List.of("Fumeur"), note.getTriggerTerms());
+        assertEquals(TriggerTerms.VERSION, note.getTriggerTermsVersion());
+    }
+
+    @Test
+    void testGetTriggerSummaries_findsOutdatedTermsWithoutWritingAndFillsMissingPatients() {
+        Note outdated = new Note();
+        outdated.setId("note-1");
+        outdated.setPatientId("patient-123");
+        outdated.setNote("Vertiges");
+
+        given(noteRepository.findByPatientIdInAndTriggerTermsVersionNot(Set.of("patient-123", "patient-456"), TriggerTerms.VERSION))
+                .willReturn(List.of(outdated));
+        given(mongoTemplate.find(NoteVersions.patients(Set.of("patient-123", "patient-456")), NoteVersion.class))
+                .willReturn(List.of(new NoteVersion("patient-123", 4)));
+        given(noteRepository.summarizeTriggerTerms(Set.of("patient-123", "patient-456"), TriggerTerms.VERSION))
+                .willReturn(List.of(new TriggerSummaryDTO("patient-123", 2, 1, 0, 0)));
+
+        Map<String, TriggerSummaryDTO> summaries =
+                triggerTermService.getTriggerSummaries(List.of("patient-123", "patient-456", "patient-123"));
+
+        assertEquals(List.of("patient-123", "patient-456"), List.copyOf(summaries.keySet()));
+        assertEquals(2, summaries.get("patient-123").getNoteCount());
+        assertEquals(2, summaries.get("patient-123").getTriggerCount());
+        assertEquals(TriggerTerms.VERSION, summaries.get("patient-123").getVersion());
+        assertEquals(4, summaries.get("patient-123").getNotesVersion());
+        assertEquals(0, summaries.get("patient-456").getNoteCount());
+        assertEquals(TriggerTerms.VERSION, summaries.get("patient-456").getVersion());
+        assertEquals(0, summaries.get("patient-456").getNotesVersion());
+        then(mongoTemplate).should(never()).bulkOps(any(BulkOperations.BulkMode.class), any(Class.class));
+        then(noteRepository).should(never()).save(any());
+    }
+
+    @Test
+    void testGetTriggerSummaries_upToDateNotesAreNotRewritten() {
+        given(noteRepository.findByPatientIdInAndTriggerTermsVersionNot(anyCollection(), anyInt())).willReturn(List.of());
+        given(noteRepository.summarizeTriggerTerms(anyCollection(), anyInt())).willReturn(List.of());
+
+        TriggerSummaryDTO summary = triggerTermService.getTriggerSummary("patient-123");
+
+        assertEquals(0, summary.getTriggerCount());
+        then(mongoTemplate).should(never()).bulkOps(any(BulkOperations.BulkMode.class), any(Class.class));
+    }
+
+    @Test
+    void testBackfill_runsOnTaskExecutor() {
+        List<Runnable> submitted = new ArrayList<>();
+        ReflectionTestUtils.setField(triggerTermService, "taskExecutor", (Executor) submitted::add);
+
+        triggerTermService.backfill();
+
+        assertEquals(1, submitted.size());
+        then(mongoTemplate).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void testBackfill_recomputesOutdatedNotesInBatches() {
+        ReflectionTestUtils.setField(triggerTermService, "taskExecutor", (Executor) Runnable::run);
+        List<Note> fullBatch = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Note note = new Note();
+            note.setId(String.format("%024x", i));
+            note.setPatientId("patient-123");
+            note.setNote("Vertiges");
+            fullBatch.add(note);
+        }
+        Note last = new Note();
+        last.setId(String.format("%024x", 500));
+        last.setPatientId("patient-456");
+        last.setNote("Fumeur");
+
+        given(mongoTemplate.find(any(Query.class), eq(Note.class))).willReturn(fullBatch, List.of(last));
+        given(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class)).willReturn(bulkOperations);
+        given(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NoteVersion.class)).willReturn(versionOperations);
+        given(bulkOperations.execute()).willReturn(BulkWriteResult.acknowledged(0, 500, 0, 500, List.of(), List.of()),
+                                                   BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+
+        triggerTermService.backfill();
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        then(mongoTemplate).should(times(2)).find(queries.capture(), eq(Note.class));
+        assertEquals(500, queries.getAllValues().get(0).getLimit());
+        assertTrue(queries.getAllValues().get(1).getQueryObject().containsKey("_id"));
+        then(bulkOperations).should(times(501)).updateOne(any(Query.class), any(Update.class));
+        then(versionOperations).should().upsert(NoteVersions.patient("patient-123"), NoteVersions.increment());
+        then(versionOperations).should().upsert(NoteVersions.patient("patient-456"), NoteVersions.increment());
+    }
+}
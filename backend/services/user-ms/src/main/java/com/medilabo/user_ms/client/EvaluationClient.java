@@ -0,0 +1,102 @@
+package com.medilabo.user_ms.client;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Client to communicate with the Evaluation Microservice.
+ * Forwards the Authorization header of the current request, read on the
+ * request thread before the call is handed to the task executor.
+ */
+@Component
+public class EvaluationClient {
+
+    private static final Logger logger = LogManager.getLogger(EvaluationClient.class);
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
+    @Value("${evaluation.ms.url}")
+    private String baseUrl;
+
+    /**
+     * Asks the Evaluation Microservice to drop the cached risk of a patient
+     * whose age or gender changed.
+     * <p>
+     * The call is best-effort and does not delay the request: it is sent on
+     * the task executor, once the current transaction has committed if there
+     * is one. A failure is only logged: the patient has already been saved
+     * and the cached evaluation expires on its own.
+     *
+     * @param patientId The ID of the patient that changed.
+     */
+    public void invalidateEvaluation(String patientId) {
+        String authorization = currentAuthorization();
+        Runnable invalidation = () -> CompletableFuture
+                .runAsync(() -> delete(patientId, authorization), taskExecutor)
+                .exceptionally(e -> {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    logger.warn("Error while invalidating evaluation of patient with ID {}: {}",
+                                patientId, cause.getMessage());
+                    return null;
+                });
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        } else {
+            invalidation.run();
+        }
+    }
+
+    /**
+     * Sends the invalidation request.
+     *
+     * @param patientId     The ID of the patient that changed.
+     * @param authorization The Authorization header to forward, null if none.
+     */
+    private void delete(String patientId, String authorization) {
+        String url = baseUrl + "/internal/cache/" + patientId;
+        logger.info("Invalidating cached evaluation in Evaluation MS: {}", url);
+
+        HttpHeaders headers = new HttpHeaders();
+        if (authorization != null) {
+            headers.set(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        restTemplate.exchange(url, HttpMethod.DELETE, new HttpEntity<>(headers), Void.class);
+    }
+
+    /**
+     * Returns the Authorization header of the request handled by the calling thread.
+     *
+     * @return the header value, or null outside of a request
+     */
+    private static String currentAuthorization() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+               ? attributes.getRequest().getHeader(HttpHeaders.AUTHORIZATION)
+               : null;
+    }
+}
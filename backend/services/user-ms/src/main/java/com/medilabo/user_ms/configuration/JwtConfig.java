@@ -0,0 +1,33 @@
+package com.medilabo.user_ms.configuration;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Configuration of the JWT parser used by {@link com.medilabo.user_ms.security.CustomFilter}.
+ * <p>
+ * The parser is built once at startup, from the key the tokens issued by
+ * this service are signed with.
+ */
+@Configuration
+public class JwtConfig {
+
+    /**
+     * Provides the parser verifying token signatures with the shared secret key.
+     *
+     * @param secretKey the key the tokens are signed with
+     * @return an immutable, thread-safe {@link JwtParser}
+     */
+    @Bean
+    public JwtParser jwtParser(@Value("${app.secret-key}") String secretKey) {
+        return Jwts.parser()
+                   .verifyWith(Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8)))
+                   .build();
+    }
+}
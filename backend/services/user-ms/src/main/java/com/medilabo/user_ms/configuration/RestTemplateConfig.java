@@ -0,0 +1,33 @@
+package com.medilabo.user_ms.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * Configuration for RestTemplate.
+ * Outgoing calls are bounded by connect and read timeouts, so that a slow
+ * Evaluation Microservice cannot hold a thread of this service. The
+ * Authorization header is set by the client on each request.
+ */
+@Configuration
+public class RestTemplateConfig {
+
+    @Value("${evaluation.ms.connect-timeout:PT2S}")
+    private Duration connectTimeout;
+
+    @Value("${evaluation.ms.read-timeout:PT2S}")
+    private Duration readTimeout;
+
+    @Bean
+    public RestTemplate restTemplate() {
+        return new RestTemplateBuilder()
+                .connectTimeout(connectTimeout)
+                .readTimeout(readTimeout)
+                .build();
+    }
+}
@@ -30,15 +30,19 @@ public class AdminController {
     private static final Logger logger = LogManager.getLogger(AdminController.class);
 
     /**
-     * Searches users by a keyword in first name, last name, or email.
+     * Searches users whose first name, last name, or email starts with a keyword.
      *
      * @param keyword search keyword
-     * @return list of matching UserDTOs
+     * @param page    page of results, starting at 0
+     * @param size    maximum number of results
+     * @return list of matching UserDTOs, best matches first
      */
     @GetMapping("/search")
-    public ResponseEntity<List<UserDTO>> searchUser(@RequestParam String keyword) {
+    public ResponseEntity<List<UserDTO>> searchUser(@RequestParam String keyword,
+                                                    @RequestParam(defaultValue = "0") int page,
+                                                    @RequestParam(defaultValue = "20") int size) {
         logger.info("GET /admin/users/search - Searching users with keyword: {}", keyword);
-        List<UserDTO> result = userService.searchUsers(keyword);
+        List<UserDTO> result = userService.searchUsers(keyword, page, size);
         logger.debug("Number of users found: {}", result.size());
 
         return ResponseEntity.ok(result);
@@ -0,0 +1,90 @@
+package com.medilabo.user_ms.controller;
+
+import com.medilabo.user_ms.domain.dto.PatientDemographicsDTO;
+import com.medilabo.user_ms.service.PatientService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Controller exposing read-only patient data to the other microservices.
+ * <p>
+ * These endpoints are not routed by the gateway. Responses carry a strong
+ * ETag computed from their content, so that a caller sending it back in
+ * {@code If-None-Match} gets an empty 304 response while the data is unchanged.
+ */
+@RestController
+@RequestMapping("/internal/patients")
+public class InternalPatientController {
+
+    @Autowired
+    private PatientService patientService;
+
+    private static final Logger logger = LogManager.getLogger(InternalPatientController.class);
+
+    /**
+     * Retrieves the demographic facts of a patient, used by risk evaluations.
+     *
+     * @param id      the patient ID
+     * @param request current request, to check its If-None-Match header
+     * @return ResponseEntity containing the PatientDemographicsDTO, or 304 if unchanged
+     */
+    @GetMapping("/{id}/demographics")
+    public ResponseEntity<PatientDemographicsDTO> getPatientDemographics(@PathVariable String id, WebRequest request) {
+        logger.info("GET /internal/patients/{}/demographics - Fetching patient demographics", id);
+        PatientDemographicsDTO demographics = patientService.getPatientDemographics(id);
+
+        String etag = etag(List.of(demographics));
+        if (request.checkNotModified(etag)) {
+            logger.debug("Demographics of patient {} not modified", id);
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(demographics);
+    }
+
+    /**
+     * Retrieves the demographic facts of several patients, used by batch risk evaluations.
+     * Patients that cannot be accessed are left out of the response.
+     *
+     * @param ids     the patient IDs
+     * @param request current request, to check its If-None-Match header
+     * @return ResponseEntity containing the PatientDemographicsDTOs, or 304 if unchanged
+     */
+    @GetMapping("/demographics")
+    public ResponseEntity<List<PatientDemographicsDTO>> getPatientsDemographics(@RequestParam List<String> ids,
+                                                                                WebRequest request) {
+        logger.info("GET /internal/patients/demographics - Fetching demographics of {} patients", ids.size());
+        List<PatientDemographicsDTO> demographics = patientService.getPatientsDemographics(ids);
+        logger.debug("Number of patients retrieved: {}", demographics.size());
+
+        String etag = etag(demographics);
+        if (request.checkNotModified(etag)) {
+            logger.debug("Demographics of {} patients not modified", demographics.size());
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(demographics);
+    }
+
+    /**
+     * Computes a strong ETag from the demographic facts returned.
+     *
+     * @param demographics the demographic facts, in response order
+     * @return the quoted ETag
+     */
+    private static String etag(List<PatientDemographicsDTO> demographics) {
+        StringBuilder content = new StringBuilder();
+        for (PatientDemographicsDTO patient : demographics) {
+            content.append(patient.getId()).append('|')
+                   .append(patient.getGender()).append('|')
+                   .append(patient.getDateOfBirth()).append('\n');
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
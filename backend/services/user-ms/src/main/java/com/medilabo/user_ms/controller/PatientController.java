@@ -1,6 +1,8 @@
 package com.medilabo.user_ms.controller;
 
 import com.medilabo.user_ms.domain.dto.PatientDTO;
+import com.medilabo.user_ms.domain.dto.PatientPageDTO;
+import com.medilabo.user_ms.domain.enums.PatientSort;
 import com.medilabo.user_ms.service.PatientService;
 import jakarta.validation.Valid;
 import org.apache.logging.log4j.LogManager;
@@ -10,8 +12,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 /**
  * Controller responsible for handling patient-related endpoints.
  */
@@ -25,15 +25,22 @@ public class PatientController {
     private static final Logger logger = LogManager.getLogger(PatientController.class);
 
     /**
-     * Retrieves all patients for the connected doctor.
+     * Retrieves a page of the patients of the connected doctor.
      *
-     * @return ResponseEntity containing a list of PatientDTO
+     * @param sort   sort property, "lastName" or "dateOfBirth"
+     * @param name   last name prefix to filter on
+     * @param cursor cursor returned with the previous page
+     * @param limit  maximum number of patients in the page
+     * @return ResponseEntity containing the PatientPageDTO
      */
     @GetMapping
-    public ResponseEntity<List<PatientDTO>> getPatients() {
-        logger.info("GET /patients - Fetching all patients for connected doctor");
-        List<PatientDTO> patients = patientService.getPatients();
-        logger.debug("Number of patients retrieved: {}", patients.size());
+    public ResponseEntity<PatientPageDTO> getPatients(@RequestParam(defaultValue = "lastName") String sort,
+                                                      @RequestParam(required = false) String name,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "20") int limit) {
+        logger.info("GET /patients - Fetching a page of patients for connected doctor");
+        PatientPageDTO patients = patientService.getPatients(PatientSort.fromProperty(sort), name, cursor, limit);
+        logger.debug("Number of patients retrieved: {}", patients.getItems().size());
 
         return ResponseEntity.ok(patients);
     }
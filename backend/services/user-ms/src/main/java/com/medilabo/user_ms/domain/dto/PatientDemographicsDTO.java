@@ -0,0 +1,33 @@
+package com.medilabo.user_ms.domain.dto;
+
+import com.medilabo.user_ms.domain.enums.Gender;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object for the demographic facts of a patient used by risk
+ * evaluations.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PatientDemographicsDTO {
+
+    /**
+     * Unique identifier of the patient.
+     */
+    private String id;
+
+    /**
+     * Patient's gender.
+     */
+    private Gender gender;
+
+    /**
+     * Patient's date of birth.
+     */
+    private LocalDate dateOfBirth;
+}
@@ -0,0 +1,27 @@
+package com.medilabo.user_ms.domain.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a page of patients.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PatientPageDTO {
+
+    /**
+     * Patients of the page, in the requested order.
+     */
+    private List<PatientDTO> items;
+
+    /**
+     * Opaque cursor to request the next page with.
+     * Null on the last page.
+     */
+    private String nextCursor;
+}
@@ -9,9 +9,15 @@ import java.util.UUID;
 
 /**
  * Entity representing a patient in the system.
+ * <p>
+ * A doctor's patients are listed page by page in last name or date of birth
+ * order: both orders are backed by an index starting with the doctor.
  */
 @Entity
-@Table(name = "patients")
+@Table(name = "patients", indexes = {
+        @Index(name = "idx_patients_doctor_last_name", columnList = "doctor_id, last_name, id"),
+        @Index(name = "idx_patients_doctor_date_of_birth", columnList = "doctor_id, date_of_birth, id")
+})
 @Getter
 @Setter
 @AllArgsConstructor
@@ -70,4 +76,33 @@ public class Patient {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "doctor_id", nullable = false)
     private User doctor;
+
+    /**
+     * Identifier of the assigned doctor, read from the same column as
+     * {@link #doctor}: mapping and ownership checks use it without loading
+     * the doctor.
+     */
+    @Column(name = "doctor_id", insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private String doctorId;
+
+    /**
+     * Assigns the doctor of this patient and its identifier.
+     *
+     * @param doctor the doctor
+     */
+    public void setDoctor(User doctor) {
+        this.doctor = doctor;
+        this.doctorId = doctor == null ? null : doctor.getId();
+    }
+
+    /**
+     * Keeps {@link #doctorId} in line with {@link #doctor} for patients
+     * built without {@link #setDoctor(User)}, before they are written.
+     */
+    @PrePersist
+    @PreUpdate
+    private void syncDoctorId() {
+        doctorId = doctor == null ? null : doctor.getId();
+    }
 }
@@ -2,6 +2,7 @@ package com.medilabo.user_ms.domain.entity;
 
 import com.medilabo.user_ms.domain.enums.Gender;
 import com.medilabo.user_ms.domain.enums.Role;
+import com.medilabo.user_ms.utils.SearchNormalizer;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.security.core.GrantedAuthority;
@@ -11,19 +12,27 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
  * Entity representing a user in the system.
  * Implements UserDetails for Spring Security integration.
+ * <p>
+ * Names and email are also stored normalized, each in an indexed column,
+ * so that admin searches by prefix are served by the indexes.
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_search_last_name", columnList = "search_last_name"),
+        @Index(name = "idx_users_search_first_name", columnList = "search_first_name"),
+        @Index(name = "idx_users_search_email", columnList = "search_email")
+})
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class User implements UserDetails {
 
     /**
@@ -82,6 +91,36 @@ public class User implements UserDetails {
     @Enumerated(EnumType.STRING)
     private Role role;
 
+    /**
+     * Normalized last name, searched by prefix.
+     */
+    @Column(name = "search_last_name")
+    private String searchLastName;
+
+    /**
+     * Normalized first name, searched by prefix.
+     */
+    @Column(name = "search_first_name")
+    private String searchFirstName;
+
+    /**
+     * Normalized email, searched by prefix.
+     */
+    @Column(name = "search_email")
+    private String searchEmail;
+
+    /**
+     * Computes the normalized search columns from the names and email,
+     * before the user is inserted or updated.
+     */
+    @PrePersist
+    @PreUpdate
+    public void updateSearchKeys() {
+        searchLastName = SearchNormalizer.normalize(lastName);
+        searchFirstName = SearchNormalizer.normalize(firstName);
+        searchEmail = SearchNormalizer.normalize(email);
+    }
+
     /**
      * Returns authorities granted to the user for Spring Security.
      *
@@ -121,4 +160,24 @@ public class User implements UserDetails {
     public boolean isEnabled() {
         return true;
     }
+
+    /**
+     * Users are equal when they share the same identifier, so that the same
+     * user loaded by different persistence contexts (e.g. the cached
+     * principal and a patient's doctor) is recognized.
+     *
+     * @param o the object to compare
+     * @return true if o is a user with the same ID
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof User other)) return false;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
 }
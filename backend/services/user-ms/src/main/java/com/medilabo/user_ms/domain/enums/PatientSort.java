@@ -0,0 +1,51 @@
+package com.medilabo.user_ms.domain.enums;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Enumeration representing the orders in which a doctor's patients can be listed.
+ * <p>
+ * Each order is completed by the patient ID so that it is total, which keyset
+ * pagination requires.
+ */
+public enum PatientSort {
+    /**
+     * Sorted by last name.
+     */
+    LAST_NAME("lastName"),
+
+    /**
+     * Sorted by date of birth.
+     */
+    DATE_OF_BIRTH("dateOfBirth");
+
+    private final String property;
+
+    PatientSort(String property) {
+        this.property = property;
+    }
+
+    /**
+     * @return the Patient property sorted on
+     */
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Resolves a sort from its property name, as sent by the client.
+     *
+     * @param property the property name, "lastName" or "dateOfBirth"
+     * @return the matching PatientSort
+     * @throws ResponseStatusException if the property cannot be sorted on
+     */
+    public static PatientSort fromProperty(String property) {
+        for (PatientSort sort : values()) {
+            if (sort.property.equals(property)) {
+                return sort;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tri des patients invalide : " + property);
+    }
+}
@@ -0,0 +1,20 @@
+package com.medilabo.user_ms.domain.projection;
+
+import com.medilabo.user_ms.domain.enums.Gender;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of the facts a risk evaluation needs about a patient,
+ * with the doctor's ID to check access.
+ */
+public interface PatientDemographics {
+
+    String getId();
+
+    Gender getGender();
+
+    LocalDate getDateOfBirth();
+
+    String getDoctorId();
+}
@@ -0,0 +1,30 @@
+package com.medilabo.user_ms.domain.projection;
+
+import com.medilabo.user_ms.domain.enums.Gender;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of a patient, selecting only the columns returned by
+ * the patient listing, without loading a managed entity.
+ */
+public interface PatientView {
+
+    String getId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    LocalDate getDateOfBirth();
+
+    Gender getGender();
+
+    String getEmail();
+
+    String getAddress();
+
+    String getPhone();
+
+    String getDoctorId();
+}
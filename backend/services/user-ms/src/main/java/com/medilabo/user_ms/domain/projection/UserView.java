@@ -0,0 +1,31 @@
+package com.medilabo.user_ms.domain.projection;
+
+import com.medilabo.user_ms.domain.enums.Gender;
+import com.medilabo.user_ms.domain.enums.Role;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of a user, selecting only the columns returned by the
+ * admin search: never the password nor the search columns.
+ */
+public interface UserView {
+
+    String getId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    LocalDate getDateOfBirth();
+
+    Gender getGender();
+
+    String getEmail();
+
+    String getAddress();
+
+    String getPhone();
+
+    Role getRole();
+}
@@ -1,8 +1,15 @@
 package com.medilabo.user_ms.repository;
 
 import com.medilabo.user_ms.domain.entity.Patient;
+import com.medilabo.user_ms.domain.projection.PatientDemographics;
+import com.medilabo.user_ms.domain.projection.PatientView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +26,40 @@ public interface PatientRepository extends JpaRepository<Patient, String> {
      */
     List<Patient> findAllByDoctorId(String doctorId);
 
+    /**
+     * Retrieves the demographic facts of a patient, without loading the entity.
+     *
+     * @param id the patient's ID
+     * @return an Optional containing the projection if found
+     */
+    Optional<PatientDemographics> findDemographicsById(String id);
+
+    /**
+     * Retrieves the demographic facts of the patients of a doctor among the given IDs.
+     *
+     * @param doctorId the doctor's ID
+     * @param ids      the patients' IDs
+     * @return the projections of the patients found
+     */
+    List<PatientDemographics> findDemographicsByDoctorIdAndIdIn(String doctorId, Collection<String> ids);
+
+    /**
+     * Retrieves a window of a doctor's patients whose last name starts with a prefix,
+     * as read-only projections.
+     * <p>
+     * With a keyset position, the window starts right after the given sort
+     * values, so that its cost does not depend on how far the listing went.
+     *
+     * @param doctorId the doctor's ID
+     * @param prefix   the last name prefix, empty to match every patient
+     * @param position the position to start after
+     * @param sort     the order of the patients, which must be total
+     * @param limit    the maximum number of patients
+     * @return the window of patients
+     */
+    Window<PatientView> findByDoctorIdAndLastNameStartingWith(String doctorId, String prefix, ScrollPosition position,
+                                                          Sort sort, Limit limit);
+
     /**
      * Retrieves a patient by their email address.
      *
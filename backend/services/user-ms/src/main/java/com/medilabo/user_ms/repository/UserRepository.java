@@ -1,9 +1,9 @@
 package com.medilabo.user_ms.repository;
 
 import com.medilabo.user_ms.domain.entity.User;
+import com.medilabo.user_ms.domain.projection.UserView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -24,14 +24,42 @@ public interface UserRepository extends JpaRepository<User, String> {
     Optional<User> findByEmail(String email);
 
     /**
-     * Searches users by a keyword in first name, last name, or email (case-insensitive).
+     * Retrieves the users whose normalized last name starts with a prefix,
+     * in last name order, from a range scan of the index on that column.
      *
-     * @param keyword the search keyword
-     * @return list of users matching the keyword
+     * @param prefix the normalized prefix
+     * @param limit  the maximum number of users
+     * @return list of matching users, as read-only projections
      */
-    @Query("SELECT u FROM User u " +
-            "WHERE LOWER(u.firstName) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-            "   OR LOWER(u.lastName) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-            "   OR LOWER(u.email) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<User> searchByKeyword(@Param("keyword") String keyword);
+    List<UserView> findBySearchLastNameStartingWithOrderBySearchLastNameAscIdAsc(String prefix, Limit limit);
+
+    /**
+     * Retrieves the users whose normalized first name starts with a prefix,
+     * in first name order, from a range scan of the index on that column.
+     *
+     * @param prefix the normalized prefix
+     * @param limit  the maximum number of users
+     * @return list of matching users, as read-only projections
+     */
+    List<UserView> findBySearchFirstNameStartingWithOrderBySearchFirstNameAscIdAsc(String prefix, Limit limit);
+
+    /**
+     * Retrieves the users whose normalized email starts with a prefix,
+     * in email order, from a range scan of the index on that column.
+     *
+     * @param prefix the normalized prefix
+     * @param limit  the maximum number of users
+     * @return list of matching users, as read-only projections
+     */
+    List<UserView> findBySearchEmailStartingWithOrderBySearchEmailAscIdAsc(String prefix, Limit limit);
+
+    /**
+     * Retrieves, in ID order, the users whose search columns were never
+     * computed, such as users created before they existed.
+     *
+     * @param id    the ID after which to start, empty to start at the first user
+     * @param limit the maximum number of users
+     * @return list of users to update
+     */
+    List<User> findBySearchEmailIsNullAndIdGreaterThanOrderByIdAsc(String id, Limit limit);
 }
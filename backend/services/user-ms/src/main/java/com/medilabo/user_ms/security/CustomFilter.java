@@ -3,14 +3,12 @@ package com.medilabo.user_ms.security;
 import com.medilabo.user_ms.domain.entity.User;
 import com.medilabo.user_ms.repository.UserRepository;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.JwtParser;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,9 +18,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.Optional;
 
 @Component
 public class CustomFilter extends OncePerRequestFilter {
@@ -32,8 +28,11 @@ public class CustomFilter extends OncePerRequestFilter {
     @Autowired
     private UserRepository userRepository;
 
-    @Value("${app.secret-key}")
-    protected String secretKey;
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    protected JwtParser jwtParser;
 
     /**
      * Filters incoming requests to authenticate users based on JWT token.
@@ -71,14 +70,13 @@ public class CustomFilter extends OncePerRequestFilter {
         String userId = claims.getSubject();
         String role = claims.get("role", String.class);
 
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) {
+        User user = principalCache.get(userId, id -> userRepository.findById(id).orElse(null));
+        if (user == null) {
             logger.warn("User not found with ID from JWT: {}", userId);
             filterChain.doFilter(request, response);
             return;
         }
 
-        User user = userOpt.get();
         authenticate(user, role);
         logger.info("Authenticated user ID: {} with role: {}", userId, role);
 
@@ -93,11 +91,7 @@ public class CustomFilter extends OncePerRequestFilter {
      */
     private Claims extractClaims(String token) {
         try {
-            return Jwts.parser()
-                       .verifyWith(Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8)))
-                       .build()
-                       .parseSignedClaims(token)
-                       .getPayload();
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (Exception e) {
             logger.error("Failed to extract claims from JWT: {}", e.getMessage());
             return null;
@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -22,15 +23,24 @@ public class JwtUtils {
     @Value("${app.expiration-time}")
     private Long expirationTime;
 
+    /** Signing key derived from {@link #secretKey} on first use. */
+    private volatile SecretKey signKey;
+
     private static final Logger logger = LogManager.getLogger(JwtUtils.class);
 
     /**
-     * Generates the signing key from the configured secret key.
+     * Returns the signing key, generated once from the configured secret key.
+     * The key is encoded as UTF-8, as done by {@link CustomFilter} to verify tokens.
      *
      * @return the SecretKey used for signing JWTs
      */
     private SecretKey getSignKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+        SecretKey key = signKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+            signKey = key;
+        }
+        return key;
     }
 
     /**
@@ -0,0 +1,63 @@
+package com.medilabo.user_ms.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.medilabo.user_ms.domain.entity.User;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of the users authenticated by {@link CustomFilter}, by ID.
+ * <p>
+ * Avoids loading the user from the database on every authenticated request.
+ * Entries are invalidated whenever a user is saved or deleted, and expire
+ * after a short time to live otherwise. The cached entities are detached and
+ * must not be modified without being saved.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final Logger logger = LogManager.getLogger(PrincipalCache.class);
+
+    private final Cache<String, User> cache;
+
+    /**
+     * Creates the cache.
+     *
+     * @param maxSize maximum number of cached users
+     * @param ttl     time after which an entry expires
+     */
+    public PrincipalCache(@Value("${app.principal-cache.max-size:1000}") long maxSize,
+                          @Value("${app.principal-cache.ttl:PT1M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                             .maximumSize(maxSize)
+                             .expireAfterWrite(ttl)
+                             .build();
+    }
+
+    /**
+     * Returns the cached user, loading and caching it on a miss.
+     *
+     * @param userId the ID of the user
+     * @param loader loads the user, returning null if it does not exist
+     * @return the user, or null if it does not exist
+     */
+    public User get(String userId, Function<String, User> loader) {
+        return cache.get(userId, loader);
+    }
+
+    /**
+     * Removes a user from the cache after it changed.
+     *
+     * @param userId the ID of the user
+     */
+    public void invalidate(String userId) {
+        cache.invalidate(userId);
+        logger.debug("Principal cache invalidated for user ID: {}", userId);
+    }
+}
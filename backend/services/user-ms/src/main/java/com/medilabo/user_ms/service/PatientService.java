@@ -1,20 +1,41 @@
 package com.medilabo.user_ms.service;
 
+import com.medilabo.user_ms.client.EvaluationClient;
 import com.medilabo.user_ms.domain.dto.PatientDTO;
+import com.medilabo.user_ms.domain.dto.PatientDemographicsDTO;
+import com.medilabo.user_ms.domain.dto.PatientPageDTO;
 import com.medilabo.user_ms.domain.entity.Patient;
 import com.medilabo.user_ms.domain.entity.User;
+import com.medilabo.user_ms.domain.enums.Gender;
+import com.medilabo.user_ms.domain.enums.PatientSort;
+import com.medilabo.user_ms.domain.projection.PatientDemographics;
+import com.medilabo.user_ms.domain.projection.PatientView;
 import com.medilabo.user_ms.repository.PatientRepository;
 import com.medilabo.user_ms.utils.DTOMapper;
 import com.medilabo.user_ms.utils.DTOValidation;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 public class PatientService {
@@ -31,8 +52,14 @@ public class PatientService {
     @Autowired
     private DTOMapper dtoMapper;
 
+    @Autowired
+    private EvaluationClient evaluationClient;
+
     private static final Logger logger = LogManager.getLogger(PatientService.class);
 
+    /** Largest number of patients returned in a single page. */
+    public static final int MAX_PAGE_SIZE = 100;
+
     /**
      * Retrieves a patient by ID.
      *
@@ -52,18 +79,81 @@ public class PatientService {
     }
 
     /**
-     * Retrieves all patients of the connected user (doctor).
+     * Retrieves a page of the patients of the connected user (doctor).
+     * <p>
+     * Pages are chained with keyset pagination: the cursor holds the sort
+     * value and the ID of the last patient returned, and the next page starts
+     * right after them, using the index on the doctor and the sorted column.
      *
-     * @return list of PatientDTOs
+     * @param sort   the order of the patients
+     * @param prefix the last name prefix to filter on, may be null
+     * @param cursor the cursor returned with the previous page, null for the first page
+     * @param limit  the maximum number of patients in the page
+     * @return the page of PatientDTOs
+     * @throws ResponseStatusException if the limit or the cursor is invalid
      */
-    public List<PatientDTO> getPatients() {
+    public PatientPageDTO getPatients(PatientSort sort, String prefix, String cursor, int limit) {
         User connectedUser = userService.getConnectedUser();
-        logger.info("Fetching all patients for doctor ID: {}", connectedUser.getId());
+        logger.info("Fetching patients for doctor ID: {} (sort={}, prefix={}, limit={})",
+                    connectedUser.getId(), sort, prefix, limit);
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            logger.warn("Invalid page size: {}", limit);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                              "La taille de page doit être comprise entre 1 et " + MAX_PAGE_SIZE);
+        }
+
+        ScrollPosition position = cursor == null || cursor.isEmpty() ? ScrollPosition.keyset() : decodeCursor(cursor, sort);
+        Window<PatientView> window = patientRepository.findByDoctorIdAndLastNameStartingWith(
+                connectedUser.getId(),
+                prefix == null ? "" : prefix.trim(),
+                position,
+                Sort.by(sort.getProperty(), "id"),
+                Limit.of(limit));
+
+        String nextCursor = window.hasNext()
+                ? encodeCursor(sort, (KeysetScrollPosition) window.positionAt(window.size() - 1))
+                : null;
+        return new PatientPageDTO(window.stream().map(dtoMapper::patientViewToDTO).toList(), nextCursor);
+    }
 
-        List<Patient> patients = patientRepository.findAllByDoctorId(connectedUser.getId());
-        return patients.stream()
-                       .map(dtoMapper::patientToDTO)
-                       .toList();
+    /**
+     * Encodes the position of a patient into an opaque cursor.
+     *
+     * @param sort     the order of the listing
+     * @param position the keyset position of the patient
+     * @return the URL-safe cursor
+     */
+    private String encodeCursor(PatientSort sort, KeysetScrollPosition position) {
+        Map<String, ?> keys = position.getKeys();
+        String value = sort.name() + "\n" + keys.get(sort.getProperty()) + "\n" + keys.get("id");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor into the keyset position it was created from.
+     *
+     * @param cursor the cursor returned with the previous page
+     * @param sort   the order of the listing, which must be the cursor's
+     * @return the keyset position to start after
+     * @throws ResponseStatusException if the cursor is malformed or was created for another order
+     */
+    private ScrollPosition decodeCursor(String cursor, PatientSort sort) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int valueStart = value.indexOf('\n');
+            int idStart = value.lastIndexOf('\n');
+            if (valueStart < 0 || idStart == valueStart || !value.substring(0, valueStart).equals(sort.name())) {
+                throw new IllegalArgumentException("Cursor does not match sort " + sort);
+            }
+            String sortValue = value.substring(valueStart + 1, idStart);
+            return ScrollPosition.forward(Map.of(
+                    sort.getProperty(), sort == PatientSort.DATE_OF_BIRTH ? LocalDate.parse(sortValue) : sortValue,
+                    "id", value.substring(idStart + 1)));
+        } catch (RuntimeException e) {
+            logger.warn("Invalid pagination cursor {}: {}", cursor, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Curseur de pagination invalide");
+        }
     }
 
     /**
@@ -79,7 +169,7 @@ public class PatientService {
 
         Patient patient = getPatientById(id);
 
-        if (!patient.getDoctor().equals(connectedUser)) {
+        if (!connectedUser.getId().equals(patient.getDoctorId())) {
             String errorMessage = "User is not authorized to access this patient";
             logger.warn("User ID: {} unauthorized to access patient ID: {}", connectedUser.getId(), id);
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, errorMessage);
@@ -88,6 +178,85 @@ public class PatientService {
         return dtoMapper.patientToDTO(patient);
     }
 
+    /**
+     * Retrieves the demographic facts of a patient of the connected user.
+     * <p>
+     * Only the columns a risk evaluation needs are selected.
+     *
+     * @param id the ID of the patient
+     * @return the PatientDemographicsDTO
+     * @throws ResponseStatusException if the patient is not found or the user is not authorized
+     */
+    public PatientDemographicsDTO getPatientDemographics(String id) {
+        User connectedUser = userService.getConnectedUser();
+        logger.info("Fetching demographics of patient ID: {} for user ID: {}", id, connectedUser.getId());
+
+        PatientDemographics patient = patientRepository.findDemographicsById(id)
+                .orElseThrow(() -> {
+                    String errorMessage = "Patient could not be found";
+                    logger.warn("Patient not found with ID: {}", id);
+                    return new ResponseStatusException(HttpStatus.NOT_FOUND, errorMessage);
+                });
+
+        if (!connectedUser.getId().equals(patient.getDoctorId())) {
+            String errorMessage = "User is not authorized to access this patient";
+            logger.warn("User ID: {} unauthorized to access patient ID: {}", connectedUser.getId(), id);
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, errorMessage);
+        }
+
+        return toDemographicsDTO(patient);
+    }
+
+    /**
+     * Retrieves the demographic facts of several patients of the connected user
+     * with a single query.
+     * <p>
+     * Patients that do not exist or belong to another doctor are left out.
+     * Duplicate IDs are returned once.
+     *
+     * @param ids the IDs of the patients, at most {@value #MAX_PAGE_SIZE}
+     * @return the PatientDemographicsDTOs found, in request order
+     * @throws ResponseStatusException if too many IDs are requested
+     */
+    public List<PatientDemographicsDTO> getPatientsDemographics(Collection<String> ids) {
+        User connectedUser = userService.getConnectedUser();
+        Set<String> uniqueIds = new LinkedHashSet<>(ids);
+        logger.info("Fetching demographics of {} patients for user ID: {}", uniqueIds.size(), connectedUser.getId());
+
+        if (uniqueIds.size() > MAX_PAGE_SIZE) {
+            logger.warn("Too many patient IDs requested: {}", uniqueIds.size());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                              "Au plus " + MAX_PAGE_SIZE + " patients peuvent être demandés");
+        }
+        if (uniqueIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, PatientDemographics> patients = new HashMap<>();
+        patientRepository.findDemographicsByDoctorIdAndIdIn(connectedUser.getId(), uniqueIds)
+                         .forEach(patient -> patients.put(patient.getId(), patient));
+        if (patients.size() < uniqueIds.size()) {
+            logger.warn("{} of {} requested patients not found for user ID: {}",
+                        uniqueIds.size() - patients.size(), uniqueIds.size(), connectedUser.getId());
+        }
+
+        return uniqueIds.stream()
+                .map(patients::get)
+                .filter(Objects::nonNull)
+                .map(this::toDemographicsDTO)
+                .toList();
+    }
+
+    /**
+     * Copies the demographic facts of a patient, leaving out its doctor.
+     *
+     * @param patient the patient projection
+     * @return the PatientDemographicsDTO
+     */
+    private PatientDemographicsDTO toDemographicsDTO(PatientDemographics patient) {
+        return new PatientDemographicsDTO(patient.getId(), patient.getGender(), patient.getDateOfBirth());
+    }
+
     /**
      * Adds a new patient for the connected user.
      *
@@ -116,6 +285,9 @@ public class PatientService {
 
     /**
      * Updates an existing patient.
+     * <p>
+     * The cached risk evaluation of the patient is invalidated when its
+     * gender or date of birth changes, as both are inputs of the evaluation.
      *
      * @param id         the patient ID
      * @param patientDTO the updated patient data
@@ -131,15 +303,23 @@ public class PatientService {
         dtoValidation.checkPatientUpdateEmailIsValid(patientDTO, patient, result);
         dtoValidation.validateBindingResult(result);
 
-        User doctor = patient.getDoctor();
-        if (!connectedUser.equals(doctor)) {
+        if (!connectedUser.getId().equals(patient.getDoctorId())) {
             String errorMessage = "User is not authorized to update this patient";
             logger.warn("User ID: {} unauthorized to update patient ID: {}", connectedUser.getId(), id);
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, errorMessage);
         }
 
-        patient = dtoMapper.dtoToPatient(patient, patientDTO, doctor);
-        return savePatient(patient);
+        Gender previousGender = patient.getGender();
+        LocalDate previousDateOfBirth = patient.getDateOfBirth();
+
+        patient = dtoMapper.dtoToPatient(patient, patientDTO, patient.getDoctor());
+        PatientDTO savedPatient = savePatient(patient);
+
+        if (previousGender != patient.getGender()
+                || !Objects.equals(previousDateOfBirth, patient.getDateOfBirth())) {
+            evaluationClient.invalidateEvaluation(id);
+        }
+        return savedPatient;
     }
 
     /**
@@ -154,9 +334,8 @@ public class PatientService {
         logger.info("Deleting patient ID: {} by user ID: {}", id, connectedUser.getId());
 
         Patient patient = getPatientById(id);
-        User doctor = patient.getDoctor();
 
-        if (!connectedUser.equals(doctor)) {
+        if (!connectedUser.getId().equals(patient.getDoctorId())) {
             String errorMessage = "User is not authorized to delete this patient";
             logger.warn("User ID: {} unauthorized to delete patient ID: {}", connectedUser.getId(), id);
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, errorMessage);
@@ -165,12 +344,14 @@ public class PatientService {
         try {
             patientRepository.delete(patient);
             logger.info("Patient deleted successfully with ID: {}", id);
-            return "Le patient a été supprimé avec succès";
         } catch (Exception e) {
             String errorMessage = "Erreur interne lors de la suppréssion du patient";
             logger.error("Error deleting patient ID {}: {}", id, e.getMessage());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, errorMessage);
         }
+
+        evaluationClient.invalidateEvaluation(id);
+        return "Le patient a été supprimé avec succès";
     }
 
     /**
@@ -4,23 +4,33 @@ import com.medilabo.user_ms.domain.dto.PasswordDTO;
 import com.medilabo.user_ms.domain.dto.UserDTO;
 import com.medilabo.user_ms.domain.entity.Patient;
 import com.medilabo.user_ms.domain.entity.User;
+import com.medilabo.user_ms.domain.projection.UserView;
 import com.medilabo.user_ms.domain.enums.Role;
 import com.medilabo.user_ms.repository.PatientRepository;
 import com.medilabo.user_ms.repository.UserRepository;
+import com.medilabo.user_ms.security.PrincipalCache;
 import com.medilabo.user_ms.utils.CreatePassword;
 import com.medilabo.user_ms.utils.DTOMapper;
 import com.medilabo.user_ms.utils.DTOValidation;
+import com.medilabo.user_ms.utils.SearchNormalizer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class UserService {
@@ -43,18 +53,37 @@ public class UserService {
     @Autowired
     private CreatePassword createPassword;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /** Largest number of users returned by a single search. */
+    public static final int MAX_SEARCH_SIZE = 50;
+
+    /** Number of users updated per batch when computing the search columns. */
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
     private static final Logger logger = LogManager.getLogger(UserService.class);
 
     /**
      * Retrieves the currently authenticated user.
+     * <p>
+     * The user set in the security context by the JWT filter is returned as
+     * is; any other principal is looked up by email.
      *
      * @return the connected User entity
      * @throws ResponseStatusException if authentication fails
      */
     public User getConnectedUser() {
-        String email = SecurityContextHolder.getContext()
-                                            .getAuthentication()
-                                            .getName();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof User user) {
+            logger.info("Connected user ID: {} taken from the security context", user.getId());
+            return user;
+        }
+
+        String email = authentication.getName();
         logger.info("Fetching connected user with email: {}", email);
 
         return userRepository.findByEmail(email)
@@ -84,17 +113,56 @@ public class UserService {
     }
 
     /**
-     * Searches users by keyword.
+     * Searches users whose last name, first name or email starts with a keyword,
+     * ignoring case, accents and punctuation.
+     * <p>
+     * Last name matches come first, then first name matches, then email
+     * matches, each in the order of the matched column, so an exact last name
+     * comes first. Every column is searched by its own index range scan,
+     * limited to the users up to the requested page: a single query combining
+     * the three prefixes with an OR is not reliably served by the indexes and
+     * must sort every match to rank them.
      *
      * @param keyword the search keyword
+     * @param page    the page of results, starting at 0
+     * @param size    the maximum number of results, at most {@value #MAX_SEARCH_SIZE}
      * @return a list of UserDTOs matching the keyword
+     * @throws ResponseStatusException if the keyword has no letter or digit,
+     *                                 or if the page or the size is invalid
      */
-    public List<UserDTO> searchUsers(String keyword) {
-        logger.info("Searching users with keyword: {}", keyword);
-        List<User> users = userRepository.searchByKeyword(keyword);
+    public List<UserDTO> searchUsers(String keyword, int page, int size) {
+        logger.info("Searching users with keyword: {} (page={}, size={})", keyword, page, size);
+        if (page < 0 || size < 1 || size > MAX_SEARCH_SIZE) {
+            logger.warn("Invalid search page: page={}, size={}", page, size);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                              "La page de résultats demandée est invalide");
+        }
+
+        String prefix = SearchNormalizer.normalize(keyword);
+        if (prefix == null || prefix.isEmpty()) {
+            logger.warn("Invalid search keyword: {}", keyword);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                              "Le mot-clé doit contenir au moins une lettre ou un chiffre");
+        }
+        Limit limit = Limit.of((int) Math.min(Integer.MAX_VALUE, ((long) page + 1) * size));
+
+        // A user matching several columns keeps its best rank
+        Map<String, UserView> users = new LinkedHashMap<>();
+        userRepository.findBySearchLastNameStartingWithOrderBySearchLastNameAscIdAsc(prefix, limit)
+                      .forEach(user -> users.putIfAbsent(user.getId(), user));
+        if (users.size() < limit.max()) {
+            userRepository.findBySearchFirstNameStartingWithOrderBySearchFirstNameAscIdAsc(prefix, limit)
+                          .forEach(user -> users.putIfAbsent(user.getId(), user));
+        }
+        if (users.size() < limit.max()) {
+            userRepository.findBySearchEmailStartingWithOrderBySearchEmailAscIdAsc(prefix, limit)
+                          .forEach(user -> users.putIfAbsent(user.getId(), user));
+        }
 
-        return users.stream()
-                .map(dtoMapper::userToDTO)
+        return users.values().stream()
+                .skip((long) page * size)
+                .limit(size)
+                .map(dtoMapper::userViewToDTO)
                 .toList();
     }
 
@@ -124,6 +192,10 @@ public class UserService {
 
     /**
      * Updates an existing user.
+     * <p>
+     * The changes are made on a copy of the given user, which may be the
+     * cached principal of the connected user: it is never modified, even if
+     * the save fails.
      *
      * @param user    the user entity to update
      * @param userDTO the updated user data
@@ -137,13 +209,14 @@ public class UserService {
         dtoValidation.checkUserUpdateEmailIsValid(userDTO, user.getEmail(), result);
         dtoValidation.validateBindingResult(result);
 
-        user = dtoMapper.dtoToUser(user, userDTO);
+        User updated = dtoMapper.dtoToUser(user.toBuilder().build(), userDTO);
 
-        return saveUser(user);
+        return saveUser(updated);
     }
 
     /**
-     * Updates the password of the connected user.
+     * Updates the password of the connected user, on a copy of its cached
+     * principal.
      *
      * @param passwordDTO the password data
      * @param result      the binding result for validation
@@ -160,9 +233,9 @@ public class UserService {
         dtoValidation.validateBindingResult(result);
 
         String protectedPassword = passwordEncoder.encode(passwordDTO.getNewPassword());
-        user.setPassword(protectedPassword);
+        User updated = user.toBuilder().password(protectedPassword).build();
 
-        saveUser(user);
+        saveUser(updated);
         logger.info("Password updated successfully for user ID: {}", user.getId());
         return "Mot de passe mis à jour avec succès";
     }
@@ -210,6 +283,7 @@ public class UserService {
 
         try {
             userRepository.delete(user);
+            principalCache.invalidate(user.getId());
             logger.info("User deleted successfully with ID: {}", user.getId());
             return "Utilisateur supprimé avec succès";
         } catch (Exception e) {
@@ -221,6 +295,9 @@ public class UserService {
 
     /**
      * Saves a user entity and returns its DTO.
+     * <p>
+     * The cached principal of the user is evicted whether the save succeeds
+     * or not, so that the next request reloads the stored user.
      *
      * @param user the user entity to save
      * @return the saved UserDTO
@@ -235,6 +312,41 @@ public class UserService {
             String errorMessage = "Erreur interne lors de la sauvegarde de l'utilisateur";
             logger.error("Error saving user ID {}: {}", user.getId(), e.getMessage());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, errorMessage);
+        } finally {
+            principalCache.invalidate(user.getId());
+        }
+    }
+
+    /**
+     * Computes, once the application is started, the search columns of the
+     * users saved before they existed.
+     * <p>
+     * Users are read in ID order by batches of {@value #BACKFILL_BATCH_SIZE},
+     * each batch starting after the last ID of the previous one. Every batch
+     * is read and updated in its own transaction, so that its updates are
+     * flushed together at commit.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSearchKeys() {
+        int count = 0;
+        String lastId = "";
+        List<User> users;
+        do {
+            String after = lastId;
+            users = transactionTemplate.execute(status -> {
+                List<User> batch = userRepository.findBySearchEmailIsNullAndIdGreaterThanOrderByIdAsc(
+                        after, Limit.of(BACKFILL_BATCH_SIZE));
+                batch.forEach(User::updateSearchKeys);
+                return userRepository.saveAll(batch);
+            });
+            if (users.isEmpty()) break;
+
+            count += users.size();
+            lastId = users.get(users.size() - 1).getId();
+        } while (users.size() == BACKFILL_BATCH_SIZE);
+
+        if (count > 0) {
+            logger.info("Search keys computed for {} users", count);
         }
     }
 }
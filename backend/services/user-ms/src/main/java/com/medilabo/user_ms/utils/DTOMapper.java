@@ -4,6 +4,8 @@ import com.medilabo.user_ms.domain.dto.PatientDTO;
 import com.medilabo.user_ms.domain.dto.UserDTO;
 import com.medilabo.user_ms.domain.entity.Patient;
 import com.medilabo.user_ms.domain.entity.User;
+import com.medilabo.user_ms.domain.projection.PatientView;
+import com.medilabo.user_ms.domain.projection.UserView;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.stereotype.Service;
@@ -40,6 +42,28 @@ public class DTOMapper {
         return userDTO;
     }
 
+    /**
+     * Maps a read-only User projection to a UserDTO.
+     *
+     * @param user The User projection
+     * @return UserDTO with values copied from the projection
+     */
+    public UserDTO userViewToDTO(UserView user) {
+        logger.info("Mapping UserView to UserDTO for user ID {}", user.getId());
+
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(user.getId());
+        userDTO.setFirstName(user.getFirstName());
+        userDTO.setLastName(user.getLastName());
+        userDTO.setDateOfBirth(user.getDateOfBirth());
+        userDTO.setPhone(user.getPhone());
+        userDTO.setGender(user.getGender());
+        userDTO.setEmail(user.getEmail());
+        userDTO.setAddress(user.getAddress());
+        userDTO.setRole(user.getRole());
+        return userDTO;
+    }
+
     /**
      * Maps a UserDTO to an existing User entity.
      *
@@ -80,12 +104,34 @@ public class DTOMapper {
         patientDTO.setDateOfBirth(patient.getDateOfBirth());
         patientDTO.setAddress(patient.getAddress());
         patientDTO.setPhone(patient.getPhone());
-        patientDTO.setDoctorId(patient.getDoctor().getId());
+        patientDTO.setDoctorId(patient.getDoctorId());
 
         logger.info("PatientDTO mapping complete for patient ID {}", patient.getId());
         return patientDTO;
     }
 
+    /**
+     * Maps a read-only Patient projection to a PatientDTO.
+     *
+     * @param patient The Patient projection
+     * @return PatientDTO with values copied from the projection
+     */
+    public PatientDTO patientViewToDTO(PatientView patient) {
+        logger.info("Mapping PatientView to PatientDTO for patient ID {}", patient.getId());
+
+        PatientDTO patientDTO = new PatientDTO();
+        patientDTO.setId(patient.getId());
+        patientDTO.setFirstName(patient.getFirstName());
+        patientDTO.setLastName(patient.getLastName());
+        patientDTO.setEmail(patient.getEmail());
+        patientDTO.setGender(patient.getGender());
+        patientDTO.setDateOfBirth(patient.getDateOfBirth());
+        patientDTO.setAddress(patient.getAddress());
+        patientDTO.setPhone(patient.getPhone());
+        patientDTO.setDoctorId(patient.getDoctorId());
+        return patientDTO;
+    }
+
     /**
      * Maps a PatientDTO to an existing Patient entity and sets the doctor.
      *
@@ -0,0 +1,33 @@
+package com.medilabo.user_ms.utils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Normalizes text for keyword search: accents are folded, every character
+ * other than an ASCII letter or digit is removed and the result is lowercased.
+ * <p>
+ * Stored search keys and searched keywords go through the same normalization,
+ * so that a case- and accent-insensitive prefix search is a plain range scan
+ * of an index.
+ * <p>
+ * This class is final and cannot be instantiated.
+ */
+public final class SearchNormalizer {
+
+    private SearchNormalizer() {
+    }
+
+    /**
+     * Normalizes a text.
+     *
+     * @param text text to normalize, may be null
+     * @return normalized text, or null if text is null
+     */
+    public static String normalize(String text) {
+        if (text == null) return null;
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+                         .replaceAll("[^a-zA-Z0-9]", "")
+                         .toLowerCase(Locale.ROOT);
+    }
+}
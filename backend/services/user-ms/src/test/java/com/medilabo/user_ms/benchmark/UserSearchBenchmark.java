@@ -0,0 +1,171 @@
+package com.medilabo.user_ms.benchmark;
+
+import com.medilabo.user_ms.utils.SearchNormalizer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares, on a table of one million synthetic users, the admin search
+ * formerly run by UserRepository (case-insensitive substring match on three
+ * columns, which no index can serve) with the prefix search on the indexed
+ * normalized columns.
+ * <p>
+ * The table lives in an in-memory H2 database in MySQL mode, filled once per
+ * fork. Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.medilabo.user_ms.benchmark.UserSearchBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserSearchBenchmark {
+
+    private static final int USER_COUNT = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+
+    private static final String SUBSTRING_QUERY = """
+            SELECT id FROM users
+            WHERE LOWER(first_name) LIKE LOWER(CONCAT('%', ?, '%'))
+               OR LOWER(last_name) LIKE LOWER(CONCAT('%', ?, '%'))
+               OR LOWER(email) LIKE LOWER(CONCAT('%', ?, '%'))
+            LIMIT ?""";
+
+    private static final List<String> PREFIX_QUERIES = List.of(
+            "SELECT id FROM users WHERE search_last_name LIKE ? ORDER BY search_last_name, id LIMIT ?",
+            "SELECT id FROM users WHERE search_first_name LIKE ? ORDER BY search_first_name, id LIMIT ?",
+            "SELECT id FROM users WHERE search_email LIKE ? ORDER BY search_email, id LIMIT ?");
+
+    private Connection connection;
+    private String keyword;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:user-search;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE users (
+                        id CHAR(36) PRIMARY KEY,
+                        first_name VARCHAR(255),
+                        last_name VARCHAR(255),
+                        email VARCHAR(255) NOT NULL,
+                        search_first_name VARCHAR(255),
+                        search_last_name VARCHAR(255),
+                        search_email VARCHAR(255))""");
+        }
+
+        Random random = new Random(42);
+        List<String> lastNames = new ArrayList<>();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO users VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < USER_COUNT; i++) {
+                String firstName = randomName(random, 6);
+                String lastName = randomName(random, 8);
+                String email = firstName.toLowerCase() + "." + lastName.toLowerCase() + i + "@example.com";
+                insert.setString(1, UUID.randomUUID().toString());
+                insert.setString(2, firstName);
+                insert.setString(3, lastName);
+                insert.setString(4, email);
+                insert.setString(5, SearchNormalizer.normalize(firstName));
+                insert.setString(6, SearchNormalizer.normalize(lastName));
+                insert.setString(7, SearchNormalizer.normalize(email));
+                insert.addBatch();
+                if (i % 10_000 == 9_999) {
+                    insert.executeBatch();
+                }
+                if (i % 100_000 == 0) {
+                    lastNames.add(lastName);
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX idx_users_search_last_name ON users (search_last_name)");
+            statement.execute("CREATE INDEX idx_users_search_first_name ON users (search_first_name)");
+            statement.execute("CREATE INDEX idx_users_search_email ON users (search_email)");
+        }
+        keyword = lastNames.get(lastNames.size() / 2).substring(0, 5);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int substringScan() throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(SUBSTRING_QUERY)) {
+            query.setString(1, keyword);
+            query.setString(2, keyword);
+            query.setString(3, keyword);
+            query.setInt(4, PAGE_SIZE);
+            return count(query);
+        }
+    }
+
+    @Benchmark
+    public int indexedPrefix() throws SQLException {
+        String prefix = SearchNormalizer.normalize(keyword) + "%";
+        Set<String> ids = new LinkedHashSet<>();
+        for (String sql : PREFIX_QUERIES) {
+            if (ids.size() >= PAGE_SIZE) break;
+            try (PreparedStatement query = connection.prepareStatement(sql)) {
+                query.setString(1, prefix);
+                query.setInt(2, PAGE_SIZE);
+                collect(query, ids);
+            }
+        }
+        return ids.size();
+    }
+
+    private static int count(PreparedStatement query) throws SQLException {
+        return collect(query, new LinkedHashSet<>()).size();
+    }
+
+    private static Set<String> collect(PreparedStatement query, Set<String> ids) throws SQLException {
+        try (ResultSet resultSet = query.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getString(1));
+            }
+        }
+        return ids;
+    }
+
+    private static String randomName(Random random, int length) {
+        char[] name = new char[length];
+        name[0] = (char) ('A' + random.nextInt(26));
+        for (int i = 1; i < length; i++) {
+            name[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(name);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(UserSearchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
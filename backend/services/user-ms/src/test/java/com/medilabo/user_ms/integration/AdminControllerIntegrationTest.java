@@ -2,6 +2,7 @@ package com.medilabo.user_ms.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.medilabo.user_ms.domain.dto.UserDTO;
+import com.medilabo.user_ms.domain.entity.User;
 import com.medilabo.user_ms.domain.enums.Role;
 import com.medilabo.user_ms.domain.enums.Gender;
 import com.medilabo.user_ms.repository.UserRepository;
@@ -77,6 +78,46 @@ class AdminControllerIntegrationTest {
                .andExpect(jsonPath("$[0].email").value("john.doe@example.com"));
     }
 
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void shouldSearchUsersByPrefixBestMatchesFirst() throws Exception {
+        saveUser("Émile", "Martin", "emile@example.com");
+        saveUser("Martine", "Durand", "martine@example.com");
+        saveUser("Paul", "Martinez", "paul@example.com");
+        saveUser("Jean", "Dupont", "martin.dupont@example.com");
+        saveUser("Luc", "Leblanc", "luc.amartin@example.com");
+
+        mockMvc.perform(get("/admin/users/search")
+                                .param("keyword", "MARTIN"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.length()").value(4))
+               .andExpect(jsonPath("$[0].lastName").value("Martin"))
+               .andExpect(jsonPath("$[1].lastName").value("Martinez"))
+               .andExpect(jsonPath("$[2].firstName").value("Martine"))
+               .andExpect(jsonPath("$[3].email").value("martin.dupont@example.com"));
+
+        mockMvc.perform(get("/admin/users/search")
+                                .param("keyword", "emile")
+                                .param("page", "0")
+                                .param("size", "1"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.length()").value(1))
+               .andExpect(jsonPath("$[0].firstName").value("Émile"));
+
+        mockMvc.perform(get("/admin/users/search")
+                                .param("keyword", "martin")
+                                .param("page", "1")
+                                .param("size", "3"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.length()").value(1))
+               .andExpect(jsonPath("$[0].email").value("martin.dupont@example.com"));
+
+        mockMvc.perform(get("/admin/users/search")
+                                .param("keyword", "martin")
+                                .param("size", "500"))
+               .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
     void shouldGetUserById() throws Exception {
@@ -151,4 +192,13 @@ class AdminControllerIntegrationTest {
                .andExpect(status().isBadRequest())
                .andExpect(jsonPath("$.fieldErrors.email").exists());
     }
+
+    private void saveUser(String firstName, String lastName, String email) {
+        userRepository.save(User.builder()
+                                .firstName(firstName)
+                                .lastName(lastName)
+                                .email(email)
+                                .role(Role.USER)
+                                .build());
+    }
 }
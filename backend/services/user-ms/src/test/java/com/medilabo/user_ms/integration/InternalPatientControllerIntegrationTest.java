@@ -0,0 +1,148 @@
+package com.medilabo.user_ms.integration;
+
+import com.medilabo.user_ms.domain.entity.Patient;
+import com.medilabo.user_ms.domain.entity.User;
+import com.medilabo.user_ms.domain.enums.Gender;
+import com.medilabo.user_ms.domain.enums.Role;
+import com.medilabo.user_ms.repository.PatientRepository;
+import com.medilabo.user_ms.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.yml")
+class InternalPatientControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    private Patient alice;
+    private Patient bob;
+    private Patient otherPatient;
+
+    @BeforeEach
+    void setUp() {
+        patientRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User doctor = userRepository.save(User.builder()
+                                              .firstName("Doc")
+                                              .lastName("Test")
+                                              .email("doc@example.com")
+                                              .role(Role.USER)
+                                              .build());
+        User otherDoctor = userRepository.save(User.builder()
+                                                   .firstName("Other")
+                                                   .lastName("Doctor")
+                                                   .email("other@example.com")
+                                                   .role(Role.USER)
+                                                   .build());
+
+        alice = patientRepository.save(patient("Alice", Gender.F, LocalDate.of(1990, 1, 1), doctor));
+        bob = patientRepository.save(patient("Bob", Gender.M, LocalDate.of(1960, 6, 15), doctor));
+        otherPatient = patientRepository.save(patient("Carol", Gender.F, LocalDate.of(1975, 3, 3), otherDoctor));
+    }
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+    }
+
+    private static Patient patient(String firstName, Gender gender, LocalDate dateOfBirth, User doctor) {
+        return Patient.builder()
+                      .firstName(firstName)
+                      .lastName("Dupont")
+                      .dateOfBirth(dateOfBirth)
+                      .gender(gender)
+                      .email(firstName.toLowerCase() + "@example.com")
+                      .doctor(doctor)
+                      .build();
+    }
+
+    @Test
+    @WithMockUser(username = "doc@example.com", roles = {"USER"})
+    void shouldGetDemographicsWithETag() throws Exception {
+        String etag = mockMvc.perform(get("/internal/patients/" + alice.getId() + "/demographics"))
+                             .andExpect(status().isOk())
+                             .andExpect(header().exists(HttpHeaders.ETAG))
+                             .andExpect(jsonPath("$.id").value(alice.getId()))
+                             .andExpect(jsonPath("$.gender").value("F"))
+                             .andExpect(jsonPath("$.dateOfBirth").value("1990-01-01"))
+                             .andExpect(jsonPath("$.lastName").doesNotExist())
+                             .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/internal/patients/" + alice.getId() + "/demographics")
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+               .andExpect(status().isNotModified())
+               .andExpect(content().string(""));
+    }
+
+    @Test
+    @WithMockUser(username = "doc@example.com", roles = {"USER"})
+    void shouldReturnNewETagWhenDemographicsChange() throws Exception {
+        String etag = mockMvc.perform(get("/internal/patients/" + alice.getId() + "/demographics"))
+                             .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        alice.setDateOfBirth(LocalDate.of(1991, 1, 1));
+        patientRepository.save(alice);
+
+        mockMvc.perform(get("/internal/patients/" + alice.getId() + "/demographics")
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.dateOfBirth").value("1991-01-01"));
+    }
+
+    @Test
+    @WithMockUser(username = "doc@example.com", roles = {"USER"})
+    void shouldForbidDemographicsOfAnotherDoctorsPatient() throws Exception {
+        mockMvc.perform(get("/internal/patients/" + otherPatient.getId() + "/demographics"))
+               .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "doc@example.com", roles = {"USER"})
+    void shouldGetDemographicsInBulk() throws Exception {
+        String etag = mockMvc.perform(get("/internal/patients/demographics")
+                                              .param("ids", bob.getId(), otherPatient.getId(), alice.getId(), "unknown"))
+                             .andExpect(status().isOk())
+                             .andExpect(jsonPath("$.length()").value(2))
+                             .andExpect(jsonPath("$[0].id").value(bob.getId()))
+                             .andExpect(jsonPath("$[0].gender").value("M"))
+                             .andExpect(jsonPath("$[1].id").value(alice.getId()))
+                             .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/internal/patients/demographics")
+                                .param("ids", bob.getId() + "," + alice.getId())
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+               .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void shouldRejectAdminOnInternalEndpoint() throws Exception {
+        mockMvc.perform(get("/internal/patients/" + alice.getId() + "/demographics"))
+               .andExpect(status().isForbidden());
+    }
+}
@@ -2,11 +2,14 @@ package com.medilabo.user_ms.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.medilabo.user_ms.domain.dto.PatientDTO;
+import com.medilabo.user_ms.domain.dto.PatientPageDTO;
+import com.medilabo.user_ms.domain.entity.Patient;
 import com.medilabo.user_ms.domain.entity.User;
 import com.medilabo.user_ms.domain.enums.Gender;
 import com.medilabo.user_ms.domain.enums.Role;
 import com.medilabo.user_ms.repository.PatientRepository;
 import com.medilabo.user_ms.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,7 +22,11 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -66,6 +73,11 @@ class PatientControllerIntegrationTest {
         userRepository.save(otherDoctor);
     }
 
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+    }
+
     private PatientDTO samplePatientDTO() {
         return PatientDTO.builder()
                          .firstName("Alice")
@@ -171,10 +183,66 @@ class PatientControllerIntegrationTest {
                .andExpect(content().string("Le patient a été supprimé avec succès"));
     }
 
+    @Test
+    @WithMockUser(username = "doc@example.com", roles = {"USER"})
+    void shouldListPatientsPageByPage() throws Exception {
+        savePatient("Martin", LocalDate.of(1980, 5, 1), doctor);
+        savePatient("Dupont", LocalDate.of(1990, 1, 1), doctor);
+        savePatient("Durand", LocalDate.of(1970, 3, 2), doctor);
+        savePatient("Bernard", LocalDate.of(2000, 7, 4), doctor);
+        savePatient("Dubois", LocalDate.of(1985, 9, 9), otherDoctor);
+
+        assertEquals(List.of("Bernard", "Dupont", "Durand", "Martin"), listLastNames("lastName", null, 3));
+        assertEquals(List.of("Durand", "Martin", "Dupont", "Bernard"), listLastNames("dateOfBirth", null, 3));
+        assertEquals(List.of("Dupont", "Durand"), listLastNames("lastName", "Du", 1));
+    }
+
+    @Test
+    @WithMockUser(username = "doc@example.com", roles = {"USER"})
+    void shouldRejectInvalidPaginationParameters() throws Exception {
+        mockMvc.perform(get("/patients").param("sort", "email"))
+               .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/patients").param("cursor", "not-a-cursor"))
+               .andExpect(status().isBadRequest())
+               .andExpect(jsonPath("$.message").value("Curseur de pagination invalide"));
+        mockMvc.perform(get("/patients").param("limit", "1000"))
+               .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser(username = "doc@example.com", roles = {"USER"})
     void shouldReturnNotFoundForNonExistingPatient() throws Exception {
         mockMvc.perform(get("/patients/non-existing-id"))
                .andExpect(status().isNotFound());
     }
+
+    private void savePatient(String lastName, LocalDate dateOfBirth, User patientDoctor) {
+        patientRepository.save(Patient.builder()
+                                      .firstName("Test")
+                                      .lastName(lastName)
+                                      .dateOfBirth(dateOfBirth)
+                                      .gender(Gender.F)
+                                      .email(lastName.toLowerCase() + "@example.com")
+                                      .doctor(patientDoctor)
+                                      .build());
+    }
+
+    private List<String> listLastNames(String sort, String name, int limit) throws Exception {
+        List<String> lastNames = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/patients").param("sort", sort).param("limit", String.valueOf(limit));
+            if (name != null) request.param("name", name);
+            if (cursor != null) request.param("cursor", cursor);
+
+            String json = mockMvc.perform(request)
+                                 .andExpect(status().isOk())
+                                 .andReturn().getResponse().getContentAsString();
+            PatientPageDTO page = objectMapper.readValue(json, PatientPageDTO.class);
+            assertTrue(page.getItems().size() <= limit);
+            page.getItems().forEach(patient -> lastNames.add(patient.getLastName()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return lastNames;
+    }
 }
@@ -0,0 +1,127 @@
+package com.medilabo.user_ms.integration;
+
+import com.medilabo.user_ms.domain.entity.Patient;
+import com.medilabo.user_ms.domain.entity.User;
+import com.medilabo.user_ms.domain.enums.Gender;
+import com.medilabo.user_ms.domain.enums.Role;
+import com.medilabo.user_ms.repository.PatientRepository;
+import com.medilabo.user_ms.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the SQL statements run to serve patient reads, with Hibernate
+ * statistics, so that the doctor of each patient is never loaded on its own.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.yml")
+class PatientQueryCountIntegrationTest {
+
+    private static final int PATIENT_COUNT = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        patientRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User doctor = userRepository.save(User.builder()
+                                              .firstName("Doc")
+                                              .lastName("Test")
+                                              .email("doc@example.com")
+                                              .role(Role.USER)
+                                              .build());
+        for (int i = 0; i < PATIENT_COUNT; i++) {
+            patient = patientRepository.save(Patient.builder()
+                                                    .firstName("Patient")
+                                                    .lastName("Patient" + i)
+                                                    .dateOfBirth(LocalDate.of(1990, 1, 1))
+                                                    .gender(Gender.F)
+                                                    .email("patient" + i + "@example.com")
+                                                    .doctor(doctor)
+                                                    .build());
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    @WithMockUser(username = "doc@example.com", roles = {"USER"})
+    void listingPatients_runsOneQueryForPatients() throws Exception {
+        mockMvc.perform(get("/patients").param("limit", String.valueOf(PATIENT_COUNT)))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.items.length()").value(PATIENT_COUNT))
+               .andExpect(jsonPath("$.items[0].doctorId").isNotEmpty());
+
+        // Connected user lookup, then the page of patients, read as projections
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityFetchCount());
+        assertEquals(1, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @WithMockUser(username = "doc@example.com", roles = {"USER"})
+    void gettingPatient_doesNotLoadItsDoctor() throws Exception {
+        mockMvc.perform(get("/patients/" + patient.getId()))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.doctorId").isNotEmpty());
+
+        // Connected user lookup, then the patient
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityFetchCount());
+    }
+
+    @Test
+    @WithMockUser(username = "doc@example.com", roles = {"USER"})
+    void gettingDemographics_doesNotLoadThePatient() throws Exception {
+        mockMvc.perform(get("/internal/patients/" + patient.getId() + "/demographics"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.gender").value("F"))
+               .andExpect(jsonPath("$.dateOfBirth").value("1990-01-01"))
+               .andExpect(jsonPath("$.email").doesNotExist());
+
+        // Connected user lookup, then the patient's demographic columns
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityLoadCount());
+    }
+}
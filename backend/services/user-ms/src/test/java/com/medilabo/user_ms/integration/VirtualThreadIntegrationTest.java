@@ -0,0 +1,98 @@
+package com.medilabo.user_ms.integration;
+
+import com.medilabo.user_ms.domain.dto.UserDTO;
+import com.medilabo.user_ms.domain.entity.User;
+import com.medilabo.user_ms.domain.enums.Role;
+import com.medilabo.user_ms.repository.PatientRepository;
+import com.medilabo.user_ms.repository.UserRepository;
+import com.medilabo.user_ms.utils.JwtUtilsForTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Serves concurrent requests of two users on virtual threads, through the
+ * real Tomcat connector, to check that each request sees its own security
+ * context.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "spring.threads.virtual.enabled=true")
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.yml")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadIntegrationTest {
+
+    private static final int REQUEST_COUNT = 200;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private JwtUtilsForTest jwtUtils;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        patientRepository.deleteAll();
+        userRepository.deleteAll();
+
+        users = List.of(userRepository.save(User.builder().email("alice@example.com").role(Role.USER).build()),
+                        userRepository.save(User.builder().email("bob@example.com").role(Role.USER).build()));
+    }
+
+    @Test
+    void shouldServeConnectedUserOnVirtualThreads() {
+        assertTrue(applicationContext.containsBean("tomcatVirtualThreadsProtocolHandlerCustomizer"));
+
+        List<CompletableFuture<ResponseEntity<UserDTO>>> responses = new ArrayList<>();
+        ExecutorService clients = Executors.newFixedThreadPool(32);
+        try {
+            for (int i = 0; i < REQUEST_COUNT; i++) {
+                User user = users.get(i % users.size());
+                HttpHeaders headers = new HttpHeaders();
+                headers.setBearerAuth(jwtUtils.generateToken(user.getId(), "USER", 60000));
+                responses.add(CompletableFuture.supplyAsync(
+                        () -> restTemplate.exchange("/user/profile", HttpMethod.GET,
+                                                    new HttpEntity<>(headers), UserDTO.class),
+                        clients));
+            }
+
+            for (int i = 0; i < REQUEST_COUNT; i++) {
+                ResponseEntity<UserDTO> response = responses.get(i).join();
+                assertTrue(response.getStatusCode().is2xxSuccessful());
+                assertEquals(users.get(i % users.size()).getEmail(), response.getBody().getEmail());
+            }
+        } finally {
+            clients.shutdown();
+        }
+    }
+}
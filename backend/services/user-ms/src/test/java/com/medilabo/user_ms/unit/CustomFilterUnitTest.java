@@ -1,8 +1,11 @@
 package com.medilabo.user_ms.unit;
 
+import com.medilabo.user_ms.configuration.JwtConfig;
 import com.medilabo.user_ms.domain.entity.User;
+import com.medilabo.user_ms.domain.enums.Role;
 import com.medilabo.user_ms.repository.UserRepository;
 import com.medilabo.user_ms.security.CustomFilter;
+import com.medilabo.user_ms.security.PrincipalCache;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
@@ -18,6 +21,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
 import java.util.Optional;
 
@@ -38,14 +42,18 @@ class CustomFilterUnitTest {
     void setup() throws Exception {
         filter = new TestableCustomFilter();
 
-        Field secretKeyField = CustomFilter.class.getDeclaredField("secretKey");
-        secretKeyField.setAccessible(true);
-        secretKeyField.set(filter, SECRET_KEY);
+        Field jwtParserField = CustomFilter.class.getDeclaredField("jwtParser");
+        jwtParserField.setAccessible(true);
+        jwtParserField.set(filter, new JwtConfig().jwtParser(SECRET_KEY));
 
         Field userRepoField = CustomFilter.class.getDeclaredField("userRepository");
         userRepoField.setAccessible(true);
         userRepoField.set(filter, userRepository);
 
+        Field principalCacheField = CustomFilter.class.getDeclaredField("principalCache");
+        principalCacheField.setAccessible(true);
+        principalCacheField.set(filter, new PrincipalCache(100, Duration.ofMinutes(1)));
+
         SecurityContextHolder.clearContext();
     }
 
@@ -87,6 +95,30 @@ class CustomFilterUnitTest {
         verify(chain, times(1)).doFilter(request, response);
     }
 
+    @Test
+    void whenSameUserAuthenticatedTwice_thenLoadedOnce() throws Exception {
+        String token = generateToken("u1", 3600000);
+
+        User user = new User();
+        user.setId("u1");
+        user.setRole(Role.USER);
+        when(userRepository.findById("u1")).thenReturn(Optional.of(user));
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        FilterChain chain = mock(FilterChain.class);
+
+        when(request.getRequestURI()).thenReturn("/test");
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+
+        filter.doFilterInternalPublic(request, response, chain);
+        SecurityContextHolder.clearContext();
+        filter.doFilterInternalPublic(request, response, chain);
+
+        assertEquals(user, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(userRepository, times(1)).findById("u1");
+    }
+
     @Test
     void whenTokenValidButUserNotFound_thenNoAuthentication() throws Exception {
         String token = generateToken("unknown", 3600000);
@@ -0,0 +1,97 @@
+package com.medilabo.user_ms.unit;
+
+import com.medilabo.user_ms.client.EvaluationClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EvaluationClientUnitTest {
+
+    private static final String URL = "http://evaluation/internal/cache/p1";
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @InjectMocks
+    private EvaluationClient evaluationClient;
+
+    private final List<Runnable> submitted = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(evaluationClient, "taskExecutor", (Executor) submitted::add);
+        ReflectionTestUtils.setField(evaluationClient, "baseUrl", "http://evaluation");
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void invalidateEvaluation_runsOnExecutorWithCallerAuthorization() {
+        evaluationClient.invalidateEvaluation("p1");
+
+        verifyNoInteractions(restTemplate);
+        RequestContextHolder.resetRequestAttributes();
+        submitted.forEach(Runnable::run);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<HttpEntity<?>> request = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate).exchange(eq(URL), eq(HttpMethod.DELETE), request.capture(), eq(Void.class));
+        assertEquals("Bearer token", request.getValue().getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Test
+    void invalidateEvaluation_inTransaction_waitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        evaluationClient.invalidateEvaluation("p1");
+
+        assertTrue(submitted.isEmpty());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, submitted.size());
+    }
+
+    @Test
+    void invalidateEvaluation_failure_isOnlyLogged() {
+        when(restTemplate.exchange(eq(URL), eq(HttpMethod.DELETE), any(HttpEntity.class), eq(Void.class)))
+                .thenThrow(new ResourceAccessException("Read timed out"));
+
+        assertDoesNotThrow(() -> evaluationClient.invalidateEvaluation("p1"));
+        assertDoesNotThrow(() -> submitted.forEach(Runnable::run));
+    }
+}
@@ -1,8 +1,15 @@
 package com.medilabo.user_ms.unit;
 
+import com.medilabo.user_ms.client.EvaluationClient;
 import com.medilabo.user_ms.domain.dto.PatientDTO;
+import com.medilabo.user_ms.domain.dto.PatientDemographicsDTO;
+import com.medilabo.user_ms.domain.dto.PatientPageDTO;
 import com.medilabo.user_ms.domain.entity.Patient;
 import com.medilabo.user_ms.domain.entity.User;
+import com.medilabo.user_ms.domain.enums.Gender;
+import com.medilabo.user_ms.domain.enums.PatientSort;
+import com.medilabo.user_ms.domain.projection.PatientDemographics;
+import com.medilabo.user_ms.domain.projection.PatientView;
 import com.medilabo.user_ms.repository.PatientRepository;
 import com.medilabo.user_ms.service.PatientService;
 import com.medilabo.user_ms.service.UserService;
@@ -14,12 +21,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,6 +44,8 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class PatientServiceUnitTest {
 
+    private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
     @Mock
     private PatientRepository patientRepository;
 
@@ -39,11 +58,15 @@ class PatientServiceUnitTest {
     @Mock
     private DTOMapper dtoMapper;
 
+    @Mock
+    private EvaluationClient evaluationClient;
+
     @InjectMocks
     private PatientService patientService;
 
     private User doctor;
     private Patient patient;
+    private PatientView patientView;
     private PatientDTO patientDTO;
     private BindingResult bindingResult;
 
@@ -55,6 +78,7 @@ class PatientServiceUnitTest {
         patient = new Patient();
         patient.setId("p1");
         patient.setDoctor(doctor);
+        patientView = PROJECTIONS.createProjection(PatientView.class, patient);
 
         patientDTO = new PatientDTO();
         patientDTO.setDoctorId(doctor.getId());
@@ -81,14 +105,118 @@ class PatientServiceUnitTest {
     }
 
     @Test
-    void getPatients_returnsList() {
+    void getPatients_returnsPage() {
         when(userService.getConnectedUser()).thenReturn(doctor);
-        when(patientRepository.findAllByDoctorId(doctor.getId())).thenReturn(List.of(patient));
-        when(dtoMapper.patientToDTO(patient)).thenReturn(patientDTO);
+        when(patientRepository.findByDoctorIdAndLastNameStartingWith(
+                doctor.getId(), "", ScrollPosition.keyset(), Sort.by("lastName", "id"), Limit.of(20)))
+                .thenReturn(Window.from(List.of(patientView), ScrollPosition::offset));
+        when(dtoMapper.patientViewToDTO(patientView)).thenReturn(patientDTO);
+
+        PatientPageDTO page = patientService.getPatients(PatientSort.LAST_NAME, null, null, 20);
+        assertEquals(List.of(patientDTO), page.getItems());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getPatients_nextCursor_resumesAfterLastPatient() {
+        patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        when(userService.getConnectedUser()).thenReturn(doctor);
+        when(patientRepository.findByDoctorIdAndLastNameStartingWith(
+                eq(doctor.getId()), eq("Du"), eq(ScrollPosition.keyset()), any(), any()))
+                .thenReturn(Window.from(List.of(patientView),
+                                        index -> ScrollPosition.forward(Map.of("dateOfBirth", patient.getDateOfBirth(),
+                                                                               "id", patient.getId())),
+                                        true));
+
+        PatientPageDTO page = patientService.getPatients(PatientSort.DATE_OF_BIRTH, " Du ", null, 1);
+        assertNotNull(page.getNextCursor());
+
+        when(patientRepository.findByDoctorIdAndLastNameStartingWith(
+                eq(doctor.getId()), eq(""),
+                eq(ScrollPosition.forward(Map.of("dateOfBirth", LocalDate.of(1990, 1, 1), "id", "p1"))),
+                eq(Sort.by("dateOfBirth", "id")), eq(Limit.of(1))))
+                .thenReturn(Window.from(List.of(), ScrollPosition::offset));
+
+        PatientPageDTO next = patientService.getPatients(PatientSort.DATE_OF_BIRTH, null, page.getNextCursor(), 1);
+        assertTrue(next.getItems().isEmpty());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void getPatients_cursorOfAnotherSort_throwsBadRequest() {
+        when(userService.getConnectedUser()).thenReturn(doctor);
+        when(patientRepository.findByDoctorIdAndLastNameStartingWith(any(), any(), any(), any(), any()))
+                .thenReturn(Window.from(List.of(patientView),
+                                        index -> ScrollPosition.forward(Map.of("lastName", "Dupont", "id", "p1")),
+                                        true));
+        String cursor = patientService.getPatients(PatientSort.LAST_NAME, null, null, 1).getNextCursor();
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                                                  () -> patientService.getPatients(PatientSort.DATE_OF_BIRTH, null, cursor, 1));
+        assertEquals(400, ex.getStatusCode().value());
+    }
+
+    @Test
+    void getPatients_invalidLimit_throwsBadRequest() {
+        when(userService.getConnectedUser()).thenReturn(doctor);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                                                  () -> patientService.getPatients(PatientSort.LAST_NAME, null, null, 0));
+        assertEquals(400, ex.getStatusCode().value());
+        verifyNoInteractions(patientRepository);
+    }
+
+    @Test
+    void getPatientDemographics_authorized() {
+        patient.setGender(Gender.F);
+        patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        when(userService.getConnectedUser()).thenReturn(doctor);
+        when(patientRepository.findDemographicsById("p1"))
+                .thenReturn(Optional.of(PROJECTIONS.createProjection(PatientDemographics.class, patient)));
+
+        PatientDemographicsDTO result = patientService.getPatientDemographics("p1");
+        assertEquals("p1", result.getId());
+        assertEquals(Gender.F, result.getGender());
+        assertEquals(LocalDate.of(1990, 1, 1), result.getDateOfBirth());
+        verify(patientRepository, never()).findById(any());
+    }
 
-        List<PatientDTO> list = patientService.getPatients();
-        assertEquals(1, list.size());
-        assertEquals(patientDTO, list.get(0));
+    @Test
+    void getPatientDemographics_unauthorized_throwsForbidden() {
+        User otherDoctor = new User();
+        otherDoctor.setId("d2");
+        when(userService.getConnectedUser()).thenReturn(otherDoctor);
+        when(patientRepository.findDemographicsById("p1"))
+                .thenReturn(Optional.of(PROJECTIONS.createProjection(PatientDemographics.class, patient)));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                                                  () -> patientService.getPatientDemographics("p1"));
+        assertEquals(403, ex.getStatusCode().value());
+    }
+
+    @Test
+    void getPatientsDemographics_returnsFoundPatientsInRequestOrder() {
+        Patient other = new Patient();
+        other.setId("p2");
+        other.setDoctor(doctor);
+        when(userService.getConnectedUser()).thenReturn(doctor);
+        when(patientRepository.findDemographicsByDoctorIdAndIdIn(eq("d1"), eq(new LinkedHashSet<>(List.of("p2", "p1", "p3")))))
+                .thenReturn(List.of(PROJECTIONS.createProjection(PatientDemographics.class, patient),
+                                    PROJECTIONS.createProjection(PatientDemographics.class, other)));
+
+        List<PatientDemographicsDTO> result = patientService.getPatientsDemographics(List.of("p2", "p1", "p3", "p2"));
+        assertEquals(List.of("p2", "p1"), result.stream().map(PatientDemographicsDTO::getId).toList());
+    }
+
+    @Test
+    void getPatientsDemographics_tooManyIds_throwsBadRequest() {
+        when(userService.getConnectedUser()).thenReturn(doctor);
+        List<String> ids = IntStream.rangeClosed(0, PatientService.MAX_PAGE_SIZE).mapToObj(String::valueOf).toList();
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                                                  () -> patientService.getPatientsDemographics(ids));
+        assertEquals(400, ex.getStatusCode().value());
+        verifyNoInteractions(patientRepository);
     }
 
     @Test
@@ -157,6 +285,24 @@ class PatientServiceUnitTest {
         PatientDTO result = patientService.updatePatient("p1", patientDTO, bindingResult);
         assertEquals(patientDTO, result);
         verify(patientRepository).save(patient);
+        verifyNoInteractions(evaluationClient);
+    }
+
+    @Test
+    void updatePatient_dateOfBirthChanged_invalidatesEvaluation() {
+        patient.setGender(Gender.F);
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+
+        when(userService.getConnectedUser()).thenReturn(doctor);
+        when(patientRepository.findById("p1")).thenReturn(Optional.of(patient));
+        when(dtoMapper.dtoToPatient(patient, patientDTO, doctor)).thenAnswer(invocation -> {
+            patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+            return patient;
+        });
+        when(dtoMapper.patientToDTO(patient)).thenReturn(patientDTO);
+
+        patientService.updatePatient("p1", patientDTO, bindingResult);
+        verify(evaluationClient).invalidateEvaluation("p1");
     }
 
     @Test
@@ -168,6 +314,7 @@ class PatientServiceUnitTest {
         String result = patientService.deletePatient("p1");
         assertEquals("Le patient a été supprimé avec succès", result);
         verify(patientRepository).delete(patient);
+        verify(evaluationClient).invalidateEvaluation("p1");
     }
 
     @Test
@@ -5,8 +5,10 @@ import com.medilabo.user_ms.domain.dto.UserDTO;
 import com.medilabo.user_ms.domain.entity.Patient;
 import com.medilabo.user_ms.domain.entity.User;
 import com.medilabo.user_ms.domain.enums.Role;
+import com.medilabo.user_ms.domain.projection.UserView;
 import com.medilabo.user_ms.repository.PatientRepository;
 import com.medilabo.user_ms.repository.UserRepository;
+import com.medilabo.user_ms.security.PrincipalCache;
 import com.medilabo.user_ms.service.UserService;
 import com.medilabo.user_ms.utils.CreatePassword;
 import com.medilabo.user_ms.utils.DTOMapper;
@@ -14,17 +16,26 @@ import com.medilabo.user_ms.utils.DTOValidation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -52,6 +63,12 @@ class UserServiceUnitTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private UserService userService;
 
@@ -88,6 +105,17 @@ class UserServiceUnitTest {
         assertEquals(user, result);
     }
 
+    @Test
+    void getConnectedUser_userPrincipal_notQueried() {
+        SecurityContextHolder.setContext(new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities())));
+
+        User result = userService.getConnectedUser();
+        assertSame(user, result);
+        verifyNoInteractions(userRepository);
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     void getConnectedUser_notFound_throwsException() {
         Authentication authentication = mock(Authentication.class);
@@ -112,6 +140,76 @@ class UserServiceUnitTest {
         assertEquals(user, result);
     }
 
+    @Test
+    void searchUsers_mergesColumnsWithoutDuplicates() {
+        ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+        UserView userView = projections.createProjection(UserView.class, user);
+        UserView firstNameMatch = projections.createProjection(UserView.class, User.builder().id("u2").build());
+        UserView userViewAgain = projections.createProjection(UserView.class, user);
+        UserDTO userDTO = new UserDTO();
+        UserDTO firstNameDTO = new UserDTO();
+        when(userRepository.findBySearchLastNameStartingWithOrderBySearchLastNameAscIdAsc("dupont", Limit.of(2)))
+                .thenReturn(List.of(userView));
+        when(userRepository.findBySearchFirstNameStartingWithOrderBySearchFirstNameAscIdAsc("dupont", Limit.of(2)))
+                .thenReturn(List.of(userViewAgain, firstNameMatch));
+        when(dtoMapper.userViewToDTO(userView)).thenReturn(userDTO);
+        when(dtoMapper.userViewToDTO(firstNameMatch)).thenReturn(firstNameDTO);
+
+        List<UserDTO> result = userService.searchUsers("Dupont", 0, 2);
+
+        assertEquals(List.of(userDTO, firstNameDTO), result);
+        verify(userRepository, never()).findBySearchEmailStartingWithOrderBySearchEmailAscIdAsc(any(), any());
+        verify(dtoMapper, never()).userViewToDTO(userViewAgain);
+    }
+
+    @Test
+    void searchUsers_invalidSize_throwsException() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                                                  () -> userService.searchUsers("Dupont", 0, 500));
+        assertEquals(400, ex.getStatusCode().value());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void searchUsers_keywordWithoutLetterOrDigit_throwsException() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                                                  () -> userService.searchUsers("@", 0, 20));
+        assertEquals(400, ex.getStatusCode().value());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void searchUsers_deepPage_isSearched() {
+        when(userRepository.findBySearchLastNameStartingWithOrderBySearchLastNameAscIdAsc("dupont", Limit.of(2020)))
+                .thenReturn(List.of());
+
+        assertEquals(List.of(), userService.searchUsers("Dupont", 100, 20));
+        verify(userRepository).findBySearchEmailStartingWithOrderBySearchEmailAscIdAsc("dupont", Limit.of(2020));
+    }
+
+    @Test
+    void backfillSearchKeys_updatesUsersByBatches() {
+        List<User> firstBatch = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            firstBatch.add(User.builder().id(String.format("id-%03d", i)).email("user" + i + "@example.com").build());
+        }
+        List<User> lastBatch = List.of(user);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(userRepository.findBySearchEmailIsNullAndIdGreaterThanOrderByIdAsc("", Limit.of(500)))
+                .thenReturn(firstBatch);
+        when(userRepository.findBySearchEmailIsNullAndIdGreaterThanOrderByIdAsc("id-499", Limit.of(500)))
+                .thenReturn(lastBatch);
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService.backfillSearchKeys();
+
+        verify(userRepository).saveAll(firstBatch);
+        verify(userRepository).saveAll(lastBatch);
+        verify(userRepository, times(2)).findBySearchEmailIsNullAndIdGreaterThanOrderByIdAsc(any(), any());
+        assertEquals("userexamplecom", user.getSearchEmail());
+    }
+
     @Test
     void getUser_notFound_throwsException() {
         when(userRepository.findById("u1")).thenReturn(Optional.empty());
@@ -163,8 +261,45 @@ class UserServiceUnitTest {
         String result = userService.updateUserPassword(passwordDTO, bindingResult);
 
         assertEquals("Mot de passe mis à jour avec succès", result);
-        assertEquals("encodedNewPass", user.getPassword());
-        verify(userRepository).save(user);
+        ArgumentCaptor<User> saved = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).save(saved.capture());
+        assertEquals("encodedNewPass", saved.getValue().getPassword());
+        verify(principalCache).invalidate(user.getId());
+    }
+
+    @Test
+    void updateUser_updatesACopyOfTheGivenUser() {
+        User copy = new User();
+        copy.setId(user.getId());
+        when(dtoMapper.dtoToUser(argThat(u -> u != user), eq(userDTO))).thenReturn(copy);
+        when(dtoMapper.userToDTO(copy)).thenReturn(userDTO);
+
+        assertEquals(userDTO, userService.updateUser(user, userDTO, bindingResult));
+
+        verify(userRepository).save(same(copy));
+        verify(principalCache).invalidate(user.getId());
+    }
+
+    @Test
+    void updateUserPassword_saveFails_principalIsUnchangedAndEvicted() {
+        user.setPassword("encodedOldPass");
+        SecurityContextHolder.setContext(new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities())));
+
+        PasswordDTO passwordDTO = new PasswordDTO();
+        passwordDTO.setNewPassword("newPass");
+        passwordDTO.setConfirmPassword("newPass");
+
+        when(passwordEncoder.encode("newPass")).thenReturn("encodedNewPass");
+        when(userRepository.save(any(User.class))).thenThrow(new RuntimeException("DB down"));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                                                  () -> userService.updateUserPassword(passwordDTO, bindingResult));
+
+        assertEquals(500, ex.getStatusCode().value());
+        assertEquals("encodedOldPass", user.getPassword());
+        verify(principalCache).invalidate(user.getId());
+        SecurityContextHolder.clearContext();
     }
 
     @Test
@@ -188,6 +323,7 @@ class UserServiceUnitTest {
         String result = userService.deleteUser(user);
         assertEquals("Utilisateur supprimé avec succès", result);
         verify(userRepository).delete(user);
+        verify(principalCache).invalidate(user.getId());
     }
 
     @Test
@@ -1,5 +1,5 @@
-import { useState } from "react";
-import { useSelector } from "react-redux";
+import { useEffect, useState } from "react";
+import { useDispatch, useSelector } from "react-redux";
 import { useLocation, useNavigate } from "react-router-dom";
 import Container from "../../components/layouts/Container";
 import Title from "../../components/Title";
@@ -9,15 +9,30 @@ import Loading from "../../components/Loading";
 import AlertMessage from "../../components/AlertMessage";
 import TextInput from "../../components/forms/inputs/TextInput";
 import { patientUrl, patientCreateUrl } from "../../router/urls";
+import { fetchPatientsThunk } from "../../store/services/patientsService";
 
 const PatientList = () => {
   const navigate = useNavigate();
   const location = useLocation();
+  const dispatch = useDispatch();
 
   const patients = useSelector((state) => state.patients);
   const successMessage = location.state?.success;
 
-  const [search, setSearch] = useState("");
+  const [search, setSearch] = useState(patients.name);
+
+  // The list is loaded one page at a time, so the search is sent to the
+  // server, which filters on the last name prefix, and restarts from the
+  // first page. It waits for the user to stop typing before each request.
+  useEffect(() => {
+    const name = search.trim();
+    if (name === patients.name) return;
+    const timeout = setTimeout(
+      () => dispatch(fetchPatientsThunk({ name })),
+      300
+    );
+    return () => clearTimeout(timeout);
+  }, [search, patients.name, dispatch]);
 
   if (patients.loading)
     return <Loading message="Chargement de la liste des patients" />;
@@ -26,11 +41,26 @@ const PatientList = () => {
     { label: "Ajouter un patient", onClick: () => navigate(patientCreateUrl) },
   ];
 
-  const filteredPatients = patients.list.filter((p) =>
-    `${p.firstName} ${p.lastName} ${p.email}`
-      .toLowerCase()
-      .includes(search.toLowerCase())
-  );
+  const bottomActions =
+    patients.nextCursor && search.trim() === patients.name
+      ? [
+          {
+            label: patients.loadingMore
+              ? "Chargement..."
+              : "Afficher plus de patients",
+            onClick: () => {
+              if (!patients.loadingMore) {
+                dispatch(
+                  fetchPatientsThunk({
+                    cursor: patients.nextCursor,
+                    name: patients.name,
+                  })
+                );
+              }
+            },
+          },
+        ]
+      : [];
 
   return (
     <Container>
@@ -43,22 +73,24 @@ const PatientList = () => {
       <div>
         <TextInput
           name="search"
-          placeholder="Rechercher un patient"
+          placeholder="Rechercher un patient par nom"
           value={search}
           onChange={(e) => setSearch(e.target.value)}
         />
       </div>
 
-      {filteredPatients.length === 0 ? (
+      {patients.list.length === 0 ? (
         <AlertMessage message="Aucun patient trouvé" type="error" />
       ) : (
         <List
-          items={filteredPatients}
+          items={patients.list}
           label={(p) => `${p.firstName} ${p.lastName} - ${p.email}`}
           actionLabel={() => "Voir"}
           actionOnClick={(p) => navigate(patientUrl(p.id))}
         />
       )}
+
+      <Actions actions={bottomActions} />
     </Container>
   );
 };
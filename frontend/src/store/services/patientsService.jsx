@@ -10,9 +10,11 @@ import {
 
 export const fetchPatientsThunk = createAsyncThunk(
   "patients/fetchAll",
-  async (_, { rejectWithValue }) => {
+  async ({ cursor = null, name = "" } = {}, { rejectWithValue }) => {
     try {
-      const res = await api.get(getPatientsEndpoint);
+      const res = await api.get(getPatientsEndpoint, {
+        params: { limit: 100, ...(name && { name }), ...(cursor && { cursor }) },
+      });
       return res.data;
     } catch (err) {
       return rejectWithValue(err.response?.data);
@@ -24,8 +24,12 @@ const currentInitialState = {
 
 const initialState = {
   list: [],
+  name: "",
+  nextCursor: null,
+  requestId: null,
   current: currentInitialState,
   loading: false,
+  loadingMore: false,
   loaded: false,
   error: null,
 };
@@ -44,18 +48,33 @@ const patientsSlice = createSlice({
   },
   extraReducers: (builder) => {
     builder
-      // Fetch all
-      .addCase(fetchPatientsThunk.pending, (state) => {
-        state.loading = true;
+      // Fetch a page, the first one when no cursor is given.
+      // Only the latest request is kept, so that a slow answer for a
+      // previous search never replaces the current one.
+      .addCase(fetchPatientsThunk.pending, (state, action) => {
+        if (action.meta.arg?.cursor) {
+          state.loadingMore = true;
+        } else if (!state.loaded) {
+          state.loading = true;
+        }
+        state.requestId = action.meta.requestId;
         state.error = null;
       })
       .addCase(fetchPatientsThunk.fulfilled, (state, action) => {
+        if (action.meta.requestId !== state.requestId) return;
         state.loading = false;
+        state.loadingMore = false;
         state.loaded = true;
-        state.list = action.payload;
+        state.list = action.meta.arg?.cursor
+          ? [...state.list, ...action.payload.items]
+          : action.payload.items;
+        state.name = action.meta.arg?.name ?? "";
+        state.nextCursor = action.payload.nextCursor;
       })
       .addCase(fetchPatientsThunk.rejected, (state, action) => {
+        if (action.meta.requestId !== state.requestId) return;
         state.loading = false;
+        state.loadingMore = false;
         state.error = action.error.message;
       })
 
@@ -1,5 +1,7 @@
 db = db.getSiblingDB("medilabo");
 
+db.notes.createIndex({ patientId: 1, dateTime: -1, _id: -1 }, { name: "patientId_dateTime_id" });
+
 db.notes.insertMany([
   {
     patientId: "d20f4060-1462-4c41-ab90-416649a3002f",
@@ -13,7 +13,13 @@ CREATE TABLE IF NOT EXISTS users (
     gender ENUM('F','M'),
     date_of_birth DATE,
     phone VARCHAR(20),
-    address VARCHAR(255)
+    address VARCHAR(255),
+    search_first_name VARCHAR(255),
+    search_last_name VARCHAR(255),
+    search_email VARCHAR(255),
+    INDEX idx_users_search_last_name (search_last_name),
+    INDEX idx_users_search_first_name (search_first_name),
+    INDEX idx_users_search_email (search_email)
 );
 
 -- Table patients
@@ -27,7 +33,9 @@ CREATE TABLE IF NOT EXISTS patients (
     address VARCHAR(255),
     phone VARCHAR(20),
     doctor_id CHAR(36) NOT NULL,
-    FOREIGN KEY (doctor_id) REFERENCES users(id)
+    FOREIGN KEY (doctor_id) REFERENCES users(id),
+    INDEX idx_patients_doctor_last_name (doctor_id, last_name, id),
+    INDEX idx_patients_doctor_date_of_birth (doctor_id, date_of_birth, id)
 );
 
 -- Données dans users